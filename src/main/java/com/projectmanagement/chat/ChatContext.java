@@ -0,0 +1,155 @@
+package com.projectmanagement.chat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tarefas e projetos mencionados recentemente numa sessão de chat, usados para resolver
+ * referências como "essa tarefa". Requisições da mesma sessão podem chegar em paralelo,
+ * então toda leitura e escrita é sincronizada e os getters devolvem cópias.
+ */
+public class ChatContext {
+
+    private static final int MAX_RECENT_TASKS = 10;
+    private static final int MAX_RECENT_PROJECTS = 5;
+    private static final int MAX_TURNS = 20;
+
+    private final List<Map<String, Object>> recentTasks = new ArrayList<>();
+    private final List<Map<String, Object>> recentProjects = new ArrayList<>();
+    private final Map<String, Object> lastMentionedTask = new HashMap<>();
+    private final Map<String, Object> lastMentionedProject = new HashMap<>();
+    // Turnos anteriores (pergunta do usuário + resposta final), do mais antigo para o mais recente
+    private final List<Map<String, Object>> turns = new ArrayList<>();
+
+    // Alterado desde a última persistência
+    private boolean dirty;
+
+    public synchronized void addTask(Map<String, Object> task) {
+        recentTasks.add(0, task); // Adiciona no início
+        if (recentTasks.size() > MAX_RECENT_TASKS) { // Mantém apenas as 10 mais recentes
+            recentTasks.remove(recentTasks.size() - 1);
+        }
+        lastMentionedTask.clear();
+        lastMentionedTask.putAll(task);
+        dirty = true;
+    }
+
+    public synchronized void addProject(Map<String, Object> project) {
+        recentProjects.add(0, project); // Adiciona no início
+        if (recentProjects.size() > MAX_RECENT_PROJECTS) { // Mantém apenas os 5 mais recentes
+            recentProjects.remove(recentProjects.size() - 1);
+        }
+        lastMentionedProject.clear();
+        lastMentionedProject.putAll(project);
+        dirty = true;
+    }
+
+    public synchronized void addTurn(String userMessage, String assistantMessage) {
+        Map<String, Object> turn = new HashMap<>();
+        turn.put("user", userMessage);
+        turn.put("assistant", assistantMessage);
+        turns.add(turn);
+        if (turns.size() > MAX_TURNS) {
+            turns.remove(0);
+        }
+        dirty = true;
+    }
+
+    public synchronized String getContextSummary() {
+        StringBuilder context = new StringBuilder();
+
+        if (!lastMentionedTask.isEmpty()) {
+            context.append("ÚLTIMA TAREFA MENCIONADA: ")
+                   .append("ID ").append(lastMentionedTask.get("id"))
+                   .append(" - ").append(lastMentionedTask.get("title"))
+                   .append(" (Status: ").append(lastMentionedTask.get("status")).append(")\n");
+        }
+
+        if (!lastMentionedProject.isEmpty()) {
+            context.append("ÚLTIMO PROJETO MENCIONADO: ")
+                   .append("ID ").append(lastMentionedProject.get("id"))
+                   .append(" - ").append(lastMentionedProject.get("name")).append("\n");
+        }
+
+        if (!recentTasks.isEmpty()) {
+            context.append("TAREFAS RECENTES NO CONTEXTO:\n");
+            for (int i = 0; i < Math.min(5, recentTasks.size()); i++) {
+                Map<String, Object> task = recentTasks.get(i);
+                context.append("- ID ").append(task.get("id"))
+                       .append(": ").append(task.get("title"))
+                       .append(" (").append(task.get("status")).append(")\n");
+            }
+        }
+
+        return context.toString();
+    }
+
+    public synchronized Map<String, Object> getLastMentionedTask() {
+        return new HashMap<>(lastMentionedTask);
+    }
+
+    public synchronized Map<String, Object> getLastMentionedProject() {
+        return new HashMap<>(lastMentionedProject);
+    }
+
+    public synchronized List<Map<String, Object>> getRecentTasks() {
+        return new ArrayList<>(recentTasks);
+    }
+
+    public synchronized List<Map<String, Object>> getRecentProjects() {
+        return new ArrayList<>(recentProjects);
+    }
+
+    public synchronized List<Map<String, Object>> getTurns() {
+        return new ArrayList<>(turns);
+    }
+
+    /**
+     * Cópia do estado para persistência; zera a marca de alteração
+     */
+    synchronized Map<String, Object> snapshot() {
+        Map<String, Object> state = new HashMap<>();
+        state.put("recentTasks", new ArrayList<>(recentTasks));
+        state.put("recentProjects", new ArrayList<>(recentProjects));
+        state.put("lastMentionedTask", new HashMap<>(lastMentionedTask));
+        state.put("lastMentionedProject", new HashMap<>(lastMentionedProject));
+        state.put("turns", new ArrayList<>(turns));
+        dirty = false;
+        return state;
+    }
+
+    synchronized boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Recria o contexto a partir de um snapshot persistido
+     */
+    @SuppressWarnings("unchecked")
+    static ChatContext restore(Map<String, Object> state) {
+        ChatContext context = new ChatContext();
+        Object tasks = state.get("recentTasks");
+        if (tasks instanceof List) {
+            context.recentTasks.addAll((List<Map<String, Object>>) tasks);
+        }
+        Object projects = state.get("recentProjects");
+        if (projects instanceof List) {
+            context.recentProjects.addAll((List<Map<String, Object>>) projects);
+        }
+        Object turns = state.get("turns");
+        if (turns instanceof List) {
+            context.turns.addAll((List<Map<String, Object>>) turns);
+        }
+        Object task = state.get("lastMentionedTask");
+        if (task instanceof Map) {
+            context.lastMentionedTask.putAll((Map<String, Object>) task);
+        }
+        Object project = state.get("lastMentionedProject");
+        if (project instanceof Map) {
+            context.lastMentionedProject.putAll((Map<String, Object>) project);
+        }
+        return context;
+    }
+}
@@ -0,0 +1,136 @@
+package com.projectmanagement.chat;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.projectmanagement.model.ChatSessionState;
+import com.projectmanagement.repository.ChatSessionStateRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Contextos de chat por sessão em um cache Caffeine com limite de tamanho (W-TinyLFU) e
+ * expiração por inatividade (timer wheel): nada de varredura completa a cada requisição e
+ * memória limitada entre requisições.
+ *
+ * Com chat.context.persistence.enabled o contexto alterado é gravado no banco ao fim de cada
+ * turno e recarregado quando a sessão não está na memória (reinício ou outra instância).
+ * Métricas: chat.session_contexts.* (tamanho, acertos, despejos) via CaffeineCacheMetrics.
+ */
+@Component
+public class ChatContextStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatContextStore.class);
+
+    private static final TypeReference<Map<String, Object>> STATE_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    private final Cache<String, ChatContext> contexts;
+    private final ChatSessionStateRepository stateRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean persistenceEnabled;
+    private final Duration idleTtl;
+
+    @Autowired
+    public ChatContextStore(@Value("${chat.context.max-sessions:10000}") long maxSessions,
+                            @Value("${chat.context.idle-ttl:30m}") Duration idleTtl,
+                            @Value("${chat.context.persistence.enabled:false}") boolean persistenceEnabled,
+                            ChatSessionStateRepository stateRepository,
+                            ObjectMapper objectMapper,
+                            MeterRegistry meterRegistry) {
+        this(maxSessions, idleTtl, persistenceEnabled, stateRepository, objectMapper, meterRegistry, ForkJoinPool.commonPool());
+    }
+
+    ChatContextStore(long maxSessions, Duration idleTtl, boolean persistenceEnabled,
+                     ChatSessionStateRepository stateRepository, ObjectMapper objectMapper,
+                     MeterRegistry meterRegistry, Executor maintenanceExecutor) {
+        this.stateRepository = stateRepository;
+        this.objectMapper = objectMapper;
+        this.persistenceEnabled = persistenceEnabled;
+        this.idleTtl = idleTtl;
+        this.contexts = Caffeine.newBuilder()
+            .maximumSize(maxSessions)
+            .expireAfterAccess(idleTtl)
+            .recordStats()
+            .executor(maintenanceExecutor)
+            .removalListener((String sessionId, ChatContext context, RemovalCause cause) -> {
+                if (cause.wasEvicted()) {
+                    logger.debug("Contexto de chat da sessão {} descartado ({})", sessionId, cause);
+                }
+            })
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, contexts, "chat.session_contexts");
+    }
+
+    /**
+     * Contexto da sessão; carregado do banco (se persistido) ou criado vazio
+     */
+    public ChatContext get(String sessionId) {
+        return contexts.get(sessionId, this::load);
+    }
+
+    /**
+     * Grava o contexto no banco se foi alterado desde a última gravação
+     */
+    public void save(String sessionId, ChatContext context) {
+        if (!persistenceEnabled || !context.isDirty()) {
+            return;
+        }
+        try {
+            String payload = objectMapper.writeValueAsString(context.snapshot());
+            stateRepository.save(new ChatSessionState(sessionId, payload));
+        } catch (Exception e) {
+            // Falha de persistência não pode derrubar o chat: o contexto em memória continua válido
+            logger.warn("Falha ao persistir contexto de chat da sessão {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    public long size() {
+        contexts.cleanUp();
+        return contexts.estimatedSize();
+    }
+
+    /**
+     * Remove do banco contextos sem atividade há mais que o TTL de inatividade
+     */
+    @Scheduled(fixedDelayString = "${chat.context.purge-interval-ms:600000}",
+               initialDelayString = "${chat.context.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        if (!persistenceEnabled) {
+            return;
+        }
+        int removed = stateRepository.deleteUpdatedBefore(LocalDateTime.now().minus(idleTtl));
+        if (removed > 0) {
+            logger.info("Contextos de chat expirados removidos do banco: {}", removed);
+        }
+    }
+
+    private ChatContext load(String sessionId) {
+        if (!persistenceEnabled) {
+            return new ChatContext();
+        }
+        try {
+            ChatSessionState state = stateRepository.findById(sessionId).orElse(null);
+            if (state == null || state.getUpdatedAt().isBefore(LocalDateTime.now().minus(idleTtl))) {
+                return new ChatContext();
+            }
+            return ChatContext.restore(objectMapper.readValue(state.getPayload(), STATE_TYPE));
+        } catch (Exception e) {
+            logger.warn("Falha ao carregar contexto de chat da sessão {}: {}", sessionId, e.getMessage());
+            return new ChatContext();
+        }
+    }
+}
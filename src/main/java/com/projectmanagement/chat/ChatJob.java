@@ -0,0 +1,162 @@
+package com.projectmanagement.chat;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Um turno de chat executado fora da thread HTTP: estado, progresso e resultado.
+ *
+ * O progresso é uma sequência de eventos ({@code stage} + detalhes) entregue a quem estiver
+ * inscrito (SSE) e guardada para quem consulta depois; {@link #completion()} completa com o
+ * corpo da resposta do chat.
+ */
+public class ChatJob {
+
+    public enum Status { QUEUED, RUNNING, DONE, FAILED }
+
+    private static final int MAX_EVENTS = 50;
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long userId;
+    private final String provider;
+    private final long submittedAt = System.currentTimeMillis();
+    private final List<Map<String, Object>> events = new ArrayList<>();
+    private final List<Consumer<Map<String, Object>>> listeners = new CopyOnWriteArrayList<>();
+    // Serializa entrega e inscrição: cada inscrito recebe os eventos uma vez e em ordem.
+    // Separado do monitor do job para que view()/getStatus() não esperem um envio SSE lento.
+    private final Object delivery = new Object();
+    private final CompletableFuture<Map<String, Object>> completion = new CompletableFuture<>();
+
+    private Status status = Status.QUEUED;
+    private long startedAt;
+    private long finishedAt;
+    private Map<String, Object> result;
+    private String error;
+
+    ChatJob(Long userId, String provider) {
+        this.userId = userId;
+        this.provider = provider;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public synchronized Status getStatus() {
+        return status;
+    }
+
+    public CompletableFuture<Map<String, Object>> completion() {
+        return completion;
+    }
+
+    /**
+     * Registra um passo do turno (ex.: "model_call", "tool") e avisa os inscritos
+     */
+    public void progress(String stage, Map<String, Object> detail) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("stage", stage);
+        event.put("timestamp", System.currentTimeMillis());
+        if (detail != null) {
+            event.putAll(detail);
+        }
+        synchronized (delivery) {
+            synchronized (this) {
+                events.add(event);
+                if (events.size() > MAX_EVENTS) {
+                    events.remove(0);
+                }
+            }
+            listeners.forEach(listener -> listener.accept(event));
+        }
+    }
+
+    /**
+     * Inscreve {@code listener} nos próximos eventos; os já ocorridos são entregues antes
+     */
+    public void subscribe(Consumer<Map<String, Object>> listener) {
+        synchronized (delivery) {
+            List<Map<String, Object>> past;
+            synchronized (this) {
+                past = new ArrayList<>(events);
+            }
+            past.forEach(listener);
+            listeners.add(listener);
+        }
+    }
+
+    public void unsubscribe(Consumer<Map<String, Object>> listener) {
+        listeners.remove(listener);
+    }
+
+    void start() {
+        synchronized (this) {
+            status = Status.RUNNING;
+            startedAt = System.currentTimeMillis();
+        }
+        progress("started", null);
+    }
+
+    void complete(Map<String, Object> body) {
+        synchronized (this) {
+            status = Status.DONE;
+            result = body;
+            finishedAt = System.currentTimeMillis();
+        }
+        progress("done", null);
+        completion.complete(body);
+    }
+
+    void fail(Throwable cause) {
+        synchronized (this) {
+            status = Status.FAILED;
+            error = String.valueOf(cause.getMessage());
+            finishedAt = System.currentTimeMillis();
+        }
+        progress("failed", Map.of("error", error));
+        completion.completeExceptionally(cause);
+    }
+
+    /**
+     * Estado público do job (consulta por polling e corpo do 202)
+     */
+    public synchronized Map<String, Object> view() {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("jobId", id);
+        view.put("status", status.name());
+        view.put("provider", provider);
+        long now = System.currentTimeMillis();
+        view.put("waitMs", (startedAt > 0 ? startedAt : now) - submittedAt);
+        if (startedAt > 0) {
+            view.put("runMs", (finishedAt > 0 ? finishedAt : now) - startedAt);
+        }
+        if (!events.isEmpty()) {
+            view.put("progress", events.get(events.size() - 1));
+        }
+        if (result != null) {
+            view.put("result", result);
+        }
+        if (error != null) {
+            view.put("error", error);
+        }
+        return view;
+    }
+
+    public synchronized boolean isFinished() {
+        return status == Status.DONE || status == Status.FAILED;
+    }
+
+    long getSubmittedAt() {
+        return submittedAt;
+    }
+}
@@ -0,0 +1,275 @@
+package com.projectmanagement.chat;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Executa turnos de chat como jobs fora das threads do Tomcat, com fila no servidor.
+ *
+ * - uma fila por provedor de modelo (anthropic, openrouter), com no máximo
+ *   chat.jobs.&lt;provedor&gt;.max-concurrent turnos em execução e max-queued aguardando
+ * - dentro do provedor, a fila é justa entre usuários: round-robin pelas filas de cada
+ *   usuário (um usuário com muitas mensagens não passa na frente dos outros), limitada a
+ *   chat.jobs.max-queued-per-user
+ * - jobs na fila ou em execução nunca expiram; terminados ficam consultáveis por
+ *   chat.jobs.retention desde o fim (ou o último acesso)
+ *
+ * Fila cheia gera ChatQueueFullException (o controller responde 429).
+ * Métricas: chat.jobs.queued / chat.jobs.running {provider}, chat.jobs.wait {provider}
+ * (tempo na fila), chat.jobs.duration {provider, outcome} e chat.jobs.rejected {provider, reason}.
+ */
+@Component
+public class ChatJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatJobService.class);
+
+    private static final String PREFIX = "chat.jobs.";
+
+    // Filas criadas na inicialização para que as métricas existam antes do primeiro job
+    private static final String[] KNOWN_PROVIDERS = {"anthropic", "openrouter"};
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final TaskDecorator taskDecorator;
+    private final ExecutorService executor;
+    private final int maxQueuedPerUser;
+    private final Cache<String, ChatJob> jobs;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ChatJobService(Environment environment, MeterRegistry meterRegistry, TaskDecorator taskDecorator) {
+        this(environment, meterRegistry, taskDecorator, Ticker.systemTicker());
+    }
+
+    ChatJobService(Environment environment, MeterRegistry meterRegistry, TaskDecorator taskDecorator, Ticker ticker) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        this.taskDecorator = taskDecorator;
+        this.maxQueuedPerUser = environment.getProperty(PREFIX + "max-queued-per-user", Integer.class, 5);
+        Duration retention = environment.getProperty(PREFIX + "retention", Duration.class, Duration.ofMinutes(10));
+        this.jobs = Caffeine.newBuilder()
+            .expireAfter(new RetainFinished(retention.toNanos()))
+            .ticker(ticker)
+            .build();
+
+        // Sem fila própria: a concorrência já é limitada pelas filas por provedor
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "chat-job-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (String provider : KNOWN_PROVIDERS) {
+            lane(provider);
+        }
+    }
+
+    /**
+     * Enfileira um turno; {@code work} roda em thread do executor e devolve o corpo da resposta
+     */
+    public ChatJob submit(Long userId, String provider, Function<ChatJob, Map<String, Object>> work) {
+        Lane lane = lane(provider);
+        ChatJob job = new ChatJob(userId, provider);
+        // Registrado e com "queued" emitido antes de entrar na fila: um worker livre pode
+        // começar o job logo após o enqueue, e "started" não pode chegar antes de "queued"
+        jobs.put(job.getId(), job);
+        job.progress("queued", null);
+        // Decorado aqui, na thread da requisição: o dispatch costuma rodar no worker de outro job,
+        // com o MDC e o contexto de trace daquele job ainda ativos
+        Runnable task = taskDecorator.decorate(() -> run(lane, job, work));
+        String rejection = lane.enqueue(new Queued(job, task));
+        if (rejection != null) {
+            jobs.invalidate(job.getId());
+            meterRegistry.counter("chat.jobs.rejected", "provider", provider, "reason", rejection).increment();
+            throw new ChatQueueFullException(provider, rejection);
+        }
+        dispatch(lane);
+        return job;
+    }
+
+    /**
+     * Job do usuário; null se não existe, expirou ou pertence a outro usuário
+     */
+    public ChatJob find(String jobId, Long userId) {
+        ChatJob job = jobs.getIfPresent(jobId);
+        return job != null && job.getUserId().equals(userId) ? job : null;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void dispatch(Lane lane) {
+        Queued next;
+        while ((next = lane.next()) != null) {
+            executor.execute(next.task);
+        }
+    }
+
+    private void run(Lane lane, ChatJob job, Function<ChatJob, Map<String, Object>> work) {
+        long start = System.nanoTime();
+        lane.waitTimer.record(System.currentTimeMillis() - job.getSubmittedAt(), TimeUnit.MILLISECONDS);
+        String outcome = "success";
+        try {
+            job.start();
+            job.complete(work.apply(job));
+        } catch (Exception e) {
+            outcome = "error";
+            logger.error("Erro no job de chat {}", job.getId(), e);
+            job.fail(e);
+        } finally {
+            Timer.builder("chat.jobs.duration")
+                .tag("provider", lane.provider)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            // Regrava o job para que o prazo de retenção comece a contar agora
+            jobs.put(job.getId(), job);
+            lane.release();
+            dispatch(lane);
+        }
+    }
+
+    private Lane lane(String provider) {
+        return lanes.computeIfAbsent(provider, name -> {
+            Lane lane = new Lane(name,
+                environment.getProperty(PREFIX + name + ".max-concurrent", Integer.class, 4),
+                environment.getProperty(PREFIX + name + ".max-queued", Integer.class, 100));
+            Gauge.builder("chat.jobs.queued", lane, Lane::queued)
+                .tag("provider", name)
+                .register(meterRegistry);
+            Gauge.builder("chat.jobs.running", lane, Lane::running)
+                .tag("provider", name)
+                .register(meterRegistry);
+            return lane;
+        });
+    }
+
+    /**
+     * Retenção só para jobs terminados; os demais ficam no cache até terminar
+     */
+    private static final class RetainFinished implements Expiry<String, ChatJob> {
+        private final long retentionNanos;
+
+        RetainFinished(long retentionNanos) {
+            this.retentionNanos = retentionNanos;
+        }
+
+        @Override
+        public long expireAfterCreate(String id, ChatJob job, long currentTime) {
+            return job.isFinished() ? retentionNanos : Long.MAX_VALUE;
+        }
+
+        @Override
+        public long expireAfterUpdate(String id, ChatJob job, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, job, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String id, ChatJob job, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, job, currentTime);
+        }
+    }
+
+    private static final class Queued {
+        final ChatJob job;
+        final Runnable task;
+
+        Queued(ChatJob job, Runnable task) {
+            this.job = job;
+            this.task = task;
+        }
+    }
+
+    /**
+     * Fila de um provedor: filas por usuário atendidas em round-robin
+     */
+    private final class Lane {
+        final String provider;
+        final int maxConcurrent;
+        final int maxQueued;
+        final Timer waitTimer;
+        // Ordem de atendimento: o usuário atendido vai para o fim
+        private final LinkedHashMap<Long, Deque<Queued>> byUser = new LinkedHashMap<>();
+        private int queued;
+        private int running;
+
+        Lane(String provider, int maxConcurrent, int maxQueued) {
+            this.provider = provider;
+            this.maxConcurrent = maxConcurrent;
+            this.maxQueued = maxQueued;
+            this.waitTimer = Timer.builder("chat.jobs.wait")
+                .tag("provider", provider)
+                .register(meterRegistry);
+        }
+
+        /**
+         * Motivo da recusa, ou null se enfileirado
+         */
+        synchronized String enqueue(Queued item) {
+            if (queued >= maxQueued) {
+                return "queue_full";
+            }
+            Deque<Queued> userQueue = byUser.computeIfAbsent(item.job.getUserId(), id -> new ArrayDeque<>());
+            if (userQueue.size() >= maxQueuedPerUser) {
+                return "user_queue_full";
+            }
+            userQueue.addLast(item);
+            queued++;
+            return null;
+        }
+
+        synchronized Queued next() {
+            if (running >= maxConcurrent || byUser.isEmpty()) {
+                return null;
+            }
+            Iterator<Map.Entry<Long, Deque<Queued>>> iterator = byUser.entrySet().iterator();
+            Map.Entry<Long, Deque<Queued>> first = iterator.next();
+            iterator.remove();
+            Queued item = first.getValue().pollFirst();
+            if (!first.getValue().isEmpty()) {
+                byUser.put(first.getKey(), first.getValue());
+            }
+            queued--;
+            running++;
+            return item;
+        }
+
+        synchronized void release() {
+            running--;
+        }
+
+        synchronized int queued() {
+            return queued;
+        }
+
+        synchronized int running() {
+            return running;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.projectmanagement.chat;
+
+/**
+ * Turno de chat recusado: fila do provedor (ou do usuário) cheia
+ */
+public class ChatQueueFullException extends RuntimeException {
+
+    private final String provider;
+
+    public ChatQueueFullException(String provider, String reason) {
+        super("Fila de chat de " + provider + " cheia (" + reason + ")");
+        this.provider = provider;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
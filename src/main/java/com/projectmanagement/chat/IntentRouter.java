@@ -0,0 +1,279 @@
+package com.projectmanagement.chat;
+
+import com.projectmanagement.dto.ProjectSummary;
+import com.projectmanagement.model.TaskStatus;
+import com.projectmanagement.security.UserPrincipal;
+import com.projectmanagement.service.MCPClient;
+import com.projectmanagement.service.ProjectService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Roteador determinístico de intenções na frente do loop com o modelo: comandos simples
+ * ("listar projetos", "mover tarefa 42 para concluído", "tarefas do projeto X") são
+ * reconhecidos por regras, executados direto nas ferramentas MCP e respondidos com um modelo
+ * de texto, sem ida ao LLM nem busca no Zep.
+ *
+ * Só responde quando a mensagem inteira casa com uma regra e os parâmetros são resolvidos sem
+ * ambiguidade (status conhecido, projeto único); qualquer dúvida devolve null e o turno segue
+ * para o modelo.
+ *
+ * Métricas: chat.intent_router.requests{outcome=hit|miss}, chat.intent_router.duration e
+ * chat.intent_router.latency_saved (média móvel do turno com modelo menos o caminho rápido, em ms).
+ */
+@Component
+public class IntentRouter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IntentRouter.class);
+
+    private static final int FLAGS = Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE;
+    private static final String LIST_VERB = "(?:list(?:e|ar|a)?|mostr(?:e|ar|a)|exib(?:a|ir)|ver|show(?: me)?)";
+
+    private static final Pattern LIST_PROJECTS = Pattern.compile(
+        "^(?:" + LIST_VERB + "\\s+(?:(?:todos\\s+)?os\\s+|all\\s+)?(?:meus\\s+|my\\s+)?|quais\\s+(?:s[aã]o\\s+)?(?:os\\s+)?(?:meus\\s+)?)(?:projetos|projects)$", FLAGS);
+    private static final Pattern LIST_MY_TASKS = Pattern.compile(
+        "^" + LIST_VERB + "\\s+(?:(?:todas\\s+)?as\\s+|all\\s+)?(?:minhas\\s+|my\\s+)?(?:tarefas|tasks)$", FLAGS);
+    private static final Pattern LIST_PROJECT_TASKS = Pattern.compile(
+        "^" + LIST_VERB + "\\s+(?:as\\s+|the\\s+)?(?:tarefas|tasks)\\s+(?:do|no|em|in|of|for)\\s+(?:projeto|project)\\s+(.+)$", FLAGS);
+    private static final Pattern MOVE_TASK = Pattern.compile(
+        "^(?:mov(?:a|er|e)|pass(?:e|ar))\\s+(?:a\\s+)?(?:tarefa|task)\\s+#?(\\d{1,18})\\s+(?:para|pra|to)\\s+(?:o\\s+|a\\s+)?(.+)$", FLAGS);
+    private static final Pattern RENAME_TASK = Pattern.compile(
+        "^(?:renome(?:ie|ar|ia)|rename)\\s+(?:a\\s+)?(?:tarefa|task)\\s+#?(\\d{1,18})\\s+(?:para|to)\\s+[\"“']?(.+?)[\"”']?$", FLAGS);
+
+    private static final Map<String, String> STATUS_ALIASES = new HashMap<>();
+
+    static {
+        STATUS_ALIASES.put("backlog", TaskStatus.BACKLOG.name());
+        for (String alias : new String[]{"a fazer", "todo", "to do", "pronto para desenvolver", "ready", "ready to develop", "ready_to_develop"}) {
+            STATUS_ALIASES.put(alias, TaskStatus.READY_TO_DEVELOP.name());
+        }
+        for (String alias : new String[]{"em andamento", "andamento", "em progresso", "fazendo", "in progress", "in_progress", "doing"}) {
+            STATUS_ALIASES.put(alias, TaskStatus.IN_PROGRESS.name());
+        }
+        for (String alias : new String[]{"revisao", "em revisao", "review", "in review", "in_review"}) {
+            STATUS_ALIASES.put(alias, TaskStatus.IN_REVIEW.name());
+        }
+        for (String alias : new String[]{"concluido", "concluida", "feito", "feita", "finalizado", "finalizada", "done"}) {
+            STATUS_ALIASES.put(alias, TaskStatus.DONE.name());
+        }
+    }
+
+    private static final int MAX_LISTED_ITEMS = 30;
+    private static final double EWMA_ALPHA = 0.2;
+
+    @Autowired
+    private MCPClient mcpClient;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${chat.intent-router.enabled:true}")
+    private boolean enabled;
+
+    // Média móvel (ms) dos turnos que passaram pelo modelo; base para a latência economizada
+    private double modelTurnEwmaMs = -1;
+
+    /**
+     * Resposta produzida sem o modelo
+     */
+    public static final class Routed {
+        private final String tool;
+        private final Map<String, Object> result;
+        private final String reply;
+
+        Routed(String tool, Map<String, Object> result, String reply) {
+            this.tool = tool;
+            this.result = result;
+            this.reply = reply;
+        }
+
+        public String getTool() { return tool; }
+        public Map<String, Object> getResult() { return result; }
+        public String getReply() { return reply; }
+    }
+
+    /**
+     * Tenta responder a mensagem pelo caminho rápido; null quando deve ir para o modelo
+     */
+    public Routed route(String message, UserPrincipal user) {
+        if (!enabled || message == null || user == null) {
+            return null;
+        }
+        long start = System.nanoTime();
+        Routed routed = match(message.trim().replaceAll("[\\s?!.]+$", "").replaceAll("\\s+", " "), user);
+        long elapsed = System.nanoTime() - start;
+
+        meterRegistry.counter("chat.intent_router.requests", "outcome", routed != null ? "hit" : "miss").increment();
+        if (routed != null) {
+            Timer.builder("chat.intent_router.duration")
+                .tag("tool", routed.getTool())
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+            double baseline = modelTurnBaselineMs();
+            if (baseline > 0) {
+                DistributionSummary.builder("chat.intent_router.latency_saved")
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry)
+                    .record(Math.max(0, baseline - elapsed / 1_000_000.0));
+            }
+            logger.debug("Intenção {} respondida sem o modelo em {} ms", routed.getTool(), elapsed / 1_000_000);
+        }
+        return routed;
+    }
+
+    /**
+     * Registra a duração de um turno atendido pelo modelo
+     */
+    public synchronized void recordModelTurn(long nanos) {
+        double ms = nanos / 1_000_000.0;
+        modelTurnEwmaMs = modelTurnEwmaMs < 0 ? ms : EWMA_ALPHA * ms + (1 - EWMA_ALPHA) * modelTurnEwmaMs;
+    }
+
+    private synchronized double modelTurnBaselineMs() {
+        return modelTurnEwmaMs;
+    }
+
+    private Routed match(String text, UserPrincipal user) {
+        Matcher m;
+        if (LIST_PROJECTS.matcher(text).matches()) {
+            return listProjects(user);
+        }
+        if (LIST_MY_TASKS.matcher(text).matches()) {
+            return listTasks(null, null, user);
+        }
+        if ((m = LIST_PROJECT_TASKS.matcher(text)).matches()) {
+            ProjectSummary project = resolveProject(m.group(1), user);
+            return project != null ? listTasks(project.getId(), project.getName(), user) : null;
+        }
+        if ((m = MOVE_TASK.matcher(text)).matches()) {
+            String status = STATUS_ALIASES.get(normalize(m.group(2)));
+            return status != null ? changeTask("move_task", Long.valueOf(m.group(1)), null, status, user) : null;
+        }
+        if ((m = RENAME_TASK.matcher(text)).matches()) {
+            String title = m.group(2).trim();
+            return title.isEmpty() ? null : changeTask("update_task", Long.valueOf(m.group(1)), title, null, user);
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Routed listProjects(UserPrincipal user) {
+        Map<String, Object> result = mcpClient.executeTool("list_projects", Map.of(), user);
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            return failure("list_projects", result);
+        }
+        List<Map<String, Object>> projects = (List<Map<String, Object>>) result.get("projects");
+        if (projects.isEmpty()) {
+            return new Routed("list_projects", result, "Você ainda não tem projetos.");
+        }
+        StringBuilder reply = new StringBuilder("Você tem ").append(projects.size())
+            .append(projects.size() == 1 ? " projeto:\n" : " projetos:\n");
+        appendItems(reply, projects, item -> "#" + item.get("id") + " " + item.get("name") + " (" + item.get("status") + ")");
+        return new Routed("list_projects", result, reply.toString());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Routed listTasks(Long projectId, String projectName, UserPrincipal user) {
+        Map<String, Object> args = projectId != null ? Map.of("projectId", projectId) : Map.of();
+        Map<String, Object> result = mcpClient.executeTool("list_tasks", args, user);
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            return failure("list_tasks", result);
+        }
+        List<Map<String, Object>> tasks = (List<Map<String, Object>>) result.get("tasks");
+        String scope = projectName != null ? " no projeto " + projectName : "";
+        if (tasks.isEmpty()) {
+            return new Routed("list_tasks", result, "Nenhuma tarefa encontrada" + scope + ".");
+        }
+        StringBuilder reply = new StringBuilder().append(tasks.size())
+            .append(tasks.size() == 1 ? " tarefa" : " tarefas").append(scope).append(":\n");
+        appendItems(reply, tasks, item -> "#" + item.get("id") + " " + item.get("title") + " [" + item.get("status") + "]");
+        return new Routed("list_tasks", result, reply.toString());
+    }
+
+    private Routed changeTask(String tool, Long taskId, String title, String status, UserPrincipal user) {
+        Map<String, Object> args = new HashMap<>();
+        args.put("taskId", taskId);
+        if (title != null) {
+            args.put("title", title);
+        }
+        if (status != null) {
+            args.put("status", status);
+        }
+        Map<String, Object> result = mcpClient.executeTool(tool, args, user);
+        if (!Boolean.TRUE.equals(result.get("success"))) {
+            return failure(tool, result);
+        }
+
+        // Id/título/status no resultado para o contexto da conversa lembrar da tarefa
+        Map<String, Object> enriched = new HashMap<>(result);
+        enriched.put("taskId", taskId);
+        if (title != null) {
+            enriched.put("title", title);
+        }
+        if (status != null) {
+            enriched.put("status", status);
+        }
+        return new Routed(tool, enriched, "✅ " + result.get("message"));
+    }
+
+    private Routed failure(String tool, Map<String, Object> result) {
+        return new Routed(tool, result, "❌ " + result.get("error"));
+    }
+
+    /**
+     * Projeto por "#id" ou nome (exato, ou contido em um único projeto); null se ambíguo
+     */
+    private ProjectSummary resolveProject(String reference, UserPrincipal user) {
+        String ref = reference.trim().replaceAll("^[\"“']|[\"”']$", "");
+        List<ProjectSummary> projects = projectService.getProjectSummariesByUser(user.getId());
+        if (ref.matches("#?\\d+")) {
+            Long id = Long.valueOf(ref.replace("#", ""));
+            return projects.stream().filter(p -> id.equals(p.getId())).findFirst().orElse(null);
+        }
+        String wanted = normalize(ref);
+        List<ProjectSummary> partial = new ArrayList<>();
+        for (ProjectSummary project : projects) {
+            String name = normalize(project.getName());
+            if (name.equals(wanted)) {
+                return project;
+            }
+            if (name.contains(wanted)) {
+                partial.add(project);
+            }
+        }
+        return partial.size() == 1 ? partial.get(0) : null;
+    }
+
+    private static void appendItems(StringBuilder reply, List<Map<String, Object>> items,
+                                    Function<Map<String, Object>, String> line) {
+        for (int i = 0; i < Math.min(MAX_LISTED_ITEMS, items.size()); i++) {
+            reply.append("- ").append(line.apply(items.get(i))).append("\n");
+        }
+        if (items.size() > MAX_LISTED_ITEMS) {
+            reply.append("... e mais ").append(items.size() - MAX_LISTED_ITEMS).append("\n");
+        }
+    }
+
+    static String normalize(String text) {
+        return Normalizer.normalize(text, Normalizer.Form.NFD)
+            .replaceAll("\\p{M}", "")
+            .toLowerCase(Locale.ROOT)
+            .trim();
+    }
+}
@@ -0,0 +1,274 @@
+package com.projectmanagement.chat;
+
+import com.projectmanagement.prompt.ContextBudget;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Escolhe o modelo de cada iteração do loop de chat: rápido/barato (FAST) ou forte (STRONG).
+ *
+ * A iteração é classificada em:
+ * - TOOL_SELECTION: primeira chamada de um pedido que envolve tarefas/projetos/GitHub
+ * - ANSWER: primeira chamada de uma conversa livre
+ * - SUMMARIZATION: chamadas depois de ferramentas executadas
+ *
+ * Vai para STRONG o que é complexo: mensagem longa ou com várias ações encadeadas, conversa
+ * livre que não seja trivial, resultados de ferramenta com erro ou grandes demais. Depois de uma
+ * iteração STRONG o restante do turno continua STRONG. Sem chat.tiering.enabled tudo é STRONG.
+ *
+ * Tiers configurados em chat.tiering.&lt;fast|strong&gt;.{provider, model, input-price, output-price}
+ * (preço em US$ por milhão de tokens, só para estimativa). Métricas: chat.model.tier.latency
+ * {tier, stage}, chat.model.tier.tokens {tier, kind} e chat.model.tier.cost {tier}; resumo em {@link #dashboard()}.
+ */
+@Component
+public class ModelTiering {
+
+    public enum Tier { FAST, STRONG }
+
+    public enum Stage { TOOL_SELECTION, SUMMARIZATION, ANSWER }
+
+    private static final String PREFIX = "chat.tiering.";
+
+    private static final Pattern TOOL_HINTS = Pattern.compile(
+        "(?iu)\\b(tarefas?|projetos?|kanban|backlog|status|issues?|pull requests?|prs?|commits?|reposit[oó]rios?|github|" +
+        "tasks?|projects?|repos?|listar|liste|lista|mostr\\w*|cri\\w*|mov\\w*|atualiz\\w*|renome\\w*|conclu\\w*|" +
+        "list|show|create|move|update|rename)\\b");
+    private static final Pattern ACTION_VERBS = Pattern.compile(
+        "(?iu)\\b(cri\\w*|mov\\w*|atualiz\\w*|renome\\w*|list\\w*|abr\\w*|fech\\w*|exclu\\w*|apag\\w*|" +
+        "create|move|update|rename|open|close|delete)\\b");
+    private static final Pattern CHAINING = Pattern.compile("(?iu)(\\be depois\\b|\\bent[aã]o\\b|\\band then\\b|\\bthen\\b|;|\\n)");
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int complexMessageChars;
+    private final int trivialMessageChars;
+    private final int largeToolResultTokens;
+    private final Map<Tier, TierConfig> tiers = new EnumMap<>(Tier.class);
+    private final Map<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ModelTiering(Environment environment, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = environment.getProperty(PREFIX + "enabled", Boolean.class, true);
+        this.complexMessageChars = environment.getProperty(PREFIX + "complex-message-chars", Integer.class, 280);
+        this.trivialMessageChars = environment.getProperty(PREFIX + "trivial-message-chars", Integer.class, 40);
+        this.largeToolResultTokens = environment.getProperty(PREFIX + "large-tool-result-tokens", Integer.class, 3000);
+        tiers.put(Tier.FAST, new TierConfig(environment, "fast", "claude-3-5-haiku-20241022", 0.8, 4.0));
+        tiers.put(Tier.STRONG, new TierConfig(environment, "strong", "claude-sonnet-4-20250514", 3.0, 15.0));
+    }
+
+    /**
+     * Modelo da iteração {@code iteration} (0 = primeira chamada do turno); {@code previous} é a decisão anterior no turno
+     */
+    public Decision decide(int iteration, String userMessage, List<Map<String, Object>> messages, Decision previous) {
+        if (iteration == 0 || previous == null) {
+            boolean toolRequest = TOOL_HINTS.matcher(userMessage).find();
+            Stage stage = toolRequest ? Stage.TOOL_SELECTION : Stage.ANSWER;
+            if (!enabled) {
+                return decision(stage, Tier.STRONG, "disabled");
+            }
+            if (isComplex(userMessage)) {
+                return decision(stage, Tier.STRONG, "complex_request");
+            }
+            if (!toolRequest && userMessage.length() > trivialMessageChars) {
+                return decision(stage, Tier.STRONG, "free_form");
+            }
+            return decision(stage, Tier.FAST, toolRequest ? "simple_lookup" : "trivial");
+        }
+
+        if (!enabled) {
+            return decision(Stage.SUMMARIZATION, Tier.STRONG, "disabled");
+        }
+        if (previous.getTier() == Tier.STRONG) {
+            return decision(Stage.SUMMARIZATION, Tier.STRONG, "sticky");
+        }
+        int resultTokens = 0;
+        for (int i = messages.size() - 1; i >= 0 && "tool".equals(messages.get(i).get("role")); i--) {
+            String content = String.valueOf(messages.get(i).get("content"));
+            if (content.contains("\"success\":false")) {
+                return decision(Stage.SUMMARIZATION, Tier.STRONG, "tool_error");
+            }
+            resultTokens += ContextBudget.estimateTokens(content);
+        }
+        if (resultTokens > largeToolResultTokens) {
+            return decision(Stage.SUMMARIZATION, Tier.STRONG, "large_results");
+        }
+        return decision(Stage.SUMMARIZATION, Tier.FAST, "summary");
+    }
+
+    /**
+     * Mesma etapa no tier forte (ex.: o modelo rápido falhou)
+     */
+    public Decision escalate(Decision decision) {
+        return decision(decision.getStage(), Tier.STRONG, "fallback");
+    }
+
+    /**
+     * Provedor do tier forte: define a fila do turno (ChatJobService)
+     */
+    public String primaryProvider() {
+        return tiers.get(Tier.STRONG).provider;
+    }
+
+    /**
+     * Registra latência, tokens e custo estimado de uma chamada
+     */
+    public void record(Decision decision, long nanos, Map<?, ?> usage) {
+        String tier = decision.getTier().name().toLowerCase(Locale.ROOT);
+        String stage = decision.getStage().name().toLowerCase(Locale.ROOT);
+        latencyTimers.computeIfAbsent(tier + "/" + stage, key -> Timer.builder("chat.model.tier.latency")
+                .tag("tier", tier)
+                .tag("stage", stage)
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry))
+            .record(nanos, TimeUnit.NANOSECONDS);
+        if (usage == null) {
+            return;
+        }
+        long input = tokens(usage, "input_tokens") + tokens(usage, "prompt_tokens");
+        long output = tokens(usage, "output_tokens") + tokens(usage, "completion_tokens");
+        long cacheRead = tokens(usage, "cache_read_input_tokens");
+        long cacheWrite = tokens(usage, "cache_creation_input_tokens");
+        tokenCounter(tier, "input").increment(input + cacheRead + cacheWrite);
+        tokenCounter(tier, "output").increment(output);
+
+        // Leitura de cache custa ~10% da entrada e gravação ~125%
+        TierConfig config = tiers.get(decision.getTier());
+        double cost = (input + cacheRead * 0.1 + cacheWrite * 1.25) * config.inputPrice / 1_000_000
+            + output * config.outputPrice / 1_000_000;
+        meterRegistry.counter("chat.model.tier.cost", "tier", tier).increment(cost);
+    }
+
+    /**
+     * Por tier: modelo, chamadas, latência (média, p50, p95) por etapa, tokens e custo estimado
+     */
+    public List<Map<String, Object>> dashboard() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tier tier : Tier.values()) {
+            String name = tier.name().toLowerCase(Locale.ROOT);
+            TierConfig config = tiers.get(tier);
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("tier", name);
+            row.put("provider", config.provider);
+            row.put("model", config.model);
+
+            List<Map<String, Object>> stages = new ArrayList<>();
+            long calls = 0;
+            for (Stage stage : Stage.values()) {
+                Timer timer = latencyTimers.get(name + "/" + stage.name().toLowerCase(Locale.ROOT));
+                if (timer == null) {
+                    continue;
+                }
+                HistogramSnapshot snapshot = timer.takeSnapshot();
+                Map<String, Object> stageRow = new LinkedHashMap<>();
+                stageRow.put("stage", stage.name().toLowerCase(Locale.ROOT));
+                stageRow.put("calls", snapshot.count());
+                stageRow.put("meanMs", Math.round(snapshot.mean(TimeUnit.MILLISECONDS)));
+                for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                    stageRow.put("p" + Math.round(percentile.percentile() * 100) + "Ms",
+                        Math.round(percentile.value(TimeUnit.MILLISECONDS)));
+                }
+                stages.add(stageRow);
+                calls += snapshot.count();
+            }
+            row.put("calls", calls);
+            row.put("stages", stages);
+            row.put("inputTokens", (long) tokenCounter(name, "input").count());
+            row.put("outputTokens", (long) tokenCounter(name, "output").count());
+            row.put("estimatedCostUsd", meterRegistry.counter("chat.model.tier.cost", "tier", name).count());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private boolean isComplex(String message) {
+        if (message.length() > complexMessageChars || CHAINING.matcher(message).find()) {
+            return true;
+        }
+        int actions = 0;
+        java.util.regex.Matcher matcher = ACTION_VERBS.matcher(message);
+        while (matcher.find()) {
+            if (++actions >= 2) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Decision decision(Stage stage, Tier tier, String reason) {
+        TierConfig config = tiers.get(tier);
+        return new Decision(stage, tier, config.provider, config.model, reason);
+    }
+
+    private Counter tokenCounter(String tier, String kind) {
+        return meterRegistry.counter("chat.model.tier.tokens", "tier", tier, "kind", kind);
+    }
+
+    private static long tokens(Map<?, ?> usage, String key) {
+        Object value = usage.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static final class TierConfig {
+        final String provider;
+        final String model;
+        final double inputPrice;
+        final double outputPrice;
+
+        TierConfig(Environment environment, String name, String defaultModel, double defaultInputPrice,
+                   double defaultOutputPrice) {
+            String prefix = PREFIX + name + ".";
+            this.provider = environment.getProperty(prefix + "provider", "anthropic");
+            this.model = environment.getProperty(prefix + "model", defaultModel);
+            this.inputPrice = environment.getProperty(prefix + "input-price", Double.class, defaultInputPrice);
+            this.outputPrice = environment.getProperty(prefix + "output-price", Double.class, defaultOutputPrice);
+        }
+    }
+
+    public static final class Decision {
+        private final Stage stage;
+        private final Tier tier;
+        private final String provider;
+        private final String model;
+        private final String reason;
+
+        Decision(Stage stage, Tier tier, String provider, String model, String reason) {
+            this.stage = stage;
+            this.tier = tier;
+            this.provider = provider;
+            this.model = model;
+            this.reason = reason;
+        }
+
+        public Stage getStage() {
+            return stage;
+        }
+
+        public Tier getTier() {
+            return tier;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public String getModel() {
+            return model;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+    }
+}
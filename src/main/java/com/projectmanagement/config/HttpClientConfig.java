@@ -0,0 +1,94 @@
+package com.projectmanagement.config;
+
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.WriteTimeoutHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cliente HTTP de saída compartilhado por todas as integrações (Anthropic, OpenRouter, GitHub, Zep).
+ *
+ * O pool do reactor-netty é segmentado por host remoto, então max-connections
+ * é o limite por host. Conexões ociosas são mantidas (keep-alive) e recicladas
+ * em segundo plano; métricas do pool ficam em reactor.netty.connection.provider.*.
+ *
+ * O Spring Boot aplica o ClientHttpConnector a todo WebClient.Builder injetado.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    @Value("${http.client.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${http.client.pending-acquire-max-count:500}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${http.client.pending-acquire-timeout:5s}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${http.client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+
+    @Value("${http.client.max-life-time:5m}")
+    private Duration maxLifeTime;
+
+    @Value("${http.client.connect-timeout:5s}")
+    private Duration connectTimeout;
+
+    @Value("${http.client.write-timeout:30s}")
+    private Duration writeTimeout;
+
+    // Tempo máximo sem dados enquanto uma resposta é lida (o reactor-netty rearma a cada leitura e
+    // retira ao fim da resposta, sem derrubar conexões ociosas do pool); deve cobrir a resposta não
+    // streaming mais lenta do modelo, por isso não há um ReadTimeoutHandler separado
+    @Value("${http.client.response-timeout:90s}")
+    private Duration responseTimeout;
+
+    @Value("${http.client.compress:true}")
+    private boolean compress;
+
+    @Value("${http.client.http2:true}")
+    private boolean http2;
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider outboundConnectionProvider() {
+        return ConnectionProvider.builder("outbound")
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(pendingAcquireTimeout)
+            .maxIdleTime(maxIdleTime)
+            .maxLifeTime(maxLifeTime)
+            .evictInBackground(Duration.ofSeconds(30))
+            .lifo()
+            .metrics(true)
+            .build();
+    }
+
+    @Bean
+    public HttpClient outboundHttpClient(ConnectionProvider outboundConnectionProvider) {
+        HttpClient client = HttpClient.create(outboundConnectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+            .option(ChannelOption.SO_KEEPALIVE, true)
+            .responseTimeout(responseTimeout)
+            .compress(compress)
+            .doOnConnected(connection -> connection
+                .addHandlerLast(new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+
+        // HTTP/2 é negociado via ALPN em conexões TLS; sem suporte do servidor cai para HTTP/1.1
+        return http2 ? client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11) : client;
+    }
+
+    @Bean
+    public ClientHttpConnector outboundClientHttpConnector(HttpClient outboundHttpClient) {
+        return new ReactorClientHttpConnector(outboundHttpClient);
+    }
+}
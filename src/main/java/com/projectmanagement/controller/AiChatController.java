@@ -1,50 +1,240 @@
 package com.projectmanagement.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.projectmanagement.chat.ChatContext;
+import com.projectmanagement.chat.ChatContextStore;
+import com.projectmanagement.chat.ChatJob;
+import com.projectmanagement.chat.ChatJobService;
+import com.projectmanagement.chat.ChatQueueFullException;
+import com.projectmanagement.chat.IntentRouter;
+import com.projectmanagement.chat.ModelTiering;
+import com.projectmanagement.llm.LlmJson;
+import com.projectmanagement.mcp.ToolCatalog;
+import com.projectmanagement.mcp.TurnToolCache;
+import com.projectmanagement.memory.ConversationMemory;
+import com.projectmanagement.prompt.ContextBudget;
+import com.projectmanagement.prompt.PromptAssembler;
 import com.projectmanagement.security.UserPrincipal;
 import com.projectmanagement.service.AnthropicClient;
 import com.projectmanagement.service.MCPClient;
-import com.projectmanagement.service.ZepMemoryService;
+import com.projectmanagement.service.OpenRouterClient;
+import com.projectmanagement.usage.UsageAccounting;
+import com.projectmanagement.usage.UsageLimitExceededException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
 import javax.servlet.http.HttpSession;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+import static com.projectmanagement.logging.LazyMessage.abbreviate;
 
 @RestController
 @RequestMapping("/api/ai")
 public class AiChatController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AiChatController.class);
+
+    // Tamanho máximo de argumentos/resultados de ferramentas nos logs de DEBUG
+    private static final int MAX_LOGGED_TOOL_PAYLOAD = 500;
+
     // Endpoint de teste removido - não mais necessário com MCP
 
     @Autowired
     private AnthropicClient anthropicClient;
 
+    @Autowired
+    private OpenRouterClient openRouterClient;
+
+    // Modelo rápido ou forte por iteração do loop; o provedor do tier forte define a fila do job
+    @Autowired
+    private ModelTiering modelTiering;
+
     @Autowired
     private MCPClient mcpClient;
 
     @Autowired
-    private ZepMemoryService zepMemoryService;
+    private ToolCatalog toolCatalog;
+
+    @Autowired
+    private PromptAssembler promptAssembler;
+
+    @Autowired
+    private ContextBudget contextBudget;
+
+    @Autowired
+    private IntentRouter intentRouter;
+
+    // Zep (remoto) ou índice vetorial local, conforme chat.memory.provider
+    @Autowired
+    private ConversationMemory conversationMemory;
+
+    @Autowired
+    private Tracer tracer;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     // Contexto de chat por sessão para lembrar de tarefas e projetos recentes
-    private final Map<String, ChatContext> sessionContexts = new ConcurrentHashMap<>();
+    @Autowired
+    private ChatContextStore chatContextStore;
+
+    // Turnos rodam como jobs no executor de chat, fora das threads do Tomcat
+    @Autowired
+    private ChatJobService chatJobService;
 
+    // Tokens consumidos por usuário; cota e limite de turnos verificados antes de cada turno
+    @Autowired
+    private UsageAccounting usageAccounting;
+
+    @Value("${chat.jobs.request-timeout:120s}")
+    private Duration requestTimeout;
+
+    /**
+     * Chat síncrono para o cliente: a thread HTTP é liberada na hora e a resposta sai quando o
+     * job termina; se passar de chat.jobs.request-timeout, responde 202 com o job para consulta
+     */
     @PostMapping("/chat")
-    public ResponseEntity<Map<String, Object>> chat(
+    public DeferredResult<ResponseEntity<Map<String, Object>>> chat(
             @RequestBody Map<String, Object> req,
             @AuthenticationPrincipal UserPrincipal user,
             HttpSession session) {
 
-        String message = String.valueOf(req.get("message"));
+        DeferredResult<ResponseEntity<Map<String, Object>>> deferred = new DeferredResult<>(requestTimeout.toMillis());
+        ChatJob job;
+        try {
+            job = submitTurn(String.valueOf(req.get("message")), user, session.getId());
+        } catch (ChatQueueFullException e) {
+            deferred.setResult(queueFull());
+            return deferred;
+        } catch (UsageLimitExceededException e) {
+            deferred.setResult(usageLimited(e));
+            return deferred;
+        }
+        deferred.onTimeout(() -> deferred.setResult(ResponseEntity.accepted().body(job.view())));
+        job.completion().whenComplete((body, error) ->
+            deferred.setResult(error == null ? ResponseEntity.ok(body)
+                : createResponse("❌ Erro ao processar com MCP: " + error.getMessage())));
+        return deferred;
+    }
+
+    /**
+     * Enfileira o turno e devolve o job (202); resultado via GET /chat/jobs/{id} ou /events
+     */
+    @PostMapping("/chat/jobs")
+    public ResponseEntity<Map<String, Object>> submitJob(
+            @RequestBody Map<String, Object> req,
+            @AuthenticationPrincipal UserPrincipal user,
+            HttpSession session) {
+        try {
+            ChatJob job = submitTurn(String.valueOf(req.get("message")), user, session.getId());
+            return ResponseEntity.accepted().body(job.view());
+        } catch (ChatQueueFullException e) {
+            return queueFull();
+        } catch (UsageLimitExceededException e) {
+            return usageLimited(e);
+        }
+    }
+
+    @GetMapping("/chat/jobs/{jobId}")
+    public ResponseEntity<Map<String, Object>> getJob(@PathVariable String jobId,
+                                                      @AuthenticationPrincipal UserPrincipal user) {
+        ChatJob job = chatJobService.find(jobId, user.getId());
+        return job == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(job.view());
+    }
+
+    /**
+     * Progresso do job em Server-Sent Events (eventos "progress"; "result" no fim)
+     */
+    @GetMapping(value = "/chat/jobs/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> jobEvents(@PathVariable String jobId,
+                                                @AuthenticationPrincipal UserPrincipal user) {
+        ChatJob job = chatJobService.find(jobId, user.getId());
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        SseEmitter emitter = new SseEmitter(requestTimeout.toMillis());
+        Consumer<Map<String, Object>> listener = event -> {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(event, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectou: o job continua, só para de receber eventos
+                logger.debug("Stream de progresso do job {} encerrado: {}", jobId, e.getMessage());
+            }
+        };
+        job.subscribe(listener);
+        emitter.onCompletion(() -> job.unsubscribe(listener));
+        emitter.onTimeout(() -> job.unsubscribe(listener));
+        job.completion().whenComplete((body, error) -> {
+            job.unsubscribe(listener);
+            try {
+                emitter.send(SseEmitter.event().name("result").data(job.view(), MediaType.APPLICATION_JSON));
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * Enfileira um turno de chat na fila do provedor do modelo; processado em um span por turno
+     */
+    private ChatJob submitTurn(String message, UserPrincipal user, String sessionId) {
+        logger.debug("Mensagem recebida no chat MCP: {}", abbreviate(message, MAX_LOGGED_TOOL_PAYLOAD));
+        usageAccounting.checkTurnAllowed(user.getId());
 
-        System.out.println("=== CHAT MCP ===");
-        System.out.println("Mensagem recebida: " + message);
+        try {
+            return chatJobService.submit(user.getId(), modelTiering.primaryProvider(), job -> {
+                // Processar com MCP - estratégia única, em um span por turno de chat
+                Span span = tracer.spanBuilder("chat.turn")
+                    .setAttribute("chat.job_id", job.getId())
+                    .startSpan();
+                try (Scope ignored = span.makeCurrent()) {
+                    return processWithMCP(message, user, sessionId, job).getBody();
+                } finally {
+                    span.end();
+                }
+            });
+        } catch (ChatQueueFullException e) {
+            // Turno recusado pela fila: não conta no limite de turnos do usuário
+            usageAccounting.refundTurn(user.getId());
+            throw e;
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> queueFull() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "⏳ Muitas mensagens em processamento. Tente novamente em instantes.");
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
+    }
 
-        // Processar com MCP - estratégia única
-        return processWithMCP(message, user, session);
+    private ResponseEntity<Map<String, Object>> usageLimited(UsageLimitExceededException e) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "⏳ " + e.getMessage());
+        response.put("reason", e.getReason());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+            .body(response);
     }
 
     // Método processNewMessage removido - substituído por processWithMCP
@@ -53,102 +243,78 @@ public class AiChatController {
      * Método único para processamento com MCP
      * Sempre usa ferramentas MCP - sem detecção manual
      */
-    private ResponseEntity<Map<String, Object>> processWithMCP(String message, UserPrincipal user, HttpSession session) {
+    private ResponseEntity<Map<String, Object>> processWithMCP(String message, UserPrincipal user, String sessionId, ChatJob job) {
         try {
-            System.out.println("=== PROCESSANDO COM MCP ===");
-            System.out.println("Mensagem: " + message);
-
             // Obter ou criar contexto da sessão
-            String sessionId = session.getId();
             String userId = user.getId().toString();
 
-            // Inicializar sessão Zep se necessário
-            zepMemoryService.createOrUpdateSession(sessionId, userId);
+            // Inicializar sessão na memória conversacional se necessário
+            conversationMemory.createOrUpdateSession(sessionId, userId);
 
-            // Adicionar mensagem do usuário ao Zep
-            zepMemoryService.addMessage(sessionId, "user", message, null);
+            // Adicionar mensagem do usuário à memória
+            conversationMemory.addMessage(sessionId, "user", message, null);
 
-            ChatContext context = sessionContexts.computeIfAbsent(sessionId, k -> new ChatContext());
+            ChatContext context = chatContextStore.get(sessionId);
 
-            // Limpar contextos expirados
-            sessionContexts.entrySet().removeIf(entry -> entry.getValue().isExpired());
+            // Comandos simples: ferramenta executada direto, sem modelo nem busca na memória
+            IntentRouter.Routed routed = intentRouter.route(message, user);
+            if (routed != null) {
+                Span.current().setAttribute("chat.route", "fast_path");
+                job.progress("fast_path", Map.of("tool", routed.getTool()));
+                updateContextFromResult(routed.getTool(), routed.getResult(), context, sessionId);
+                return finishTurn(sessionId, context, message, routed.getReply(),
+                    Map.of("processed_with_mcp", true, "fast_path", routed.getTool(), "timestamp", System.currentTimeMillis()));
+            }
+            Span.current().setAttribute("chat.route", "model");
+            long modelTurnStart = System.nanoTime();
 
             List<Map<String, Object>> messages = new ArrayList<>();
 
-            // Obter contexto relevante do Zep Memory
-            String zepContext = zepMemoryService.getRelevantContext(sessionId, message);
-            String sessionSummary = zepMemoryService.getSessionSummary(sessionId);
-
-            // System prompt para MCP - agora com contexto do Zep
-            String contextInfo = context.getContextSummary();
-            String systemPrompt = "Você é um assistente especializado em gerenciamento de projetos. " +
-                "REGRAS IMPORTANTES:\n" +
-                "1. SEMPRE liste os projetos existentes ANTES de criar tarefas\n" +
-                "2. NUNCA crie novos projetos a menos que explicitamente solicitado\n" +
-                "3. Use SEMPRE projetos existentes quando possível\n" +
-                "4. Quando o usuário mencionar 'projeto X', procure por esse projeto específico\n" +
-                "5. Se o usuário pedir ação em UMA tarefa específica, foque APENAS nela\n" +
-                "6. Execute APENAS o que foi solicitado - não faça ações extras\n" +
-                "7. Responda em português de forma clara e objetiva\n" +
-                "8. Use o CONTEXTO ATUAL para entender referências como 'essa tarefa', 'este projeto', etc.\n\n";
-
-            // Adicionar contexto do Zep Memory
-            if (!zepContext.isEmpty()) {
-                systemPrompt += "CONTEXTO RELEVANTE (Zep Memory):\n" + zepContext + "\n";
-            }
-
-            if (!sessionSummary.isEmpty()) {
-                systemPrompt += "RESUMO DA SESSÃO:\n" + sessionSummary + "\n";
-            }
+            // Obter contexto relevante da memória conversacional
+            // Busca e resumo são independentes: disparados em paralelo
+            Tuple2<String, String> zepMemory = Mono.zip(
+                conversationMemory.getRelevantContextAsync(sessionId, message),
+                conversationMemory.getSessionSummaryAsync(sessionId)).block();
+            String zepContext = zepMemory.getT1();
+            String sessionSummary = zepMemory.getT2();
 
-            if (!contextInfo.isEmpty()) {
-                systemPrompt += "CONTEXTO ATUAL DA CONVERSA:\n" + contextInfo + "\n";
-            }
+            // Instruções fixas -> (ferramentas) -> resumo da sessão -> contexto volátil, com breakpoints de cache
+            messages.addAll(promptAssembler.systemMessages(sessionSummary, zepContext, context.getContextSummary()));
 
-            systemPrompt += "FERRAMENTAS DISPONÍVEIS:\n" +
-                "- list_projects: Lista projetos existentes\n" +
-                "- list_tasks: Lista tarefas (use projectId para filtrar)\n" +
-                "- create_task: Cria tarefa em projeto EXISTENTE\n" +
-                "- update_task: Atualiza tarefa específica\n" +
-                "- move_task: Move tarefa para novo status\n" +
-                "- create_project: Use APENAS se explicitamente solicitado\n\n" +
-                "FLUXO RECOMENDADO:\n" +
-                "1. Se usuário mencionar projeto, use list_projects primeiro\n" +
-                "2. Identifique o projeto correto pelo nome/ID\n" +
-                "3. Execute a ação solicitada no projeto correto\n" +
-                "4. Confirme o resultado\n" +
-                "5. Se usuário disser 'essa tarefa' ou similar, use o contexto para identificar qual tarefa";
-
-            messages.add(roleMsg("system", systemPrompt));
+            // Turnos anteriores compactos, dentro do orçamento de histórico
+            messages.addAll(contextBudget.historyMessages(context.getTurns()));
 
             // Processar mensagem do usuário para resolver referências contextuais
             String processedMessage = resolveContextualReferences(message, context);
             messages.add(roleMsg("user", processedMessage));
 
-            // Obter ferramentas MCP
-            List<Map<String, Object>> tools = getMCPTools();
-            System.out.println("Ferramentas MCP disponíveis: " + tools.size());
+            // Obter ferramentas MCP (catálogo pré-compilado)
+            List<Map<String, Object>> tools = toolCatalog.tools();
+            logger.debug("Ferramentas MCP disponíveis: {}", tools.size());
 
             // Chamar IA com ferramentas MCP
-            Map<String, Object> response = anthropicClient.chatCompletion(messages, tools, "anthropic/claude-sonnet-4");
-            System.out.println("Resposta inicial recebida");
+            job.progress("model_call", Map.of("iteration", 0));
+            ModelTiering.Decision tier = modelTiering.decide(0, processedMessage, messages, null);
+            Map<String, Object> response = callModel(messages, tools, 0, user.getId(), tier);
+
+            // Leituras repetidas dentro do turno voltam do cache; escritas invalidam o que afetam
+            TurnToolCache toolCache = new TurnToolCache(meterRegistry);
 
             // Loop de execução de ferramentas MCP
             for (int i = 0; i < 5; i++) {
-                System.out.println("=== ITERAÇÃO MCP " + (i+1) + " ===");
+                logger.debug("Iteração MCP {}", i + 1);
 
                 Map<String, Object> assistantMsg = extractMessage(response);
                 if (assistantMsg == null) {
-                    System.out.println("Nenhuma mensagem extraída, parando loop");
+                    logger.debug("Nenhuma mensagem extraída, parando loop");
                     break;
                 }
 
+                int iterationStart = messages.size();
                 messages.add(assistantMsg);
                 List<Map<String, Object>> toolCalls = extractToolCalls(assistantMsg);
-                System.out.println("Tool calls encontradas: " + (toolCalls != null ? toolCalls.size() : 0));
-
                 if (toolCalls == null || toolCalls.isEmpty()) {
-                    System.out.println("Nenhuma tool call, finalizando");
+                    logger.debug("Nenhuma tool call, finalizando");
                     break; // Resposta final
                 }
 
@@ -157,13 +323,14 @@ public class AiChatController {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> fn = (Map<String, Object>) toolCall.get("function");
                     String name = String.valueOf(fn.get("name"));
-                    String argsJson = String.valueOf(fn.get("arguments"));
+                    Object arguments = fn.get("arguments");
 
-                    System.out.println("Executando ferramenta: " + name);
-                    System.out.println("Argumentos: " + argsJson);
+                    logger.debug("Executando ferramenta {} com argumentos {}", name, abbreviate(String.valueOf(arguments), MAX_LOGGED_TOOL_PAYLOAD));
+                    job.progress("tool", Map.of("name", name, "iteration", i + 1));
 
-                    String result = executeMCPTool(name, argsJson, user, context, sessionId);
-                    System.out.println("Resultado: " + result);
+                    String result = executeMCPTool(name, arguments, user, context, sessionId, toolCache);
+                    logger.debug("Resultado de {}: {}", name, abbreviate(result, MAX_LOGGED_TOOL_PAYLOAD));
+                    result = contextBudget.compactToolResult(name, result);
 
                     Map<String, Object> toolResult = new HashMap<>();
                     toolResult.put("role", "tool");
@@ -172,7 +339,11 @@ public class AiChatController {
                     messages.add(toolResult);
                 }
 
-                response = anthropicClient.chatCompletion(messages, tools, "anthropic/claude-sonnet-4");
+                // Resultados de iterações anteriores viram resumo se o loop passar do orçamento
+                contextBudget.shrinkLoopMessages(messages, iterationStart);
+                job.progress("model_call", Map.of("iteration", i + 1));
+                tier = modelTiering.decide(i + 1, processedMessage, messages, tier);
+                response = callModel(messages, tools, i + 1, user.getId(), tier);
             }
 
             // Extrair resposta final
@@ -183,61 +354,138 @@ public class AiChatController {
                 finalContent = content != null ? String.valueOf(content) : finalContent;
             }
 
-            // Adicionar resposta da IA ao Zep Memory
-            zepMemoryService.addMessage(sessionId, "assistant", finalContent,
+            Span.current().setAttribute("chat.tool_calls_memoized", toolCache.saved());
+            intentRouter.recordModelTurn(System.nanoTime() - modelTurnStart);
+            return finishTurn(sessionId, context, message, finalContent,
                 Map.of("processed_with_mcp", true, "timestamp", System.currentTimeMillis()));
 
-            return createResponse(finalContent);
-
         } catch (Exception e) {
-            System.err.println("Erro no processamento MCP: " + e.getMessage());
-            e.printStackTrace();
+            logger.error("Erro no processamento MCP", e);
+            Span.current().recordException(e);
+            Span.current().setStatus(StatusCode.ERROR);
             return createResponse("❌ Erro ao processar com MCP: " + e.getMessage());
         }
     }
 
     /**
-     * Obtém ferramentas MCP no formato esperado pelo AnthropicClient
+     * Registra a resposta na memória e no contexto da sessão e monta a resposta HTTP
      */
-    private List<Map<String, Object>> getMCPTools() {
-        List<Map<String, Object>> mcpTools = mcpClient.getAvailableTools();
-        List<Map<String, Object>> anthropicTools = new ArrayList<>();
+    private ResponseEntity<Map<String, Object>> finishTurn(String sessionId, ChatContext context, String message,
+                                                           String reply, Map<String, Object> metadata) {
+        // Adicionar resposta da IA à memória
+        conversationMemory.addMessage(sessionId, "assistant", reply, metadata);
 
-        for (Map<String, Object> mcpTool : mcpTools) {
-            Map<String, Object> anthropicTool = new HashMap<>();
-            anthropicTool.put("type", "function");
+        context.addTurn(message, reply);
+        chatContextStore.save(sessionId, context);
 
-            Map<String, Object> function = new HashMap<>();
-            function.put("name", mcpTool.get("name"));
-            function.put("description", mcpTool.get("description"));
-            function.put("parameters", mcpTool.get("input_schema"));
+        return createResponse(reply);
+    }
 
-            anthropicTool.put("function", function);
-            anthropicTools.add(anthropicTool);
+    /**
+     * Chama o modelo do tier escolhido dentro de um span "chat.model_call" com o número da iteração;
+     * se o modelo rápido falhar, a mesma chamada é refeita no tier forte
+     */
+    private Map<String, Object> callModel(List<Map<String, Object>> messages, List<Map<String, Object>> tools, int iteration,
+                                          Long userId, ModelTiering.Decision decision) {
+        Span span = tracer.spanBuilder("chat.model_call")
+            .setAttribute("chat.iteration", iteration)
+            .setAttribute("chat.messages", messages.size())
+            .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            Map<String, Object> response = invokeModel(messages, tools, decision);
+            if (usage(response) == null && decision.getTier() == ModelTiering.Tier.FAST) {
+                logger.warn("Modelo rápido {} falhou na etapa {}; repetindo no tier forte", decision.getModel(), decision.getStage());
+                decision = modelTiering.escalate(decision);
+                response = invokeModel(messages, tools, decision);
+            }
+            span.setAttribute("chat.model_tier", decision.getTier().name().toLowerCase());
+            span.setAttribute("chat.model_stage", decision.getStage().name().toLowerCase());
+            span.setAttribute("chat.model_tier_reason", decision.getReason());
+            span.setAttribute("chat.model", decision.getModel());
+            recordCacheUsage(span, response);
+            usageAccounting.record(userId, decision.getProvider(), usage(response));
+            return response;
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
         }
+    }
+
+    /**
+     * Uma chamada ao provedor do tier; latência, tokens e custo vão para as métricas do tier.
+     * Falhas do OpenRouter viram resposta sem usage, como as do AnthropicClient
+     */
+    private Map<String, Object> invokeModel(List<Map<String, Object>> messages, List<Map<String, Object>> tools,
+                                            ModelTiering.Decision decision) {
+        long start = System.nanoTime();
+        Map<String, Object> response;
+        if ("openrouter".equals(decision.getProvider())) {
+            try {
+                response = openRouterClient.chatCompletion(messages, tools, decision.getModel());
+            } catch (RuntimeException e) {
+                logger.warn("Falha no OpenRouter ({}): {}", decision.getModel(), e.getMessage());
+                response = null;
+            }
+        } else {
+            response = anthropicClient.chatCompletion(messages, tools, decision.getModel());
+        }
+        modelTiering.record(decision, System.nanoTime() - start, usage(response));
+        return response;
+    }
+
+    private static Map<?, ?> usage(Map<String, Object> response) {
+        Object usage = response != null ? response.get("usage") : null;
+        return usage instanceof Map ? (Map<?, ?>) usage : null;
+    }
+
+    /**
+     * Registra no span os tokens lidos/gravados no cache de prompt nesta chamada
+     */
+    private void recordCacheUsage(Span span, Map<String, Object> response) {
+        Object usage = response != null ? response.get("usage") : null;
+        if (!(usage instanceof Map)) {
+            return;
+        }
+        Map<?, ?> tokens = (Map<?, ?>) usage;
+        long cacheRead = tokenCount(tokens.get("cache_read_input_tokens"));
+        long cacheWrite = tokenCount(tokens.get("cache_creation_input_tokens"));
+        long uncached = tokenCount(tokens.get("input_tokens"));
+        span.setAttribute("llm.usage.cache_read_tokens", cacheRead);
+        span.setAttribute("llm.usage.cache_write_tokens", cacheWrite);
+        span.setAttribute("llm.usage.input_tokens", uncached);
+        logger.debug("Prompt cache: {} lidos, {} gravados, {} sem cache", cacheRead, cacheWrite, uncached);
+    }
 
-        return anthropicTools;
+    private long tokenCount(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
     }
 
     /**
      * Executa ferramenta MCP e retorna resultado como JSON string
      */
-    private String executeMCPTool(String toolName, String argsJson, UserPrincipal user, ChatContext context, String sessionId) {
+    private String executeMCPTool(String toolName, Object arguments, UserPrincipal user, ChatContext context, String sessionId,
+                                  TurnToolCache toolCache) {
         try {
-            ObjectMapper mapper = new ObjectMapper();
-            @SuppressWarnings("unchecked")
-            Map<String, Object> args = mapper.readValue(argsJson, Map.class);
+            // Leitura em streaming com o ObjectReader compartilhado (aceita JSON ou objeto já decodificado)
+            Map<String, Object> args = LlmJson.parseArguments(arguments);
 
-            Map<String, Object> result = mcpClient.executeTool(toolName, args, user);
+            Map<String, Object> result = toolCache.execute(toolName, args, () -> mcpClient.executeTool(toolName, args, user));
 
             // Atualizar contexto baseado no resultado
             updateContextFromResult(toolName, result, context, sessionId);
 
-            return mapper.writeValueAsString(result);
+            return LlmJson.write(result);
 
         } catch (Exception e) {
-            System.err.println("Erro ao executar ferramenta MCP " + toolName + ": " + e.getMessage());
-            return "{\"success\": false, \"error\": \"" + e.getMessage() + "\"}";
+            logger.warn("Erro ao executar ferramenta MCP {}: {}", toolName, e.getMessage());
+            try {
+                return LlmJson.write(Map.of("success", false, "error", String.valueOf(e.getMessage())));
+            } catch (JsonProcessingException ignored) {
+                return "{\"success\": false}";
+            }
         }
     }
 
@@ -253,7 +501,7 @@ public class AiChatController {
             if (!lastTask.isEmpty()) {
                 String taskInfo = "tarefa ID " + lastTask.get("id") + " ('" + lastTask.get("title") + "')";
                 processedMessage = processedMessage.replaceAll("(?i)\\b(essa|esta|a) tarefa\\b", taskInfo);
-                System.out.println("Referência resolvida: 'essa tarefa' -> " + taskInfo);
+                logger.debug("Referência resolvida: 'essa tarefa' -> {}", taskInfo);
             }
         }
 
@@ -263,7 +511,7 @@ public class AiChatController {
             if (!lastProject.isEmpty()) {
                 String projectInfo = "projeto ID " + lastProject.get("id") + " ('" + lastProject.get("name") + "')";
                 processedMessage = processedMessage.replaceAll("(?i)\\b(esse|este|o) projeto\\b", projectInfo);
-                System.out.println("Referência resolvida: 'esse projeto' -> " + projectInfo);
+                logger.debug("Referência resolvida: 'esse projeto' -> {}", projectInfo);
             }
         }
 
@@ -274,7 +522,7 @@ public class AiChatController {
             if (!lastTask.isEmpty()) {
                 String taskInfo = " a tarefa ID " + lastTask.get("id") + " ('" + lastTask.get("title") + "')";
                 processedMessage = "Mova" + taskInfo + " " + message.toLowerCase().replaceFirst(".*\\b(mova|mude|coloque|ponha)\\b", "");
-                System.out.println("Referência implícita resolvida: '" + message + "' -> " + processedMessage);
+                logger.debug("Referência implícita resolvida: '{}' -> {}", message, processedMessage);
             }
         }
 
@@ -300,13 +548,13 @@ public class AiChatController {
                         task.put("projectId", result.get("projectId"));
                         context.addTask(task);
 
-                        // Adicionar ao Zep Memory
-                        zepMemoryService.addTaskContext(sessionId, "create_task", task);
-                        zepMemoryService.addFact(sessionId,
+                        // Adicionar à memória conversacional
+                        conversationMemory.addTaskContext(sessionId, "create_task", task);
+                        conversationMemory.addFact(sessionId,
                             "Tarefa '" + result.get("title") + "' foi criada com ID " + result.get("taskId"),
                             Map.of("task_id", result.get("taskId"), "action", "created"));
 
-                        System.out.println("Contexto atualizado: Nova tarefa ID " + result.get("taskId"));
+                        logger.debug("Contexto atualizado: Nova tarefa ID {}", result.get("taskId"));
                     }
                     break;
 
@@ -317,13 +565,13 @@ public class AiChatController {
                         project.put("name", result.get("name"));
                         context.addProject(project);
 
-                        // Adicionar ao Zep Memory
-                        zepMemoryService.addProjectContext(sessionId, "create_project", project);
-                        zepMemoryService.addFact(sessionId,
+                        // Adicionar à memória conversacional
+                        conversationMemory.addProjectContext(sessionId, "create_project", project);
+                        conversationMemory.addFact(sessionId,
                             "Projeto '" + result.get("name") + "' foi criado com ID " + result.get("projectId"),
                             Map.of("project_id", result.get("projectId"), "action", "created"));
 
-                        System.out.println("Contexto atualizado: Novo projeto ID " + result.get("projectId"));
+                        logger.debug("Contexto atualizado: Novo projeto ID {}", result.get("projectId"));
                     }
                     break;
 
@@ -333,7 +581,7 @@ public class AiChatController {
                     if (tasks != null && !tasks.isEmpty()) {
                         // Adicionar a primeira tarefa como última mencionada
                         context.addTask(tasks.get(0));
-                        System.out.println("Contexto atualizado: Tarefas listadas, foco na primeira");
+                        logger.debug("Contexto atualizado: Tarefas listadas, foco na primeira");
                     }
                     break;
 
@@ -343,7 +591,7 @@ public class AiChatController {
                     if (projects != null && !projects.isEmpty()) {
                         // Adicionar o primeiro projeto como último mencionado
                         context.addProject(projects.get(0));
-                        System.out.println("Contexto atualizado: Projetos listados, foco no primeiro");
+                        logger.debug("Contexto atualizado: Projetos listados, foco no primeiro");
                     }
                     break;
 
@@ -357,19 +605,19 @@ public class AiChatController {
                         task.put("status", result.getOrDefault("status", "UNKNOWN"));
                         context.addTask(task);
 
-                        // Adicionar ao Zep Memory
-                        zepMemoryService.addTaskContext(sessionId, toolName, task);
-                        zepMemoryService.addFact(sessionId,
+                        // Adicionar à memória conversacional
+                        conversationMemory.addTaskContext(sessionId, toolName, task);
+                        conversationMemory.addFact(sessionId,
                             "Tarefa ID " + result.get("taskId") + " foi " +
                             (toolName.equals("move_task") ? "movida" : "atualizada"),
                             Map.of("task_id", result.get("taskId"), "action", toolName));
 
-                        System.out.println("Contexto atualizado: Tarefa " + result.get("taskId") + " modificada");
+                        logger.debug("Contexto atualizado: Tarefa {} modificada", result.get("taskId"));
                     }
                     break;
             }
         } catch (Exception e) {
-            System.err.println("Erro ao atualizar contexto: " + e.getMessage());
+            logger.warn("Erro ao atualizar contexto: {}", e.getMessage());
         }
     }
 
@@ -425,82 +673,4 @@ public class AiChatController {
     // Método executeTool antigo removido - substituído por executeMCPTool
 
     // Método createAuthentication removido - não mais necessário com MCP
-
-    // Classe para armazenar contexto do chat
-    private static class ChatContext {
-        private final List<Map<String, Object>> recentTasks = new ArrayList<>();
-        private final List<Map<String, Object>> recentProjects = new ArrayList<>();
-        private final Map<String, Object> lastMentionedTask = new HashMap<>();
-        private final Map<String, Object> lastMentionedProject = new HashMap<>();
-        private long lastUpdated = System.currentTimeMillis();
-
-        public void addTask(Map<String, Object> task) {
-            recentTasks.add(0, task); // Adiciona no início
-            if (recentTasks.size() > 10) { // Mantém apenas as 10 mais recentes
-                recentTasks.remove(recentTasks.size() - 1);
-            }
-            lastMentionedTask.clear();
-            lastMentionedTask.putAll(task);
-            lastUpdated = System.currentTimeMillis();
-        }
-
-        public void addProject(Map<String, Object> project) {
-            recentProjects.add(0, project); // Adiciona no início
-            if (recentProjects.size() > 5) { // Mantém apenas os 5 mais recentes
-                recentProjects.remove(recentProjects.size() - 1);
-            }
-            lastMentionedProject.clear();
-            lastMentionedProject.putAll(project);
-            lastUpdated = System.currentTimeMillis();
-        }
-
-        public String getContextSummary() {
-            StringBuilder context = new StringBuilder();
-
-            if (!lastMentionedTask.isEmpty()) {
-                context.append("ÚLTIMA TAREFA MENCIONADA: ")
-                       .append("ID ").append(lastMentionedTask.get("id"))
-                       .append(" - ").append(lastMentionedTask.get("title"))
-                       .append(" (Status: ").append(lastMentionedTask.get("status")).append(")\n");
-            }
-
-            if (!lastMentionedProject.isEmpty()) {
-                context.append("ÚLTIMO PROJETO MENCIONADO: ")
-                       .append("ID ").append(lastMentionedProject.get("id"))
-                       .append(" - ").append(lastMentionedProject.get("name")).append("\n");
-            }
-
-            if (!recentTasks.isEmpty()) {
-                context.append("TAREFAS RECENTES NO CONTEXTO:\n");
-                for (int i = 0; i < Math.min(5, recentTasks.size()); i++) {
-                    Map<String, Object> task = recentTasks.get(i);
-                    context.append("- ID ").append(task.get("id"))
-                           .append(": ").append(task.get("title"))
-                           .append(" (").append(task.get("status")).append(")\n");
-                }
-            }
-
-            return context.toString();
-        }
-
-        public boolean isExpired() {
-            return System.currentTimeMillis() - lastUpdated > 30 * 60 * 1000; // 30 minutos
-        }
-
-        public Map<String, Object> getLastMentionedTask() {
-            return new HashMap<>(lastMentionedTask);
-        }
-
-        public Map<String, Object> getLastMentionedProject() {
-            return new HashMap<>(lastMentionedProject);
-        }
-
-        public List<Map<String, Object>> getRecentTasks() {
-            return new ArrayList<>(recentTasks);
-        }
-
-        public List<Map<String, Object>> getRecentProjects() {
-            return new ArrayList<>(recentProjects);
-        }
-    }
 }
\ No newline at end of file
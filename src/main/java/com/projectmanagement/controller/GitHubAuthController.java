@@ -4,6 +4,8 @@ import com.projectmanagement.service.GitHubOAuthService;
 import com.projectmanagement.service.UserService;
 import com.projectmanagement.model.User;
 import com.projectmanagement.security.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +22,8 @@ import java.util.*;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class GitHubAuthController {
 
+    private static final Logger logger = LoggerFactory.getLogger(GitHubAuthController.class);
+
     @Autowired
     private GitHubOAuthService gitHubOAuthService;
 
@@ -115,7 +119,7 @@ public class GitHubAuthController {
             return new RedirectView("http://localhost:4200/login/success?token=" + jwtToken);
 
         } catch (Exception e) {
-            System.err.println("Erro no callback GitHub: " + e.getMessage());
+            logger.warn("Erro no callback GitHub: {}", e.getMessage());
             return new RedirectView("http://localhost:4200/login?error=callback_failed");
         }
     }
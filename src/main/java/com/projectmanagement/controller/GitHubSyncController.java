@@ -0,0 +1,121 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.model.AccessRole;
+import com.projectmanagement.model.GitHubRepoLink;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.User;
+import com.projectmanagement.security.UserPrincipal;
+import com.projectmanagement.service.GitHubSyncService;
+import com.projectmanagement.service.ProjectService;
+import com.projectmanagement.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Vínculos entre projetos e repositórios GitHub sincronizados como tarefas
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/projects/{projectId}/github/links")
+public class GitHubSyncController {
+
+    @Autowired
+    private GitHubSyncService gitHubSyncService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping
+    public ResponseEntity<List<GitHubRepoLink>> getLinks(@PathVariable Long projectId, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (!projectService.hasUserAccess(projectId, userPrincipal.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(gitHubSyncService.getLinksByProject(projectId));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> linkRepository(@PathVariable Long projectId, @RequestBody Map<String, String> request,
+                                            Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (!isProjectAdmin(projectId, userPrincipal.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        String owner = request.get("owner");
+        String repo = request.get("repo");
+        if (owner == null || owner.isBlank() || repo == null || repo.isBlank()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "owner e repo são obrigatórios"));
+        }
+
+        Optional<Project> project = projectService.getProjectById(projectId);
+        Optional<User> user = userService.getUserById(userPrincipal.getId());
+        if (project.isEmpty() || user.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return ResponseEntity.ok(gitHubSyncService.linkRepository(project.get(), owner.trim(), repo.trim(), user.get()));
+    }
+
+    @PostMapping("/{linkId}/sync")
+    public ResponseEntity<?> syncNow(@PathVariable Long projectId, @PathVariable Long linkId,
+                                     Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (!isProjectAdmin(projectId, userPrincipal.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        Optional<GitHubRepoLink> link = findLink(projectId, linkId);
+        if (link.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        GitHubSyncService.SyncResult result = gitHubSyncService.syncLink(link.get());
+        if (result.isInProgress()) {
+            return ResponseEntity.status(409).body(Map.of("error", "Sincronização já em andamento para este repositório"));
+        }
+        return ResponseEntity.ok(Map.of(
+            "created", result.getCreated(),
+            "updated", result.getUpdated(),
+            "unchanged", result.getUnchanged(),
+            "highWaterMark", String.valueOf(link.get().getHighWaterMark()),
+            "error", String.valueOf(link.get().getLastError())
+        ));
+    }
+
+    @DeleteMapping("/{linkId}")
+    public ResponseEntity<?> unlinkRepository(@PathVariable Long projectId, @PathVariable Long linkId,
+                                              Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (!isProjectAdmin(projectId, userPrincipal.getId())) {
+            return ResponseEntity.status(403).build();
+        }
+
+        Optional<GitHubRepoLink> link = findLink(projectId, linkId);
+        if (link.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        gitHubSyncService.unlinkRepository(link.get());
+        return ResponseEntity.ok().build();
+    }
+
+    private Optional<GitHubRepoLink> findLink(Long projectId, Long linkId) {
+        return gitHubSyncService.getLinkById(linkId)
+            .filter(link -> link.getProject().getId().equals(projectId));
+    }
+
+    private boolean isProjectAdmin(Long projectId, Long userId) {
+        Optional<AccessRole> role = projectService.getUserRole(projectId, userId);
+        return role.isPresent() && (role.get() == AccessRole.OWNER || role.get() == AccessRole.ADMIN);
+    }
+}
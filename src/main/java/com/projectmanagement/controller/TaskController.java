@@ -6,6 +6,8 @@ import com.projectmanagement.security.UserPrincipal;
 import com.projectmanagement.service.TaskService;
 import com.projectmanagement.service.UserService;
 import com.projectmanagement.service.ProjectService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -15,12 +17,15 @@ import javax.validation.Valid;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/tasks")
 public class TaskController {
 
+    private static final Logger logger = LoggerFactory.getLogger(TaskController.class);
+
     @Autowired
     private TaskService taskService;
 
@@ -37,15 +42,13 @@ public class TaskController {
         // Return all tasks from projects that the user has access to
         List<Task> tasks = taskService.getTasksByUserProjects(userPrincipal.getId());
 
-        System.out.println("=== BACKEND TASKS DEBUG ===");
-        System.out.println("User ID: " + userPrincipal.getId());
-        System.out.println("Tasks found: " + tasks.size());
-        for (Task task : tasks) {
-            System.out.println("Task: " + task.getTitle() +
-                             " | Status: '" + task.getStatus() + "'" +
-                             " | Project: " + (task.getProject() != null ? task.getProject().getName() : "NULL"));
+        logger.debug("Tasks found for user {}: {}", userPrincipal.getId(), tasks.size());
+        if (logger.isTraceEnabled()) {
+            logger.trace("Tasks: {}", tasks.stream()
+                .map(task -> task.getTitle() + " | Status: '" + task.getStatus() + "' | Project: " +
+                    (task.getProject() != null ? task.getProject().getName() : "NULL"))
+                .collect(Collectors.joining("; ")));
         }
-        System.out.println("=== END BACKEND TASKS DEBUG ===");
 
         return ResponseEntity.ok(tasks);
     }
@@ -0,0 +1,114 @@
+package com.projectmanagement.controller;
+
+import com.projectmanagement.chat.ModelTiering;
+import com.projectmanagement.model.UsageRollup;
+import com.projectmanagement.repository.UsageRollupRepository;
+import com.projectmanagement.security.UserPrincipal;
+import com.projectmanagement.usage.UsageAccounting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Consumo de tokens de IA: o próprio usuário vê o seu; relatório geral e painel por tier de modelo
+ * restritos a usage.admin-usernames.
+ *
+ * As leituras não forçam o flush do UsageAccounting (global e sincronizado): as linhas por dia
+ * vêm do banco e podem atrasar até usage.flush-interval-ms; o total de hoje do usuário
+ * ({@code usedToday}) já inclui o que ainda está em memória.
+ */
+@CrossOrigin(origins = "*", maxAge = 3600)
+@RestController
+@RequestMapping("/api/usage")
+public class UsageController {
+
+    private static final int MAX_REPORT_DAYS = 366;
+
+    @Autowired
+    private UsageAccounting usageAccounting;
+
+    @Autowired
+    private UsageRollupRepository usageRollupRepository;
+
+    @Autowired
+    private ModelTiering modelTiering;
+
+    @Value("${usage.admin-usernames:}")
+    private List<String> adminUsernames;
+
+    @GetMapping("/me")
+    public ResponseEntity<?> getMyUsage(@RequestParam(defaultValue = "7") int days, Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        LocalDate to = LocalDate.now(ZoneOffset.UTC);
+        LocalDate from = to.minusDays(Math.max(1, Math.min(days, MAX_REPORT_DAYS)) - 1L);
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("usedToday", usageAccounting.usedToday(userPrincipal.getId()));
+        response.put("dailyQuota", usageAccounting.getDailyTokenQuota());
+        response.put("days", usageRollupRepository
+            .findByUserIdAndUsageDateBetweenOrderByUsageDateAsc(userPrincipal.getId(), from, to));
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Totais por usuário no período (ordenados por tokens) e linhas por dia
+     */
+    @GetMapping("/report")
+    public ResponseEntity<?> getReport(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                       @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                       Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (!adminUsernames.contains(userPrincipal.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+        if (to.isBefore(from) || from.plusDays(MAX_REPORT_DAYS).isBefore(to)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Período inválido (máximo " + MAX_REPORT_DAYS + " dias)"));
+        }
+
+        List<UsageRollup> rows = usageRollupRepository.findByUsageDateBetweenOrderByUsageDateAsc(from, to);
+        Map<Long, Map<String, Object>> totals = new HashMap<>();
+        for (UsageRollup row : rows) {
+            Map<String, Object> total = totals.computeIfAbsent(row.getUserId(), id -> {
+                Map<String, Object> created = new LinkedHashMap<>();
+                created.put("userId", id);
+                created.put("totalTokens", 0L);
+                created.put("inputTokens", 0L);
+                created.put("outputTokens", 0L);
+                created.put("calls", 0L);
+                return created;
+            });
+            total.merge("totalTokens", row.getTotalTokens(), (a, b) -> (Long) a + (Long) b);
+            total.merge("inputTokens", row.getInputTokens(), (a, b) -> (Long) a + (Long) b);
+            total.merge("outputTokens", row.getOutputTokens(), (a, b) -> (Long) a + (Long) b);
+            total.merge("calls", row.getCalls(), (a, b) -> (Long) a + (Long) b);
+        }
+        List<Map<String, Object>> users = new ArrayList<>(totals.values());
+        users.sort(Comparator.comparing((Map<String, Object> total) -> (Long) total.get("totalTokens")).reversed());
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", from.toString());
+        response.put("to", to.toString());
+        response.put("users", users);
+        response.put("days", rows);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Painel por tier de modelo (desde a subida): chamadas e latência por etapa, tokens e custo estimado
+     */
+    @GetMapping("/tiers")
+    public ResponseEntity<?> getTierDashboard(Authentication authentication) {
+        UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
+        if (!adminUsernames.contains(userPrincipal.getUsername())) {
+            return ResponseEntity.status(403).build();
+        }
+        return ResponseEntity.ok(Map.of("tiers", modelTiering.dashboard()));
+    }
+}
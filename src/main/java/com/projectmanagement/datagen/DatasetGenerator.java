@@ -0,0 +1,664 @@
+package com.projectmanagement.datagen;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.zip.CRC32;
+
+/**
+ * Gerador de massa sintética para benchmarks e planejamento de capacidade (perfil datagen):
+ *
+ *   mvn spring-boot:run -Dspring-boot.run.profiles=datagen -Dspring-boot.run.arguments="--datagen.tasks=2000000"
+ *
+ * Grava direto por JDBC, em lotes de datagen.batch-size linhas com um commit por lote, no banco
+ * configurado e depois dos registros que já existem:
+ * - usuários (senha password123), com popularidade em Zipf (datagen.user-activity-skew)
+ * - projetos com tamanho em Zipf (datagen.project-size-skew): poucos projetos concentram a maior
+ *   parte das tarefas, como em produção; projetos maiores têm mais membros
+ * - project_users/ProjectAccess (OWNER, ADMIN, MEMBER, VIEWER) e as colunas padrão do quadro
+ * - tarefas espalhadas pelos status/colunas, com comentários e itens de checklist em quantidades geométricas
+ * - reuniões com participantes, decisões e ações, e atas com arquivo em app.upload.dir/datagen-&lt;seed&gt;
+ *
+ * Mesma semente e mesmos volumes geram a mesma massa: as datas partem de datagen.base-date e a
+ * impressão digital no log (ids relativos ao início da execução) permite conferir. Os ids começam
+ * depois do maior id existente e as identidades são reposicionadas no fim, então a aplicação continua
+ * inserindo normalmente no mesmo banco.
+ */
+@Component
+@Profile("datagen")
+public class DatasetGenerator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(DatasetGenerator.class);
+
+    // Hash BCrypt de "password123", o mesmo do data.sql; calcular um por usuário dominaria o tempo
+    private static final String PASSWORD_HASH = "$2a$10$Fo4IOGqJkEH5dstr.zV82ue1h25ifsd5fCiNv0EYMyFh.P45Dk0gW";
+
+    private static final String[][] DEFAULT_COLUMNS = {
+        {"Backlog", "Tarefas no backlog", "#6B7280"},
+        {"A Fazer", "Tarefas prontas para desenvolvimento", "#3B82F6"},
+        {"Em Progresso", "Tarefas em desenvolvimento", "#F59E0B"},
+        {"Em Revisão", "Tarefas em revisão", "#8B5CF6"},
+        {"Concluído", "Tarefas finalizadas", "#10B981"}
+    };
+    // Mesma ordem das colunas padrão; pesos de um quadro maduro, com muita coisa concluída
+    private static final String[] TASK_STATUSES = {"BACKLOG", "READY_TO_DEVELOP", "IN_PROGRESS", "IN_REVIEW", "DONE"};
+    private static final double[] TASK_STATUS_WEIGHTS = {0.25, 0.12, 0.15, 0.08, 0.40};
+    private static final double[] CHECKLIST_DONE_BY_STATUS = {0.05, 0.10, 0.40, 0.70, 0.95};
+    private static final String[] PRIORITIES = {"LOW", "MEDIUM", "HIGH", "URGENT"};
+    private static final double[] PRIORITY_WEIGHTS = {0.25, 0.45, 0.22, 0.08};
+    private static final String[] PROJECT_STATUSES = {"ACTIVE", "PAUSED", "COMPLETED", "CANCELLED"};
+    private static final double[] PROJECT_STATUS_WEIGHTS = {0.80, 0.10, 0.08, 0.02};
+    private static final String[] ROLES = {"ADMIN", "MEMBER", "VIEWER"};
+    private static final double[] ROLE_WEIGHTS = {0.15, 0.75, 0.10};
+
+    private static final String[] FIRST_NAMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela",
+        "Henrique", "Isabela", "João", "Larissa", "Marcos", "Natália", "Otávio", "Patrícia", "Rafael", "Sofia",
+        "Thiago", "Vanessa", "William"};
+    private static final String[] LAST_NAMES = {"Almeida", "Barbosa", "Cardoso", "Costa", "Ferreira", "Gomes",
+        "Lima", "Martins", "Oliveira", "Pereira", "Ribeiro", "Rocha", "Santos", "Silva", "Souza"};
+    private static final String[] VERBS = {"Implementar", "Corrigir", "Revisar", "Documentar", "Testar", "Refatorar",
+        "Configurar", "Migrar", "Otimizar", "Validar"};
+    private static final String[] SUBJECTS = {"login", "cadastro de clientes", "relatório mensal", "API de pedidos",
+        "tela de checkout", "integração com pagamento", "notificações", "permissões", "busca", "dashboard",
+        "exportação CSV", "cache de sessões", "filas de e-mail", "upload de arquivos", "auditoria"};
+    private static final String[] AREAS = {"Portal", "App", "Plataforma", "Sistema", "Serviço", "Painel"};
+    private static final String[] DOMAINS = {"de Vendas", "Financeiro", "de Logística", "de RH", "de Suporte",
+        "de Marketing", "de Estoque", "Jurídico"};
+    private static final String[] SENTENCES = {"Alinhar com o time antes de começar.", "Ver critérios de aceite no card.",
+        "Depende da revisão do design.", "Cliente pediu prioridade nesta sprint.", "Incluir testes automatizados.",
+        "Atualizar a documentação ao final.", "Verificar impacto em produção.", "Medir o tempo de resposta antes e depois."};
+    private static final String[] COMMENTS = {"Comecei a trabalhar nisso.", "Subi uma primeira versão para revisão.",
+        "Encontrei um caso de borda, ajustando.", "Pode revisar quando tiver um tempo?", "Aprovado, pode seguir.",
+        "Bloqueado esperando acesso ao ambiente.", "Conversei com o cliente e está validado.", "Feito, movendo para revisão."};
+    private static final String[] CHECKLIST = {"Escrever testes", "Revisar código", "Atualizar documentação",
+        "Validar com o PO", "Publicar em homologação", "Conferir logs", "Ajustar layout", "Medir desempenho"};
+    private static final String[] MEETING_KINDS = {"Planejamento da sprint", "Daily", "Retrospectiva", "Revisão da sprint",
+        "Alinhamento com cliente", "Refinamento do backlog"};
+    private static final String[] DECISIONS = {"Priorizar correções antes de novas funcionalidades",
+        "Adiar a integração para a próxima sprint", "Adotar revisão em pares para mudanças críticas",
+        "Manter o escopo atual", "Criar ambiente de homologação dedicado"};
+    private static final String[] ACTIONS = {"Atualizar o quadro com as novas tarefas", "Agendar reunião com o cliente",
+        "Revisar estimativas", "Documentar decisões na wiki", "Levantar métricas de uso"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Spec spec;
+    private final ConfigurableApplicationContext context;
+
+    @Autowired
+    public DatasetGenerator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                            ConfigurableApplicationContext context,
+                            @Value("${datagen.seed:42}") long seed,
+                            @Value("${datagen.prefix:}") String prefix,
+                            @Value("${datagen.users:2000}") int users,
+                            @Value("${datagen.projects:400}") int projects,
+                            @Value("${datagen.tasks:200000}") int tasks,
+                            @Value("${datagen.project-size-skew:1.1}") double projectSizeSkew,
+                            @Value("${datagen.user-activity-skew:0.8}") double userActivitySkew,
+                            @Value("${datagen.members-per-project:8}") double membersPerProject,
+                            @Value("${datagen.comments-per-task:2}") double commentsPerTask,
+                            @Value("${datagen.checklist-items-per-task:1.5}") double checklistItemsPerTask,
+                            @Value("${datagen.meetings-per-project:4}") double meetingsPerProject,
+                            @Value("${datagen.minutes-per-project:2}") double minutesPerProject,
+                            @Value("${datagen.write-minute-files:true}") boolean writeMinuteFiles,
+                            @Value("${datagen.base-date:2024-01-01T00:00:00}") String baseDate,
+                            @Value("${datagen.history-days:365}") int historyDays,
+                            @Value("${datagen.batch-size:1000}") int batchSize,
+                            @Value("${app.upload.dir:uploads}") String uploadDir) {
+        this(jdbcTemplate, new TransactionTemplate(transactionManager), context, new Spec(seed,
+            prefix.isEmpty() ? "dg" + seed : prefix, users, projects, tasks, projectSizeSkew, userActivitySkew,
+            membersPerProject, commentsPerTask, checklistItemsPerTask, meetingsPerProject, minutesPerProject,
+            writeMinuteFiles ? Paths.get(uploadDir, "datagen-" + seed) : null,
+            LocalDateTime.parse(baseDate), historyDays, batchSize));
+    }
+
+    DatasetGenerator(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                     ConfigurableApplicationContext context, Spec spec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.context = context;
+        this.spec = spec;
+    }
+
+    /**
+     * Gera a massa e encerra a aplicação (o perfil datagen não sobe o servidor web)
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        generate();
+        System.exit(SpringApplication.exit(context));
+    }
+
+    /**
+     * Gera a massa descrita em {@link Spec}; devolve linhas por tabela e a impressão digital
+     */
+    public Result generate() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE username = ?", Integer.class,
+            spec.prefix + "-0");
+        if (existing != null && existing > 0) {
+            throw new IllegalStateException("Já existe massa com o prefixo " + spec.prefix
+                + " neste banco; use outro datagen.seed ou datagen.prefix");
+        }
+        logger.info("Gerando massa: semente {}, {} usuários, {} projetos, {} tarefas", spec.seed, spec.users,
+            spec.projects, spec.tasks);
+        long start = System.nanoTime();
+        Run run = new Run();
+        run.users();
+        run.projects();
+        Result result = run.finish();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        logger.info("Massa gerada em {}s ({} linhas/s): {}; impressão digital {}", String.format(Locale.ROOT, "%.1f", seconds),
+            Math.round(result.totalRows() / Math.max(seconds, 1e-3)), result.getRows(), result.getFingerprint());
+        return result;
+    }
+
+    /**
+     * Uma execução: sequências de id, lotes pendentes e o estado do gerador aleatório
+     */
+    private final class Run {
+
+        private final SplittableRandom random = new SplittableRandom(spec.seed);
+        private final CRC32 fingerprint = new CRC32();
+
+        private final Sequence userIds = sequence("users");
+        private final Sequence projectIds = sequence("projects");
+        private final Sequence accessIds = sequence("project_access");
+        private final Sequence columnIds = sequence("task_columns");
+        private final Sequence taskIds = sequence("tasks");
+        private final Sequence commentIds = sequence("task_comments");
+        private final Sequence checklistIds = sequence("task_checklist_items");
+        private final Sequence meetingIds = sequence("meeting_records");
+        private final Sequence minuteIds = sequence("meeting_minutes");
+        private final List<Sequence> sequences = Arrays.asList(userIds, projectIds, accessIds, columnIds, taskIds,
+            commentIds, checklistIds, meetingIds, minuteIds);
+
+        private final Batch users = new Batch("users", "INSERT INTO users (id, username, email, password, full_name, "
+            + "created_at, updated_at, is_active) VALUES (?, ?, ?, ?, ?, ?, ?, ?)");
+        private final Batch projects = new Batch("projects", "INSERT INTO projects (id, name, description, status, "
+            + "start_date, end_date, created_at, updated_at, created_by) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", users);
+        private final Batch projectUsers = new Batch("project_users",
+            "INSERT INTO project_users (project_id, user_id) VALUES (?, ?)", projects);
+        private final Batch access = new Batch("project_access", "INSERT INTO project_access (id, project_id, user_id, "
+            + "role, granted_at, granted_by) VALUES (?, ?, ?, ?, ?, ?)", projects);
+        private final Batch columns = new Batch("task_columns", "INSERT INTO task_columns (id, name, description, "
+            + "column_order, color, is_default, project_id, created_by, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", projects);
+        private final Batch tasks = new Batch("tasks", "INSERT INTO tasks (id, title, description, status, priority, "
+            + "due_date, created_at, updated_at, project_id, assigned_user_id, created_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", projects);
+        private final Batch comments = new Batch("task_comments", "INSERT INTO task_comments (id, content, created_at, "
+            + "updated_at, task_id, created_by) VALUES (?, ?, ?, ?, ?, ?)", tasks);
+        private final Batch checklist = new Batch("task_checklist_items", "INSERT INTO task_checklist_items (id, "
+            + "description, is_completed, created_at, updated_at, completed_at, task_id, created_by, completed_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", tasks);
+        private final Batch meetings = new Batch("meeting_records", "INSERT INTO meeting_records (id, title, summary, "
+            + "meeting_date, project_id, created_by, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", projects);
+        private final Batch participants = new Batch("meeting_participants",
+            "INSERT INTO meeting_participants (meeting_id, participant_name) VALUES (?, ?)", meetings);
+        private final Batch decisions = new Batch("meeting_decisions",
+            "INSERT INTO meeting_decisions (meeting_id, decision) VALUES (?, ?)", meetings);
+        private final Batch actions = new Batch("meeting_actions",
+            "INSERT INTO meeting_actions (meeting_id, action) VALUES (?, ?)", meetings);
+        private final Batch minutes = new Batch("meeting_minutes", "INSERT INTO meeting_minutes (id, title, file_name, "
+            + "file_path, file_size, content_type, meeting_date, uploaded_at, project_id, uploaded_by) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", projects);
+        private final List<Batch> batches = Arrays.asList(users, projects, projectUsers, access, columns, tasks,
+            comments, checklist, meetings, participants, decisions, actions, minutes);
+
+        private String[] fullNames;
+        private LocalDateTime[] joinedAt;
+        private ZipfSampler userPopularity;
+
+        void users() {
+            fullNames = new String[spec.users];
+            joinedAt = new LocalDateTime[spec.users];
+            for (int i = 0; i < spec.users; i++) {
+                String username = spec.prefix + "-" + i;
+                fullNames[i] = pick(FIRST_NAMES) + " " + pick(LAST_NAMES);
+                joinedAt[i] = spec.baseDate.plusMinutes(random.nextLong(spec.historyDays * 1440L / 2 + 1));
+                users.add(userIds.id(i), username, username + "@datagen.local", PASSWORD_HASH, fullNames[i],
+                    joinedAt[i], joinedAt[i], random.nextDouble() < 0.97);
+            }
+            userPopularity = new ZipfSampler(spec.users, spec.userActivitySkew, random);
+        }
+
+        void projects() {
+            int[] sizes = projectSizes(spec.projects, spec.tasks, spec.projectSizeSkew, random);
+            double averageSize = spec.projects == 0 ? 0 : spec.tasks / (double) spec.projects;
+            long taskIndex = 0;
+            for (int p = 0; p < spec.projects; p++) {
+                int[] members = members(sizes[p], averageSize);
+                int owner = members[0];
+                Sequence.Id projectId = projectIds.id(p);
+                Sequence.Id ownerId = userIds.id(owner);
+                LocalDateTime createdAt = after(joinedAt[owner], spec.historyDays / 4);
+                String status = pick(PROJECT_STATUSES, PROJECT_STATUS_WEIGHTS);
+                projects.add(projectId, pick(AREAS) + " " + pick(DOMAINS) + " " + p, sentences(1, 3), status,
+                    createdAt, "COMPLETED".equals(status) ? after(createdAt, spec.historyDays / 2) : null,
+                    createdAt, createdAt, ownerId);
+
+                for (int m = 0; m < members.length; m++) {
+                    projectUsers.add(projectId, userIds.id(members[m]));
+                    access.add(accessIds.next(), projectId, userIds.id(members[m]),
+                        m == 0 ? "OWNER" : pick(ROLES, ROLE_WEIGHTS), createdAt, ownerId);
+                }
+                for (int c = 0; c < DEFAULT_COLUMNS.length; c++) {
+                    columns.add(columnIds.next(), DEFAULT_COLUMNS[c][0], DEFAULT_COLUMNS[c][1], c,
+                        DEFAULT_COLUMNS[c][2], true, projectId, ownerId, createdAt, createdAt);
+                }
+                for (int t = 0; t < sizes[p]; t++) {
+                    task(taskIds.id(taskIndex++), projectId, createdAt, members);
+                }
+                meetingsAndMinutes(projectId, createdAt, members);
+            }
+        }
+
+        private void task(Sequence.Id taskId, Sequence.Id projectId, LocalDateTime projectCreatedAt, int[] members) {
+            int statusIndex = pickIndex(TASK_STATUS_WEIGHTS);
+            Sequence.Id creator = userIds.id(members[random.nextInt(members.length)]);
+            Sequence.Id assignee = random.nextDouble() < 0.15 ? null : userIds.id(members[random.nextInt(members.length)]);
+            LocalDateTime createdAt = after(projectCreatedAt, spec.historyDays / 2);
+            LocalDateTime updatedAt = after(createdAt, 30);
+            LocalDateTime dueDate = random.nextBoolean() ? after(createdAt, 60) : null;
+            tasks.add(taskId, pick(VERBS) + " " + pick(SUBJECTS), random.nextDouble() < 0.2 ? null : sentences(1, 4),
+                TASK_STATUSES[statusIndex], pick(PRIORITIES, PRIORITY_WEIGHTS), dueDate, createdAt, updatedAt,
+                projectId, assignee, creator);
+
+            int commentCount = geometric(spec.commentsPerTask);
+            for (int c = 0; c < commentCount; c++) {
+                LocalDateTime at = after(createdAt, 30);
+                comments.add(commentIds.next(), pick(COMMENTS), at, at, taskId,
+                    userIds.id(members[random.nextInt(members.length)]));
+            }
+            int itemCount = geometric(spec.checklistItemsPerTask);
+            for (int i = 0; i < itemCount; i++) {
+                boolean completed = random.nextDouble() < CHECKLIST_DONE_BY_STATUS[statusIndex];
+                LocalDateTime completedAt = completed ? after(createdAt, 20) : null;
+                checklist.add(checklistIds.next(), pick(CHECKLIST), completed, createdAt,
+                    completed ? completedAt : createdAt, completedAt, taskId, creator,
+                    completed ? userIds.id(members[random.nextInt(members.length)]) : null);
+            }
+        }
+
+        private void meetingsAndMinutes(Sequence.Id projectId, LocalDateTime projectCreatedAt, int[] members) {
+            int meetingCount = geometric(spec.meetingsPerProject);
+            for (int i = 0; i < meetingCount; i++) {
+                Sequence.Id meetingId = meetingIds.next();
+                LocalDateTime meetingDate = after(projectCreatedAt, spec.historyDays / 2);
+                meetings.add(meetingId, pick(MEETING_KINDS) + " #" + (i + 1), sentences(1, 3), meetingDate, projectId,
+                    userIds.id(members[random.nextInt(members.length)]), meetingDate, meetingDate);
+                int participantCount = Math.min(members.length, 2 + random.nextInt(5));
+                for (int k = 0; k < participantCount; k++) {
+                    participants.add(meetingId, fullNames[members[k]]);
+                }
+                for (int k = 1 + random.nextInt(3); k > 0; k--) {
+                    decisions.add(meetingId, pick(DECISIONS));
+                }
+                for (int k = 1 + random.nextInt(4); k > 0; k--) {
+                    actions.add(meetingId, pick(ACTIONS));
+                }
+            }
+
+            int minuteCount = geometric(spec.minutesPerProject);
+            for (int i = 0; i < minuteCount; i++) {
+                Sequence.Id minuteId = minuteIds.next();
+                LocalDateTime meetingDate = after(projectCreatedAt, spec.historyDays / 2);
+                String title = pick(MEETING_KINDS) + " - ata " + (i + 1);
+                String fileName = "ata-" + minuteId.offset + ".txt";
+                byte[] content = (title + "\n\n" + sentences(3, 12) + "\n").getBytes(StandardCharsets.UTF_8);
+                String filePath = spec.minutesDir != null ? spec.minutesDir.resolve(fileName).toString() : "/uploads/" + fileName;
+                if (spec.minutesDir != null) {
+                    write(spec.minutesDir.resolve(fileName), content);
+                }
+                minutes.add(minuteId, title, fileName, filePath, (long) content.length, "text/plain", meetingDate,
+                    meetingDate, projectId, userIds.id(members[random.nextInt(members.length)]));
+            }
+        }
+
+        /**
+         * Membros de um projeto: o dono primeiro, depois usuários sorteados pela popularidade;
+         * projetos com mais tarefas têm mais membros (raiz do tamanho relativo)
+         */
+        private int[] members(int projectSize, double averageSize) {
+            double scale = averageSize > 0 ? Math.sqrt(projectSize / averageSize) : 1;
+            int wanted = (int) Math.max(1, Math.min(spec.users, Math.round(spec.membersPerProject * scale)));
+            LinkedHashSet<Integer> members = new LinkedHashSet<>();
+            for (int attempt = 0; members.size() < wanted && attempt < wanted * 20; attempt++) {
+                members.add(userPopularity.next());
+            }
+            return members.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        Result finish() {
+            for (Batch batch : batches) {
+                batch.flush();
+            }
+            for (Sequence sequence : sequences) {
+                jdbcTemplate.execute("ALTER TABLE " + sequence.table + " ALTER COLUMN id RESTART WITH "
+                    + (sequence.base + sequence.used));
+            }
+            Map<String, Long> rows = new LinkedHashMap<>();
+            for (Batch batch : batches) {
+                rows.put(batch.table, batch.written);
+            }
+            return new Result(rows, Long.toHexString(fingerprint.getValue()));
+        }
+
+        private String sentences(int min, int max) {
+            StringBuilder text = new StringBuilder();
+            for (int i = min + random.nextInt(max - min + 1); i > 0; i--) {
+                text.append(text.length() > 0 ? " " : "").append(pick(SENTENCES));
+            }
+            return text.toString();
+        }
+
+        private LocalDateTime after(LocalDateTime from, int maxDays) {
+            return from.plusMinutes(random.nextLong(Math.max(1, maxDays) * 1440L));
+        }
+
+        private int geometric(double mean) {
+            if (mean <= 0) {
+                return 0;
+            }
+            double p = 1 / (1 + mean);
+            return (int) Math.floor(Math.log(1 - random.nextDouble()) / Math.log(1 - p));
+        }
+
+        private String pick(String[] values) {
+            return values[random.nextInt(values.length)];
+        }
+
+        private String pick(String[] values, double[] weights) {
+            return values[pickIndex(weights)];
+        }
+
+        private int pickIndex(double[] weights) {
+            double u = random.nextDouble();
+            for (int i = 0; i < weights.length - 1; i++) {
+                u -= weights[i];
+                if (u < 0) {
+                    return i;
+                }
+            }
+            return weights.length - 1;
+        }
+
+        private Sequence sequence(String table) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            return new Sequence(table, (max != null ? max : 0) + 1);
+        }
+
+        private void write(Path file, byte[] content) {
+            try {
+                Files.createDirectories(file.getParent());
+                Files.write(file, content);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Lote de inserts de uma tabela; antes de gravar, descarrega as tabelas de que depende (chaves
+         * estrangeiras). Ids entram na impressão digital pelo deslocamento, o resto pelo valor.
+         */
+        private final class Batch {
+            private final String table;
+            private final String sql;
+            private final Batch[] parents;
+            private final List<Object[]> pending = new ArrayList<>();
+            private long written;
+
+            Batch(String table, String sql, Batch... parents) {
+                this.table = table;
+                this.sql = sql;
+                this.parents = parents;
+            }
+
+            void add(Object... values) {
+                Object[] row = new Object[values.length];
+                for (int i = 0; i < values.length; i++) {
+                    Object value = values[i];
+                    String fingerprintValue;
+                    if (value instanceof Sequence.Id) {
+                        row[i] = ((Sequence.Id) value).value();
+                        fingerprintValue = "#" + ((Sequence.Id) value).offset;
+                    } else {
+                        row[i] = value;
+                        fingerprintValue = String.valueOf(value);
+                    }
+                    fingerprint.update(fingerprintValue.getBytes(StandardCharsets.UTF_8));
+                    fingerprint.update('|');
+                }
+                pending.add(row);
+                if (pending.size() >= spec.batchSize) {
+                    flush();
+                }
+            }
+
+            void flush() {
+                for (Batch parent : parents) {
+                    parent.flush();
+                }
+                if (pending.isEmpty()) {
+                    return;
+                }
+                // setObject direto: o batchUpdate(sql, List) consulta o tipo do parâmetro a cada null
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int index) throws SQLException {
+                        Object[] row = pending.get(index);
+                        for (int i = 0; i < row.length; i++) {
+                            statement.setObject(i + 1, row[i]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return pending.size();
+                    }
+                }));
+                written += pending.size();
+                pending.clear();
+            }
+        }
+    }
+
+    /**
+     * Tamanho de cada projeto em Zipf: o projeto de posição k (em ordem embaralhada) recebe uma fatia
+     * proporcional a 1/(k+1)^skew do total; as sobras do arredondamento vão para os maiores
+     */
+    static int[] projectSizes(int projects, long tasks, double skew, SplittableRandom random) {
+        int[] sizes = new int[projects];
+        if (projects == 0) {
+            return sizes;
+        }
+        double[] weights = new double[projects];
+        double total = 0;
+        for (int k = 0; k < projects; k++) {
+            weights[k] = 1 / Math.pow(k + 1, skew);
+            total += weights[k];
+        }
+        long assigned = 0;
+        for (int k = 0; k < projects; k++) {
+            sizes[k] = (int) Math.floor(tasks * weights[k] / total);
+            assigned += sizes[k];
+        }
+        for (int k = 0; assigned < tasks; k = (k + 1) % projects, assigned++) {
+            sizes[k]++;
+        }
+        shuffle(sizes, random);
+        return sizes;
+    }
+
+    private static void shuffle(int[] values, SplittableRandom random) {
+        for (int i = values.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = values[i];
+            values[i] = values[j];
+            values[j] = swap;
+        }
+    }
+
+    /**
+     * Amostra índices 0..n-1 em Zipf (CDF acumulada + busca binária); a ordem de popularidade é
+     * embaralhada para os usuários mais ativos não serem sempre os primeiros ids
+     */
+    static final class ZipfSampler {
+        private final double[] cumulative;
+        private final int[] ranked;
+        private final SplittableRandom random;
+
+        ZipfSampler(int n, double skew, SplittableRandom random) {
+            this.random = random;
+            this.cumulative = new double[n];
+            double total = 0;
+            for (int k = 0; k < n; k++) {
+                total += 1 / Math.pow(k + 1, skew);
+                cumulative[k] = total;
+            }
+            this.ranked = new int[n];
+            for (int i = 0; i < n; i++) {
+                ranked[i] = i;
+            }
+            shuffle(ranked, random);
+        }
+
+        int next() {
+            double u = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, u);
+            return ranked[Math.min(index >= 0 ? index : -index - 1, ranked.length - 1)];
+        }
+    }
+
+    /**
+     * Ids explícitos de uma tabela a partir do maior id existente + 1
+     */
+    private static final class Sequence {
+        private final String table;
+        private final long base;
+        private long used;
+
+        Sequence(String table, long base) {
+            this.table = table;
+            this.base = base;
+        }
+
+        Id id(long offset) {
+            used = Math.max(used, offset + 1);
+            return new Id(this, offset);
+        }
+
+        Id next() {
+            return id(used);
+        }
+
+        static final class Id {
+            private final Sequence sequence;
+            private final long offset;
+
+            Id(Sequence sequence, long offset) {
+                this.sequence = sequence;
+                this.offset = offset;
+            }
+
+            long value() {
+                return sequence.base + offset;
+            }
+        }
+    }
+
+    /**
+     * Volumes e distribuições de uma execução
+     */
+    static final class Spec {
+        final long seed;
+        final String prefix;
+        final int users;
+        final int projects;
+        final long tasks;
+        final double projectSizeSkew;
+        final double userActivitySkew;
+        final double membersPerProject;
+        final double commentsPerTask;
+        final double checklistItemsPerTask;
+        final double meetingsPerProject;
+        final double minutesPerProject;
+        // Null: só as linhas de meeting_minutes, sem gravar os arquivos
+        final Path minutesDir;
+        final LocalDateTime baseDate;
+        final int historyDays;
+        final int batchSize;
+
+        Spec(long seed, String prefix, int users, int projects, long tasks, double projectSizeSkew,
+             double userActivitySkew, double membersPerProject, double commentsPerTask, double checklistItemsPerTask,
+             double meetingsPerProject, double minutesPerProject, Path minutesDir, LocalDateTime baseDate,
+             int historyDays, int batchSize) {
+            if (users < 1 && projects > 0) {
+                throw new IllegalArgumentException("datagen.users deve ser ao menos 1 quando há projetos");
+            }
+            this.seed = seed;
+            this.prefix = prefix;
+            this.users = users;
+            this.projects = projects;
+            this.tasks = tasks;
+            this.projectSizeSkew = projectSizeSkew;
+            this.userActivitySkew = userActivitySkew;
+            this.membersPerProject = membersPerProject;
+            this.commentsPerTask = commentsPerTask;
+            this.checklistItemsPerTask = checklistItemsPerTask;
+            this.meetingsPerProject = meetingsPerProject;
+            this.minutesPerProject = minutesPerProject;
+            this.minutesDir = minutesDir;
+            this.baseDate = baseDate;
+            this.historyDays = historyDays;
+            this.batchSize = Math.max(1, batchSize);
+        }
+    }
+
+    /**
+     * Linhas gravadas por tabela e a impressão digital da massa (igual para a mesma semente e volumes)
+     */
+    public static final class Result {
+        private final Map<String, Long> rows;
+        private final String fingerprint;
+
+        Result(Map<String, Long> rows, String fingerprint) {
+            this.rows = rows;
+            this.fingerprint = fingerprint;
+        }
+
+        public Map<String, Long> getRows() {
+            return rows;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public long totalRows() {
+            return rows.values().stream().mapToLong(Long::longValue).sum();
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.ProjectStatus;
+
+/**
+ * Projeção enxuta de projeto (sem usuários, tarefas ou acessos) usada pelas ferramentas MCP
+ */
+public interface ProjectSummary {
+    Long getId();
+    String getName();
+    String getDescription();
+    ProjectStatus getStatus();
+}
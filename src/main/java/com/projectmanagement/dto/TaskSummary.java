@@ -0,0 +1,15 @@
+package com.projectmanagement.dto;
+
+import com.projectmanagement.model.TaskPriority;
+
+/**
+ * Projeção enxuta de tarefa (sem projeto/usuários carregados) usada pelas ferramentas MCP
+ */
+public interface TaskSummary {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    String getStatus();
+    TaskPriority getPriority();
+    Long getProjectId();
+}
@@ -0,0 +1,165 @@
+package com.projectmanagement.github;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Janela de linhas/bytes sobre um arquivo recebido em partes (streaming).
+ *
+ * Modo intervalo (start_line..end_line): guarda só as linhas pedidas e sinaliza fim
+ * assim que a janela é ultrapassada, permitindo cancelar o download.
+ * Modo final (tail_lines): percorre o arquivo mantendo apenas as últimas N linhas.
+ * Em ambos os modos a memória fica limitada a max_bytes.
+ */
+public class FileContentWindow {
+
+    private final int startLine;
+    private final int endLine;
+    private final int tailLines;
+    private final int maxBytes;
+
+    private final ByteArrayOutputStream selected = new ByteArrayOutputStream();
+    private final ByteArrayOutputStream currentLine = new ByteArrayOutputStream();
+    private final Deque<byte[]> tail = new ArrayDeque<>();
+    private int tailBytes;
+
+    private int lineNumber = 1;
+    private int firstLine = -1;
+    private int lastLine = -1;
+    private long bytesRead;
+    private byte lastByte;
+    private boolean truncated;
+    private boolean done;
+
+    private FileContentWindow(int startLine, int endLine, int tailLines, int maxBytes) {
+        this.startLine = Math.max(1, startLine);
+        this.endLine = endLine <= 0 ? Integer.MAX_VALUE : Math.max(this.startLine, endLine);
+        this.tailLines = tailLines;
+        this.maxBytes = Math.max(1, maxBytes);
+    }
+
+    public static FileContentWindow lines(int startLine, int endLine, int maxBytes) {
+        return new FileContentWindow(startLine, endLine, 0, maxBytes);
+    }
+
+    public static FileContentWindow tail(int tailLines, int maxBytes) {
+        return new FileContentWindow(1, 0, Math.max(1, tailLines), maxBytes);
+    }
+
+    /**
+     * Consome uma parte do arquivo; retorna true quando não é preciso ler mais nada
+     */
+    public boolean feed(ByteBuffer chunk) {
+        while (chunk.hasRemaining() && !done) {
+            byte b = chunk.get();
+            bytesRead++;
+            lastByte = b;
+            if (tailLines > 0) {
+                feedTail(b);
+            } else {
+                feedRange(b);
+            }
+        }
+        return done;
+    }
+
+    private void feedRange(byte b) {
+        if (lineNumber > endLine || (lineNumber >= startLine && selected.size() >= maxBytes)) {
+            truncated = true;
+            done = true;
+            return;
+        }
+        if (lineNumber >= startLine) {
+            if (firstLine < 0) {
+                firstLine = lineNumber;
+            }
+            selected.write(b);
+            lastLine = lineNumber;
+        }
+        if (b == '\n') {
+            lineNumber++;
+        }
+    }
+
+    private void feedTail(byte b) {
+        if (currentLine.size() < maxBytes) {
+            currentLine.write(b);
+        } else {
+            // Linha maior que a janela inteira: guarda só o começo
+            truncated = true;
+        }
+        if (b == '\n') {
+            pushTailLine();
+            lineNumber++;
+        }
+    }
+
+    private void pushTailLine() {
+        byte[] line = currentLine.toByteArray();
+        currentLine.reset();
+        tail.addLast(line);
+        tailBytes += line.length;
+        while (tail.size() > tailLines || (tailBytes > maxBytes && tail.size() > 1)) {
+            tailBytes -= tail.removeFirst().length;
+            truncated = true;
+        }
+    }
+
+    /**
+     * Conteúdo da janela e metadados; complete indica que o arquivo foi lido até o fim
+     */
+    public Map<String, Object> result(boolean complete) {
+        int totalLines = bytesRead == 0 ? 0 : (lastByte == '\n' ? lineNumber - 1 : lineNumber);
+
+        byte[] content;
+        if (tailLines > 0) {
+            if (currentLine.size() > 0) {
+                pushTailLine();
+            }
+            ByteArrayOutputStream out = new ByteArrayOutputStream(tailBytes);
+            tail.forEach(out::writeBytes);
+            content = out.toByteArray();
+            if (!tail.isEmpty()) {
+                firstLine = totalLines - tail.size() + 1;
+                lastLine = totalLines;
+            }
+        } else {
+            content = selected.toByteArray();
+            if (startLine > 1) {
+                truncated = true;
+            }
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("content", new String(content, 0, utf8Boundary(content), StandardCharsets.UTF_8));
+        result.put("start_line", firstLine < 0 ? null : firstLine);
+        result.put("end_line", lastLine < 0 ? null : lastLine);
+        result.put("total_lines", complete ? totalLines : null);
+        result.put("bytes_read", bytesRead);
+        result.put("truncated", truncated || !complete);
+        return result;
+    }
+
+    /**
+     * Comprimento sem uma sequência UTF-8 incompleta no final (janela cortada no meio de um caractere)
+     */
+    static int utf8Boundary(byte[] bytes) {
+        int i = bytes.length - 1;
+        int continuation = 0;
+        while (i >= 0 && (bytes[i] & 0xC0) == 0x80 && continuation < 3) {
+            i--;
+            continuation++;
+        }
+        if (i < 0) {
+            return bytes.length;
+        }
+        int lead = bytes[i] & 0xFF;
+        int expected = lead >= 0xF0 ? 3 : lead >= 0xE0 ? 2 : lead >= 0xC0 ? 1 : 0;
+        return expected > continuation ? i : bytes.length;
+    }
+}
@@ -0,0 +1,99 @@
+package com.projectmanagement.github;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Filtro do WebClient do GitHub: requisições condicionais + agendamento por cota.
+ *
+ * GETs com resposta em cache saem com If-None-Match / If-Modified-Since; um 304
+ * (que não consome cota) é respondido com o corpo em cache. Se a cota estiver
+ * esgotada, respostas em cache são servidas sem ir à rede.
+ * Conteúdo raw de arquivos não é cacheado: o corpo segue em streaming para o chamador.
+ */
+public class GitHubCachingFilter implements ExchangeFilterFunction {
+
+    private final GitHubResponseCache cache;
+    private final GitHubRateLimiter rateLimiter;
+
+    public GitHubCachingFilter(GitHubResponseCache cache, GitHubRateLimiter rateLimiter) {
+        this.cache = cache;
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String authorization = request.headers().getFirst(HttpHeaders.AUTHORIZATION);
+        String tokenIdentity = GitHubResponseCache.tokenIdentity(authorization);
+
+        if (request.method() != HttpMethod.GET || isRawContent(request)) {
+            return rateLimiter.acquire(tokenIdentity)
+                .then(next.exchange(request))
+                .doOnNext(response -> rateLimiter.update(tokenIdentity, response.headers().asHttpHeaders()));
+        }
+
+        String key = GitHubResponseCache.key(authorization, request.url());
+        GitHubResponseCache.Entry cached = cache.get(key);
+
+        return rateLimiter.acquire(tokenIdentity)
+            .then(Mono.defer(() -> exchangeConditionally(request, next, key, cached, tokenIdentity)))
+            .onErrorResume(GitHubRateLimitException.class, e -> {
+                if (cached == null) {
+                    return Mono.error(e);
+                }
+                cache.record("stale");
+                return Mono.just(cached.toResponse(new HttpHeaders()));
+            });
+    }
+
+    private static boolean isRawContent(ClientRequest request) {
+        return request.headers().getAccept().stream()
+            .anyMatch(mediaType -> mediaType.getSubtype().contains("raw"));
+    }
+
+    private Mono<ClientResponse> exchangeConditionally(ClientRequest request, ExchangeFunction next, String key,
+                                                       GitHubResponseCache.Entry cached, String tokenIdentity) {
+        ClientRequest conditional = request;
+        if (cached != null) {
+            conditional = ClientRequest.from(request)
+                .headers(headers -> {
+                    if (cached.getETag() != null) {
+                        headers.setIfNoneMatch(cached.getETag());
+                    } else if (cached.getLastModified() != null) {
+                        headers.set(HttpHeaders.IF_MODIFIED_SINCE, cached.getLastModified());
+                    }
+                })
+                .build();
+        }
+
+        return next.exchange(conditional).flatMap(response -> {
+            HttpHeaders headers = response.headers().asHttpHeaders();
+            rateLimiter.update(tokenIdentity, headers);
+
+            if (response.rawStatusCode() == HttpStatus.NOT_MODIFIED.value() && cached != null) {
+                cache.record("revalidated");
+                return response.releaseBody().thenReturn(cached.toResponse(headers));
+            }
+
+            boolean cacheable = response.statusCode().is2xxSuccessful()
+                && (headers.getETag() != null || headers.getFirst(HttpHeaders.LAST_MODIFIED) != null);
+            if (!cacheable) {
+                return Mono.just(response);
+            }
+
+            cache.record("miss");
+            return response.bodyToMono(String.class)
+                .defaultIfEmpty("")
+                .map(body -> {
+                    cache.put(key, body, headers);
+                    return response.mutate().body(body).build();
+                });
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.projectmanagement.github;
+
+import java.time.Instant;
+
+/**
+ * Cota da API do GitHub esgotada e a espera até o reset excede o máximo configurado
+ */
+public class GitHubRateLimitException extends RuntimeException {
+
+    private final Instant resetAt;
+
+    public GitHubRateLimitException(Instant resetAt) {
+        super("Limite de requisições do GitHub atingido; reinicia em " + resetAt);
+        this.resetAt = resetAt;
+    }
+
+    public Instant getResetAt() {
+        return resetAt;
+    }
+}
@@ -0,0 +1,110 @@
+package com.projectmanagement.github;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Agenda requisições ao GitHub com base em X-RateLimit-Remaining / X-RateLimit-Reset.
+ *
+ * Com cota folgada não há atraso. Abaixo da reserva, espaça as requisições
+ * uniformemente até o reset; com cota zerada espera o reset (até max-wait)
+ * ou falha rápido com GitHubRateLimitException.
+ */
+@Component
+public class GitHubRateLimiter {
+
+    static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    static final String RESET_HEADER = "X-RateLimit-Reset";
+
+    private final int reserve;
+    private final Duration maxWait;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final Map<String, Quota> quotas = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GitHubRateLimiter(@Value("${github.rate-limit.reserve:100}") int reserve,
+                             @Value("${github.rate-limit.max-wait:5s}") Duration maxWait,
+                             MeterRegistry meterRegistry) {
+        this(reserve, maxWait, meterRegistry, Clock.systemUTC());
+    }
+
+    GitHubRateLimiter(int reserve, Duration maxWait, MeterRegistry meterRegistry, Clock clock) {
+        this.reserve = reserve;
+        this.maxWait = maxWait;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+    }
+
+    /**
+     * Completa quando a requisição pode ser enviada para o token informado
+     */
+    public Mono<Void> acquire(String tokenIdentity) {
+        Quota quota = quotas.get(tokenIdentity);
+        Instant now = clock.instant();
+        if (quota == null || !quota.resetAt.isAfter(now) || quota.remaining >= reserve) {
+            return Mono.empty();
+        }
+
+        Duration untilReset = Duration.between(now, quota.resetAt);
+        if (quota.remaining <= 0) {
+            if (untilReset.compareTo(maxWait) > 0) {
+                meterRegistry.counter("github.rate_limit.rejections").increment();
+                return Mono.error(new GitHubRateLimitException(quota.resetAt));
+            }
+            return delay(untilReset);
+        }
+
+        // Distribui o restante da cota pelo tempo até o reset
+        Duration pace = untilReset.dividedBy(quota.remaining);
+        return delay(pace.compareTo(maxWait) > 0 ? maxWait : pace);
+    }
+
+    public void update(String tokenIdentity, HttpHeaders headers) {
+        String remaining = headers.getFirst(REMAINING_HEADER);
+        String reset = headers.getFirst(RESET_HEADER);
+        if (remaining == null || reset == null) {
+            return;
+        }
+        try {
+            quotas.put(tokenIdentity, new Quota(
+                Integer.parseInt(remaining.trim()),
+                Instant.ofEpochSecond(Long.parseLong(reset.trim()))));
+        } catch (NumberFormatException ignored) {
+            // Cabeçalho malformado: mantém o último estado conhecido
+        }
+    }
+
+    /**
+     * Cota restante conhecida para o token, ou -1 se ainda não observada
+     */
+    public int remaining(String tokenIdentity) {
+        Quota quota = quotas.get(tokenIdentity);
+        return quota == null ? -1 : quota.remaining;
+    }
+
+    private Mono<Void> delay(Duration duration) {
+        meterRegistry.counter("github.rate_limit.delays").increment();
+        return Mono.delay(duration).then();
+    }
+
+    private static class Quota {
+        final int remaining;
+        final Instant resetAt;
+
+        Quota(int remaining, Instant resetAt) {
+            this.remaining = remaining;
+            this.resetAt = resetAt;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.projectmanagement.github;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache LRU de respostas GET do GitHub para revalidação condicional (ETag / Last-Modified).
+ *
+ * Chave: identidade do token (hash, nunca o token em si) + URL completa com query.
+ * Limitado por bytes aproximados do corpo e por número de entradas.
+ */
+@Component
+public class GitHubResponseCache {
+
+    // Cabeçalhos da resposta original que precisam sobreviver a um 304
+    private static final List<String> PRESERVED_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE, HttpHeaders.LINK, HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED);
+
+    private final long maxBytes;
+    private final int maxEntries;
+    private final MeterRegistry meterRegistry;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long currentBytes;
+
+    public GitHubResponseCache(@Value("${github.cache.max-bytes:16777216}") long maxBytes,
+                               @Value("${github.cache.max-entries:2000}") int maxEntries,
+                               MeterRegistry meterRegistry) {
+        this.maxBytes = maxBytes;
+        this.maxEntries = maxEntries;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("github.cache.bytes", this, GitHubResponseCache::currentBytes)
+            .description("Bytes aproximados armazenados no cache de respostas do GitHub")
+            .register(meterRegistry);
+        Gauge.builder("github.cache.entries", this, GitHubResponseCache::size)
+            .register(meterRegistry);
+    }
+
+    public static String key(String authorization, URI url) {
+        return tokenIdentity(authorization) + " " + url;
+    }
+
+    /**
+     * Hash curto do cabeçalho Authorization: separa usuários sem guardar o token
+     */
+    public static String tokenIdentity(String authorization) {
+        if (authorization == null || authorization.isEmpty()) {
+            return "anonymous";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(authorization.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    public synchronized void put(String key, String body, HttpHeaders responseHeaders) {
+        Entry entry = new Entry(body, responseHeaders);
+        if (entry.weight() > maxBytes) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            currentBytes -= previous.weight();
+        }
+        currentBytes += entry.weight();
+        evict();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        currentBytes = 0;
+    }
+
+    public synchronized long currentBytes() {
+        return currentBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Registra o resultado de uma consulta ao cache: revalidated (304), miss, stale (servido sem rede)
+     */
+    void record(String result) {
+        meterRegistry.counter("github.cache.requests", "result", result).increment();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((currentBytes > maxBytes || entries.size() > maxEntries) && eldest.hasNext()) {
+            currentBytes -= eldest.next().getValue().weight();
+            eldest.remove();
+        }
+    }
+
+    public static class Entry {
+
+        private final String body;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        Entry(String body, HttpHeaders responseHeaders) {
+            this.body = body;
+            for (String name : PRESERVED_HEADERS) {
+                List<String> values = responseHeaders.get(name);
+                if (values != null) {
+                    headers.put(name, values);
+                }
+            }
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public String getETag() {
+            return headers.getFirst(HttpHeaders.ETAG);
+        }
+
+        public String getLastModified() {
+            return headers.getFirst(HttpHeaders.LAST_MODIFIED);
+        }
+
+        long weight() {
+            // UTF-16 em memória + folga para cabeçalhos
+            return body.length() * 2L + 256;
+        }
+
+        /**
+         * Reconstrói a resposta 200 original a partir do cache
+         */
+        ClientResponse toResponse(HttpHeaders extraHeaders) {
+            return ClientResponse.create(HttpStatus.OK)
+                .headers(h -> {
+                    h.addAll(headers);
+                    extraHeaders.forEach((name, values) -> {
+                        if (!h.containsKey(name)) {
+                            h.put(name, values);
+                        }
+                    });
+                })
+                .body(body)
+                .build();
+        }
+    }
+}
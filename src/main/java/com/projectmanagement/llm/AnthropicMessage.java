@@ -0,0 +1,26 @@
+package com.projectmanagement.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mensagem da conversa no formato da API Anthropic (role user/assistant + blocos)
+ */
+public class AnthropicMessage {
+
+    private String role;
+    private List<ContentBlock> content = new ArrayList<>();
+
+    public AnthropicMessage() {}
+
+    public AnthropicMessage(String role) {
+        this.role = role;
+    }
+
+    // Getters and Setters
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public List<ContentBlock> getContent() { return content; }
+    public void setContent(List<ContentBlock> content) { this.content = content; }
+}
@@ -0,0 +1,38 @@
+package com.projectmanagement.llm;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Corpo de POST /v1/messages; tools aceita a lista convertida ou o fragmento pré-serializado (RawValue)
+ */
+@JsonInclude(JsonInclude.Include.NON_EMPTY)
+public class AnthropicRequest {
+
+    private String model;
+
+    @JsonProperty("max_tokens")
+    private int maxTokens;
+
+    private List<ContentBlock> system;
+    private List<AnthropicMessage> messages;
+    private Object tools;
+
+    // Getters and Setters
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public int getMaxTokens() { return maxTokens; }
+    public void setMaxTokens(int maxTokens) { this.maxTokens = maxTokens; }
+
+    public List<ContentBlock> getSystem() { return system; }
+    public void setSystem(List<ContentBlock> system) { this.system = system; }
+
+    public List<AnthropicMessage> getMessages() { return messages; }
+    public void setMessages(List<AnthropicMessage> messages) { this.messages = messages; }
+
+    public Object getTools() { return tools; }
+    public void setTools(Object tools) { this.tools = tools; }
+}
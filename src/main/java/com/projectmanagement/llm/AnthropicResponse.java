@@ -0,0 +1,39 @@
+package com.projectmanagement.llm;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resposta de /v1/messages decodificada direto dos tokens JSON, sem Map intermediário
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class AnthropicResponse {
+
+    private String id;
+    private String model;
+
+    @JsonProperty("stop_reason")
+    private String stopReason;
+
+    private List<ContentBlock> content = new ArrayList<>();
+    private Usage usage;
+
+    // Getters and Setters
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public String getStopReason() { return stopReason; }
+    public void setStopReason(String stopReason) { this.stopReason = stopReason; }
+
+    public List<ContentBlock> getContent() { return content; }
+    public void setContent(List<ContentBlock> content) { this.content = content; }
+
+    public Usage getUsage() { return usage; }
+    public void setUsage(Usage usage) { this.usage = usage; }
+}
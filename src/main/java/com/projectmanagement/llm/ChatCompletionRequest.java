@@ -0,0 +1,39 @@
+package com.projectmanagement.llm;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Corpo de POST /chat/completions (formato OpenAI, usado pelo OpenRouter)
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChatCompletionRequest {
+
+    private String model;
+    private List<Map<String, Object>> messages;
+    private Object tools;
+    private boolean stream;
+
+    public ChatCompletionRequest() {}
+
+    public ChatCompletionRequest(String model, List<Map<String, Object>> messages, Object tools) {
+        this.model = model;
+        this.messages = messages;
+        this.tools = tools;
+    }
+
+    // Getters and Setters
+    public String getModel() { return model; }
+    public void setModel(String model) { this.model = model; }
+
+    public List<Map<String, Object>> getMessages() { return messages; }
+    public void setMessages(List<Map<String, Object>> messages) { this.messages = messages; }
+
+    public Object getTools() { return tools; }
+    public void setTools(Object tools) { this.tools = tools; }
+
+    public boolean isStream() { return stream; }
+    public void setStream(boolean stream) { this.stream = stream; }
+}
@@ -0,0 +1,80 @@
+package com.projectmanagement.llm;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Map;
+
+/**
+ * Bloco de conteúdo da API Anthropic (text, tool_use, tool_result), usado em requisições e respostas
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ContentBlock {
+
+    private String type;
+    private String text;
+    private String id;
+    private String name;
+    private Map<String, Object> input;
+
+    @JsonProperty("tool_use_id")
+    private String toolUseId;
+
+    private String content;
+
+    @JsonProperty("cache_control")
+    private Object cacheControl;
+
+    public ContentBlock() {}
+
+    public static ContentBlock text(String text) {
+        ContentBlock block = new ContentBlock();
+        block.type = "text";
+        block.text = text;
+        return block;
+    }
+
+    public static ContentBlock toolUse(String id, String name, Map<String, Object> input) {
+        ContentBlock block = new ContentBlock();
+        block.type = "tool_use";
+        block.id = id;
+        block.name = name;
+        block.input = input;
+        return block;
+    }
+
+    public static ContentBlock toolResult(String toolUseId, String content) {
+        ContentBlock block = new ContentBlock();
+        block.type = "tool_result";
+        block.toolUseId = toolUseId;
+        block.content = content;
+        return block;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getId() { return id; }
+    public void setId(String id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public Map<String, Object> getInput() { return input; }
+    public void setInput(Map<String, Object> input) { this.input = input; }
+
+    public String getToolUseId() { return toolUseId; }
+    public void setToolUseId(String toolUseId) { this.toolUseId = toolUseId; }
+
+    public String getContent() { return content; }
+    public void setContent(String content) { this.content = content; }
+
+    public Object getCacheControl() { return cacheControl; }
+    public void setCacheControl(Object cacheControl) { this.cacheControl = cacheControl; }
+}
@@ -0,0 +1,59 @@
+package com.projectmanagement.llm;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instâncias Jackson compartilhadas do caminho de chat (thread-safe, configuradas uma vez):
+ * argumentos de ferramentas são lidos em streaming por um ObjectReader fixo e resultados
+ * escritos por um ObjectWriter fixo, sem criar ObjectMapper por chamada.
+ */
+public final class LlmJson {
+
+    public static final ObjectMapper MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final ObjectReader ARGUMENTS_READER = MAPPER.readerFor(new TypeReference<Map<String, Object>>() {});
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private LlmJson() {
+    }
+
+    /**
+     * Argumentos de uma tool call: o objeto já decodificado (Anthropic) ou a string JSON (OpenAI)
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseArguments(Object arguments) throws IOException {
+        if (arguments == null) {
+            return new HashMap<>();
+        }
+        if (arguments instanceof Map) {
+            return (Map<String, Object>) arguments;
+        }
+        String json = arguments.toString();
+        if (json.isBlank()) {
+            return new HashMap<>();
+        }
+        try (JsonParser parser = MAPPER.getFactory().createParser(json)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Argumentos da ferramenta devem ser um objeto JSON");
+            }
+            return ARGUMENTS_READER.readValue(parser);
+        }
+    }
+
+    public static String write(Object value) throws JsonProcessingException {
+        return WRITER.writeValueAsString(value);
+    }
+}
@@ -0,0 +1,51 @@
+package com.projectmanagement.llm;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Contagem de tokens de uma chamada, inclusive leitura/gravação no cache de prompt
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Usage {
+
+    @JsonProperty("input_tokens")
+    private long inputTokens;
+
+    @JsonProperty("output_tokens")
+    private long outputTokens;
+
+    @JsonProperty("cache_read_input_tokens")
+    private long cacheReadInputTokens;
+
+    @JsonProperty("cache_creation_input_tokens")
+    private long cacheCreationInputTokens;
+
+    /**
+     * Mesmas chaves da API, para quem consome a resposta em formato compatível
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> usage = new HashMap<>();
+        usage.put("input_tokens", inputTokens);
+        usage.put("output_tokens", outputTokens);
+        usage.put("cache_read_input_tokens", cacheReadInputTokens);
+        usage.put("cache_creation_input_tokens", cacheCreationInputTokens);
+        return usage;
+    }
+
+    // Getters and Setters
+    public long getInputTokens() { return inputTokens; }
+    public void setInputTokens(long inputTokens) { this.inputTokens = inputTokens; }
+
+    public long getOutputTokens() { return outputTokens; }
+    public void setOutputTokens(long outputTokens) { this.outputTokens = outputTokens; }
+
+    public long getCacheReadInputTokens() { return cacheReadInputTokens; }
+    public void setCacheReadInputTokens(long cacheReadInputTokens) { this.cacheReadInputTokens = cacheReadInputTokens; }
+
+    public long getCacheCreationInputTokens() { return cacheCreationInputTokens; }
+    public void setCacheCreationInputTokens(long cacheCreationInputTokens) { this.cacheCreationInputTokens = cacheCreationInputTokens; }
+}
@@ -0,0 +1,150 @@
+package com.projectmanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * TurboFilter do Logback com amostragem e limite de taxa por categoria de logger.
+ * Categorias são prefixos de nome de logger; vale o prefixo mais longo.
+ * WARN e ERROR nunca são descartados.
+ *
+ * Configuração (logback-spring.xml):
+ *   sampling:   "com.projectmanagement.controller.TaskController=0.1" (fração de DEBUG/TRACE mantida)
+ *   rateLimits: "com.projectmanagement.service=200" (eventos INFO ou abaixo por segundo)
+ */
+public class CategoryRateLimitFilter extends TurboFilter {
+
+    private final List<Category> categories = new ArrayList<>();
+    private final ConcurrentHashMap<String, Category> resolved = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+    private LongSupplier clock = System::currentTimeMillis;
+
+    public void setSampling(String spec) {
+        for (String[] entry : parse(spec)) {
+            category(entry[0]).sampleRate = Double.parseDouble(entry[1]);
+        }
+    }
+
+    public void setRateLimits(String spec) {
+        for (String[] entry : parse(spec)) {
+            category(entry[0]).permitsPerSecond = Integer.parseInt(entry[1]);
+        }
+    }
+
+    @Override
+    public void start() {
+        categories.sort(Comparator.comparingInt((Category c) -> c.prefix.length()).reversed());
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // Chamadas isXxxEnabled() chegam sem formato; eventos abaixo do nível efetivo já serão descartados
+        if (!isStarted() || format == null || level.levelInt >= Level.WARN_INT
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+
+        Category category = resolved.computeIfAbsent(logger.getName(), this::match);
+        if (category == Category.NONE) {
+            return FilterReply.NEUTRAL;
+        }
+
+        if (level.levelInt <= Level.DEBUG_INT && category.sampleRate < 1.0
+                && ThreadLocalRandom.current().nextDouble() >= category.sampleRate) {
+            dropped.incrementAndGet();
+            return FilterReply.DENY;
+        }
+
+        if (category.permitsPerSecond > 0 && !category.tryAcquire(clock.getAsLong() / 1000)) {
+            dropped.incrementAndGet();
+            return FilterReply.DENY;
+        }
+
+        return FilterReply.NEUTRAL;
+    }
+
+    /**
+     * Total de eventos descartados por amostragem ou limite de taxa (exportado como logging.events.dropped)
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    void setClock(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    private Category match(String loggerName) {
+        for (Category category : categories) {
+            if (loggerName.startsWith(category.prefix)) {
+                return category;
+            }
+        }
+        return Category.NONE;
+    }
+
+    private Category category(String prefix) {
+        for (Category category : categories) {
+            if (category.prefix.equals(prefix)) {
+                return category;
+            }
+        }
+        Category category = new Category(prefix);
+        categories.add(category);
+        return category;
+    }
+
+    private static List<String[]> parse(String spec) {
+        List<String[]> entries = new ArrayList<>();
+        if (spec == null || spec.isBlank()) {
+            return entries;
+        }
+        for (String item : spec.split(",")) {
+            String[] parts = item.trim().split("=");
+            if (parts.length == 2) {
+                entries.add(new String[] { parts[0].trim(), parts[1].trim() });
+            }
+        }
+        return entries;
+    }
+
+    private static final class Category {
+        static final Category NONE = new Category("");
+
+        final String prefix;
+        volatile double sampleRate = 1.0;
+        volatile int permitsPerSecond;
+
+        // Segundo da janela nos 32 bits altos e contagem nos baixos: virar a janela e contar é um único CAS
+        private final AtomicLong window = new AtomicLong();
+
+        Category(String prefix) {
+            this.prefix = prefix;
+        }
+
+        boolean tryAcquire(long second) {
+            while (true) {
+                long current = window.get();
+                long count = (current >>> 32) == second ? (current & 0xFFFFFFFFL) : 0;
+                if (count >= permitsPerSecond) {
+                    return false;
+                }
+                if (window.compareAndSet(current, (second << 32) | (count + 1))) {
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.projectmanagement.logging;
+
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.ILoggerFactory;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exporta os descartes do {@link CategoryRateLimitFilter} como logging.events.dropped.
+ * O filtro é criado pelo Logback (e recriado quando a configuração é recarregada), por isso é
+ * procurado no LoggerContext a cada leitura.
+ */
+@Component
+public class DroppedLogEventsMetrics implements MeterBinder {
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("logging.events.dropped", DroppedLogEventsMetrics::droppedCount)
+            .description("Eventos de log descartados por amostragem ou limite de taxa")
+            .register(registry);
+    }
+
+    static double droppedCount() {
+        ILoggerFactory factory = LoggerFactory.getILoggerFactory();
+        if (!(factory instanceof LoggerContext)) {
+            return 0;
+        }
+        long dropped = 0;
+        for (TurboFilter filter : ((LoggerContext) factory).getTurboFilterList()) {
+            if (filter instanceof CategoryRateLimitFilter) {
+                dropped += ((CategoryRateLimitFilter) filter).getDroppedCount();
+            }
+        }
+        return dropped;
+    }
+}
@@ -0,0 +1,35 @@
+package com.projectmanagement.logging;
+
+import java.util.function.Supplier;
+
+/**
+ * Argumento de log avaliado apenas quando a mensagem é formatada.
+ * Uso: logger.debug("Tarefas: {}", LazyMessage.lazy(() -> resumo(tasks)));
+ */
+public final class LazyMessage {
+
+    private final Supplier<?> supplier;
+
+    private LazyMessage(Supplier<?> supplier) {
+        this.supplier = supplier;
+    }
+
+    public static LazyMessage lazy(Supplier<?> supplier) {
+        return new LazyMessage(supplier);
+    }
+
+    /**
+     * Abrevia textos longos (argumentos/resultados de ferramentas) sem custo quando o nível está desligado
+     */
+    public static LazyMessage abbreviate(Object value, int maxLength) {
+        return new LazyMessage(() -> {
+            String text = String.valueOf(value);
+            return text.length() <= maxLength ? text : text.substring(0, maxLength) + "... (" + text.length() + " chars)";
+        });
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(supplier.get());
+    }
+}
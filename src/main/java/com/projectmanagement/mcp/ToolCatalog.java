@@ -0,0 +1,115 @@
+package com.projectmanagement.mcp;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.projectmanagement.service.MCPClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.*;
+
+/**
+ * Ferramentas MCP já convertidas e serializadas para cada provedor, montadas uma vez na subida.
+ *
+ * Os clientes de modelo inserem os fragmentos JSON prontos no corpo da requisição (RawValue),
+ * sem reconverter nem reserializar a lista a cada chamada. No formato Anthropic a última
+ * ferramenta leva cache_control, marcando o fim do prefixo de ferramentas para o prompt caching.
+ */
+@Component
+public class ToolCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ToolCatalog.class);
+
+    private final MCPClient mcpClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${anthropic.prompt-cache.enabled:true}")
+    private boolean promptCacheEnabled;
+
+    private PrecompiledTools tools;
+
+    public ToolCatalog(MCPClient mcpClient, ObjectMapper objectMapper) {
+        this.mcpClient = mcpClient;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void build() throws JsonProcessingException {
+        List<Map<String, Object>> openAi = new ArrayList<>();
+        List<Map<String, Object>> anthropic = new ArrayList<>();
+
+        for (Map<String, Object> schema : mcpClient.getAvailableTools()) {
+            Map<String, Object> function = new LinkedHashMap<>();
+            function.put("name", schema.get("name"));
+            function.put("description", schema.get("description"));
+            function.put("parameters", schema.get("input_schema"));
+
+            Map<String, Object> openAiTool = new LinkedHashMap<>();
+            openAiTool.put("type", "function");
+            openAiTool.put("function", Collections.unmodifiableMap(function));
+            openAi.add(Collections.unmodifiableMap(openAiTool));
+
+            Map<String, Object> anthropicTool = new LinkedHashMap<>();
+            anthropicTool.put("name", schema.get("name"));
+            anthropicTool.put("description", schema.get("description"));
+            anthropicTool.put("input_schema", schema.get("input_schema"));
+            anthropic.add(anthropicTool);
+        }
+
+        if (promptCacheEnabled && !anthropic.isEmpty()) {
+            anthropic.get(anthropic.size() - 1).put("cache_control", Map.of("type", "ephemeral"));
+        }
+
+        String openAiJson = objectMapper.writeValueAsString(openAi);
+        String anthropicJson = objectMapper.writeValueAsString(anthropic);
+        tools = new PrecompiledTools(openAi, new RawValue(openAiJson), new RawValue(anthropicJson));
+
+        logger.info("Catálogo de ferramentas MCP montado: {} ferramentas ({} bytes OpenAI, {} bytes Anthropic)",
+            openAi.size(), openAiJson.length(), anthropicJson.length());
+    }
+
+    /**
+     * Ferramentas no formato OpenAI "function"; a lista carrega também os fragmentos serializados
+     */
+    public List<Map<String, Object>> tools() {
+        return tools;
+    }
+
+    /**
+     * Lista imutável de ferramentas com as codificações por provedor já serializadas
+     */
+    public static final class PrecompiledTools extends AbstractList<Map<String, Object>> {
+
+        private final List<Map<String, Object>> openAiTools;
+        private final RawValue openAiJson;
+        private final RawValue anthropicJson;
+
+        PrecompiledTools(List<Map<String, Object>> openAiTools, RawValue openAiJson, RawValue anthropicJson) {
+            this.openAiTools = List.copyOf(openAiTools);
+            this.openAiJson = openAiJson;
+            this.anthropicJson = anthropicJson;
+        }
+
+        @Override
+        public Map<String, Object> get(int index) {
+            return openAiTools.get(index);
+        }
+
+        @Override
+        public int size() {
+            return openAiTools.size();
+        }
+
+        public RawValue openAiJson() {
+            return openAiJson;
+        }
+
+        public RawValue anthropicJson() {
+            return anthropicJson;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.projectmanagement.mcp;
+
+import com.projectmanagement.security.UserPrincipal;
+
+import java.util.Map;
+
+/**
+ * Execução de uma ferramenta MCP com os argumentos do modelo e o usuário do chat
+ */
+@FunctionalInterface
+public interface ToolHandler {
+
+    Map<String, Object> execute(Map<String, Object> arguments, UserPrincipal user);
+}
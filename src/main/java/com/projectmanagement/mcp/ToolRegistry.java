@@ -0,0 +1,84 @@
+package com.projectmanagement.mcp;
+
+import java.util.*;
+
+/**
+ * Catálogo imutável de ferramentas MCP (schema + handler), montado uma única vez.
+ *
+ * Substitui a reconstrução da lista de schemas a cada turno do chat e a busca linear
+ * em getToolSchema; a execução é um lookup direto pelo nome.
+ */
+public class ToolRegistry {
+
+    private final Map<String, Entry> tools;
+    private final List<Map<String, Object>> schemas;
+
+    private ToolRegistry(Map<String, Entry> tools) {
+        this.tools = Collections.unmodifiableMap(tools);
+        List<Map<String, Object>> list = new ArrayList<>(tools.size());
+        tools.values().forEach(entry -> list.add(entry.schema));
+        this.schemas = Collections.unmodifiableList(list);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Schemas de todas as ferramentas, na ordem de registro
+     */
+    public List<Map<String, Object>> schemas() {
+        return schemas;
+    }
+
+    public Map<String, Object> schema(String name) {
+        Entry entry = tools.get(name);
+        return entry == null ? null : entry.schema;
+    }
+
+    public ToolHandler handler(String name) {
+        Entry entry = tools.get(name);
+        return entry == null ? null : entry.handler;
+    }
+
+    public Set<String> names() {
+        return tools.keySet();
+    }
+
+    private static class Entry {
+        final Map<String, Object> schema;
+        final ToolHandler handler;
+
+        Entry(Map<String, Object> schema, ToolHandler handler) {
+            this.schema = schema;
+            this.handler = handler;
+        }
+    }
+
+    public static class Builder {
+
+        private final Map<String, Entry> tools = new LinkedHashMap<>();
+
+        public Builder register(String name, String description, Map<String, Object> properties,
+                                List<String> required, ToolHandler handler) {
+            Map<String, Object> inputSchema = new LinkedHashMap<>();
+            inputSchema.put("type", "object");
+            inputSchema.put("properties", properties);
+            inputSchema.put("required", List.copyOf(required));
+
+            Map<String, Object> schema = new LinkedHashMap<>();
+            schema.put("name", name);
+            schema.put("description", description);
+            schema.put("input_schema", Collections.unmodifiableMap(inputSchema));
+
+            if (tools.put(name, new Entry(Collections.unmodifiableMap(schema), handler)) != null) {
+                throw new IllegalStateException("Ferramenta registrada em duplicidade: " + name);
+            }
+            return this;
+        }
+
+        public ToolRegistry build() {
+            return new ToolRegistry(new LinkedHashMap<>(tools));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.projectmanagement.mcp;
+
+import com.projectmanagement.llm.LlmJson;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.function.Supplier;
+
+/**
+ * Memoização de ferramentas MCP válida por um único turno de chat: o modelo costuma chamar
+ * list_projects / list_tasks várias vezes entre iterações do loop, e a repetição volta daqui
+ * sem passar de novo por MCPClient.
+ *
+ * - só ferramentas de leitura entram no cache, pela combinação nome + argumentos normalizados
+ *   (chaves ordenadas, números e textos equivalentes: 3 e "3" são o mesmo projectId)
+ * - resultados com success=false não são guardados
+ * - ferramentas que alteram dados descartam as entradas que podem ter ficado desatualizadas;
+ *   ferramenta desconhecida limpa o cache inteiro
+ *
+ * Uma instância por turno, usada só pela thread do turno (sem sincronização).
+ * Métrica: mcp.tool.memoized{tool} conta execuções economizadas.
+ */
+public class TurnToolCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(TurnToolCache.class);
+
+    private static final Set<String> READ_ONLY = Set.of(
+        "list_projects", "list_tasks",
+        "github_list_repositories", "github_get_repository", "github_list_issues",
+        "github_list_pull_requests", "github_get_file_content", "github_list_commits",
+        "github_search_repositories");
+
+    // Ferramenta de escrita -> leituras que ela pode invalidar
+    private static final Map<String, Set<String>> INVALIDATES = Map.of(
+        "create_task", Set.of("list_tasks"),
+        "update_task", Set.of("list_tasks"),
+        "move_task", Set.of("list_tasks"),
+        "create_project", Set.of("list_projects", "list_tasks"),
+        "github_create_issue", Set.of("github_list_issues", "github_get_repository", "github_list_repositories"));
+
+    // Argumentos que delimitam o alcance da escrita no GitHub (só o mesmo repositório é invalidado)
+    private static final List<String> REPOSITORY_SCOPE = List.of("owner", "repo");
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int saved;
+
+    public TurnToolCache(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Resultado da ferramenta: do cache do turno se já executada com os mesmos argumentos,
+     * senão de {@code execution} (e então guardado ou usado para invalidar)
+     */
+    public Map<String, Object> execute(String toolName, Map<String, Object> arguments,
+                                       Supplier<Map<String, Object>> execution) {
+        if (!READ_ONLY.contains(toolName)) {
+            Map<String, Object> result = execution.get();
+            invalidate(toolName, arguments);
+            return result;
+        }
+
+        String key = key(toolName, arguments);
+        Entry cached = entries.get(key);
+        if (cached != null) {
+            saved++;
+            meterRegistry.counter("mcp.tool.memoized", "tool", toolName).increment();
+            logger.debug("Resultado de {} reaproveitado no turno", toolName);
+            return cached.result;
+        }
+
+        Map<String, Object> result = execution.get();
+        if (result != null && !Boolean.FALSE.equals(result.get("success"))) {
+            entries.put(key, new Entry(toolName, arguments, result));
+        }
+        return result;
+    }
+
+    /**
+     * Execuções evitadas neste turno
+     */
+    public int saved() {
+        return saved;
+    }
+
+    private void invalidate(String toolName, Map<String, Object> arguments) {
+        Set<String> affected = INVALIDATES.get(toolName);
+        if (affected == null) {
+            // Não sabemos o que a ferramenta altera: nada do cache é confiável
+            entries.clear();
+            return;
+        }
+        entries.values().removeIf(entry -> affected.contains(entry.toolName) && sameScope(arguments, entry.arguments));
+    }
+
+    /**
+     * Para escritas no GitHub, só entradas do mesmo owner/repo (ou sem repositório, como a
+     * lista de repositórios) são afetadas; demais escritas não têm escopo
+     */
+    private static boolean sameScope(Map<String, Object> write, Map<String, Object> read) {
+        for (String key : REPOSITORY_SCOPE) {
+            Object written = write.get(key);
+            Object cached = read.get(key);
+            if (written != null && cached != null && !normalize(written).equals(normalize(cached))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String key(String toolName, Map<String, Object> arguments) {
+        try {
+            return toolName + LlmJson.write(normalize(arguments));
+        } catch (Exception e) {
+            return toolName + normalize(arguments);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object normalize(Object value) {
+        if (value instanceof Map) {
+            Map<String, Object> sorted = new TreeMap<>();
+            ((Map<String, Object>) value).forEach((key, item) -> {
+                if (item != null) {
+                    sorted.put(key, normalize(item));
+                }
+            });
+            return sorted;
+        }
+        if (value instanceof List) {
+            List<Object> items = new ArrayList<>();
+            for (Object item : (List<Object>) value) {
+                items.add(normalize(item));
+            }
+            return items;
+        }
+        if (value instanceof Number && ((Number) value).doubleValue() == Math.rint(((Number) value).doubleValue())) {
+            return String.valueOf(((Number) value).longValue());
+        }
+        return value == null ? null : String.valueOf(value).trim();
+    }
+
+    private static final class Entry {
+        final String toolName;
+        final Map<String, Object> arguments;
+        final Map<String, Object> result;
+
+        Entry(String toolName, Map<String, Object> arguments, Map<String, Object> result) {
+            this.toolName = toolName;
+            this.arguments = arguments;
+            this.result = result;
+        }
+    }
+}
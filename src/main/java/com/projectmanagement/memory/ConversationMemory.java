@@ -0,0 +1,45 @@
+package com.projectmanagement.memory;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Memória conversacional usada pelo chat: mensagens, ações sobre tarefas/projetos e fatos
+ * por sessão, com busca do contexto relevante para a mensagem atual.
+ *
+ * Implementações: ZepMemoryService (remota, chat.memory.provider=zep) e LocalVectorMemory
+ * (índice vetorial em processo, chat.memory.provider=local). Escritas são fire-and-forget;
+ * leituras nunca propagam erro (vazio em caso de falha).
+ */
+public interface ConversationMemory {
+
+    void createOrUpdateSession(String sessionId, String userId);
+
+    void addMessage(String sessionId, String role, String content, Map<String, Object> metadata);
+
+    void addTaskContext(String sessionId, String action, Map<String, Object> taskData);
+
+    void addProjectContext(String sessionId, String action, Map<String, Object> projectData);
+
+    void addFact(String sessionId, String fact, Map<String, Object> metadata);
+
+    Mono<String> getRelevantContextAsync(String sessionId, String query);
+
+    Mono<String> getSessionSummaryAsync(String sessionId);
+
+    Mono<List<Map<String, Object>>> getRecentMessagesAsync(String sessionId, int limit);
+
+    default String getRelevantContext(String sessionId, String query) {
+        return getRelevantContextAsync(sessionId, query).block();
+    }
+
+    default String getSessionSummary(String sessionId) {
+        return getSessionSummaryAsync(sessionId).block();
+    }
+
+    default List<Map<String, Object>> getRecentMessages(String sessionId, int limit) {
+        return getRecentMessagesAsync(sessionId, limit).block();
+    }
+}
@@ -0,0 +1,22 @@
+package com.projectmanagement.memory;
+
+/**
+ * Converte texto em vetor de dimensão fixa, normalizado (norma 1) para que o produto interno
+ * seja a similaridade de cosseno.
+ *
+ * O padrão é o HashingEmbedder (local, sem dependências); outro bean Embedder marcado com
+ * {@code @Primary} (ex.: modelo de embeddings remoto) substitui o padrão.
+ */
+public interface Embedder {
+
+    float[] embed(String text);
+
+    int dimensions();
+
+    /**
+     * Identifica o espaço vetorial; vetores persistidos com outro id são recalculados na carga
+     */
+    default String id() {
+        return getClass().getName() + ":" + dimensions();
+    }
+}
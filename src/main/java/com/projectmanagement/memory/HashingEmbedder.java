@@ -0,0 +1,88 @@
+package com.projectmanagement.memory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Embedder local por feature hashing: palavras e trigramas de caracteres (sem acentos, em
+ * minúsculas) somados com sinal em um vetor de dimensão fixa e normalizados.
+ *
+ * Não captura sinônimos como um modelo de embeddings, mas aproxima bem "mesmas palavras /
+ * palavras parecidas" (tarefa, tarefas, login, Login) sem rede nem vocabulário treinado.
+ */
+@Component
+public class HashingEmbedder implements Embedder {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+    private static final float WORD_WEIGHT = 1.0f;
+    private static final float TRIGRAM_WEIGHT = 0.5f;
+
+    private final int dimensions;
+
+    public HashingEmbedder(@Value("${chat.memory.local.dimensions:256}") int dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public int dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public float[] embed(String text) {
+        float[] vector = new float[dimensions];
+        if (text == null || text.isBlank()) {
+            return vector;
+        }
+        String normalized = MARKS.matcher(Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD))
+            .replaceAll("");
+        for (String token : SEPARATORS.split(normalized)) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            add(vector, "w:" + token, WORD_WEIGHT);
+            String padded = "#" + token + "#";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                add(vector, "c:" + padded.substring(i, i + 3), TRIGRAM_WEIGHT);
+            }
+        }
+        return normalize(vector);
+    }
+
+    private void add(float[] vector, String feature, float weight) {
+        int hash = fnv1a(feature);
+        // Bits altos (após mistura) decidem o sinal: colisões tendem a se cancelar em vez de somar
+        int mixed = hash * 0x9E3779B9;
+        vector[Math.floorMod(hash, dimensions)] += (mixed >>> 31) == 0 ? weight : -weight;
+    }
+
+    private static int fnv1a(String feature) {
+        int hash = 0x811C9DC5;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x01000193;
+        }
+        return hash;
+    }
+
+    static float[] normalize(float[] vector) {
+        double norm = 0;
+        for (float value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            return vector;
+        }
+        float scale = (float) (1.0 / Math.sqrt(norm));
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+}
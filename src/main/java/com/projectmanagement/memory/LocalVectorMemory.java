@@ -0,0 +1,450 @@
+package com.projectmanagement.memory;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Memória conversacional em processo: mensagens, ações e fatos viram vetores (Embedder) em
+ * índices aproximados (VectorIndex) por sessão e por projeto, e a busca de contexto relevante
+ * roda localmente, sem ida e volta de rede a cada turno.
+ *
+ * - partição da sessão: tudo que foi registrado na sessão
+ * - partição do projeto: ações sobre tarefas/projetos daquele projeto, vistas por qualquer
+ *   sessão que já tocou o projeto
+ * - cada partição guarda até max-entries-per-partition itens (descarta os mais antigos);
+ *   partições sem acesso há mais que retention são removidas
+ * - o índice é gravado em chat.memory.local.path (binário, troca atômica) a cada
+ *   flush-interval-ms quando alterado e no desligamento; recarregado na inicialização
+ *
+ * Ativada com chat.memory.provider=local. Métricas: chat.memory.search (timer) e chat.memory.entries.
+ */
+@Service
+@ConditionalOnProperty(name = "chat.memory.provider", havingValue = "local")
+public class LocalVectorMemory implements ConversationMemory {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalVectorMemory.class);
+
+    private static final int FILE_MAGIC = 0x4D454D31; // "MEM1"
+    private static final int FILE_VERSION = 1;
+    private static final long HYPERPLANE_SEED = 0x5EED_C0DEL;
+    private static final int MAX_CONTENT_CHARS = 2000;
+    private static final int MAX_LINE_CHARS = 200;
+    private static final int SEARCH_LIMIT = 10;
+    private static final int SUMMARY_FACTS = 5;
+    private static final String SESSION = "session:";
+    private static final String PROJECT = "project:";
+    private static final String FACT = "fact";
+    private static final TypeReference<Map<String, Object>> METADATA_TYPE = new TypeReference<Map<String, Object>>() {};
+
+    private final Embedder embedder;
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final int maxEntriesPerPartition;
+    private final int exactScanLimit;
+    private final double minScore;
+    private final Duration retention;
+    private final float[][][] hyperplanes;
+    private final Timer searchTimer;
+    private final Map<String, Partition> partitions = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    @Autowired
+    public LocalVectorMemory(Embedder embedder, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${chat.memory.local.path:data/memory/vectors.bin}") String path,
+                             @Value("${chat.memory.local.max-entries-per-partition:300}") int maxEntriesPerPartition,
+                             @Value("${chat.memory.local.exact-scan-limit:256}") int exactScanLimit,
+                             @Value("${chat.memory.local.min-score:0.15}") double minScore,
+                             @Value("${chat.memory.local.retention:7d}") Duration retention) {
+        this.embedder = embedder;
+        this.objectMapper = objectMapper;
+        this.path = Paths.get(path);
+        this.maxEntriesPerPartition = maxEntriesPerPartition;
+        this.exactScanLimit = exactScanLimit;
+        this.minScore = minScore;
+        this.retention = retention;
+        this.hyperplanes = VectorIndex.hyperplanes(embedder.dimensions(), HYPERPLANE_SEED);
+        this.searchTimer = Timer.builder("chat.memory.search")
+            .tag("provider", "local")
+            .register(meterRegistry);
+        Gauge.builder("chat.memory.entries", partitions,
+                all -> all.values().stream().mapToInt(partition -> partition.index.size()).sum())
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void createOrUpdateSession(String sessionId, String userId) {
+        partition(SESSION + sessionId);
+    }
+
+    @Override
+    public void addMessage(String sessionId, String role, String content, Map<String, Object> metadata) {
+        store(sessionId, new Entry(role, null, content, metadata, null, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void addTaskContext(String sessionId, String action, Map<String, Object> taskData) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("type", "task_action");
+        metadata.put("action", action);
+        metadata.put("task_data", taskData);
+
+        String content = String.format("Ação realizada: %s. Tarefa: %s (ID: %s)",
+            action, taskData.getOrDefault("title", "N/A"), taskData.getOrDefault("id", "N/A"));
+        store(sessionId, new Entry("system", "task_action", content, metadata,
+            idOrNull(taskData.get("projectId")), System.currentTimeMillis()));
+    }
+
+    @Override
+    public void addProjectContext(String sessionId, String action, Map<String, Object> projectData) {
+        Map<String, Object> metadata = new HashMap<>();
+        metadata.put("type", "project_action");
+        metadata.put("action", action);
+        metadata.put("project_data", projectData);
+
+        String content = String.format("Ação realizada: %s. Projeto: %s (ID: %s)",
+            action, projectData.getOrDefault("name", "N/A"), projectData.getOrDefault("id", "N/A"));
+        store(sessionId, new Entry("system", "project_action", content, metadata,
+            idOrNull(projectData.get("id")), System.currentTimeMillis()));
+    }
+
+    @Override
+    public void addFact(String sessionId, String fact, Map<String, Object> metadata) {
+        store(sessionId, new Entry("system", FACT, fact, metadata, null, System.currentTimeMillis()));
+    }
+
+    @Override
+    public Mono<String> getRelevantContextAsync(String sessionId, String query) {
+        return Mono.fromCallable(() -> searchTimer.recordCallable(() -> search(sessionId, query)))
+            .onErrorResume(e -> {
+                logger.warn("Erro ao buscar contexto na memória local: {}", e.getMessage());
+                return Mono.just("");
+            });
+    }
+
+    @Override
+    public Mono<String> getSessionSummaryAsync(String sessionId) {
+        return Mono.fromCallable(() -> {
+            Partition session = partitions.get(SESSION + sessionId);
+            if (session == null) {
+                return "";
+            }
+            List<String> facts = new ArrayList<>();
+            for (Entry entry : session.index.payloads()) {
+                if (FACT.equals(entry.type)) {
+                    facts.add(entry.content);
+                }
+            }
+            if (facts.isEmpty()) {
+                return "";
+            }
+            StringBuilder summary = new StringBuilder("FATOS RECENTES DA SESSÃO:\n");
+            facts.subList(Math.max(0, facts.size() - SUMMARY_FACTS), facts.size())
+                .forEach(fact -> summary.append("- ").append(fact).append("\n"));
+            return summary.toString();
+        });
+    }
+
+    @Override
+    public Mono<List<Map<String, Object>>> getRecentMessagesAsync(String sessionId, int limit) {
+        return Mono.fromCallable(() -> {
+            Partition session = partitions.get(SESSION + sessionId);
+            List<Map<String, Object>> messages = new ArrayList<>();
+            if (session == null) {
+                return messages;
+            }
+            for (Entry entry : session.index.payloads()) {
+                if (FACT.equals(entry.type)) {
+                    continue;
+                }
+                Map<String, Object> message = new HashMap<>();
+                message.put("role", entry.role);
+                message.put("content", entry.content);
+                message.put("metadata", entry.metadata);
+                messages.add(message);
+            }
+            return new ArrayList<>(messages.subList(Math.max(0, messages.size() - limit), messages.size()));
+        });
+    }
+
+    /**
+     * Grava o índice em disco se houve alteração e descarta partições sem acesso há mais que retention
+     */
+    @Scheduled(fixedDelayString = "${chat.memory.local.flush-interval-ms:60000}",
+               initialDelayString = "${chat.memory.local.flush-interval-ms:60000}")
+    public void flush() {
+        long cutoff = System.currentTimeMillis() - retention.toMillis();
+        if (partitions.values().removeIf(partition -> partition.lastAccess < cutoff)) {
+            dirty.set(true);
+        }
+        if (!dirty.getAndSet(false)) {
+            return;
+        }
+        try {
+            write();
+        } catch (IOException e) {
+            dirty.set(true);
+            logger.warn("Falha ao gravar memória local em {}: {}", path, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!Files.exists(path)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != FILE_MAGIC || in.readInt() != FILE_VERSION) {
+                logger.warn("Arquivo de memória local {} em formato desconhecido; ignorado", path);
+                return;
+            }
+            boolean sameSpace = embedder.id().equals(readString(in));
+            int dimensions = in.readInt();
+            int partitionCount = in.readInt();
+            int entries = 0;
+            for (int p = 0; p < partitionCount; p++) {
+                String key = readString(in);
+                long lastAccess = in.readLong();
+                int count = in.readInt();
+                Partition partition = partition(key);
+                partition.lastAccess = lastAccess;
+                for (int i = 0; i < count; i++) {
+                    Entry entry = readEntry(in);
+                    float[] vector = new float[dimensions];
+                    for (int d = 0; d < dimensions; d++) {
+                        vector[d] = in.readFloat();
+                    }
+                    // Embedder trocado: vetores antigos estão em outro espaço, recalcula a partir do texto
+                    partition.add(sameSpace ? vector : embedder.embed(entry.content), entry);
+                    if (key.startsWith(SESSION) && entry.projectId != null) {
+                        partition.projects.add(entry.projectId);
+                    }
+                    entries++;
+                }
+            }
+            logger.info("Memória local carregada de {}: {} partições, {} itens", path, partitionCount, entries);
+        } catch (IOException e) {
+            logger.warn("Falha ao carregar memória local de {}: {}", path, e.getMessage());
+            partitions.clear();
+        }
+    }
+
+    private void store(String sessionId, Entry entry) {
+        try {
+            float[] vector = embedder.embed(entry.content);
+            Partition session = partition(SESSION + sessionId);
+            session.add(vector, entry);
+            if (entry.projectId != null) {
+                session.projects.add(entry.projectId);
+                partition(PROJECT + entry.projectId).add(vector, entry);
+            }
+            dirty.set(true);
+        } catch (Exception e) {
+            logger.warn("Erro ao registrar na memória local: {}", e.getMessage());
+        }
+    }
+
+    private String search(String sessionId, String query) {
+        Partition session = partitions.get(SESSION + sessionId);
+        if (session == null || query == null || query.isBlank()) {
+            return "";
+        }
+        session.lastAccess = System.currentTimeMillis();
+        float[] vector = embedder.embed(query);
+
+        // Um a mais por partição: a própria mensagem atual já foi registrada e é descartada abaixo
+        List<VectorIndex.Match<Entry>> matches = new ArrayList<>(session.index.search(vector, SEARCH_LIMIT + 1, minScore));
+        for (String projectId : session.projects) {
+            Partition project = partitions.get(PROJECT + projectId);
+            if (project != null) {
+                matches.addAll(project.index.search(vector, SEARCH_LIMIT, minScore));
+            }
+        }
+        matches.sort(Comparator.comparingDouble((VectorIndex.Match<Entry> match) -> match.getScore()).reversed());
+
+        Set<String> lines = new LinkedHashSet<>();
+        for (VectorIndex.Match<Entry> match : matches) {
+            Entry entry = match.getPayload();
+            if ("user".equals(entry.role) && query.equals(entry.content)) {
+                continue;
+            }
+            lines.add(line(entry));
+            if (lines.size() == SEARCH_LIMIT) {
+                break;
+            }
+        }
+        if (lines.isEmpty()) {
+            return "";
+        }
+        StringBuilder context = new StringBuilder("CONTEXTO RELEVANTE DA CONVERSA:\n");
+        lines.forEach(line -> context.append(line).append("\n"));
+        return context.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String line(Entry entry) {
+        Object data = entry.metadata == null ? null
+            : entry.metadata.get("task_action".equals(entry.type) ? "task_data" : "project_data");
+        if ("task_action".equals(entry.type) && data instanceof Map) {
+            Map<String, Object> task = (Map<String, Object>) data;
+            return "- Tarefa: " + task.get("title") + " (ID: " + task.get("id") + ")";
+        }
+        if ("project_action".equals(entry.type) && data instanceof Map) {
+            Map<String, Object> project = (Map<String, Object>) data;
+            return "- Projeto: " + project.get("name") + " (ID: " + project.get("id") + ")";
+        }
+        if (FACT.equals(entry.type)) {
+            return "- Fato: " + truncate(entry.content, MAX_LINE_CHARS);
+        }
+        return "- " + entry.role + ": " + truncate(entry.content, MAX_LINE_CHARS);
+    }
+
+    private Partition partition(String key) {
+        Partition partition = partitions.computeIfAbsent(key, ignored -> new Partition());
+        partition.lastAccess = System.currentTimeMillis();
+        return partition;
+    }
+
+    private void write() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        Map<String, Partition> snapshot = new HashMap<>(partitions);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(FILE_MAGIC);
+            out.writeInt(FILE_VERSION);
+            writeString(out, embedder.id());
+            out.writeInt(embedder.dimensions());
+            out.writeInt(snapshot.size());
+            for (Map.Entry<String, Partition> partition : snapshot.entrySet()) {
+                List<VectorIndex.Stored<Entry>> stored = partition.getValue().index.entries();
+                writeString(out, partition.getKey());
+                out.writeLong(partition.getValue().lastAccess);
+                out.writeInt(stored.size());
+                for (VectorIndex.Stored<Entry> item : stored) {
+                    writeEntry(out, item.getPayload());
+                    for (float value : item.getVector()) {
+                        out.writeFloat(value);
+                    }
+                }
+            }
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        logger.debug("Memória local gravada em {}: {} partições", path, snapshot.size());
+    }
+
+    private void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        writeString(out, entry.role);
+        writeString(out, entry.type);
+        writeString(out, entry.content);
+        writeString(out, entry.metadata == null ? null : objectMapper.writeValueAsString(entry.metadata));
+        writeString(out, entry.projectId);
+        out.writeLong(entry.timestamp);
+    }
+
+    private Entry readEntry(DataInputStream in) throws IOException {
+        String role = readString(in);
+        String type = readString(in);
+        String content = readString(in);
+        String metadata = readString(in);
+        String projectId = readString(in);
+        long timestamp = in.readLong();
+        return new Entry(role, type, content, metadata == null ? null : objectMapper.readValue(metadata, METADATA_TYPE),
+            projectId, timestamp);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String idOrNull(Object id) {
+        return id == null ? null : String.valueOf(id);
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, maxChars) + "…";
+    }
+
+    private final class Partition {
+        final VectorIndex<Entry> index = new VectorIndex<>(hyperplanes, exactScanLimit);
+        // Projetos tocados pela sessão (só em partições de sessão)
+        final Set<String> projects = ConcurrentHashMap.newKeySet();
+        volatile long lastAccess = System.currentTimeMillis();
+
+        void add(float[] vector, Entry entry) {
+            synchronized (index) {
+                index.add(vector, entry);
+                while (index.size() > maxEntriesPerPartition) {
+                    index.removeOldest();
+                }
+            }
+        }
+    }
+
+    private static final class Entry {
+        final String role;
+        final String type;
+        final String content;
+        final Map<String, Object> metadata;
+        final String projectId;
+        final long timestamp;
+
+        Entry(String role, String type, String content, Map<String, Object> metadata, String projectId, long timestamp) {
+            this.role = role;
+            this.type = type;
+            this.content = truncate(content == null ? "" : content, MAX_CONTENT_CHARS);
+            this.metadata = metadata;
+            this.projectId = projectId;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.projectmanagement.memory;
+
+import java.util.*;
+
+/**
+ * Índice aproximado de vizinhos mais próximos para vetores normalizados (similaridade de
+ * cosseno = produto interno), por LSH de hiperplanos aleatórios.
+ *
+ * - cada tabela agrupa os vetores pela assinatura de sinais contra BITS hiperplanos
+ * - a busca visita o balde da assinatura e os vizinhos a um bit de distância (multi-probe)
+ *   em todas as tabelas, e ordena só esses candidatos pelo produto interno exato
+ * - com até exactScanLimit itens (ou poucos candidatos) a busca é exata, varrendo tudo
+ *
+ * Os hiperplanos vêm de {@link #hyperplanes(int, long)} e são compartilhados entre índices
+ * da mesma dimensão. Mantém ordem de inserção: {@link #removeOldest()} descarta o item mais antigo.
+ * Métodos sincronizados: escritas do chat e buscas podem ocorrer em paralelo.
+ */
+public class VectorIndex<T> {
+
+    public static final int TABLES = 8;
+    public static final int BITS = 8;
+
+    private final float[][][] hyperplanes;
+    private final int exactScanLimit;
+    private final LinkedHashMap<Long, Stored<T>> items = new LinkedHashMap<>();
+    private final List<Map<Integer, Set<Long>>> tables = new ArrayList<>(TABLES);
+    private long nextId;
+
+    public VectorIndex(float[][][] hyperplanes, int exactScanLimit) {
+        this.hyperplanes = hyperplanes;
+        this.exactScanLimit = exactScanLimit;
+        for (int t = 0; t < TABLES; t++) {
+            tables.add(new HashMap<>());
+        }
+    }
+
+    /**
+     * Hiperplanos gaussianos determinísticos (mesma semente -> mesmos baldes após reinício)
+     */
+    public static float[][][] hyperplanes(int dimensions, long seed) {
+        Random random = new Random(seed);
+        float[][][] planes = new float[TABLES][BITS][dimensions];
+        for (int t = 0; t < TABLES; t++) {
+            for (int b = 0; b < BITS; b++) {
+                for (int d = 0; d < dimensions; d++) {
+                    planes[t][b][d] = (float) random.nextGaussian();
+                }
+            }
+        }
+        return planes;
+    }
+
+    public synchronized void add(float[] vector, T payload) {
+        long id = nextId++;
+        int[] signatures = new int[TABLES];
+        for (int t = 0; t < TABLES; t++) {
+            signatures[t] = signature(t, vector);
+            tables.get(t).computeIfAbsent(signatures[t], key -> new HashSet<>()).add(id);
+        }
+        items.put(id, new Stored<>(vector, payload, signatures));
+    }
+
+    /**
+     * Remove o item mais antigo; null se vazio
+     */
+    public synchronized T removeOldest() {
+        Iterator<Map.Entry<Long, Stored<T>>> iterator = items.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        Map.Entry<Long, Stored<T>> oldest = iterator.next();
+        iterator.remove();
+        for (int t = 0; t < TABLES; t++) {
+            Set<Long> bucket = tables.get(t).get(oldest.getValue().signatures[t]);
+            if (bucket != null) {
+                bucket.remove(oldest.getKey());
+                if (bucket.isEmpty()) {
+                    tables.get(t).remove(oldest.getValue().signatures[t]);
+                }
+            }
+        }
+        return oldest.getValue().payload;
+    }
+
+    public synchronized int size() {
+        return items.size();
+    }
+
+    /**
+     * Até {@code limit} itens com similaridade >= {@code minScore}, do mais para o menos similar
+     */
+    public synchronized List<Match<T>> search(float[] query, int limit, double minScore) {
+        Collection<Long> candidates = items.size() <= exactScanLimit ? items.keySet() : probe(query);
+        if (candidates.size() < limit) {
+            candidates = items.keySet();
+        }
+        List<Match<T>> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            Stored<T> stored = items.get(id);
+            double score = dot(query, stored.vector);
+            if (score >= minScore) {
+                matches.add(new Match<>(stored.payload, score));
+            }
+        }
+        matches.sort(Comparator.comparingDouble((Match<T> match) -> match.score).reversed());
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    /**
+     * Itens (vetor + payload) em ordem de inserção, para persistência
+     */
+    public synchronized List<Stored<T>> entries() {
+        return new ArrayList<>(items.values());
+    }
+
+    /**
+     * Payloads em ordem de inserção
+     */
+    public synchronized List<T> payloads() {
+        List<T> payloads = new ArrayList<>(items.size());
+        items.values().forEach(stored -> payloads.add(stored.payload));
+        return payloads;
+    }
+
+    private Set<Long> probe(float[] query) {
+        Set<Long> candidates = new HashSet<>();
+        for (int t = 0; t < TABLES; t++) {
+            Map<Integer, Set<Long>> table = tables.get(t);
+            int signature = signature(t, query);
+            addBucket(candidates, table, signature);
+            for (int b = 0; b < BITS; b++) {
+                addBucket(candidates, table, signature ^ (1 << b));
+            }
+        }
+        return candidates;
+    }
+
+    private static void addBucket(Set<Long> candidates, Map<Integer, Set<Long>> table, int signature) {
+        Set<Long> bucket = table.get(signature);
+        if (bucket != null) {
+            candidates.addAll(bucket);
+        }
+    }
+
+    private int signature(int table, float[] vector) {
+        int signature = 0;
+        for (int b = 0; b < BITS; b++) {
+            if (dot(hyperplanes[table][b], vector) >= 0) {
+                signature |= 1 << b;
+            }
+        }
+        return signature;
+    }
+
+    private static double dot(float[] a, float[] b) {
+        double sum = 0;
+        int length = Math.min(a.length, b.length);
+        for (int i = 0; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    public static final class Stored<T> {
+        private final float[] vector;
+        private final T payload;
+        private final int[] signatures;
+
+        Stored(float[] vector, T payload, int[] signatures) {
+            this.vector = vector;
+            this.payload = payload;
+            this.signatures = signatures;
+        }
+
+        public float[] getVector() {
+            return vector;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+    }
+
+    public static final class Match<T> {
+        private final T payload;
+        private final double score;
+
+        Match(T payload, double score) {
+            this.payload = payload;
+            this.score = score;
+        }
+
+        public T getPayload() {
+            return payload;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.projectmanagement.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Cronometra chamadas a serviços externos (Anthropic, OpenRouter, GitHub, Zep).
+ * Métrica: outbound.requests{client, operation, outcome}
+ */
+@Component
+public class OutboundMetrics {
+
+    public static final String METRIC_NAME = "outbound.requests";
+
+    private final MeterRegistry meterRegistry;
+
+    public OutboundMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Executa e cronometra uma chamada bloqueante
+     */
+    public <T> T record(String client, String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(timer(client, operation, outcome));
+        }
+    }
+
+    /**
+     * Cronometra uma chamada reativa a partir da assinatura
+     */
+    public <T> Mono<T> record(String client, String operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            return call
+                .doOnSuccess(result -> sample.stop(timer(client, operation, "success")))
+                .doOnError(error -> sample.stop(timer(client, operation, "error")))
+                .doOnCancel(() -> sample.stop(timer(client, operation, "cancelled")));
+        });
+    }
+
+    private Timer timer(String client, String operation, String outcome) {
+        return Timer.builder(METRIC_NAME)
+            .description("Latência de chamadas a serviços externos")
+            .tag("client", client)
+            .tag("operation", operation)
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
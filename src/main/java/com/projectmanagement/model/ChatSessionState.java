@@ -0,0 +1,47 @@
+package com.projectmanagement.model;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Contexto de chat persistido (JSON) por sessão, para sobreviver a reinícios e ser lido por outras instâncias
+ */
+@Entity
+@Table(name = "chat_session_states",
+       indexes = @Index(name = "idx_chat_session_states_updated", columnList = "updated_at"))
+public class ChatSessionState {
+    @Id
+    @Column(name = "session_id", length = 100)
+    private String sessionId;
+
+    @Lob
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public ChatSessionState() {}
+
+    public ChatSessionState(String sessionId, String payload) {
+        this.sessionId = sessionId;
+        this.payload = payload;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and Setters
+    public String getSessionId() { return sessionId; }
+    public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,101 @@
+package com.projectmanagement.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import javax.persistence.*;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "github_repo_links",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "owner", "repo"}))
+public class GitHubRepoLink {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 100)
+    private String owner;
+
+    @NotBlank
+    @Size(max = 100)
+    private String repo;
+
+    private boolean enabled = true;
+
+    // Maior updated_at (ISO-8601, UTC) já aplicado; usado como since= na próxima sincronização
+    @Size(max = 40)
+    @Column(name = "high_water_mark")
+    private String highWaterMark;
+
+    @Column(name = "last_synced_at")
+    private LocalDateTime lastSyncedAt;
+
+    @Size(max = 500)
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @JsonIgnoreProperties({"tasks", "meetingMinutes", "projectAccesses", "users"})
+    @ManyToOne
+    @JoinColumn(name = "project_id")
+    private Project project;
+
+    @JsonIgnoreProperties({"projects", "assignedTasks", "createdTasks", "projectAccesses"})
+    @ManyToOne
+    @JoinColumn(name = "created_by")
+    private User createdBy;
+
+    // Constructors
+    public GitHubRepoLink() {}
+
+    public GitHubRepoLink(Project project, String owner, String repo, User createdBy) {
+        this.project = project;
+        this.owner = owner;
+        this.repo = repo;
+        this.createdBy = createdBy;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public String fullName() {
+        return owner + "/" + repo;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getOwner() { return owner; }
+    public void setOwner(String owner) { this.owner = owner; }
+
+    public String getRepo() { return repo; }
+    public void setRepo(String repo) { this.repo = repo; }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getHighWaterMark() { return highWaterMark; }
+    public void setHighWaterMark(String highWaterMark) { this.highWaterMark = highWaterMark; }
+
+    public LocalDateTime getLastSyncedAt() { return lastSyncedAt; }
+    public void setLastSyncedAt(LocalDateTime lastSyncedAt) { this.lastSyncedAt = lastSyncedAt; }
+
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Project getProject() { return project; }
+    public void setProject(Project project) { this.project = project; }
+
+    public User getCreatedBy() { return createdBy; }
+    public void setCreatedBy(User createdBy) { this.createdBy = createdBy; }
+}
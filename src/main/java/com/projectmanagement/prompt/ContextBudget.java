@@ -0,0 +1,345 @@
+package com.projectmanagement.prompt;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Orçamento de tokens do loop de chat: estima o tamanho das mensagens e compacta o que
+ * volta para o modelo, para que resultados grandes de ferramentas (list_tasks, issues)
+ * não sejam reenviados inteiros em cada iteração.
+ *
+ * - resultado de ferramenta acima de chat.budget.tool-result-max-tokens: textos longos são
+ *   encurtados (com {@code <campo>_shortened} e truncated), janelas de arquivo perdem as
+ *   últimas linhas (end_line ajustado) e listas são cortadas (com contagem do que foi omitido)
+ * - mensagens do loop acima de chat.budget.loop-max-tokens: resultados de iterações
+ *   anteriores viram um resumo de uma linha
+ * - histórico entre turnos: turnos mais recentes que cabem em chat.budget.history-max-tokens
+ *
+ * A estimativa é a heurística de ~4 caracteres por token; serve para decidir cortes, não para cobrança.
+ */
+@Component
+public class ContextBudget {
+
+    private static final Logger logger = LoggerFactory.getLogger(ContextBudget.class);
+
+    private static final int CHARS_PER_TOKEN = 4;
+    private static final int MAX_FIELD_CHARS = 160;
+    private static final int MAX_HISTORY_MESSAGE_CHARS = 600;
+    private static final TypeReference<LinkedHashMap<String, Object>> MAP_TYPE =
+        new TypeReference<LinkedHashMap<String, Object>>() {};
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final int toolResultMaxTokens;
+    private final int loopMaxTokens;
+    private final int historyMaxTokens;
+
+    @Autowired
+    public ContextBudget(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                         @Value("${chat.budget.tool-result-max-tokens:1500}") int toolResultMaxTokens,
+                         @Value("${chat.budget.loop-max-tokens:12000}") int loopMaxTokens,
+                         @Value("${chat.budget.history-max-tokens:2000}") int historyMaxTokens) {
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.toolResultMaxTokens = toolResultMaxTokens;
+        this.loopMaxTokens = loopMaxTokens;
+        this.historyMaxTokens = historyMaxTokens;
+    }
+
+    public static int estimateTokens(String text) {
+        return text == null ? 0 : (text.length() + CHARS_PER_TOKEN - 1) / CHARS_PER_TOKEN;
+    }
+
+    /**
+     * Estimativa para uma lista de mensagens (conteúdo textual e argumentos de tool calls)
+     */
+    public static int estimateTokens(List<Map<String, Object>> messages) {
+        int total = 0;
+        for (Map<String, Object> message : messages) {
+            Object content = message.get("content");
+            total += estimateTokens(content instanceof String ? (String) content : String.valueOf(content));
+            Object toolCalls = message.get("tool_calls");
+            if (toolCalls != null) {
+                total += estimateTokens(String.valueOf(toolCalls));
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Resultado de ferramenta (JSON) dentro do orçamento; inalterado se já couber
+     */
+    public String compactToolResult(String toolName, String result) {
+        int tokens = estimateTokens(result);
+        if (tokens <= toolResultMaxTokens) {
+            return result;
+        }
+
+        Map<String, Object> parsed = null;
+        String compacted = null;
+        try {
+            parsed = objectMapper.readValue(result, MAP_TYPE);
+            compacted = compactJson(parsed);
+        } catch (Exception e) {
+            // Resultado que não é um objeto JSON: vai pelo fallback abaixo
+        }
+        if (compacted == null || estimateTokens(compacted) > toolResultMaxTokens) {
+            compacted = preview(parsed, result, tokens);
+        }
+
+        meterRegistry.counter("chat.context.compacted", "kind", "tool_result").increment();
+        logger.debug("Resultado de {} compactado: ~{} -> ~{} tokens", toolName, tokens, estimateTokens(compacted));
+        return compacted;
+    }
+
+    /**
+     * Último recurso: um JSON válido com success (se conhecido), truncated e o começo do texto original
+     * em preview, encurtado até caber no orçamento (o escape de aspas e quebras pode aumentar o tamanho)
+     */
+    private String preview(Map<String, Object> parsed, String result, int tokens) {
+        Map<String, Object> wrapper = new LinkedHashMap<>();
+        if (parsed != null && parsed.get("success") instanceof Boolean) {
+            wrapper.put("success", parsed.get("success"));
+        }
+        wrapper.put("truncated", true);
+        wrapper.put("original_tokens", tokens);
+        int previewChars = Math.min(result.length(), toolResultMaxTokens * CHARS_PER_TOKEN);
+        try {
+            while (true) {
+                if (previewChars > 0 && Character.isHighSurrogate(result.charAt(previewChars - 1))) {
+                    previewChars--;
+                }
+                wrapper.put("preview", result.substring(0, previewChars));
+                String json = objectMapper.writeValueAsString(wrapper);
+                if (estimateTokens(json) <= toolResultMaxTokens || previewChars == 0) {
+                    return json;
+                }
+                previewChars = Math.max(0, previewChars - Math.max(16, (json.length() - toolResultMaxTokens * CHARS_PER_TOKEN)));
+            }
+        } catch (Exception e) {
+            return "{\"truncated\":true,\"original_tokens\":" + tokens + "}";
+        }
+    }
+
+    /**
+     * Se as mensagens passarem do orçamento do loop, troca resultados de ferramentas anteriores
+     * a {@code keepFrom} por um resumo; as mensagens recentes ficam intactas
+     */
+    public void shrinkLoopMessages(List<Map<String, Object>> messages, int keepFrom) {
+        int total = estimateTokens(messages);
+        for (int i = 0; i < keepFrom && total > loopMaxTokens; i++) {
+            Map<String, Object> message = messages.get(i);
+            Object content = message.get("content");
+            if (!"tool".equals(message.get("role")) || !(content instanceof String)) {
+                continue;
+            }
+            String original = (String) content;
+            String stub = "[resultado anterior omitido para economizar contexto: ~" +
+                estimateTokens(original) + " tokens; chame a ferramenta novamente se precisar]";
+            if (stub.length() >= original.length()) {
+                continue;
+            }
+            Map<String, Object> shrunk = new HashMap<>(message);
+            shrunk.put("content", stub);
+            messages.set(i, shrunk);
+            total -= estimateTokens(original) - estimateTokens(stub);
+            meterRegistry.counter("chat.context.compacted", "kind", "loop").increment();
+        }
+    }
+
+    /**
+     * Mensagens user/assistant dos turnos mais recentes que cabem no orçamento de histórico,
+     * em ordem cronológica; {@code turns} (chaves user/assistant) vem do mais antigo para o mais recente
+     */
+    public List<Map<String, Object>> historyMessages(List<Map<String, Object>> turns) {
+        Deque<Map<String, Object>> selected = new ArrayDeque<>();
+        int remaining = historyMaxTokens;
+        for (int i = turns.size() - 1; i >= 0; i--) {
+            String user = truncate(String.valueOf(turns.get(i).get("user")), MAX_HISTORY_MESSAGE_CHARS);
+            String assistant = truncate(String.valueOf(turns.get(i).get("assistant")), MAX_HISTORY_MESSAGE_CHARS);
+            int cost = estimateTokens(user) + estimateTokens(assistant);
+            if (cost > remaining) {
+                meterRegistry.counter("chat.context.compacted", "kind", "history").increment();
+                break;
+            }
+            remaining -= cost;
+            selected.addFirst(message("assistant", assistant));
+            selected.addFirst(message("user", user));
+        }
+        return new ArrayList<>(selected);
+    }
+
+    /**
+     * Encurta campos de texto longos (marcando {@code <campo>_shortened}), corta o conteúdo de
+     * janelas de arquivo em fim de linha e, se ainda não couber, corta as listas pela metade até caber
+     */
+    @SuppressWarnings("unchecked")
+    private String compactJson(Map<String, Object> root) throws Exception {
+        Compaction compaction = new Compaction();
+        Map<String, Object> compacted = (Map<String, Object>) shorten(root, compaction);
+        if (compaction.shortened) {
+            compacted.put("truncated", true);
+        }
+        for (Map<String, Object> window : compaction.windows) {
+            fitWindow(compacted, window);
+        }
+        String json = objectMapper.writeValueAsString(compacted);
+
+        while (estimateTokens(json) > toolResultMaxTokens) {
+            boolean cut = false;
+            for (Map.Entry<String, Object> entry : new ArrayList<>(compacted.entrySet())) {
+                if (!(entry.getValue() instanceof List)) {
+                    continue;
+                }
+                List<?> items = (List<?>) entry.getValue();
+                if (items.size() <= 1) {
+                    continue;
+                }
+                int keep = items.size() / 2;
+                String omittedKey = entry.getKey() + "_omitted";
+                int alreadyOmitted = compacted.get(omittedKey) instanceof Integer ? (Integer) compacted.get(omittedKey) : 0;
+                compacted.put(entry.getKey(), new ArrayList<>(items.subList(0, keep)));
+                compacted.put(omittedKey, alreadyOmitted + items.size() - keep);
+                compacted.put("truncated", true);
+                cut = true;
+            }
+            if (!cut) {
+                break;
+            }
+            json = objectMapper.writeValueAsString(compacted);
+        }
+        return json;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object shorten(Object value, Compaction compaction) {
+        if (value instanceof String) {
+            String text = (String) value;
+            if (text.length() > MAX_FIELD_CHARS) {
+                compaction.shortened = true;
+            }
+            return truncate(text, MAX_FIELD_CHARS);
+        }
+        if (value instanceof Map) {
+            Map<String, Object> source = (Map<String, Object>) value;
+            boolean window = isLineWindow(source);
+            Map<String, Object> shortened = new LinkedHashMap<>();
+            source.forEach((key, item) -> {
+                if (window && "content".equals(key)) {
+                    // Cortado depois, em fim de linha (fitWindow)
+                    shortened.put(key, item);
+                } else if (item instanceof String && ((String) item).length() > MAX_FIELD_CHARS) {
+                    shortened.put(key, truncate((String) item, MAX_FIELD_CHARS));
+                    shortened.put(key + "_shortened", true);
+                    compaction.shortened = true;
+                } else {
+                    shortened.put(key, shorten(item, compaction));
+                }
+            });
+            if (window) {
+                compaction.windows.add(shortened);
+            }
+            return shortened;
+        }
+        if (value instanceof List) {
+            List<Object> shortened = new ArrayList<>();
+            for (Object item : (List<Object>) value) {
+                shortened.add(shorten(item, compaction));
+            }
+            return shortened;
+        }
+        return value;
+    }
+
+    /**
+     * Janela de linhas de um arquivo (github_get_file_content): content + start_line/end_line
+     */
+    private static boolean isLineWindow(Map<String, Object> map) {
+        return map.get("content") instanceof String && map.get("start_line") instanceof Number
+            && map.containsKey("end_line");
+    }
+
+    /**
+     * Mantém do conteúdo da janela só as linhas inteiras que cabem no orçamento e ajusta end_line,
+     * para que o modelo possa pedir a continuação a partir de end_line + 1
+     */
+    private void fitWindow(Map<String, Object> root, Map<String, Object> window) throws Exception {
+        if (estimateTokens(objectMapper.writeValueAsString(root)) <= toolResultMaxTokens) {
+            return;
+        }
+        String content = (String) window.get("content");
+        int startLine = ((Number) window.get("start_line")).intValue();
+        window.put("content", "");
+        window.put("truncated", true);
+        root.put("truncated", true);
+        // Folga para end_line e content_shortened, gravados depois da conta
+        int available = toolResultMaxTokens * CHARS_PER_TOKEN - objectMapper.writeValueAsString(root).length() - 32;
+
+        int used = 0;
+        int lines = 0;
+        int from = 0;
+        while (from < content.length()) {
+            int newline = content.indexOf('\n', from);
+            int end = newline < 0 ? content.length() : newline + 1;
+            int cost = escapedLength(content.substring(from, end));
+            if (used + cost > available) {
+                break;
+            }
+            used += cost;
+            lines++;
+            from = end;
+        }
+
+        if (lines > 0) {
+            window.put("content", content.substring(0, from));
+            window.put("end_line", startLine + lines - 1);
+            return;
+        }
+        // Nem a primeira linha cabe: só o começo dela
+        int firstLineEnd = content.indexOf('\n');
+        int chars = Math.max(0, Math.min(firstLineEnd < 0 ? content.length() : firstLineEnd, available));
+        while (chars > 0 && escapedLength(content.substring(0, chars)) > available) {
+            chars = Math.max(0, chars - Math.max(16, escapedLength(content.substring(0, chars)) - available));
+        }
+        if (chars > 0 && Character.isHighSurrogate(content.charAt(chars - 1))) {
+            chars--;
+        }
+        window.put("content", content.substring(0, chars));
+        window.put("content_shortened", true);
+        window.put("end_line", startLine);
+    }
+
+    private int escapedLength(String text) throws Exception {
+        return objectMapper.writeValueAsString(text).length() - 2;
+    }
+
+    private static String truncate(String text, int maxChars) {
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        return text.substring(0, maxChars) + "…";
+    }
+
+    /**
+     * Estado de uma compactação: se algum texto foi encurtado e as janelas de arquivo encontradas
+     */
+    private static final class Compaction {
+        boolean shortened;
+        final List<Map<String, Object>> windows = new ArrayList<>();
+    }
+
+    private static Map<String, Object> message(String role, String content) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", role);
+        message.put("content", content);
+        return message;
+    }
+}
@@ -0,0 +1,91 @@
+package com.projectmanagement.prompt;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta as mensagens de sistema do chat em ordem de estabilidade, para que o prefixo
+ * enviado ao provedor se repita entre turnos e possa ser servido do cache de prompt:
+ *
+ * 1. instruções fixas (iguais para todos os usuários e turnos)
+ * 2. catálogo de ferramentas (enviado no campo tools; na API Anthropic ele já precede o system)
+ * 3. resumo da sessão (muda raramente)
+ * 4. contexto volátil (memória relevante e referências recentes, muda a cada turno)
+ *
+ * Os blocos 1 e 3 levam cache_control no formato de partes de conteúdo, aceito pela API
+ * Anthropic e repassado pelo OpenRouter; o bloco volátil nunca é marcado.
+ */
+@Component
+public class PromptAssembler {
+
+    static final String STATIC_INSTRUCTIONS = "Você é um assistente especializado em gerenciamento de projetos. " +
+        "REGRAS IMPORTANTES:\n" +
+        "1. SEMPRE liste os projetos existentes ANTES de criar tarefas\n" +
+        "2. NUNCA crie novos projetos a menos que explicitamente solicitado\n" +
+        "3. Use SEMPRE projetos existentes quando possível\n" +
+        "4. Quando o usuário mencionar 'projeto X', procure por esse projeto específico\n" +
+        "5. Se o usuário pedir ação em UMA tarefa específica, foque APENAS nela\n" +
+        "6. Execute APENAS o que foi solicitado - não faça ações extras\n" +
+        "7. Responda em português de forma clara e objetiva\n" +
+        "8. Use o CONTEXTO ATUAL para entender referências como 'essa tarefa', 'este projeto', etc.\n\n" +
+        "FERRAMENTAS DISPONÍVEIS:\n" +
+        "- list_projects: Lista projetos existentes\n" +
+        "- list_tasks: Lista tarefas (use projectId para filtrar)\n" +
+        "- create_task: Cria tarefa em projeto EXISTENTE\n" +
+        "- update_task: Atualiza tarefa específica\n" +
+        "- move_task: Move tarefa para novo status\n" +
+        "- create_project: Use APENAS se explicitamente solicitado\n\n" +
+        "FLUXO RECOMENDADO:\n" +
+        "1. Se usuário mencionar projeto, use list_projects primeiro\n" +
+        "2. Identifique o projeto correto pelo nome/ID\n" +
+        "3. Execute a ação solicitada no projeto correto\n" +
+        "4. Confirme o resultado\n" +
+        "5. Se usuário disser 'essa tarefa' ou similar, use o contexto para identificar qual tarefa";
+
+    @Value("${anthropic.prompt-cache.enabled:true}")
+    private boolean promptCacheEnabled;
+
+    /**
+     * Mensagens de sistema na ordem estável; blocos vazios são omitidos
+     */
+    public List<Map<String, Object>> systemMessages(String sessionSummary, String relevantMemory, String conversationContext) {
+        List<Map<String, Object>> messages = new ArrayList<>(3);
+        messages.add(system(STATIC_INSTRUCTIONS, true));
+
+        if (sessionSummary != null && !sessionSummary.isEmpty()) {
+            messages.add(system("RESUMO DA SESSÃO:\n" + sessionSummary + "\n", true));
+        }
+
+        StringBuilder volatileContext = new StringBuilder();
+        if (relevantMemory != null && !relevantMemory.isEmpty()) {
+            volatileContext.append("CONTEXTO RELEVANTE (Zep Memory):\n").append(relevantMemory).append("\n");
+        }
+        if (conversationContext != null && !conversationContext.isEmpty()) {
+            volatileContext.append("CONTEXTO ATUAL DA CONVERSA:\n").append(conversationContext).append("\n");
+        }
+        if (volatileContext.length() > 0) {
+            messages.add(system(volatileContext.toString(), false));
+        }
+        return messages;
+    }
+
+    private Map<String, Object> system(String text, boolean cacheBreakpoint) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "system");
+        if (cacheBreakpoint && promptCacheEnabled) {
+            Map<String, Object> part = new HashMap<>();
+            part.put("type", "text");
+            part.put("text", text);
+            part.put("cache_control", Map.of("type", "ephemeral"));
+            message.put("content", List.of(part));
+        } else {
+            message.put("content", text);
+        }
+        return message;
+    }
+}
@@ -0,0 +1,20 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.model.ChatSessionState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ChatSessionStateRepository extends JpaRepository<ChatSessionState, String> {
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ChatSessionState s WHERE s.updatedAt < :cutoff")
+    int deleteUpdatedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,18 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.model.GitHubRepoLink;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GitHubRepoLinkRepository extends JpaRepository<GitHubRepoLink, Long> {
+
+    List<GitHubRepoLink> findByEnabledTrue();
+
+    List<GitHubRepoLink> findByProjectId(Long projectId);
+
+    Optional<GitHubRepoLink> findByProjectIdAndOwnerAndRepo(Long projectId, String owner, String repo);
+}
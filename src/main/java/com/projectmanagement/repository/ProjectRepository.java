@@ -1,5 +1,6 @@
 package com.projectmanagement.repository;
 
+import com.projectmanagement.dto.ProjectSummary;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.ProjectStatus;
 import com.projectmanagement.model.User;
@@ -26,6 +27,14 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
     @Query("SELECT p FROM Project p WHERE p.createdBy.id = :userId OR :userId IN (SELECT u.id FROM p.users u)")
     List<Project> findProjectsByUserIdIncludingCreated(@Param("userId") Long userId);
     
+    @Query("SELECT p.id AS id, p.name AS name, p.description AS description, p.status AS status FROM Project p " +
+           "WHERE p.createdBy.id = :userId OR :userId IN (SELECT u.id FROM p.users u) ORDER BY p.id")
+    List<ProjectSummary> findSummariesByUserId(@Param("userId") Long userId);
+    
+    @Query("SELECT COUNT(p) > 0 FROM Project p WHERE p.id = :projectId AND " +
+           "(p.createdBy.id = :userId OR :userId IN (SELECT u.id FROM p.users u))")
+    boolean existsVisibleToUser(@Param("projectId") Long projectId, @Param("userId") Long userId);
+    
     @Query("SELECT COUNT(p) FROM Project p WHERE p.status = :status")
     Long countByStatus(@Param("status") ProjectStatus status);
 }
@@ -1,5 +1,6 @@
 package com.projectmanagement.repository;
 
+import com.projectmanagement.dto.TaskSummary;
 import com.projectmanagement.model.Task;
 import com.projectmanagement.model.TaskStatus;
 import com.projectmanagement.model.User;
@@ -9,7 +10,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
@@ -26,12 +29,27 @@ public interface TaskRepository extends JpaRepository<Task, Long> {
     
     List<Task> findByProjectIdAndStatus(Long projectId, TaskStatus status);
     
+    List<Task> findByProjectIdAndExternalIdIn(Long projectId, Collection<String> externalIds);
+    
     @Query("SELECT t FROM Task t WHERE t.project.id = :projectId ORDER BY t.status, t.priority DESC, t.createdAt")
     List<Task> findByProjectIdOrderByStatusAndPriority(@Param("projectId") Long projectId);
     
     @Query("SELECT t FROM Task t WHERE t.assignedUser.id = :userId ORDER BY t.priority DESC, t.dueDate")
     List<Task> findByAssignedUserIdOrderByPriorityAndDueDate(@Param("userId") Long userId);
     
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.status AS status, " +
+           "t.priority AS priority, t.project.id AS projectId FROM Task t WHERE t.project.id = :projectId " +
+           "ORDER BY t.status, t.priority DESC, t.createdAt")
+    List<TaskSummary> findSummariesByProjectId(@Param("projectId") Long projectId);
+    
+    @Query("SELECT t.id AS id, t.title AS title, t.description AS description, t.status AS status, " +
+           "t.priority AS priority, t.project.id AS projectId FROM Task t JOIN t.project p " +
+           "WHERE p.createdBy.id = :userId OR :userId IN (SELECT u.id FROM p.users u) ORDER BY p.id, t.id")
+    List<TaskSummary> findSummariesByUserProjects(@Param("userId") Long userId);
+    
+    @Query("SELECT t.project.id FROM Task t WHERE t.id = :taskId")
+    Optional<Long> findProjectIdById(@Param("taskId") Long taskId);
+    
     @Query("SELECT COUNT(t) FROM Task t WHERE t.project.id = :projectId AND t.status = :status")
     Long countByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") TaskStatus status);
 }
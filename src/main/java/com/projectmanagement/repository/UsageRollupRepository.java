@@ -0,0 +1,22 @@
+package com.projectmanagement.repository;
+
+import com.projectmanagement.model.UsageRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UsageRollupRepository extends JpaRepository<UsageRollup, Long> {
+
+    Optional<UsageRollup> findByUserIdAndUsageDate(Long userId, LocalDate usageDate);
+
+    List<UsageRollup> findByUsageDateAndUserIdIn(LocalDate usageDate, Collection<Long> userIds);
+
+    List<UsageRollup> findByUsageDateBetweenOrderByUsageDateAsc(LocalDate from, LocalDate to);
+
+    List<UsageRollup> findByUserIdAndUsageDateBetweenOrderByUsageDateAsc(Long userId, LocalDate from, LocalDate to);
+}
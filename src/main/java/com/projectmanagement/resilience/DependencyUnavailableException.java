@@ -0,0 +1,18 @@
+package com.projectmanagement.resilience;
+
+/**
+ * Chamada rejeitada sem tocar a rede: circuit breaker aberto ou bulkhead cheio
+ */
+public class DependencyUnavailableException extends RuntimeException {
+
+    private final String dependency;
+
+    public DependencyUnavailableException(String dependency, Throwable cause) {
+        super("Serviço " + dependency + " temporariamente indisponível", cause);
+        this.dependency = dependency;
+    }
+
+    public String getDependency() {
+        return dependency;
+    }
+}
@@ -0,0 +1,201 @@
+package com.projectmanagement.resilience;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Estatísticas móveis por modelo (latência EWMA, taxa de sucesso EWMA, janela de latências
+ * recentes) usadas para ordenar os candidatos de uma chamada e calcular o atraso do hedge.
+ *
+ * - ordem: modelo preferido primeiro (se saudável), depois os demais por latência / sucesso;
+ *   modelos com falhas consecutivas ficam no fim até passar o cooldown
+ * - hedge: percentil configurado das latências recentes do modelo (mínimo min-delay);
+ *   sem amostras suficientes usa default-delay
+ * - "modelo não suporta ferramentas" fica registrado por tools-unsupported-ttl, para não
+ *   repetir a tentativa com ferramentas que já falhou
+ *
+ * Métricas: llm.model.latency{model} (EWMA, ms) e llm.model.success_rate{model}.
+ */
+@Component
+public class ModelRouter {
+
+    private static final double ALPHA = 0.2;
+    private static final int LATENCY_WINDOW = 64;
+    private static final int MIN_SAMPLES_FOR_PERCENTILE = 10;
+    private static final int FAILURES_BEFORE_COOLDOWN = 3;
+
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final double hedgePercentile;
+    private final Duration hedgeMinDelay;
+    private final Duration hedgeDefaultDelay;
+    private final Duration failureCooldown;
+    private final Duration toolsUnsupportedTtl;
+    private final Map<String, ModelStats> stats = new ConcurrentHashMap<>();
+
+    @Autowired
+    public ModelRouter(MeterRegistry meterRegistry,
+                       @Value("${openrouter.hedge.percentile:0.9}") double hedgePercentile,
+                       @Value("${openrouter.hedge.min-delay:2s}") Duration hedgeMinDelay,
+                       @Value("${openrouter.hedge.default-delay:8s}") Duration hedgeDefaultDelay,
+                       @Value("${openrouter.models.failure-cooldown:60s}") Duration failureCooldown,
+                       @Value("${openrouter.models.tools-unsupported-ttl:6h}") Duration toolsUnsupportedTtl) {
+        this(meterRegistry, hedgePercentile, hedgeMinDelay, hedgeDefaultDelay, failureCooldown, toolsUnsupportedTtl,
+            Clock.systemUTC());
+    }
+
+    ModelRouter(MeterRegistry meterRegistry, double hedgePercentile, Duration hedgeMinDelay, Duration hedgeDefaultDelay,
+                Duration failureCooldown, Duration toolsUnsupportedTtl, Clock clock) {
+        this.meterRegistry = meterRegistry;
+        this.hedgePercentile = hedgePercentile;
+        this.hedgeMinDelay = hedgeMinDelay;
+        this.hedgeDefaultDelay = hedgeDefaultDelay;
+        this.failureCooldown = failureCooldown;
+        this.toolsUnsupportedTtl = toolsUnsupportedTtl;
+        this.clock = clock;
+    }
+
+    /**
+     * Candidatos em ordem de tentativa; o preferido (se houver) vai na frente enquanto estiver saudável
+     */
+    public List<String> candidates(String preferred, List<String> models) {
+        List<String> all = new ArrayList<>(models);
+        if (preferred != null && !preferred.isEmpty()) {
+            all.remove(preferred);
+        }
+        // Snapshot das estatísticas: a ordenação não pode ver valores mudando no meio
+        long now = clock.millis();
+        Map<String, Boolean> cooling = new HashMap<>();
+        Map<String, Double> scores = new HashMap<>();
+        for (String model : all) {
+            cooling.put(model, stats(model).coolingDown(now));
+            scores.put(model, stats(model).score());
+        }
+        all.sort(Comparator.comparing((String model) -> cooling.get(model)).thenComparingDouble(scores::get));
+
+        if (preferred != null && !preferred.isEmpty()) {
+            if (stats(preferred).coolingDown(now)) {
+                all.add(preferred);
+            } else {
+                all.add(0, preferred);
+            }
+        }
+        return all;
+    }
+
+    public void recordSuccess(String model, long nanos) {
+        stats(model).record(true, nanos / 1_000_000.0, clock.millis());
+    }
+
+    public void recordFailure(String model, long nanos) {
+        stats(model).record(false, nanos / 1_000_000.0, clock.millis());
+    }
+
+    public void markToolsUnsupported(String model) {
+        stats(model).toolsUnsupportedUntil = clock.millis() + toolsUnsupportedTtl.toMillis();
+    }
+
+    public boolean supportsTools(String model) {
+        return stats(model).toolsUnsupportedUntil <= clock.millis();
+    }
+
+    /**
+     * Quanto esperar pela resposta do modelo antes de disparar o próximo candidato em paralelo
+     */
+    public Duration hedgeDelay(String model) {
+        OptionalDouble percentile = stats(model).latencyPercentile(hedgePercentile);
+        if (percentile.isEmpty()) {
+            return hedgeDefaultDelay;
+        }
+        Duration delay = Duration.ofMillis((long) percentile.getAsDouble());
+        return delay.compareTo(hedgeMinDelay) < 0 ? hedgeMinDelay : delay;
+    }
+
+    /**
+     * Dispara {@code backup} se {@code primary} não responder em {@code delay} (ou falhar antes
+     * disso) e devolve a primeira resposta com valor; a chamada perdedora é cancelada e o erro
+     * só propaga quando as duas falham. O argumento de {@code backup} é true quando o disparo veio
+     * do atraso (hedge) e false quando veio da falha antecipada do primário (failover)
+     */
+    public static <T> Mono<T> hedged(Mono<T> primary, Duration delay, Function<Boolean, Mono<T>> backup) {
+        return primary.publish(shared -> {
+            Mono<Boolean> trigger = Mono.firstWithSignal(
+                Mono.delay(delay).thenReturn(true),
+                shared.then(Mono.<Boolean>never()).onErrorReturn(false));
+            return Mono.firstWithValue(shared, trigger.flatMap(backup));
+        });
+    }
+
+    private ModelStats stats(String model) {
+        return stats.computeIfAbsent(model, name -> {
+            ModelStats created = new ModelStats();
+            Gauge.builder("llm.model.latency", created, s -> s.latencyEwmaMs)
+                .tag("model", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+            Gauge.builder("llm.model.success_rate", created, s -> s.successRate)
+                .tag("model", name)
+                .register(meterRegistry);
+            return created;
+        });
+    }
+
+    private final class ModelStats {
+        // Valores lidos pelos gauges sem lock; escritas sob o monitor do próprio objeto
+        private volatile double latencyEwmaMs = -1;
+        private volatile double successRate = 1.0;
+        private volatile long toolsUnsupportedUntil;
+        private int consecutiveFailures;
+        private long lastFailureAt;
+        private final double[] latencies = new double[LATENCY_WINDOW];
+        private int next;
+        private int samples;
+
+        synchronized void record(boolean success, double ms, long now) {
+            successRate = ALPHA * (success ? 1 : 0) + (1 - ALPHA) * successRate;
+            if (success) {
+                consecutiveFailures = 0;
+                latencyEwmaMs = latencyEwmaMs < 0 ? ms : ALPHA * ms + (1 - ALPHA) * latencyEwmaMs;
+                latencies[next] = ms;
+                next = (next + 1) % LATENCY_WINDOW;
+                samples = Math.min(samples + 1, LATENCY_WINDOW);
+            } else {
+                consecutiveFailures++;
+                lastFailureAt = now;
+            }
+        }
+
+        synchronized boolean coolingDown(long now) {
+            return consecutiveFailures >= FAILURES_BEFORE_COOLDOWN && now - lastFailureAt < failureCooldown.toMillis();
+        }
+
+        /**
+         * Menor é melhor: latência esperada penalizada pela taxa de falhas; sem histórico fica neutro
+         */
+        synchronized double score() {
+            double latency = latencyEwmaMs < 0 ? hedgeDefaultDelay.toMillis() / 2.0 : latencyEwmaMs;
+            return latency / Math.max(successRate, 0.05);
+        }
+
+        synchronized OptionalDouble latencyPercentile(double percentile) {
+            int count = samples;
+            if (count < MIN_SAMPLES_FOR_PERCENTILE) {
+                return OptionalDouble.empty();
+            }
+            double[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * count) - 1;
+            return OptionalDouble.of(sorted[Math.max(0, Math.min(count - 1, index))]);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.projectmanagement.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Camada de resiliência para dependências externas (anthropic, openrouter, github, zep).
+ *
+ * Cada dependência tem seu próprio bulkhead (limite de chamadas simultâneas, rejeição
+ * imediata), circuit breaker e retry com backoff exponencial e jitter. Configuração em
+ * resilience.&lt;dependência&gt;.* (ver application.properties).
+ *
+ * Ordem por tentativa: timeout → circuit breaker → bulkhead. Retry envolve tudo,
+ * e o hedge (opcional, só para chamadas idempotentes) dispara uma segunda tentativa
+ * se a primeira não responder dentro de hedge-delay.
+ */
+@Component
+public class OutboundResilience {
+
+    private static final String PREFIX = "resilience.";
+
+    // Registradas na inicialização para que o estado apareça nas métricas antes da primeira chamada
+    private static final String[] KNOWN_DEPENDENCIES = {"anthropic", "openrouter", "github", "zep"};
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final RetryRegistry retryRegistry = RetryRegistry.ofDefaults();
+
+    public OutboundResilience(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+        for (String dependency : KNOWN_DEPENDENCIES) {
+            circuitBreaker(dependency);
+            bulkhead(dependency);
+        }
+    }
+
+    /**
+     * Protege uma chamada que pode ter efeitos colaterais (POST):
+     * só repete quando a requisição certamente não foi processada.
+     */
+    public <T> Mono<T> decorate(String dependency, Mono<T> call) {
+        return protect(dependency, call, false);
+    }
+
+    /**
+     * Protege uma chamada idempotente (GET): repete também em timeouts e falhas
+     * de I/O e, se resilience.&lt;dependência&gt;.hedge-delay estiver definido, faz hedge.
+     */
+    public <T> Mono<T> decorateIdempotent(String dependency, Mono<T> call) {
+        return protect(dependency, call, true);
+    }
+
+    public CircuitBreaker circuitBreaker(String dependency) {
+        return circuitBreakerRegistry.circuitBreaker(dependency, () -> circuitBreakerConfig(dependency));
+    }
+
+    public Bulkhead bulkhead(String dependency) {
+        return bulkheadRegistry.bulkhead(dependency, () -> bulkheadConfig(dependency));
+    }
+
+    private <T> Mono<T> protect(String dependency, Mono<T> call, boolean idempotent) {
+        Duration timeout = duration(dependency, "timeout", Duration.ofSeconds(30));
+        Mono<T> attempt = call
+            .timeout(timeout)
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker(dependency)))
+            .transformDeferred(BulkheadOperator.of(bulkhead(dependency)));
+
+        Duration hedgeDelay = duration(dependency, "hedge-delay", null);
+        if (idempotent && hedgeDelay != null) {
+            attempt = hedge(dependency, attempt, hedgeDelay);
+        }
+
+        Retry retry = idempotent
+            ? retryRegistry.retry(dependency + ".idempotent", () -> retryConfig(dependency, true))
+            : retryRegistry.retry(dependency, () -> retryConfig(dependency, false));
+
+        return attempt
+            .transformDeferred(RetryOperator.of(retry))
+            .onErrorMap(OutboundResilience::isRejection, e -> new DependencyUnavailableException(dependency, e));
+    }
+
+    /**
+     * Dispara uma segunda cópia da chamada após o atraso; a primeira a responder vence e a outra é cancelada.
+     * O firstWithValue assina os dois ramos na hora, então o hedge só é contado quando o atraso vence
+     */
+    private <T> Mono<T> hedge(String dependency, Mono<T> attempt, Duration hedgeDelay) {
+        Mono<T> hedged = Mono.delay(hedgeDelay)
+            .doOnNext(tick -> meterRegistry.counter("outbound.hedges", "dependency", dependency).increment())
+            .then(attempt);
+        return Mono.firstWithValue(attempt, hedged)
+            .onErrorMap(NoSuchElementException.class, OutboundResilience::firstSuppressed);
+    }
+
+    private static Throwable firstSuppressed(NoSuchElementException e) {
+        return e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e;
+    }
+
+    private CircuitBreakerConfig circuitBreakerConfig(String dependency) {
+        Duration timeout = duration(dependency, "timeout", Duration.ofSeconds(30));
+        return CircuitBreakerConfig.custom()
+            .slidingWindowSize(integer(dependency, "sliding-window-size", 20))
+            .minimumNumberOfCalls(integer(dependency, "minimum-number-of-calls", 10))
+            .failureRateThreshold(integer(dependency, "failure-rate-threshold", 50))
+            .slowCallDurationThreshold(duration(dependency, "slow-call-duration", timeout))
+            .slowCallRateThreshold(integer(dependency, "slow-call-rate-threshold", 80))
+            .waitDurationInOpenState(duration(dependency, "wait-in-open-state", Duration.ofSeconds(30)))
+            .permittedNumberOfCallsInHalfOpenState(3)
+            .recordException(OutboundResilience::isFailure)
+            .build();
+    }
+
+    private BulkheadConfig bulkheadConfig(String dependency) {
+        // Sem espera: quando cheio rejeita na hora, em vez de prender a thread do Tomcat
+        return BulkheadConfig.custom()
+            .maxConcurrentCalls(integer(dependency, "max-concurrent-calls", 20))
+            .maxWaitDuration(Duration.ZERO)
+            .build();
+    }
+
+    private RetryConfig retryConfig(String dependency, boolean idempotent) {
+        return RetryConfig.custom()
+            .maxAttempts(integer(dependency, "retry.max-attempts", 3))
+            .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(
+                duration(dependency, "retry.initial-backoff", Duration.ofMillis(200)), 2.0, 0.5))
+            .retryOnException(e -> idempotent ? isRetryableIdempotent(e) : isRetryableUnsafe(e))
+            .build();
+    }
+
+    /**
+     * Falhas que contam para o circuit breaker: erros de servidor, throttling, timeouts e I/O.
+     * Erros 4xx (exceto 429) são problemas da requisição, não da dependência.
+     */
+    static boolean isFailure(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getRawStatusCode();
+            return status >= 500 || status == 429;
+        }
+        return e instanceof WebClientRequestException
+            || e instanceof TimeoutException
+            || e instanceof IOException;
+    }
+
+    static boolean isRetryableIdempotent(Throwable e) {
+        return !isRejection(e) && isFailure(e);
+    }
+
+    /**
+     * Só repete quando o servidor não processou a requisição: throttling, indisponível,
+     * ou conexão recusada antes do envio.
+     */
+    static boolean isRetryableUnsafe(Throwable e) {
+        if (e instanceof WebClientResponseException) {
+            int status = ((WebClientResponseException) e).getRawStatusCode();
+            return status == 429 || status == 503;
+        }
+        return e instanceof WebClientRequestException && e.getCause() instanceof ConnectException;
+    }
+
+    static boolean isRejection(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    private int integer(String dependency, String key, int defaultValue) {
+        return environment.getProperty(PREFIX + dependency + "." + key, Integer.class, defaultValue);
+    }
+
+    private Duration duration(String dependency, String key, Duration defaultValue) {
+        // Ausente, zero ou negativo: usa o padrão (para hedge-delay, padrão null = desabilitado)
+        Duration value = environment.getProperty(PREFIX + dependency + "." + key, Duration.class);
+        return value == null || value.isZero() || value.isNegative() ? defaultValue : value;
+    }
+}
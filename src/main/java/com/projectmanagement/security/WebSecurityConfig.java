@@ -1,6 +1,8 @@
 package com.projectmanagement.security;
 
+import com.projectmanagement.logging.MdcRequestFilter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -30,6 +32,13 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
     @Autowired
     private AuthEntryPointJwt unauthorizedHandler;
 
+    // Porta e endereço internos de gerenciamento (vazio = mesma porta da aplicação)
+    @Value("${management.server.port:}")
+    private String managementPort;
+
+    @Value("${management.server.address:}")
+    private String managementAddress;
+
     @Bean
     public AuthTokenFilter authenticationJwtTokenFilter() {
         return new AuthTokenFilter();
@@ -74,6 +83,11 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
                 .antMatchers("/api/auth/**").permitAll()
                 .antMatchers("/api/ai/test").permitAll()
                 .antMatchers("/h2-console/**").permitAll()
+                .antMatchers("/actuator/health").permitAll()
+                // Na porta pública as demais métricas exigem login; na porta de gerenciamento presa a
+                // um endereço interno o Prometheus coleta sem token
+                .requestMatchers(request -> !managementPort.isEmpty() && !managementAddress.isEmpty()
+                    && String.valueOf(request.getLocalPort()).equals(managementPort)).permitAll()
                 .antMatchers("/", "/index.html").permitAll()
                 .antMatchers("/login", "/register", "/dashboard", "/projects/**", "/kanban", "/profile", "/settings", "/ai-chat").permitAll()
                 .antMatchers("/css/**", "/js/**", "/images/**", "/assets/**").permitAll()
@@ -96,5 +110,6 @@ public class WebSecurityConfig extends WebSecurityConfigurerAdapter {
         http.headers().frameOptions().disable();
 
         http.addFilterBefore(authenticationJwtTokenFilter(), UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new MdcRequestFilter(), AuthTokenFilter.class);
     }
 }
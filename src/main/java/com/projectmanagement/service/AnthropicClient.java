@@ -1,12 +1,28 @@
 package com.projectmanagement.service;
 
-import org.springframework.http.HttpEntity;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.projectmanagement.llm.AnthropicMessage;
+import com.projectmanagement.llm.AnthropicRequest;
+import com.projectmanagement.llm.AnthropicResponse;
+import com.projectmanagement.llm.ContentBlock;
+import com.projectmanagement.llm.LlmJson;
+import com.projectmanagement.llm.Usage;
+import com.projectmanagement.mcp.ToolCatalog;
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.DependencyUnavailableException;
+import com.projectmanagement.resilience.OutboundResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -15,43 +31,101 @@ import java.util.ArrayList;
 @Service
 public class AnthropicClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(AnthropicClient.class);
+
     @Value("${anthropic.api.key:}")
     private String apiKey;
-    private static final String API_URL = "https://api.anthropic.com/v1/messages";
     private static final String MODEL = "claude-3-5-haiku-20241022"; // Usando Claude 3.5 Haiku (mais recente disponível)
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Limite de blocos com cache_control por requisição imposto pela API
+    private static final int MAX_CACHE_BREAKPOINTS = 4;
+    private static final Map<String, String> EPHEMERAL = Map.of("type", "ephemeral");
+
+    private final WebClient webClient;
+
+    @Autowired
+    private OutboundMetrics outboundMetrics;
+
+    @Autowired
+    private OutboundResilience resilience;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${anthropic.prompt-cache.enabled:true}")
+    private boolean promptCacheEnabled;
+
+    public AnthropicClient(WebClient.Builder webClientBuilder,
+                           @Value("${anthropic.api.base-url:https://api.anthropic.com}") String baseUrl) {
+        this.webClient = webClientBuilder
+            .baseUrl(baseUrl)
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader("anthropic-version", "2023-06-01")
+            .build();
+    }
 
     public Map<String, Object> chatCompletion(List<Map<String, Object>> messages,
                                               List<Map<String, Object>> tools,
                                               String preferredModel) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("x-api-key", apiKey);
-            headers.set("anthropic-version", "2023-06-01");
+        return chatCompletionAsync(messages, tools, preferredModel).block();
+    }
 
-            Map<String, Object> body = new HashMap<>();
-            body.put("model", preferredModel != null ? preferredModel : MODEL);
-            body.put("max_tokens", 4000);
-            body.put("messages", messages);
+    /**
+     * Versão não bloqueante; erros viram uma resposta de assistente em formato compatível
+     */
+    public Mono<Map<String, Object>> chatCompletionAsync(List<Map<String, Object>> messages,
+                                                         List<Map<String, Object>> tools,
+                                                         String preferredModel) {
+        return Mono.defer(() -> {
+            AnthropicRequest request = new AnthropicRequest();
+            request.setModel(preferredModel != null ? preferredModel : MODEL);
+            request.setMaxTokens(4000);
+
+            // Mensagens "system" vão para o campo system da API; partes com cache_control
+            // (montadas pelo PromptAssembler) viram os breakpoints do prefixo em cache
+            List<ContentBlock> system = new ArrayList<>();
+            List<AnthropicMessage> conversation = new ArrayList<>(messages.size());
+            int breakpoints = tools instanceof ToolCatalog.PrecompiledTools && promptCacheEnabled ? 1 : 0;
+            for (Map<String, Object> message : messages) {
+                if ("system".equals(message.get("role"))) {
+                    breakpoints += addTextBlocks(system, message.get("content"));
+                } else {
+                    addConversationMessage(conversation, message);
+                }
+            }
+            if (promptCacheEnabled && breakpoints < MAX_CACHE_BREAKPOINTS) {
+                markLastMessage(conversation);
+            }
+            request.setSystem(system);
+            request.setMessages(conversation);
 
             // Adicionar tools se fornecidas
-            if (tools != null && !tools.isEmpty()) {
-                List<Map<String, Object>> anthropicTools = convertToAnthropicTools(tools);
-                body.put("tools", anthropicTools);
+            if (tools instanceof ToolCatalog.PrecompiledTools) {
+                // Fragmento JSON pré-serializado na subida (já com cache_control na última ferramenta)
+                request.setTools(((ToolCatalog.PrecompiledTools) tools).anthropicJson());
+            } else if (tools != null && !tools.isEmpty()) {
+                request.setTools(convertToAnthropicTools(tools));
             }
 
-            HttpEntity<Map<String, Object>> req = new HttpEntity<>(body, headers);
-            ResponseEntity<Map> resp = restTemplate.postForEntity(API_URL, req, Map.class);
+            return resilience.decorate("anthropic", outboundMetrics.record("anthropic", "messages", webClient.post()
+                .uri("/v1/messages")
+                .header("x-api-key", apiKey)
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(AnthropicResponse.class)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Resposta vazia da API Anthropic")))));
+        })
+        .doOnNext(response -> recordCacheUsage(response.getUsage()))
+        // Converter resposta para formato compatível
+        .map(this::convertAnthropicResponse)
+        .onErrorResume(e -> {
+            // Rejeição rápida (circuito aberto / bulkhead cheio) não precisa de stack trace
+            if (e instanceof DependencyUnavailableException) {
+                logger.warn("API Anthropic indisponível: {}", e.getMessage());
+            } else {
+                logger.error("Erro na API Anthropic: {}", e.getMessage(), e);
+            }
 
-            // Converter resposta para formato compatível
-            return convertAnthropicResponse(resp.getBody());
-            
-        } catch (Exception e) {
-            System.err.println("Erro na API Anthropic: " + e.getMessage());
-            e.printStackTrace();
-            
             // Retornar resposta de erro em formato compatível
             Map<String, Object> errorResponse = new HashMap<>();
             Map<String, Object> choice = new HashMap<>();
@@ -60,77 +134,152 @@ public class AnthropicClient {
             message.put("content", "Desculpe, ocorreu um erro ao processar sua solicitação. Erro: " + e.getMessage());
             choice.put("message", message);
             errorResponse.put("choices", List.of(choice));
-            return errorResponse;
+            return Mono.just(errorResponse);
+        });
+    }
+
+    /**
+     * Converte conteúdo (texto ou partes) em blocos de texto; retorna quantos levam cache_control
+     */
+    private int addTextBlocks(List<ContentBlock> blocks, Object content) {
+        if (!(content instanceof List)) {
+            blocks.add(ContentBlock.text(String.valueOf(content)));
+            return 0;
         }
+        int marked = 0;
+        for (Object part : (List<?>) content) {
+            Map<?, ?> source = (Map<?, ?>) part;
+            ContentBlock block = ContentBlock.text(String.valueOf(source.get("text")));
+            if (promptCacheEnabled && source.get("cache_control") != null) {
+                block.setCacheControl(source.get("cache_control"));
+                marked++;
+            }
+            blocks.add(block);
+        }
+        return marked;
     }
 
     /**
-     * Converte resposta da API Anthropic para formato compatível com OpenAI
+     * Converte uma mensagem no formato OpenAI: tool_calls do assistente viram blocos tool_use e
+     * mensagens "tool" viram tool_result, agrupados numa única mensagem user como a API exige
      */
-    private Map<String, Object> convertAnthropicResponse(Map<String, Object> anthropicResponse) {
-        Map<String, Object> openAIResponse = new HashMap<>();
-        
-        // Extrair conteúdo da resposta
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> content = (List<Map<String, Object>>) anthropicResponse.get("content");
-        
-        if (content != null && !content.isEmpty()) {
-            Map<String, Object> firstContent = content.get(0);
-            String type = (String) firstContent.get("type");
-            
-            Map<String, Object> choice = new HashMap<>();
-            Map<String, Object> message = new HashMap<>();
-            message.put("role", "assistant");
-            
-            if ("text".equals(type)) {
-                // Resposta de texto simples
-                message.put("content", firstContent.get("text"));
-            } else if ("tool_use".equals(type)) {
-                // Resposta com chamada de ferramenta
-                List<Map<String, Object>> toolCalls = new ArrayList<>();
-                
-                for (Map<String, Object> contentItem : content) {
-                    if ("tool_use".equals(contentItem.get("type"))) {
-                        Map<String, Object> toolCall = new HashMap<>();
-                        toolCall.put("id", contentItem.get("id"));
-                        toolCall.put("type", "function");
-                        
-                        Map<String, Object> function = new HashMap<>();
-                        function.put("name", contentItem.get("name"));
-                        function.put("arguments", contentItem.get("input"));
-                        toolCall.put("function", function);
-                        
-                        toolCalls.add(toolCall);
-                    }
-                }
-                
-                message.put("tool_calls", toolCalls);
-                
-                // Adicionar texto se houver
-                String textContent = extractTextFromContent(content);
-                if (!textContent.isEmpty()) {
-                    message.put("content", textContent);
+    @SuppressWarnings("unchecked")
+    private void addConversationMessage(List<AnthropicMessage> conversation, Map<String, Object> message) {
+        String role = String.valueOf(message.get("role"));
+
+        if ("tool".equals(role)) {
+            ContentBlock result = ContentBlock.toolResult(
+                String.valueOf(message.get("tool_call_id")), String.valueOf(message.get("content")));
+            AnthropicMessage previous = conversation.isEmpty() ? null : conversation.get(conversation.size() - 1);
+            if (previous != null && "user".equals(previous.getRole()) && !previous.getContent().isEmpty()
+                    && "tool_result".equals(previous.getContent().get(0).getType())) {
+                previous.getContent().add(result);
+            } else {
+                AnthropicMessage user = new AnthropicMessage("user");
+                user.getContent().add(result);
+                conversation.add(user);
+            }
+            return;
+        }
+
+        AnthropicMessage converted = new AnthropicMessage(role);
+        Object content = message.get("content");
+        if (content instanceof List || (content != null && !String.valueOf(content).isEmpty())) {
+            addTextBlocks(converted.getContent(), content);
+        }
+        Object toolCalls = message.get("tool_calls");
+        if (toolCalls instanceof List) {
+            for (Map<String, Object> toolCall : (List<Map<String, Object>>) toolCalls) {
+                Map<String, Object> function = (Map<String, Object>) toolCall.get("function");
+                Map<String, Object> input;
+                try {
+                    input = LlmJson.parseArguments(function.get("arguments"));
+                } catch (IOException e) {
+                    input = new HashMap<>();
                 }
+                converted.getContent().add(ContentBlock.toolUse(
+                    String.valueOf(toolCall.get("id")), String.valueOf(function.get("name")), input));
             }
-            
-            choice.put("message", message);
-            openAIResponse.put("choices", List.of(choice));
         }
-        
-        return openAIResponse;
+        conversation.add(converted);
+    }
+
+    /**
+     * Marca o último bloco da conversa, para que o próximo turno (ou a próxima
+     * iteração de ferramentas) reaproveite o histórico inteiro do cache
+     */
+    private void markLastMessage(List<AnthropicMessage> conversation) {
+        if (conversation.isEmpty()) {
+            return;
+        }
+        List<ContentBlock> blocks = conversation.get(conversation.size() - 1).getContent();
+        if (!blocks.isEmpty()) {
+            blocks.get(blocks.size() - 1).setCacheControl(EPHEMERAL);
+        }
     }
 
     /**
-     * Extrai texto de uma lista de conteúdo misto
+     * Registra tokens lidos/gravados no cache de prompt (anthropic.prompt_cache.tokens{type})
      */
-    private String extractTextFromContent(List<Map<String, Object>> content) {
+    private void recordCacheUsage(Usage usage) {
+        if (usage == null) {
+            return;
+        }
+        meterRegistry.counter("anthropic.prompt_cache.tokens", "type", "cache_read")
+            .increment(usage.getCacheReadInputTokens());
+        meterRegistry.counter("anthropic.prompt_cache.tokens", "type", "cache_write")
+            .increment(usage.getCacheCreationInputTokens());
+        meterRegistry.counter("anthropic.prompt_cache.tokens", "type", "uncached")
+            .increment(usage.getInputTokens());
+    }
+
+    /**
+     * Converte a resposta tipada para o formato OpenAI usado pelo loop de chat
+     * (texto concatenado + tool_calls com argumentos em JSON)
+     */
+    private Map<String, Object> convertAnthropicResponse(AnthropicResponse response) {
+        Map<String, Object> openAIResponse = new HashMap<>();
+
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", "assistant");
         StringBuilder text = new StringBuilder();
-        for (Map<String, Object> item : content) {
-            if ("text".equals(item.get("type"))) {
-                text.append(item.get("text"));
+        List<Map<String, Object>> toolCalls = new ArrayList<>();
+        for (ContentBlock block : response.getContent()) {
+            if ("text".equals(block.getType())) {
+                text.append(block.getText());
+            } else if ("tool_use".equals(block.getType())) {
+                Map<String, Object> function = new HashMap<>();
+                function.put("name", block.getName());
+                try {
+                    function.put("arguments", LlmJson.write(block.getInput() != null ? block.getInput() : Map.of()));
+                } catch (JsonProcessingException e) {
+                    function.put("arguments", "{}");
+                }
+                Map<String, Object> toolCall = new HashMap<>();
+                toolCall.put("id", block.getId());
+                toolCall.put("type", "function");
+                toolCall.put("function", function);
+                toolCalls.add(toolCall);
             }
         }
-        return text.toString();
+        if (text.length() > 0) {
+            message.put("content", text.toString());
+        }
+        if (!toolCalls.isEmpty()) {
+            message.put("tool_calls", toolCalls);
+        }
+        if (text.length() > 0 || !toolCalls.isEmpty()) {
+            Map<String, Object> choice = new HashMap<>();
+            choice.put("message", message);
+            choice.put("finish_reason", response.getStopReason());
+            openAIResponse.put("choices", List.of(choice));
+        }
+
+        // Uso de tokens (inclusive leitura/gravação em cache) segue para quem chamou
+        if (response.getUsage() != null) {
+            openAIResponse.put("usage", response.getUsage().toMap());
+        }
+        return openAIResponse;
     }
 
     /**
@@ -168,7 +317,7 @@ public class AnthropicClient {
             Map<String, Object> response = chatCompletion(testMessages, null, null);
             return response != null && response.containsKey("choices");
         } catch (Exception e) {
-            System.err.println("Teste de conexão falhou: " + e.getMessage());
+            logger.warn("Teste de conexão falhou: {}", e.getMessage());
             return false;
         }
     }
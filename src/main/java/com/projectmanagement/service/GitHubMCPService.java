@@ -1,33 +1,85 @@
 package com.projectmanagement.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.github.FileContentWindow;
+import com.projectmanagement.github.GitHubCachingFilter;
+import com.projectmanagement.github.GitHubRateLimiter;
+import com.projectmanagement.github.GitHubResponseCache;
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.OutboundResilience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Serviço para integração com GitHub MCP Server oficial
  * Permite acesso a repositórios, issues, PRs, actions e mais
+ *
+ * Cada operação tem uma variante não bloqueante (sufixo Async) que retorna Mono;
+ * a variante síncrona apenas bloqueia sobre ela.
  */
 @Service
 public class GitHubMCPService {
 
-    private static final String GITHUB_API_URL = "https://api.github.com";
+    private static final Logger logger = LoggerFactory.getLogger(GitHubMCPService.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final String RAW_MEDIA_TYPE = "application/vnd.github.raw";
+    private static final Pattern LAST_PAGE_LINK = Pattern.compile("<[^>]*[?&]page=(\\d+)[^>]*>;\\s*rel=\"last\"");
+    private static final Pattern NEXT_PAGE_LINK = Pattern.compile("<[^>]*>;\\s*rel=\"next\"");
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboundMetrics outboundMetrics;
+
+    @Autowired
+    private OutboundResilience resilience;
     
     @Value("${github.api.token:}")
     private String githubToken;
 
-    public GitHubMCPService() {
-        this.webClient = WebClient.builder()
-            .baseUrl(GITHUB_API_URL)
+    @Value("${github.file.default-max-bytes:4096}")
+    private int fileDefaultMaxBytes;
+
+    @Value("${github.file.max-bytes-limit:1048576}")
+    private int fileMaxBytesLimit;
+
+    @Value("${github.pagination.concurrency:4}")
+    private int paginationConcurrency;
+
+    @Value("${github.pagination.default-max-items:300}")
+    private int paginationDefaultMaxItems;
+
+    @Value("${github.pagination.max-items-limit:1000}")
+    private int paginationMaxItemsLimit;
+
+    public GitHubMCPService(WebClient.Builder webClientBuilder,
+                            GitHubResponseCache responseCache,
+                            GitHubRateLimiter rateLimiter,
+                            @Value("${github.api.base-url:https://api.github.com}") String baseUrl) {
+        // Leituras são revalidadas com ETag (304 não consome cota) e agendadas conforme a cota restante
+        this.webClient = webClientBuilder
+            .baseUrl(baseUrl)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .filter(new GitHubCachingFilter(responseCache, rateLimiter))
             .build();
         this.objectMapper = new ObjectMapper();
     }
@@ -36,14 +88,16 @@ public class GitHubMCPService {
      * Lista repositórios do usuário autenticado
      */
     public Map<String, Object> listRepositories(Map<String, Object> params) {
-        try {
+        return listRepositoriesAsync(params).block();
+    }
+
+    public Mono<Map<String, Object>> listRepositoriesAsync(Map<String, Object> params) {
+        return Mono.defer(() -> {
             String type = (String) params.getOrDefault("type", "owner");
             String sort = (String) params.getOrDefault("sort", "updated");
             String direction = (String) params.getOrDefault("direction", "desc");
-            Integer perPage = (Integer) params.getOrDefault("per_page", 30);
-            Integer page = (Integer) params.getOrDefault("page", 1);
 
-            String response = webClient.get()
+            return listPages("list_repositories", "repositories", params, (perPage, page) -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                     .path("/user/repos")
                     .queryParam("type", type)
@@ -51,147 +105,94 @@ public class GitHubMCPService {
                     .queryParam("direction", direction)
                     .queryParam("per_page", perPage)
                     .queryParam("page", page)
-                    .build())
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            List<Map<String, Object>> repos = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
-                "success", true,
-                "repositories", repos,
-                "count", repos.size()
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao listar repositórios: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                    .build()));
+        }).onErrorResume(e -> failure("Erro ao listar repositórios", e));
     }
 
     /**
      * Obtém detalhes de um repositório específico
      */
     public Map<String, Object> getRepository(String owner, String repo) {
-        try {
-            String response = webClient.get()
-                .uri("/repos/{owner}/{repo}", owner, repo)
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            Map<String, Object> repository = objectMapper.readValue(response, Map.class);
-            
-            return Map.of(
-                "success", true,
-                "repository", repository
-            );
+        return getRepositoryAsync(owner, repo).block();
+    }
 
-        } catch (Exception e) {
-            System.err.println("Erro ao obter repositório: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+    public Mono<Map<String, Object>> getRepositoryAsync(String owner, String repo) {
+        return Mono.defer(() -> send("get_repository", webClient.get()
+                .uri("/repos/{owner}/{repo}", owner, repo)))
+            .map(response -> Map.<String, Object>of(
+                "success", true,
+                "repository", readMap(response)
+            ))
+            .onErrorResume(e -> failure("Erro ao obter repositório", e));
     }
 
     /**
      * Lista issues de um repositório
      */
     public Map<String, Object> listIssues(String owner, String repo, Map<String, Object> params) {
-        try {
+        return listIssuesAsync(owner, repo, params).block();
+    }
+
+    public Mono<Map<String, Object>> listIssuesAsync(String owner, String repo, Map<String, Object> params) {
+        return Mono.defer(() -> {
             String state = (String) params.getOrDefault("state", "open");
             String sort = (String) params.getOrDefault("sort", "created");
             String direction = (String) params.getOrDefault("direction", "desc");
-            Integer perPage = (Integer) params.getOrDefault("per_page", 30);
-            Integer page = (Integer) params.getOrDefault("page", 1);
+            String since = (String) params.get("since");
 
-            String response = webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                    .path("/repos/{owner}/{repo}/issues")
-                    .queryParam("state", state)
-                    .queryParam("sort", sort)
-                    .queryParam("direction", direction)
-                    .queryParam("per_page", perPage)
-                    .queryParam("page", page)
-                    .build(owner, repo))
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            List<Map<String, Object>> issues = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
-                "success", true,
-                "issues", issues,
-                "count", issues.size()
-            );
+            return listPages("list_issues", "issues", params, (perPage, page) -> webClient.get()
+                .uri(uriBuilder -> {
+                    var builder = uriBuilder
+                        .path("/repos/{owner}/{repo}/issues")
+                        .queryParam("state", state)
+                        .queryParam("sort", sort)
+                        .queryParam("direction", direction)
+                        .queryParam("per_page", perPage)
+                        .queryParam("page", page);
 
-        } catch (Exception e) {
-            System.err.println("Erro ao listar issues: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                    if (since != null) builder.queryParam("since", since);
+
+                    return builder.build(owner, repo);
+                }));
+        }).onErrorResume(e -> failure("Erro ao listar issues", e));
     }
 
     /**
      * Cria uma nova issue
      */
     public Map<String, Object> createIssue(String owner, String repo, Map<String, Object> issueData) {
-        try {
-            String requestBody = objectMapper.writeValueAsString(issueData);
+        return createIssueAsync(owner, repo, issueData).block();
+    }
 
-            String response = webClient.post()
+    public Mono<Map<String, Object>> createIssueAsync(String owner, String repo, Map<String, Object> issueData) {
+        return Mono.defer(() -> sendUnsafe("create_issue", webClient.post()
                 .uri("/repos/{owner}/{repo}/issues", owner, repo)
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            Map<String, Object> issue = objectMapper.readValue(response, Map.class);
-            
-            return Map.of(
-                "success", true,
-                "issue", issue,
-                "issueNumber", issue.get("number")
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao criar issue: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                .bodyValue(writeJson(issueData))))
+            .map(response -> {
+                Map<String, Object> issue = readMap(response);
+                return Map.<String, Object>of(
+                    "success", true,
+                    "issue", issue,
+                    "issueNumber", issue.get("number")
+                );
+            })
+            .onErrorResume(e -> failure("Erro ao criar issue", e));
     }
 
     /**
      * Lista pull requests de um repositório
      */
     public Map<String, Object> listPullRequests(String owner, String repo, Map<String, Object> params) {
-        try {
+        return listPullRequestsAsync(owner, repo, params).block();
+    }
+
+    public Mono<Map<String, Object>> listPullRequestsAsync(String owner, String repo, Map<String, Object> params) {
+        return Mono.defer(() -> {
             String state = (String) params.getOrDefault("state", "open");
             String sort = (String) params.getOrDefault("sort", "created");
             String direction = (String) params.getOrDefault("direction", "desc");
-            Integer perPage = (Integer) params.getOrDefault("per_page", 30);
-            Integer page = (Integer) params.getOrDefault("page", 1);
 
-            String response = webClient.get()
+            return listPages("list_pull_requests", "pullRequests", params, (perPage, page) -> webClient.get()
                 .uri(uriBuilder -> uriBuilder
                     .path("/repos/{owner}/{repo}/pulls")
                     .queryParam("state", state)
@@ -199,36 +200,38 @@ public class GitHubMCPService {
                     .queryParam("direction", direction)
                     .queryParam("per_page", perPage)
                     .queryParam("page", page)
-                    .build(owner, repo))
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            List<Map<String, Object>> pullRequests = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
-                "success", true,
-                "pullRequests", pullRequests,
-                "count", pullRequests.size()
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao listar pull requests: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                    .build(owner, repo)));
+        }).onErrorResume(e -> failure("Erro ao listar pull requests", e));
     }
 
     /**
      * Obtém conteúdo de um arquivo
      */
     public Map<String, Object> getFileContent(String owner, String repo, String path, String ref) {
-        try {
-            String response = webClient.get()
+        return getFileContentAsync(owner, repo, path, ref).block();
+    }
+
+    public Map<String, Object> getFileContent(String owner, String repo, String path, String ref,
+                                              Map<String, Object> window) {
+        return getFileContentAsync(owner, repo, path, ref, window).block();
+    }
+
+    public Mono<Map<String, Object>> getFileContentAsync(String owner, String repo, String path, String ref) {
+        return getFileContentAsync(owner, repo, path, ref, Collections.emptyMap());
+    }
+
+    /**
+     * Busca o arquivo no media type raw (sem base64) e o consome em streaming por uma janela
+     * de linhas/bytes (start_line/end_line ou tail_lines, limitada a max_bytes). Em modo intervalo
+     * o download é cancelado assim que a janela é preenchida. Diretórios continuam vindo em JSON.
+     */
+    public Mono<Map<String, Object>> getFileContentAsync(String owner, String repo, String path, String ref,
+                                                         Map<String, Object> window) {
+        return Mono.defer(() -> {
+            int maxBytes = Math.max(1, Math.min(intParam(window, "max_bytes", fileDefaultMaxBytes), fileMaxBytesLimit));
+            int tailLines = intParam(window, "tail_lines", 0);
+
+            return resilience.decorateIdempotent("github", outboundMetrics.record("github", "get_file_content", webClient.get()
                 .uri(uriBuilder -> {
                     var builder = uriBuilder.path("/repos/{owner}/{repo}/contents/{path}");
                     if (ref != null && !ref.isEmpty()) {
@@ -237,94 +240,112 @@ public class GitHubMCPService {
                     return builder.build(owner, repo, path);
                 })
                 .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            Map<String, Object> fileData = objectMapper.readValue(response, Map.class);
-            
-            // Decodificar conteúdo base64 se for um arquivo
-            if ("file".equals(fileData.get("type"))) {
-                String content = (String) fileData.get("content");
-                if (content != null) {
-                    String decodedContent = new String(Base64.getDecoder().decode(content.replaceAll("\\s", "")));
-                    fileData.put("decoded_content", decodedContent);
-                }
-            }
-            
-            return Map.of(
-                "success", true,
-                "file", fileData
-            );
+                .header("Accept", RAW_MEDIA_TYPE)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().isError()) {
+                        return response.createException().flatMap(Mono::error);
+                    }
+                    MediaType contentType = response.headers().contentType().orElse(MediaType.APPLICATION_JSON);
+                    if (!contentType.getSubtype().contains("raw")) {
+                        // Diretório, symlink ou submódulo: metadados em JSON, sempre pequenos
+                        return response.bodyToMono(String.class).map(this::readContentsMetadata);
+                    }
 
-        } catch (Exception e) {
-            System.err.println("Erro ao obter conteúdo do arquivo: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
+                    FileContentWindow contentWindow = tailLines > 0
+                        ? FileContentWindow.tail(tailLines, maxBytes)
+                        : FileContentWindow.lines(intParam(window, "start_line", 1), intParam(window, "end_line", 0), maxBytes);
+                    AtomicBoolean stoppedEarly = new AtomicBoolean();
+
+                    return response.bodyToFlux(DataBuffer.class)
+                        .map(buffer -> {
+                            try {
+                                return contentWindow.feed(buffer.asByteBuffer());
+                            } finally {
+                                DataBufferUtils.release(buffer);
+                            }
+                        })
+                        // Cancelar aqui fecha a conexão sem baixar o resto do arquivo
+                        .takeUntil(filled -> filled && stoppedEarly.compareAndSet(false, true))
+                        .then(Mono.fromSupplier(() -> {
+                            Map<String, Object> file = contentWindow.result(!stoppedEarly.get());
+                            file.put("type", "file");
+                            file.put("path", path);
+                            file.put("name", path.substring(path.lastIndexOf('/') + 1));
+                            // ETag HTTP do conteúdo, não o SHA do blob (que o media type raw não informa)
+                            file.put("etag", response.headers().asHttpHeaders().getETag());
+                            response.headers().contentLength().ifPresent(length -> file.put("size", length));
+                            return file;
+                        }));
+                })))
+                .map(file -> Map.<String, Object>of(
+                    "success", true,
+                    "file", file
+                ));
+        }).onErrorResume(e -> failure("Erro ao obter conteúdo do arquivo", e));
+    }
+
+    private Map<String, Object> readContentsMetadata(String json) {
+        if (json.trim().startsWith("[")) {
+            Map<String, Object> directory = new HashMap<>();
+            directory.put("type", "dir");
+            directory.put("entries", readList(json));
+            return directory;
         }
+        Map<String, Object> metadata = readMap(json);
+        // Nunca repassa conteúdo base64 ao modelo
+        metadata.remove("content");
+        return metadata;
+    }
+
+    private static int intParam(Map<String, Object> params, String name, int defaultValue) {
+        Object value = params.get(name);
+        return value instanceof Number ? ((Number) value).intValue() : defaultValue;
     }
 
     /**
      * Lista commits de um repositório
      */
     public Map<String, Object> listCommits(String owner, String repo, Map<String, Object> params) {
-        try {
+        return listCommitsAsync(owner, repo, params).block();
+    }
+
+    public Mono<Map<String, Object>> listCommitsAsync(String owner, String repo, Map<String, Object> params) {
+        return Mono.defer(() -> {
             String sha = (String) params.get("sha");
             String path = (String) params.get("path");
             String author = (String) params.get("author");
-            Integer perPage = (Integer) params.getOrDefault("per_page", 30);
-            Integer page = (Integer) params.getOrDefault("page", 1);
 
-            String response = webClient.get()
+            return listPages("list_commits", "commits", params, (perPage, page) -> webClient.get()
                 .uri(uriBuilder -> {
                     var builder = uriBuilder
                         .path("/repos/{owner}/{repo}/commits")
                         .queryParam("per_page", perPage)
                         .queryParam("page", page);
-                    
+
                     if (sha != null) builder.queryParam("sha", sha);
                     if (path != null) builder.queryParam("path", path);
                     if (author != null) builder.queryParam("author", author);
-                    
-                    return builder.build(owner, repo);
-                })
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            List<Map<String, Object>> commits = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
-                "success", true,
-                "commits", commits,
-                "count", commits.size()
-            );
 
-        } catch (Exception e) {
-            System.err.println("Erro ao listar commits: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                    return builder.build(owner, repo);
+                }));
+        }).onErrorResume(e -> failure("Erro ao listar commits", e));
     }
 
     /**
      * Busca repositórios
      */
     public Map<String, Object> searchRepositories(String query, Map<String, Object> params) {
-        try {
+        return searchRepositoriesAsync(query, params).block();
+    }
+
+    public Mono<Map<String, Object>> searchRepositoriesAsync(String query, Map<String, Object> params) {
+        return Mono.defer(() -> {
             String sort = (String) params.getOrDefault("sort", "stars");
             String order = (String) params.getOrDefault("order", "desc");
             Integer perPage = (Integer) params.getOrDefault("per_page", 30);
             Integer page = (Integer) params.getOrDefault("page", 1);
 
-            String response = webClient.get()
+            return send("search_repositories", webClient.get()
                 .uri(uriBuilder -> uriBuilder
                     .path("/search/repositories")
                     .queryParam("q", query)
@@ -332,56 +353,27 @@ public class GitHubMCPService {
                     .queryParam("order", order)
                     .queryParam("per_page", perPage)
                     .queryParam("page", page)
-                    .build())
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            Map<String, Object> searchResult = objectMapper.readValue(response, Map.class);
-            
-            return Map.of(
-                "success", true,
-                "searchResult", searchResult
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao buscar repositórios: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                    .build()));
+        }).map(response -> Map.<String, Object>of(
+            "success", true,
+            "searchResult", readMap(response)
+        )).onErrorResume(e -> failure("Erro ao buscar repositórios", e));
     }
 
     /**
      * Obtém informações do usuário autenticado
      */
     public Map<String, Object> getCurrentUser() {
-        try {
-            String response = webClient.get()
-                .uri("/user")
-                .header("Authorization", "Bearer " + githubToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            Map<String, Object> user = objectMapper.readValue(response, Map.class);
-            
-            return Map.of(
-                "success", true,
-                "user", user
-            );
+        return getCurrentUserAsync().block();
+    }
 
-        } catch (Exception e) {
-            System.err.println("Erro ao obter usuário atual: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+    public Mono<Map<String, Object>> getCurrentUserAsync() {
+        return Mono.defer(() -> send("get_current_user", webClient.get().uri("/user")))
+            .map(response -> Map.<String, Object>of(
+                "success", true,
+                "user", readMap(response)
+            ))
+            .onErrorResume(e -> failure("Erro ao obter usuário atual", e));
     }
 
     /**
@@ -392,8 +384,181 @@ public class GitHubMCPService {
             Map<String, Object> result = getCurrentUser();
             return (Boolean) result.get("success");
         } catch (Exception e) {
-            System.err.println("Teste de conexão GitHub falhou: " + e.getMessage());
+            logger.warn("Teste de conexão GitHub falhou: {}", e.getMessage());
             return false;
         }
     }
+
+    /**
+     * Busca uma página (per_page/page) ou, com auto_paginate=true, segue o cabeçalho Link até max_items.
+     * Com rel="last" as páginas seguintes são buscadas em paralelo (fan-out limitado); sem ele, mas com
+     * rel="next", uma de cada vez. Ao atingir o limite as buscas pendentes são canceladas e, se sobrou
+     * algo no GitHub, o resultado vem com truncated=true.
+     */
+    private Mono<Map<String, Object>> listPages(String operation, String itemsKey, Map<String, Object> params,
+                                                BiFunction<Integer, Integer, WebClient.RequestHeadersSpec<?>> pageRequest) {
+        if (!Boolean.TRUE.equals(params.get("auto_paginate"))) {
+            Integer perPage = (Integer) params.getOrDefault("per_page", 30);
+            Integer page = (Integer) params.getOrDefault("page", 1);
+            return send(operation, pageRequest.apply(perPage, page)).map(response -> {
+                List<Map<String, Object>> items = readList(response);
+                return Map.<String, Object>of(
+                    "success", true,
+                    itemsKey, items,
+                    "count", items.size()
+                );
+            });
+        }
+
+        int maxItems = Math.max(1, Math.min(
+            ((Number) params.getOrDefault("max_items", paginationDefaultMaxItems)).intValue(),
+            paginationMaxItemsLimit));
+        int perPage = Math.min(MAX_PAGE_SIZE, maxItems);
+        int pagesForCap = (maxItems + perPage - 1) / perPage;
+
+        return sendForEntity(operation, pageRequest.apply(perPage, 1)).flatMap(first -> {
+            PageLinks links = PageLinks.parse(first.getHeaders());
+            if (links.last > 0) {
+                int pagesToFetch = Math.min(links.last, pagesForCap);
+                Flux<Map<String, Object>> remaining = Flux.range(2, Math.max(0, pagesToFetch - 1))
+                    .flatMapSequential(page -> send(operation, pageRequest.apply(perPage, page)).map(this::readList),
+                        paginationConcurrency)
+                    .concatMapIterable(items -> items);
+
+                return Flux.fromIterable(readList(first.getBody()))
+                    .concatWith(remaining)
+                    .take(maxItems + 1L)
+                    .collectList()
+                    .map(items -> pageResult(itemsKey, items, maxItems, pagesToFetch, links.last > pagesToFetch));
+            }
+
+            // Sem rel="last" (ex.: alguns endpoints de busca e commits): segue rel="next" em sequência
+            return Flux.just(new Page(1, first, links.hasNext))
+                .expand(page -> page.hasNext && page.number < pagesForCap
+                    ? sendForEntity(operation, pageRequest.apply(perPage, page.number + 1))
+                        .map(entity -> new Page(page.number + 1, entity, PageLinks.parse(entity.getHeaders()).hasNext))
+                    : Mono.empty())
+                .collectList()
+                .map(pages -> {
+                    List<Map<String, Object>> items = new ArrayList<>();
+                    for (Page page : pages) {
+                        items.addAll(readList(page.entity.getBody()));
+                    }
+                    return pageResult(itemsKey, items, maxItems, pages.size(), pages.get(pages.size() - 1).hasNext);
+                });
+        });
+    }
+
+    private static Map<String, Object> pageResult(String itemsKey, List<Map<String, Object>> items, int maxItems,
+                                                  int pages, boolean morePages) {
+        List<Map<String, Object>> capped = items.size() > maxItems ? items.subList(0, maxItems) : items;
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put(itemsKey, capped);
+        result.put("count", capped.size());
+        result.put("pages", pages);
+        result.put("truncated", items.size() > maxItems || morePages);
+        return result;
+    }
+
+    /**
+     * Links de paginação do cabeçalho Link: número da última página (0 se não houver rel="last")
+     * e se existe rel="next"
+     */
+    static final class PageLinks {
+        final int last;
+        final boolean hasNext;
+
+        private PageLinks(int last, boolean hasNext) {
+            this.last = last;
+            this.hasNext = hasNext;
+        }
+
+        static PageLinks parse(HttpHeaders headers) {
+            String link = headers.getFirst(HttpHeaders.LINK);
+            if (link == null) {
+                return new PageLinks(0, false);
+            }
+            Matcher last = LAST_PAGE_LINK.matcher(link);
+            return new PageLinks(last.find() ? Integer.parseInt(last.group(1)) : 0, NEXT_PAGE_LINK.matcher(link).find());
+        }
+    }
+
+    private static final class Page {
+        final int number;
+        final ResponseEntity<String> entity;
+        final boolean hasNext;
+
+        Page(int number, ResponseEntity<String> entity, boolean hasNext) {
+            this.number = number;
+            this.entity = entity;
+            this.hasNext = hasNext;
+        }
+    }
+
+    /**
+     * Adiciona autenticação, executa a requisição (idempotente) e cronometra a chamada
+     */
+    private Mono<String> send(String operation, WebClient.RequestHeadersSpec<?> request) {
+        return resilience.decorateIdempotent("github", exchange(operation, request));
+    }
+
+    /**
+     * Como send, para requisições com efeito colateral (sem hedge, retry só se não processada)
+     */
+    private Mono<String> sendUnsafe(String operation, WebClient.RequestHeadersSpec<?> request) {
+        return resilience.decorate("github", exchange(operation, request));
+    }
+
+    private Mono<ResponseEntity<String>> sendForEntity(String operation, WebClient.RequestHeadersSpec<?> request) {
+        return resilience.decorateIdempotent("github", exchangeEntity(operation, request));
+    }
+
+    private Mono<String> exchange(String operation, WebClient.RequestHeadersSpec<?> request) {
+        return exchangeEntity(operation, request).map(ResponseEntity::getBody);
+    }
+
+    private Mono<ResponseEntity<String>> exchangeEntity(String operation, WebClient.RequestHeadersSpec<?> request) {
+        return outboundMetrics.record("github", operation, request
+            .header("Authorization", "Bearer " + githubToken)
+            .header("Accept", "application/vnd.github.v3+json")
+            .retrieve()
+            .toEntity(String.class)
+            .filter(ResponseEntity::hasBody)
+            .switchIfEmpty(Mono.error(new IllegalStateException("Resposta vazia do GitHub"))));
+    }
+
+    private Mono<Map<String, Object>> failure(String message, Throwable e) {
+        logger.warn("{}: {}", message, e.getMessage());
+        return Mono.just(Map.of(
+            "success", false,
+            "error", String.valueOf(e.getMessage())
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(String json) {
+        try {
+            return objectMapper.readValue(json, Map.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta inválida do GitHub: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readList(String json) {
+        try {
+            return objectMapper.readValue(json, List.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta inválida do GitHub: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Dados inválidos: " + e.getOriginalMessage(), e);
+        }
+    }
 }
@@ -1,25 +1,38 @@
 package com.projectmanagement.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.metrics.OutboundMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
 
 import java.util.*;
 
 /**
  * Serviço para autenticação OAuth com GitHub
  * Permite login via GitHub e obtenção de tokens de acesso
+ *
+ * Operações remotas têm variante não bloqueante (sufixo Async) retornando Mono.
  */
 @Service
 public class GitHubOAuthService {
 
-    private static final String GITHUB_OAUTH_URL = "https://github.com/login/oauth";
-    private static final String GITHUB_API_URL = "https://api.github.com";
-    
+    private static final Logger logger = LoggerFactory.getLogger(GitHubOAuthService.class);
+
+    @Value("${github.oauth.base-url:https://github.com/login/oauth}")
+    private String githubOAuthUrl;
+
+    @Value("${github.api.base-url:https://api.github.com}")
+    private String githubApiUrl;
+
     @Value("${github.oauth.client-id:}")
     private String clientId;
     
@@ -32,8 +45,11 @@ public class GitHubOAuthService {
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
 
-    public GitHubOAuthService() {
-        this.webClient = WebClient.builder()
+    @Autowired
+    private OutboundMetrics outboundMetrics;
+
+    public GitHubOAuthService(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
         this.objectMapper = new ObjectMapper();
@@ -43,7 +59,7 @@ public class GitHubOAuthService {
      * Gera URL de autorização do GitHub
      */
     public String getAuthorizationUrl(String state) {
-        return UriComponentsBuilder.fromHttpUrl(GITHUB_OAUTH_URL + "/authorize")
+        return UriComponentsBuilder.fromHttpUrl(githubOAuthUrl + "/authorize")
             .queryParam("client_id", clientId)
             .queryParam("redirect_uri", redirectUri)
             .queryParam("scope", "repo,user,read:org")
@@ -57,7 +73,11 @@ public class GitHubOAuthService {
      * Troca código de autorização por token de acesso
      */
     public Map<String, Object> exchangeCodeForToken(String code, String state) {
-        try {
+        return exchangeCodeForTokenAsync(code, state).block();
+    }
+
+    public Mono<Map<String, Object>> exchangeCodeForTokenAsync(String code, String state) {
+        return Mono.defer(() -> {
             Map<String, String> requestBody = Map.of(
                 "client_id", clientId,
                 "client_secret", clientSecret,
@@ -66,95 +86,59 @@ public class GitHubOAuthService {
                 "state", state
             );
 
-            String response = webClient.post()
-                .uri(GITHUB_OAUTH_URL + "/access_token")
+            return send("exchange_code_for_token", webClient.post()
+                .uri(githubOAuthUrl + "/access_token")
                 .header("Accept", "application/json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+                .bodyValue(requestBody));
+        }).map(response -> {
+            Map<String, Object> tokenData = readMap(response);
 
-            Map<String, Object> tokenData = objectMapper.readValue(response, Map.class);
-            
             if (tokenData.containsKey("access_token")) {
-                return Map.of(
+                return Map.<String, Object>of(
                     "success", true,
                     "accessToken", tokenData.get("access_token"),
                     "tokenType", tokenData.getOrDefault("token_type", "bearer"),
                     "scope", tokenData.getOrDefault("scope", "")
                 );
             } else {
-                return Map.of(
+                return Map.<String, Object>of(
                     "success", false,
                     "error", tokenData.getOrDefault("error_description", "Failed to get access token")
                 );
             }
-
-        } catch (Exception e) {
-            System.err.println("Erro ao trocar código por token: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+        }).onErrorResume(e -> failure("Erro ao trocar código por token", e));
     }
 
     /**
      * Obtém informações do usuário usando o token de acesso
      */
     public Map<String, Object> getUserInfo(String accessToken) {
-        try {
-            String response = webClient.get()
-                .uri(GITHUB_API_URL + "/user")
-                .header("Authorization", "Bearer " + accessToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+        return getUserInfoAsync(accessToken).block();
+    }
 
-            Map<String, Object> userData = objectMapper.readValue(response, Map.class);
-            
-            return Map.of(
+    public Mono<Map<String, Object>> getUserInfoAsync(String accessToken) {
+        return Mono.defer(() -> send("get_user_info", authorizedGet(githubApiUrl + "/user", accessToken)))
+            .map(response -> Map.<String, Object>of(
                 "success", true,
-                "user", userData
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao obter informações do usuário: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                "user", readMap(response)
+            ))
+            .onErrorResume(e -> failure("Erro ao obter informações do usuário", e));
     }
 
     /**
      * Obtém emails do usuário
      */
     public Map<String, Object> getUserEmails(String accessToken) {
-        try {
-            String response = webClient.get()
-                .uri(GITHUB_API_URL + "/user/emails")
-                .header("Authorization", "Bearer " + accessToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+        return getUserEmailsAsync(accessToken).block();
+    }
 
-            List<Map<String, Object>> emails = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
+    public Mono<Map<String, Object>> getUserEmailsAsync(String accessToken) {
+        return Mono.defer(() -> send("get_user_emails", authorizedGet(githubApiUrl + "/user/emails", accessToken)))
+            .map(response -> Map.<String, Object>of(
                 "success", true,
-                "emails", emails
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao obter emails do usuário: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                "emails", readList(response)
+            ))
+            .onErrorResume(e -> failure("Erro ao obter emails do usuário", e));
     }
 
     /**
@@ -165,7 +149,7 @@ public class GitHubOAuthService {
             Map<String, Object> result = getUserInfo(accessToken);
             return (Boolean) result.get("success");
         } catch (Exception e) {
-            System.err.println("Erro ao validar token: " + e.getMessage());
+            logger.warn("Erro ao validar token: {}", e.getMessage());
             return false;
         }
     }
@@ -174,33 +158,28 @@ public class GitHubOAuthService {
      * Revoga o token de acesso
      */
     public Map<String, Object> revokeToken(String accessToken) {
-        try {
+        return revokeTokenAsync(accessToken).block();
+    }
+
+    public Mono<Map<String, Object>> revokeTokenAsync(String accessToken) {
+        return Mono.defer(() -> {
             Map<String, String> requestBody = Map.of(
                 "access_token", accessToken
             );
 
             // Para revogar token, usamos POST ao invés de DELETE
-            webClient.post()
-                .uri(GITHUB_API_URL + "/applications/{client_id}/token", clientId)
+            return outboundMetrics.record("github_oauth", "revoke_token", webClient.post()
+                .uri(githubApiUrl + "/applications/{client_id}/token", clientId)
                 .header("Authorization", "Basic " +
                     Base64.getEncoder().encodeToString((clientId + ":" + clientSecret).getBytes()))
                 .bodyValue(requestBody)
                 .retrieve()
                 .bodyToMono(String.class)
-                .block();
-
-            return Map.of(
-                "success", true,
-                "message", "Token revogado com sucesso"
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao revogar token: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                .defaultIfEmpty(""));
+        }).map(response -> Map.<String, Object>of(
+            "success", true,
+            "message", "Token revogado com sucesso"
+        )).onErrorResume(e -> failure("Erro ao revogar token", e));
     }
 
     /**
@@ -222,36 +201,27 @@ public class GitHubOAuthService {
      * Obtém organizações do usuário
      */
     public Map<String, Object> getUserOrganizations(String accessToken) {
-        try {
-            String response = webClient.get()
-                .uri(GITHUB_API_URL + "/user/orgs")
-                .header("Authorization", "Bearer " + accessToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+        return getUserOrganizationsAsync(accessToken).block();
+    }
 
-            List<Map<String, Object>> orgs = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
+    public Mono<Map<String, Object>> getUserOrganizationsAsync(String accessToken) {
+        return Mono.defer(() -> send("get_user_organizations", authorizedGet(githubApiUrl + "/user/orgs", accessToken)))
+            .map(response -> Map.<String, Object>of(
                 "success", true,
-                "organizations", orgs
-            );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao obter organizações do usuário: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+                "organizations", readList(response)
+            ))
+            .onErrorResume(e -> failure("Erro ao obter organizações do usuário", e));
     }
 
     /**
      * Obtém repositórios do usuário com token OAuth
      */
     public Map<String, Object> getUserRepositories(String accessToken, Map<String, Object> params) {
-        try {
+        return getUserRepositoriesAsync(accessToken, params).block();
+    }
+
+    public Mono<Map<String, Object>> getUserRepositoriesAsync(String accessToken, Map<String, Object> params) {
+        return Mono.defer(() -> {
             String visibility = (String) params.getOrDefault("visibility", "all");
             String affiliation = (String) params.getOrDefault("affiliation", "owner,collaborator,organization_member");
             String sort = (String) params.getOrDefault("sort", "updated");
@@ -259,10 +229,8 @@ public class GitHubOAuthService {
             Integer perPage = (Integer) params.getOrDefault("per_page", 30);
             Integer page = (Integer) params.getOrDefault("page", 1);
 
-            String response = webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                    .scheme("https")
-                    .host("api.github.com")
+            return send("get_user_repositories", webClient.get()
+                .uri(UriComponentsBuilder.fromHttpUrl(githubApiUrl)
                     .path("/user/repos")
                     .queryParam("visibility", visibility)
                     .queryParam("affiliation", affiliation)
@@ -270,62 +238,85 @@ public class GitHubOAuthService {
                     .queryParam("direction", direction)
                     .queryParam("per_page", perPage)
                     .queryParam("page", page)
-                    .build())
+                    .build()
+                    .toUri())
                 .header("Authorization", "Bearer " + accessToken)
-                .header("Accept", "application/vnd.github.v3+json")
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            List<Map<String, Object>> repos = objectMapper.readValue(response, List.class);
-            
-            return Map.of(
+                .header("Accept", "application/vnd.github.v3+json"));
+        }).map(response -> {
+            List<Map<String, Object>> repos = readList(response);
+            return Map.<String, Object>of(
                 "success", true,
                 "repositories", repos,
                 "count", repos.size()
             );
-
-        } catch (Exception e) {
-            System.err.println("Erro ao obter repositórios do usuário: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
-        }
+        }).onErrorResume(e -> failure("Erro ao obter repositórios do usuário", e));
     }
 
     /**
      * Cria um Personal Access Token (para desenvolvimento)
      */
     public Map<String, Object> createPersonalAccessToken(String accessToken, String note, List<String> scopes) {
-        try {
+        return createPersonalAccessTokenAsync(accessToken, note, scopes).block();
+    }
+
+    public Mono<Map<String, Object>> createPersonalAccessTokenAsync(String accessToken, String note, List<String> scopes) {
+        return Mono.defer(() -> {
             Map<String, Object> requestBody = Map.of(
                 "note", note,
                 "scopes", scopes
             );
 
-            String response = webClient.post()
-                .uri(GITHUB_API_URL + "/authorizations")
+            return send("create_personal_access_token", webClient.post()
+                .uri(githubApiUrl + "/authorizations")
                 .header("Authorization", "Bearer " + accessToken)
                 .header("Accept", "application/vnd.github.v3+json")
-                .bodyValue(requestBody)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+                .bodyValue(requestBody));
+        }).map(response -> Map.<String, Object>of(
+            "success", true,
+            "token", readMap(response)
+        )).onErrorResume(e -> failure("Erro ao criar Personal Access Token", e));
+    }
 
-            Map<String, Object> tokenData = objectMapper.readValue(response, Map.class);
-            
-            return Map.of(
-                "success", true,
-                "token", tokenData
-            );
+    private WebClient.RequestHeadersSpec<?> authorizedGet(String url, String accessToken) {
+        return webClient.get()
+            .uri(url)
+            .header("Authorization", "Bearer " + accessToken)
+            .header("Accept", "application/vnd.github.v3+json");
+    }
 
-        } catch (Exception e) {
-            System.err.println("Erro ao criar Personal Access Token: " + e.getMessage());
-            return Map.of(
-                "success", false,
-                "error", e.getMessage()
-            );
+    /**
+     * Executa a requisição e cronometra a chamada
+     */
+    private Mono<String> send(String operation, WebClient.RequestHeadersSpec<?> request) {
+        return outboundMetrics.record("github_oauth", operation, request
+            .retrieve()
+            .bodyToMono(String.class)
+            .switchIfEmpty(Mono.error(new IllegalStateException("Resposta vazia do GitHub"))));
+    }
+
+    private Mono<Map<String, Object>> failure(String message, Throwable e) {
+        logger.warn("{}: {}", message, e.getMessage());
+        return Mono.just(Map.of(
+            "success", false,
+            "error", String.valueOf(e.getMessage())
+        ));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> readMap(String json) {
+        try {
+            return objectMapper.readValue(json, Map.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta inválida do GitHub: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> readList(String json) {
+        try {
+            return objectMapper.readValue(json, List.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta inválida do GitHub: " + e.getOriginalMessage(), e);
         }
     }
 }
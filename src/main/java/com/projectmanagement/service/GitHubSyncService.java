@@ -0,0 +1,313 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.model.GitHubRepoLink;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.TaskStatus;
+import com.projectmanagement.model.User;
+import com.projectmanagement.repository.GitHubRepoLinkRepository;
+import com.projectmanagement.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Espelha issues e pull requests de repositórios vinculados em tarefas do projeto.
+ *
+ * A sincronização é incremental: cada vínculo guarda o maior updated_at já aplicado
+ * (high-water mark) e a próxima rodada pede apenas /issues?since=<mark>&sort=updated&direction=asc,
+ * em lotes de até batch-size itens. A URL só muda quando há mudanças, então um repositório
+ * parado é revalidado com um GET condicional (304, sem consumir cota) pelo GitHubCachingFilter.
+ *
+ * Cada vínculo sincroniza em uma rodada por vez (agendada ou manual); a restrição única
+ * (project_id, external_id) em tasks impede duplicatas mesmo assim.
+ */
+@Service
+public class GitHubSyncService {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitHubSyncService.class);
+
+    static final String EXTERNAL_ID_PREFIX = "github:";
+    private static final int TITLE_MAX = 100;
+    private static final int DESCRIPTION_MAX = 1000;
+
+    @Autowired
+    private GitHubRepoLinkRepository linkRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private GitHubMCPService gitHubMCPService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${github.sync.enabled:false}")
+    private boolean syncEnabled;
+
+    @Value("${github.sync.batch-size:100}")
+    private int batchSize;
+
+    @Value("${github.sync.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final Map<String, ReentrantLock> linkLocks = new ConcurrentHashMap<>();
+
+    public List<GitHubRepoLink> getLinksByProject(Long projectId) {
+        return linkRepository.findByProjectId(projectId);
+    }
+
+    public Optional<GitHubRepoLink> getLinkById(Long id) {
+        return linkRepository.findById(id);
+    }
+
+    /**
+     * Vincula um repositório ao projeto (idempotente); a primeira sincronização importa o histórico em lotes
+     */
+    public GitHubRepoLink linkRepository(Project project, String owner, String repo, User createdBy) {
+        return linkRepository.findByProjectIdAndOwnerAndRepo(project.getId(), owner, repo)
+            .orElseGet(() -> linkRepository.save(new GitHubRepoLink(project, owner, repo, createdBy)));
+    }
+
+    public void unlinkRepository(GitHubRepoLink link) {
+        linkRepository.delete(link);
+    }
+
+    @Scheduled(fixedDelayString = "${github.sync.interval-ms:300000}",
+               initialDelayString = "${github.sync.initial-delay-ms:60000}")
+    public void scheduledSync() {
+        if (syncEnabled) {
+            syncAll();
+        }
+    }
+
+    /**
+     * Sincroniza todos os vínculos habilitados; ignora a chamada se já houver uma rodada em andamento
+     */
+    public void syncAll() {
+        if (!running.compareAndSet(false, true)) {
+            logger.debug("Sincronização GitHub já em andamento, ignorando");
+            return;
+        }
+        try {
+            for (GitHubRepoLink link : linkRepository.findByEnabledTrue()) {
+                syncLink(link);
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Aplica as mudanças desde o high-water mark do vínculo, lote a lote. Se o vínculo já estiver
+     * sincronizando (rodada agendada ou outra manual), não faz nada e devolve inProgress=true.
+     */
+    public SyncResult syncLink(GitHubRepoLink link) {
+        ReentrantLock lock = linkLocks.computeIfAbsent(link.getProject().getId() + ":" + link.fullName(),
+            key -> new ReentrantLock());
+        if (!lock.tryLock()) {
+            logger.debug("Sincronização de {} já em andamento, ignorando", link.fullName());
+            SyncResult busy = new SyncResult();
+            busy.inProgress = true;
+            return busy;
+        }
+        try {
+            return syncLocked(link);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private SyncResult syncLocked(GitHubRepoLink link) {
+        SyncResult total = new SyncResult();
+        try {
+            for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+                String since = link.getHighWaterMark();
+                Map<String, Object> result = gitHubMCPService.listIssues(link.getOwner(), link.getRepo(), batchParams(since));
+                if (!Boolean.TRUE.equals(result.get("success"))) {
+                    throw new IllegalStateException(String.valueOf(result.get("error")));
+                }
+
+                @SuppressWarnings("unchecked")
+                List<Map<String, Object>> items = (List<Map<String, Object>>) result.get("issues");
+                total.add(applyBatch(link, items));
+
+                // Sem lote completo (ou sem avanço do mark, ex.: muitos itens com o mesmo updated_at) não há mais o que buscar
+                if (!Boolean.TRUE.equals(result.get("truncated")) || Objects.equals(since, link.getHighWaterMark())) {
+                    break;
+                }
+            }
+            link.setLastError(null);
+        } catch (Exception e) {
+            logger.warn("Falha ao sincronizar {} no projeto {}: {}", link.fullName(), link.getProject().getId(), e.getMessage());
+            link.setLastError(truncate(e.getMessage(), 500));
+        }
+
+        link.setLastSyncedAt(LocalDateTime.now());
+        linkRepository.save(link);
+
+        if (total.created + total.updated > 0) {
+            logger.info("GitHub {} -> projeto {}: {} criadas, {} atualizadas, {} sem mudança",
+                link.fullName(), link.getProject().getId(), total.created, total.updated, total.unchanged);
+        }
+        return total;
+    }
+
+    private Map<String, Object> batchParams(String since) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("state", "all");
+        params.put("sort", "updated");
+        params.put("direction", "asc");
+        params.put("auto_paginate", true);
+        params.put("max_items", batchSize);
+        if (since != null) {
+            params.put("since", since);
+        }
+        return params;
+    }
+
+    /**
+     * Cria/atualiza as tarefas do lote (uma consulta para carregar as existentes) e avança o mark
+     */
+    private SyncResult applyBatch(GitHubRepoLink link, List<Map<String, Object>> items) {
+        SyncResult result = new SyncResult();
+        if (items.isEmpty()) {
+            return result;
+        }
+
+        Long projectId = link.getProject().getId();
+        Set<String> externalIds = items.stream()
+            .map(item -> externalId(link, item))
+            .collect(Collectors.toSet());
+        Map<String, Task> existing = taskRepository.findByProjectIdAndExternalIdIn(projectId, externalIds).stream()
+            .collect(Collectors.toMap(Task::getExternalId, Function.identity(), (a, b) -> a));
+
+        String highWaterMark = link.getHighWaterMark();
+        for (Map<String, Object> item : items) {
+            String externalId = externalId(link, item);
+            Task task = existing.get(externalId);
+            if (task == null) {
+                Task created = new Task(title(item), description(item), link.getProject(), link.getCreatedBy());
+                created.setExternalId(externalId);
+                created.setStatus(isClosed(item) ? TaskStatus.DONE.name() : TaskStatus.BACKLOG.name());
+                // Um item pode reaparecer em outra página se for alterado durante a listagem
+                existing.put(externalId, taskService.createTask(created));
+                result.created++;
+            } else if (applyChanges(task, item)) {
+                result.updated++;
+            } else {
+                result.unchanged++;
+            }
+
+            String updatedAt = (String) item.get("updated_at");
+            if (updatedAt != null && (highWaterMark == null || updatedAt.compareTo(highWaterMark) > 0)) {
+                highWaterMark = updatedAt;
+            }
+        }
+
+        link.setHighWaterMark(highWaterMark);
+        linkRepository.save(link);
+
+        meterRegistry.counter("github.sync.items", "result", "created").increment(result.created);
+        meterRegistry.counter("github.sync.items", "result", "updated").increment(result.updated);
+        meterRegistry.counter("github.sync.items", "result", "unchanged").increment(result.unchanged);
+        return result;
+    }
+
+    /**
+     * Atualiza título/descrição e só mexe no status em transições de abertura/fechamento,
+     * preservando o que o time fez no kanban (colunas, prioridade, responsável, prazo)
+     */
+    private boolean applyChanges(Task task, Map<String, Object> item) {
+        String title = title(item);
+        String description = description(item);
+        String status = task.getStatus();
+        if (isClosed(item) && !TaskStatus.DONE.name().equals(status)) {
+            status = TaskStatus.DONE.name();
+        } else if (!isClosed(item) && TaskStatus.DONE.name().equals(status)) {
+            status = TaskStatus.BACKLOG.name();
+        }
+
+        if (title.equals(task.getTitle()) && description.equals(task.getDescription())
+                && Objects.equals(status, task.getStatus())) {
+            return false;
+        }
+
+        Task details = new Task();
+        details.setTitle(title);
+        details.setDescription(description);
+        details.setStatus(status);
+        details.setPriority(task.getPriority());
+        details.setDueDate(task.getDueDate());
+        details.setAssignedUser(task.getAssignedUser());
+        taskService.updateTask(task.getId(), details);
+        return true;
+    }
+
+    static String externalId(GitHubRepoLink link, Map<String, Object> item) {
+        return EXTERNAL_ID_PREFIX + link.fullName() + "#" + item.get("number");
+    }
+
+    private static boolean isClosed(Map<String, Object> item) {
+        return "closed".equals(item.get("state"));
+    }
+
+    private static String title(Map<String, Object> item) {
+        String prefix = item.containsKey("pull_request") ? "PR #" : "#";
+        return truncate(prefix + item.get("number") + " " + item.get("title"), TITLE_MAX);
+    }
+
+    private static String description(Map<String, Object> item) {
+        String url = String.valueOf(item.get("html_url"));
+        String body = item.get("body") instanceof String ? ((String) item.get("body")).trim() : "";
+        if (body.isEmpty()) {
+            return truncate(url, DESCRIPTION_MAX);
+        }
+        return truncate(body, DESCRIPTION_MAX - url.length() - 2) + "\n\n" + url;
+    }
+
+    private static String truncate(String value, int max) {
+        if (value == null || value.length() <= max) {
+            return value;
+        }
+        return value.substring(0, Math.max(0, max - 1)) + "…";
+    }
+
+    /**
+     * Contagem de tarefas criadas/atualizadas/inalteradas em uma sincronização
+     */
+    public static class SyncResult {
+        private int created;
+        private int updated;
+        private int unchanged;
+        private boolean inProgress;
+
+        void add(SyncResult other) {
+            created += other.created;
+            updated += other.updated;
+            unchanged += other.unchanged;
+        }
+
+        public int getCreated() { return created; }
+        public int getUpdated() { return updated; }
+        public int getUnchanged() { return unchanged; }
+        public boolean isInProgress() { return inProgress; }
+    }
+}
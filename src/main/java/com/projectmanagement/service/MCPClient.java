@@ -1,239 +1,286 @@
 package com.projectmanagement.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.projectmanagement.controller.ProjectController;
-import com.projectmanagement.controller.TaskController;
+import com.projectmanagement.dto.ProjectSummary;
+import com.projectmanagement.dto.TaskSummary;
+import com.projectmanagement.mcp.ToolHandler;
+import com.projectmanagement.mcp.ToolRegistry;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.ProjectStatus;
 import com.projectmanagement.model.Task;
 import com.projectmanagement.model.TaskPriority;
+import com.projectmanagement.model.User;
 import com.projectmanagement.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
 
 /**
  * Service MCP (Model Context Protocol) para execução de ferramentas
- * Faz interface entre o protocolo MCP e os controllers existentes
+ * Executa as ferramentas diretamente na camada de serviço, com projeções enxutas
  */
 @Service
 public class MCPClient {
 
     @Autowired
-    private ProjectController projectController;
+    private ProjectService projectService;
 
     @Autowired
-    private TaskController taskController;
+    private TaskService taskService;
+
+    @Autowired
+    private UserService userService;
 
     @Autowired
     private GitHubMCPService gitHubMCPService;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private Tracer tracer;
+
+    private static final String UNAUTHENTICATED = "Usuário não autenticado";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Montado na construção: handlers só são chamados depois da injeção dos serviços
+    private final ToolRegistry registry = buildRegistry();
+
+    /**
+     * Catálogo de ferramentas montado uma vez; schemas e handlers vêm do mesmo registro
+     */
+    private ToolRegistry buildRegistry() {
+        return ToolRegistry.builder()
+            // create_task
+            .register(
+                "create_task",
+                "Cria uma nova tarefa em um projeto EXISTENTE. Use list_projects primeiro para obter o projectId correto. NUNCA invente IDs de projeto.",
+                Map.of(
+                    "title", Map.of("type", "string", "description", "Título da tarefa"),
+                    "projectId", Map.of("type", "integer", "description", "ID do projeto EXISTENTE (obtenha via list_projects)"),
+                    "description", Map.of("type", "string", "description", "Descrição da tarefa (opcional)")
+                ),
+                Arrays.asList("title", "projectId"),
+                this::executeCreateTask
+            )
+
+            // create_project
+            .register(
+                "create_project",
+                "Cria um novo projeto",
+                Map.of(
+                    "name", Map.of("type", "string", "description", "Nome do projeto"),
+                    "description", Map.of("type", "string", "description", "Descrição do projeto (opcional)")
+                ),
+                Arrays.asList("name"),
+                this::executeCreateProject
+            )
+
+            // list_projects
+            .register(
+                "list_projects",
+                "Lista todos os projetos disponíveis. SEMPRE use esta ferramenta ANTES de criar tarefas para verificar projetos existentes.",
+                Map.of(),
+                Arrays.asList(),
+                this::executeListProjects
+            )
+
+            // list_tasks
+            .register(
+                "list_tasks",
+                "Lista tarefas de um projeto específico ou todas as tarefas",
+                Map.of(
+                    "projectId", Map.of("type", "integer", "description", "ID do projeto (opcional)")
+                ),
+                Arrays.asList(),
+                this::executeListTasks
+            )
+
+            // update_task
+            .register(
+                "update_task",
+                "Atualiza informações de uma tarefa ESPECÍFICA. Use list_tasks primeiro para obter o taskId correto. NUNCA invente IDs de tarefa.",
+                Map.of(
+                    "taskId", Map.of("type", "integer", "description", "ID da tarefa EXISTENTE (obtenha via list_tasks)"),
+                    "title", Map.of("type", "string", "description", "Novo título (opcional)"),
+                    "description", Map.of("type", "string", "description", "Nova descrição (opcional)"),
+                    "status", Map.of("type", "string", "description", "Novo status: BACKLOG, IN_PROGRESS, DONE (opcional)")
+                ),
+                Arrays.asList("taskId"),
+                this::executeUpdateTask
+            )
+
+            // move_task
+            .register(
+                "move_task",
+                "Move uma tarefa ESPECÍFICA para um novo status. Use list_tasks primeiro para obter o taskId correto. NUNCA invente IDs de tarefa.",
+                Map.of(
+                    "taskId", Map.of("type", "integer", "description", "ID da tarefa EXISTENTE (obtenha via list_tasks)"),
+                    "status", Map.of("type", "string", "description", "Novo status: BACKLOG, IN_PROGRESS, DONE")
+                ),
+                Arrays.asList("taskId", "status"),
+                this::executeMoveTask
+            )
+
+            // === FERRAMENTAS GITHUB ===
+
+            // github_list_repositories
+            .register(
+                "github_list_repositories",
+                "Lista repositórios do usuário autenticado no GitHub",
+                Map.of(
+                    "type", Map.of("type", "string", "description", "Tipo de repositório: owner, member, public (padrão: owner)"),
+                    "sort", Map.of("type", "string", "description", "Ordenação: created, updated, pushed, full_name (padrão: updated)"),
+                    "direction", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
+                    "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
+                    "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)"),
+                    "auto_paginate", Map.of("type", "boolean", "description", "Busca todas as páginas até max_items (ignora per_page/page)"),
+                    "max_items", Map.of("type", "integer", "description", "Limite de itens com auto_paginate (padrão: 300)")
+                ),
+                Arrays.asList(),
+                this::executeGitHubListRepositories
+            )
+
+            // github_get_repository
+            .register(
+                "github_get_repository",
+                "Obtém detalhes de um repositório específico",
+                Map.of(
+                    "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
+                    "repo", Map.of("type", "string", "description", "Nome do repositório")
+                ),
+                Arrays.asList("owner", "repo"),
+                this::executeGitHubGetRepository
+            )
+
+            // github_list_issues
+            .register(
+                "github_list_issues",
+                "Lista issues de um repositório",
+                Map.of(
+                    "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
+                    "repo", Map.of("type", "string", "description", "Nome do repositório"),
+                    "state", Map.of("type", "string", "description", "Estado: open, closed, all (padrão: open)"),
+                    "sort", Map.of("type", "string", "description", "Ordenação: created, updated, comments (padrão: created)"),
+                    "direction", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
+                    "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
+                    "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)"),
+                    "auto_paginate", Map.of("type", "boolean", "description", "Busca todas as páginas até max_items (ignora per_page/page)"),
+                    "max_items", Map.of("type", "integer", "description", "Limite de itens com auto_paginate (padrão: 300)")
+                ),
+                Arrays.asList("owner", "repo"),
+                this::executeGitHubListIssues
+            )
+
+            // github_create_issue
+            .register(
+                "github_create_issue",
+                "Cria uma nova issue em um repositório",
+                Map.of(
+                    "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
+                    "repo", Map.of("type", "string", "description", "Nome do repositório"),
+                    "title", Map.of("type", "string", "description", "Título da issue"),
+                    "body", Map.of("type", "string", "description", "Descrição da issue (opcional)"),
+                    "labels", Map.of("type", "array", "description", "Labels para a issue (opcional)"),
+                    "assignees", Map.of("type", "array", "description", "Usuários para atribuir (opcional)")
+                ),
+                Arrays.asList("owner", "repo", "title"),
+                this::executeGitHubCreateIssue
+            )
+
+            // github_list_pull_requests
+            .register(
+                "github_list_pull_requests",
+                "Lista pull requests de um repositório",
+                Map.of(
+                    "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
+                    "repo", Map.of("type", "string", "description", "Nome do repositório"),
+                    "state", Map.of("type", "string", "description", "Estado: open, closed, all (padrão: open)"),
+                    "sort", Map.of("type", "string", "description", "Ordenação: created, updated, popularity (padrão: created)"),
+                    "direction", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
+                    "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
+                    "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)"),
+                    "auto_paginate", Map.of("type", "boolean", "description", "Busca todas as páginas até max_items (ignora per_page/page)"),
+                    "max_items", Map.of("type", "integer", "description", "Limite de itens com auto_paginate (padrão: 300)")
+                ),
+                Arrays.asList("owner", "repo"),
+                this::executeGitHubListPullRequests
+            )
+
+            // github_get_file_content
+            .register(
+                "github_get_file_content",
+                "Obtém conteúdo de um arquivo do repositório. Arquivos grandes vêm truncados (truncated/total_lines); use start_line/end_line ou tail_lines para ler outros trechos",
+                Map.of(
+                    "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
+                    "repo", Map.of("type", "string", "description", "Nome do repositório"),
+                    "path", Map.of("type", "string", "description", "Caminho do arquivo"),
+                    "ref", Map.of("type", "string", "description", "Branch, tag ou commit SHA (opcional)"),
+                    "start_line", Map.of("type", "integer", "description", "Primeira linha a retornar (padrão: 1)"),
+                    "end_line", Map.of("type", "integer", "description", "Última linha a retornar (opcional)"),
+                    "tail_lines", Map.of("type", "integer", "description", "Retorna apenas as últimas N linhas (opcional)"),
+                    "max_bytes", Map.of("type", "integer", "description", "Limite de bytes do trecho retornado (padrão: 4096); trechos grandes podem voltar cortados em fim de linha, confira end_line")
+                ),
+                Arrays.asList("owner", "repo", "path"),
+                this::executeGitHubGetFileContent
+            )
+
+            // github_list_commits
+            .register(
+                "github_list_commits",
+                "Lista commits de um repositório",
+                Map.of(
+                    "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
+                    "repo", Map.of("type", "string", "description", "Nome do repositório"),
+                    "sha", Map.of("type", "string", "description", "Branch, tag ou commit SHA (opcional)"),
+                    "path", Map.of("type", "string", "description", "Filtrar por caminho (opcional)"),
+                    "author", Map.of("type", "string", "description", "Filtrar por autor (opcional)"),
+                    "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
+                    "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)"),
+                    "auto_paginate", Map.of("type", "boolean", "description", "Busca todas as páginas até max_items (ignora per_page/page)"),
+                    "max_items", Map.of("type", "integer", "description", "Limite de itens com auto_paginate (padrão: 300)")
+                ),
+                Arrays.asList("owner", "repo"),
+                this::executeGitHubListCommits
+            )
+
+            // github_search_repositories
+            .register(
+                "github_search_repositories",
+                "Busca repositórios no GitHub",
+                Map.of(
+                    "query", Map.of("type", "string", "description", "Consulta de busca (ex: 'machine learning language:python')"),
+                    "sort", Map.of("type", "string", "description", "Ordenação: stars, forks, updated (padrão: stars)"),
+                    "order", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
+                    "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
+                    "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)")
+                ),
+                Arrays.asList("query"),
+                this::executeGitHubSearchRepositories
+            )
+            .build();
+    }
+
     /**
      * Retorna lista de todas as ferramentas disponíveis com seus schemas
      */
     public List<Map<String, Object>> getAvailableTools() {
-        List<Map<String, Object>> tools = new ArrayList<>();
-
-        // create_task
-        tools.add(createToolSchema(
-            "create_task",
-            "Cria uma nova tarefa em um projeto EXISTENTE. Use list_projects primeiro para obter o projectId correto. NUNCA invente IDs de projeto.",
-            Map.of(
-                "title", Map.of("type", "string", "description", "Título da tarefa"),
-                "projectId", Map.of("type", "integer", "description", "ID do projeto EXISTENTE (obtenha via list_projects)"),
-                "description", Map.of("type", "string", "description", "Descrição da tarefa (opcional)")
-            ),
-            Arrays.asList("title", "projectId")
-        ));
-
-        // create_project
-        tools.add(createToolSchema(
-            "create_project",
-            "Cria um novo projeto",
-            Map.of(
-                "name", Map.of("type", "string", "description", "Nome do projeto"),
-                "description", Map.of("type", "string", "description", "Descrição do projeto (opcional)")
-            ),
-            Arrays.asList("name")
-        ));
-
-        // list_projects
-        tools.add(createToolSchema(
-            "list_projects",
-            "Lista todos os projetos disponíveis. SEMPRE use esta ferramenta ANTES de criar tarefas para verificar projetos existentes.",
-            Map.of(),
-            Arrays.asList()
-        ));
-
-        // list_tasks
-        tools.add(createToolSchema(
-            "list_tasks",
-            "Lista tarefas de um projeto específico ou todas as tarefas",
-            Map.of(
-                "projectId", Map.of("type", "integer", "description", "ID do projeto (opcional)")
-            ),
-            Arrays.asList()
-        ));
-
-        // update_task
-        tools.add(createToolSchema(
-            "update_task",
-            "Atualiza informações de uma tarefa ESPECÍFICA. Use list_tasks primeiro para obter o taskId correto. NUNCA invente IDs de tarefa.",
-            Map.of(
-                "taskId", Map.of("type", "integer", "description", "ID da tarefa EXISTENTE (obtenha via list_tasks)"),
-                "title", Map.of("type", "string", "description", "Novo título (opcional)"),
-                "description", Map.of("type", "string", "description", "Nova descrição (opcional)"),
-                "status", Map.of("type", "string", "description", "Novo status: BACKLOG, IN_PROGRESS, DONE (opcional)")
-            ),
-            Arrays.asList("taskId")
-        ));
-
-        // move_task
-        tools.add(createToolSchema(
-            "move_task",
-            "Move uma tarefa ESPECÍFICA para um novo status. Use list_tasks primeiro para obter o taskId correto. NUNCA invente IDs de tarefa.",
-            Map.of(
-                "taskId", Map.of("type", "integer", "description", "ID da tarefa EXISTENTE (obtenha via list_tasks)"),
-                "status", Map.of("type", "string", "description", "Novo status: BACKLOG, IN_PROGRESS, DONE")
-            ),
-            Arrays.asList("taskId", "status")
-        ));
-
-        // === FERRAMENTAS GITHUB ===
-
-        // github_list_repositories
-        tools.add(createToolSchema(
-            "github_list_repositories",
-            "Lista repositórios do usuário autenticado no GitHub",
-            Map.of(
-                "type", Map.of("type", "string", "description", "Tipo de repositório: owner, member, public (padrão: owner)"),
-                "sort", Map.of("type", "string", "description", "Ordenação: created, updated, pushed, full_name (padrão: updated)"),
-                "direction", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
-                "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
-                "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)")
-            ),
-            Arrays.asList()
-        ));
-
-        // github_get_repository
-        tools.add(createToolSchema(
-            "github_get_repository",
-            "Obtém detalhes de um repositório específico",
-            Map.of(
-                "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
-                "repo", Map.of("type", "string", "description", "Nome do repositório")
-            ),
-            Arrays.asList("owner", "repo")
-        ));
-
-        // github_list_issues
-        tools.add(createToolSchema(
-            "github_list_issues",
-            "Lista issues de um repositório",
-            Map.of(
-                "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
-                "repo", Map.of("type", "string", "description", "Nome do repositório"),
-                "state", Map.of("type", "string", "description", "Estado: open, closed, all (padrão: open)"),
-                "sort", Map.of("type", "string", "description", "Ordenação: created, updated, comments (padrão: created)"),
-                "direction", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
-                "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
-                "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)")
-            ),
-            Arrays.asList("owner", "repo")
-        ));
-
-        // github_create_issue
-        tools.add(createToolSchema(
-            "github_create_issue",
-            "Cria uma nova issue em um repositório",
-            Map.of(
-                "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
-                "repo", Map.of("type", "string", "description", "Nome do repositório"),
-                "title", Map.of("type", "string", "description", "Título da issue"),
-                "body", Map.of("type", "string", "description", "Descrição da issue (opcional)"),
-                "labels", Map.of("type", "array", "description", "Labels para a issue (opcional)"),
-                "assignees", Map.of("type", "array", "description", "Usuários para atribuir (opcional)")
-            ),
-            Arrays.asList("owner", "repo", "title")
-        ));
-
-        // github_list_pull_requests
-        tools.add(createToolSchema(
-            "github_list_pull_requests",
-            "Lista pull requests de um repositório",
-            Map.of(
-                "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
-                "repo", Map.of("type", "string", "description", "Nome do repositório"),
-                "state", Map.of("type", "string", "description", "Estado: open, closed, all (padrão: open)"),
-                "sort", Map.of("type", "string", "description", "Ordenação: created, updated, popularity (padrão: created)"),
-                "direction", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
-                "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
-                "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)")
-            ),
-            Arrays.asList("owner", "repo")
-        ));
-
-        // github_get_file_content
-        tools.add(createToolSchema(
-            "github_get_file_content",
-            "Obtém conteúdo de um arquivo do repositório",
-            Map.of(
-                "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
-                "repo", Map.of("type", "string", "description", "Nome do repositório"),
-                "path", Map.of("type", "string", "description", "Caminho do arquivo"),
-                "ref", Map.of("type", "string", "description", "Branch, tag ou commit SHA (opcional)")
-            ),
-            Arrays.asList("owner", "repo", "path")
-        ));
-
-        // github_list_commits
-        tools.add(createToolSchema(
-            "github_list_commits",
-            "Lista commits de um repositório",
-            Map.of(
-                "owner", Map.of("type", "string", "description", "Proprietário do repositório"),
-                "repo", Map.of("type", "string", "description", "Nome do repositório"),
-                "sha", Map.of("type", "string", "description", "Branch, tag ou commit SHA (opcional)"),
-                "path", Map.of("type", "string", "description", "Filtrar por caminho (opcional)"),
-                "author", Map.of("type", "string", "description", "Filtrar por autor (opcional)"),
-                "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
-                "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)")
-            ),
-            Arrays.asList("owner", "repo")
-        ));
-
-        // github_search_repositories
-        tools.add(createToolSchema(
-            "github_search_repositories",
-            "Busca repositórios no GitHub",
-            Map.of(
-                "query", Map.of("type", "string", "description", "Consulta de busca (ex: 'machine learning language:python')"),
-                "sort", Map.of("type", "string", "description", "Ordenação: stars, forks, updated (padrão: stars)"),
-                "order", Map.of("type", "string", "description", "Direção: asc, desc (padrão: desc)"),
-                "per_page", Map.of("type", "integer", "description", "Itens por página (padrão: 30)"),
-                "page", Map.of("type", "integer", "description", "Número da página (padrão: 1)")
-            ),
-            Arrays.asList("query")
-        ));
-
-        return tools;
+        return registry.schemas();
     }
 
     /**
      * Retorna o schema de uma ferramenta específica
      */
     public Map<String, Object> getToolSchema(String toolName) {
-        List<Map<String, Object>> tools = getAvailableTools();
-        return tools.stream()
-            .filter(tool -> toolName.equals(tool.get("name")))
-            .findFirst()
-            .orElse(null);
+        return registry.schema(toolName);
     }
 
     /**
@@ -247,42 +294,40 @@ public class MCPClient {
      * Executa uma ferramenta específica com contexto de usuário
      */
     public Map<String, Object> executeTool(String toolName, Map<String, Object> arguments, UserPrincipal user) {
-        try {
-            switch (toolName) {
-                case "create_task":
-                    return executeCreateTask(arguments, user);
-                case "create_project":
-                    return executeCreateProject(arguments, user);
-                case "list_projects":
-                    return executeListProjects(user);
-                case "list_tasks":
-                    return executeListTasks(arguments, user);
-                case "update_task":
-                    return executeUpdateTask(arguments, user);
-                case "move_task":
-                    return executeMoveTask(arguments, user);
-
-                // === FERRAMENTAS GITHUB ===
-                case "github_list_repositories":
-                    return executeGitHubListRepositories(arguments, user);
-                case "github_get_repository":
-                    return executeGitHubGetRepository(arguments, user);
-                case "github_list_issues":
-                    return executeGitHubListIssues(arguments, user);
-                case "github_create_issue":
-                    return executeGitHubCreateIssue(arguments, user);
-                case "github_list_pull_requests":
-                    return executeGitHubListPullRequests(arguments, user);
-                case "github_get_file_content":
-                    return executeGitHubGetFileContent(arguments, user);
-                case "github_list_commits":
-                    return executeGitHubListCommits(arguments, user);
-                case "github_search_repositories":
-                    return executeGitHubSearchRepositories(arguments, user);
-
-                default:
-                    return createErrorResponse("Ferramenta não encontrada: " + toolName);
+        // Nomes válidos para a tag "tool" (evita cardinalidade ilimitada com nomes inventados pelo modelo)
+        String toolTag = registry.names().contains(toolName) ? toolName : "unknown";
+        Span span = tracer.spanBuilder("mcp.tool " + toolTag)
+            .setAttribute("mcp.tool.name", toolTag)
+            .startSpan();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Map<String, Object> result = null;
+        try (Scope ignored = span.makeCurrent()) {
+            result = dispatchTool(toolName, arguments, user);
+            return result;
+        } catch (RuntimeException e) {
+            span.recordException(e);
+            throw e;
+        } finally {
+            boolean success = result != null && Boolean.TRUE.equals(result.get("success"));
+            if (!success) {
+                span.setStatus(StatusCode.ERROR, result != null ? String.valueOf(result.get("error")) : "exception");
             }
+            span.end();
+            sample.stop(Timer.builder("mcp.tool.executions")
+                .description("Latência de execução de ferramentas MCP")
+                .tag("tool", toolTag)
+                .tag("outcome", success ? "success" : "error")
+                .register(meterRegistry));
+        }
+    }
+
+    private Map<String, Object> dispatchTool(String toolName, Map<String, Object> arguments, UserPrincipal user) {
+        ToolHandler handler = registry.handler(toolName);
+        if (handler == null) {
+            return createErrorResponse("Ferramenta não encontrada: " + toolName);
+        }
+        try {
+            return handler.execute(arguments, user);
         } catch (Exception e) {
             return createErrorResponse("Erro ao executar " + toolName + ": " + e.getMessage());
         }
@@ -291,103 +336,95 @@ public class MCPClient {
     // Métodos privados para execução de cada ferramenta
 
     private Map<String, Object> executeCreateTask(Map<String, Object> args, UserPrincipal user) {
+        if (user == null) {
+            return createErrorResponse(UNAUTHENTICATED);
+        }
         try {
             String title = (String) args.get("title");
             Long projectId = Long.valueOf(String.valueOf(args.get("projectId")));
             String description = (String) args.getOrDefault("description", "Tarefa criada via IA");
 
-            // Validar se o projeto existe primeiro
-            Authentication auth = createAuthentication(user);
-            ResponseEntity<List<Project>> projectsResponse = projectController.getAllProjects(auth);
-            List<Project> projects = projectsResponse.getBody();
-
-            boolean projectExists = projects != null && projects.stream()
-                .anyMatch(p -> p.getId().equals(projectId));
-
-            if (!projectExists) {
-                String availableProjects = projects != null ?
+            // Validar se o projeto existe e é visível ao usuário (uma consulta COUNT)
+            if (!projectService.isProjectVisibleToUser(projectId, user.getId())) {
+                List<ProjectSummary> projects = projectService.getProjectSummariesByUser(user.getId());
+                String availableProjects = projects.isEmpty() ? "nenhum" :
                     projects.stream()
                         .map(p -> "ID: " + p.getId() + " - " + p.getName())
-                        .collect(java.util.stream.Collectors.joining(", ")) :
-                    "nenhum";
+                        .collect(java.util.stream.Collectors.joining(", "));
                 return createErrorResponse("Projeto com ID " + projectId + " não existe. Projetos disponíveis: " + availableProjects + ". Use list_projects para ver os IDs corretos.");
             }
 
+            Optional<Project> project = projectService.getProjectById(projectId);
+            Optional<User> creator = userService.getUserById(user.getId());
+            if (project.isEmpty() || creator.isEmpty()) {
+                return createErrorResponse("Erro ao criar tarefa");
+            }
+
             Task task = new Task();
             task.setTitle(title);
             task.setDescription(description);
             task.setStatus("BACKLOG");
             task.setPriority(TaskPriority.MEDIUM);
+            task.setProject(project.get());
+            task.setCreatedBy(creator.get());
 
-            // Buscar o projeto
-            Project project = new Project();
-            project.setId(projectId);
-            task.setProject(project);
-
-            ResponseEntity<Task> response = taskController.createTask(task, auth);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                Task createdTask = response.getBody();
-                return Map.of(
-                    "success", true,
-                    "taskId", createdTask.getId(),
-                    "title", title,
-                    "projectId", projectId,
-                    "message", "Tarefa '" + title + "' criada com sucesso no projeto ID " + projectId + "!"
-                );
-            } else {
-                return createErrorResponse("Erro ao criar tarefa");
-            }
+            Task createdTask = taskService.createTask(task);
+            return Map.of(
+                "success", true,
+                "taskId", createdTask.getId(),
+                "title", title,
+                "projectId", projectId,
+                "message", "Tarefa '" + title + "' criada com sucesso no projeto ID " + projectId + "!"
+            );
         } catch (Exception e) {
             return createErrorResponse("Erro ao criar tarefa: " + e.getMessage());
         }
     }
 
     private Map<String, Object> executeCreateProject(Map<String, Object> args, UserPrincipal user) {
+        if (user == null) {
+            return createErrorResponse(UNAUTHENTICATED);
+        }
         try {
             String name = (String) args.get("name");
             String description = (String) args.getOrDefault("description", "Projeto criado via IA");
 
+            Optional<User> creator = userService.getUserById(user.getId());
+            if (creator.isEmpty()) {
+                return createErrorResponse("Erro ao criar projeto");
+            }
+
             Project project = new Project();
             project.setName(name);
             project.setDescription(description);
             project.setStatus(ProjectStatus.ACTIVE);
+            project.setCreatedBy(creator.get());
 
-            Authentication auth = createAuthentication(user);
-            ResponseEntity<Project> response = projectController.createProject(project, auth);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                Project createdProject = response.getBody();
-                return Map.of(
-                    "success", true,
-                    "projectId", createdProject.getId(),
-                    "name", name,
-                    "message", "Projeto '" + name + "' criado com sucesso!"
-                );
-            } else {
-                return createErrorResponse("Erro ao criar projeto");
-            }
+            Project createdProject = projectService.createProject(project);
+            return Map.of(
+                "success", true,
+                "projectId", createdProject.getId(),
+                "name", name,
+                "message", "Projeto '" + name + "' criado com sucesso!"
+            );
         } catch (Exception e) {
             return createErrorResponse("Erro ao criar projeto: " + e.getMessage());
         }
     }
 
-    private Map<String, Object> executeListProjects(UserPrincipal user) {
+    private Map<String, Object> executeListProjects(Map<String, Object> args, UserPrincipal user) {
+        if (user == null) {
+            return createErrorResponse(UNAUTHENTICATED);
+        }
         try {
-            Authentication auth = createAuthentication(user);
-            ResponseEntity<List<Project>> response = projectController.getAllProjects(auth);
-            List<Project> projects = response.getBody();
-
             List<Map<String, Object>> projectMaps = new ArrayList<>();
-            if (projects != null) {
-                for (Project project : projects) {
-                    Map<String, Object> projectMap = new HashMap<>();
-                    projectMap.put("id", project.getId());
-                    projectMap.put("name", project.getName());
-                    projectMap.put("description", project.getDescription());
-                    projectMap.put("status", project.getStatus());
-                    projectMaps.add(projectMap);
-                }
+            for (ProjectSummary project : projectService.getProjectSummariesByUser(user.getId())) {
+                Map<String, Object> projectMap = new HashMap<>();
+                projectMap.put("id", project.getId());
+                projectMap.put("name", project.getName());
+                projectMap.put("description", project.getDescription());
+                projectMap.put("status", project.getStatus());
+                projectMaps.add(projectMap);
             }
 
             String message = projectMaps.isEmpty() ?
@@ -407,32 +444,33 @@ public class MCPClient {
     }
 
     private Map<String, Object> executeListTasks(Map<String, Object> args, UserPrincipal user) {
+        if (user == null) {
+            return createErrorResponse(UNAUTHENTICATED);
+        }
         try {
-            Authentication auth = createAuthentication(user);
             Object projectIdObj = args.get("projectId");
 
-            List<Task> tasks;
+            List<TaskSummary> tasks;
             if (projectIdObj != null) {
                 Long projectId = Long.valueOf(String.valueOf(projectIdObj));
-                ResponseEntity<List<Task>> response = taskController.getTasksByProject(projectId, auth);
-                tasks = response.getBody();
+                if (!projectService.hasUserAccess(projectId, user.getId())) {
+                    return createErrorResponse("Sem acesso ao projeto " + projectId);
+                }
+                tasks = taskService.getTaskSummariesByProject(projectId);
             } else {
-                ResponseEntity<List<Task>> response = taskController.getAllTasks(auth);
-                tasks = response.getBody();
+                tasks = taskService.getTaskSummariesByUserProjects(user.getId());
             }
 
             List<Map<String, Object>> taskMaps = new ArrayList<>();
-            if (tasks != null) {
-                for (Task task : tasks) {
-                    Map<String, Object> taskMap = new HashMap<>();
-                    taskMap.put("id", task.getId());
-                    taskMap.put("title", task.getTitle());
-                    taskMap.put("description", task.getDescription());
-                    taskMap.put("status", task.getStatus());
-                    taskMap.put("priority", task.getPriority());
-                    taskMap.put("projectId", task.getProject().getId());
-                    taskMaps.add(taskMap);
-                }
+            for (TaskSummary task : tasks) {
+                Map<String, Object> taskMap = new HashMap<>();
+                taskMap.put("id", task.getId());
+                taskMap.put("title", task.getTitle());
+                taskMap.put("description", task.getDescription());
+                taskMap.put("status", task.getStatus());
+                taskMap.put("priority", task.getPriority());
+                taskMap.put("projectId", task.getProjectId());
+                taskMaps.add(taskMap);
             }
 
             String message = taskMaps.isEmpty() ?
@@ -458,34 +496,24 @@ public class MCPClient {
             String description = (String) args.get("description");
             String status = (String) args.get("status");
 
-            Authentication auth = createAuthentication(user);
+            Map<String, Object> denied = checkTaskAccess(taskId, user);
+            if (denied != null) {
+                return denied;
+            }
+
+            // Só os campos informados são alterados
+            taskService.patchTask(taskId, title, description, status);
 
-            // Se apenas status foi fornecido, usar método específico
             if (status != null && title == null && description == null) {
-                ResponseEntity<Task> response = taskController.updateTaskStatus(taskId, status, auth);
-                if (response.getStatusCode().is2xxSuccessful()) {
-                    return Map.of(
-                        "success", true,
-                        "message", "Status da tarefa " + taskId + " atualizado para " + status
-                    );
-                }
-            } else {
-                // Atualização geral da tarefa
-                Task taskDetails = new Task();
-                if (title != null) taskDetails.setTitle(title);
-                if (description != null) taskDetails.setDescription(description);
-                if (status != null) taskDetails.setStatus(status);
-
-                ResponseEntity<Task> response = taskController.updateTask(taskId, taskDetails, auth);
-                if (response.getStatusCode().is2xxSuccessful()) {
-                    return Map.of(
-                        "success", true,
-                        "message", "Tarefa " + taskId + " atualizada com sucesso!"
-                    );
-                }
+                return Map.of(
+                    "success", true,
+                    "message", "Status da tarefa " + taskId + " atualizado para " + status
+                );
             }
-
-            return createErrorResponse("Erro ao atualizar tarefa");
+            return Map.of(
+                "success", true,
+                "message", "Tarefa " + taskId + " atualizada com sucesso!"
+            );
         } catch (Exception e) {
             return createErrorResponse("Erro ao atualizar tarefa: " + e.getMessage());
         }
@@ -496,40 +524,40 @@ public class MCPClient {
             Long taskId = Long.valueOf(String.valueOf(args.get("taskId")));
             String status = (String) args.get("status");
 
-            Authentication auth = createAuthentication(user);
-            ResponseEntity<Task> response = taskController.updateTaskStatus(taskId, status, auth);
-
-            if (response.getStatusCode().is2xxSuccessful()) {
-                return Map.of(
-                    "success", true,
-                    "message", "Tarefa " + taskId + " movida para " + status + " com sucesso!"
-                );
-            } else {
-                return createErrorResponse("Erro ao mover tarefa");
+            Map<String, Object> denied = checkTaskAccess(taskId, user);
+            if (denied != null) {
+                return denied;
             }
+
+            taskService.updateTaskStatus(taskId, status);
+            return Map.of(
+                "success", true,
+                "message", "Tarefa " + taskId + " movida para " + status + " com sucesso!"
+            );
         } catch (Exception e) {
             return createErrorResponse("Erro ao mover tarefa: " + e.getMessage());
         }
     }
 
-    // Métodos auxiliares
-
-    private Map<String, Object> createToolSchema(String name, String description, 
-                                                Map<String, Object> properties, 
-                                                List<String> required) {
-        Map<String, Object> schema = new HashMap<>();
-        schema.put("name", name);
-        schema.put("description", description);
-        
-        Map<String, Object> inputSchema = new HashMap<>();
-        inputSchema.put("type", "object");
-        inputSchema.put("properties", properties);
-        inputSchema.put("required", required);
-        
-        schema.put("input_schema", inputSchema);
-        return schema;
+    /**
+     * Verifica existência e acesso à tarefa consultando só o id do projeto; null se permitido
+     */
+    private Map<String, Object> checkTaskAccess(Long taskId, UserPrincipal user) {
+        if (user == null) {
+            return createErrorResponse(UNAUTHENTICATED);
+        }
+        Optional<Long> projectId = taskService.getProjectIdOfTask(taskId);
+        if (projectId.isEmpty()) {
+            return createErrorResponse("Tarefa com ID " + taskId + " não existe. Use list_tasks para ver os IDs corretos.");
+        }
+        if (!projectService.hasUserAccess(projectId.get(), user.getId())) {
+            return createErrorResponse("Sem acesso à tarefa " + taskId);
+        }
+        return null;
     }
 
+    // Métodos auxiliares
+
     private Map<String, Object> createErrorResponse(String message) {
         return Map.of(
             "success", false,
@@ -537,33 +565,30 @@ public class MCPClient {
         );
     }
 
-    private Authentication createAuthentication(UserPrincipal userPrincipal) {
-        if (userPrincipal == null) {
-            return null;
+    // === MÉTODOS GITHUB MCP ===
+
+    /**
+     * Resposta das ferramentas de listagem, repassando pages/truncated quando houve auto-paginação
+     */
+    private Map<String, Object> listResponse(Map<String, Object> result, String itemsKey, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put(itemsKey, result.get(itemsKey));
+        response.put("count", result.get("count"));
+        if (result.containsKey("truncated")) {
+            response.put("pages", result.get("pages"));
+            response.put("truncated", result.get("truncated"));
         }
-        return new UsernamePasswordAuthenticationToken(
-            userPrincipal,
-            null,
-            userPrincipal.getAuthorities()
-        );
+        response.put("message", message);
+        return response;
     }
 
-    // === MÉTODOS GITHUB MCP ===
-
     private Map<String, Object> executeGitHubListRepositories(Map<String, Object> args, UserPrincipal user) {
         try {
             Map<String, Object> result = gitHubMCPService.listRepositories(args);
 
             if ((Boolean) result.get("success")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> repos = (List<Map<String, Object>>) result.get("repositories");
-
-                return Map.of(
-                    "success", true,
-                    "repositories", repos,
-                    "count", repos.size(),
-                    "message", "Repositórios listados com sucesso"
-                );
+                return listResponse(result, "repositories", "Repositórios listados com sucesso");
             } else {
                 return createErrorResponse("Erro ao listar repositórios: " + result.get("error"));
             }
@@ -601,15 +626,7 @@ public class MCPClient {
             Map<String, Object> result = gitHubMCPService.listIssues(owner, repo, args);
 
             if ((Boolean) result.get("success")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> issues = (List<Map<String, Object>>) result.get("issues");
-
-                return Map.of(
-                    "success", true,
-                    "issues", issues,
-                    "count", issues.size(),
-                    "message", "Issues listadas com sucesso"
-                );
+                return listResponse(result, "issues", "Issues listadas com sucesso");
             } else {
                 return createErrorResponse("Erro ao listar issues: " + result.get("error"));
             }
@@ -654,15 +671,7 @@ public class MCPClient {
             Map<String, Object> result = gitHubMCPService.listPullRequests(owner, repo, args);
 
             if ((Boolean) result.get("success")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> pullRequests = (List<Map<String, Object>>) result.get("pullRequests");
-
-                return Map.of(
-                    "success", true,
-                    "pullRequests", pullRequests,
-                    "count", pullRequests.size(),
-                    "message", "Pull requests listados com sucesso"
-                );
+                return listResponse(result, "pullRequests", "Pull requests listados com sucesso");
             } else {
                 return createErrorResponse("Erro ao listar pull requests: " + result.get("error"));
             }
@@ -678,7 +687,7 @@ public class MCPClient {
             String path = (String) args.get("path");
             String ref = (String) args.get("ref");
 
-            Map<String, Object> result = gitHubMCPService.getFileContent(owner, repo, path, ref);
+            Map<String, Object> result = gitHubMCPService.getFileContent(owner, repo, path, ref, args);
 
             if ((Boolean) result.get("success")) {
                 return Map.of(
@@ -702,15 +711,7 @@ public class MCPClient {
             Map<String, Object> result = gitHubMCPService.listCommits(owner, repo, args);
 
             if ((Boolean) result.get("success")) {
-                @SuppressWarnings("unchecked")
-                List<Map<String, Object>> commits = (List<Map<String, Object>>) result.get("commits");
-
-                return Map.of(
-                    "success", true,
-                    "commits", commits,
-                    "count", commits.size(),
-                    "message", "Commits listados com sucesso"
-                );
+                return listResponse(result, "commits", "Commits listados com sucesso");
             } else {
                 return createErrorResponse("Erro ao listar commits: " + result.get("error"));
             }
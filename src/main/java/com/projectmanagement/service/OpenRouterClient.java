@@ -1,89 +1,213 @@
 package com.projectmanagement.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.http.*;
+import com.projectmanagement.llm.ChatCompletionRequest;
+import com.projectmanagement.mcp.ToolCatalog;
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.DependencyUnavailableException;
+import com.projectmanagement.resilience.ModelRouter;
+import com.projectmanagement.resilience.OutboundResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 @Service
 public class OpenRouterClient {
 
+    private static final Logger logger = LoggerFactory.getLogger(OpenRouterClient.class);
+
+    // Mensagens do OpenRouter e dos provedores quando o modelo não aceita o parâmetro tools
+    private static final Pattern TOOLS_UNSUPPORTED = Pattern.compile(
+        "no endpoints found that support tool use|does not support tools|tools? (use )?(is|are) not supported",
+        Pattern.CASE_INSENSITIVE);
+
     // TODO: mover para variável de ambiente. Por hora, hardcoded conforme solicitado.
     // AVISO: não comitar chaves reais em repositórios públicos.
     private static final String API_KEY = "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";
-    private static final String API_URL = "https://openrouter.ai/api/v1/chat/completions";
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // Modelos candidatos; a ordem configurada só desempata modelos sem histórico (ver ModelRouter)
+    @Value("${openrouter.models:anthropic/claude-sonnet-4,anthropic/claude-3.5-sonnet,x-ai/grok-beta,openai/gpt-4o,openai/gpt-4o-mini,anthropic/claude-3-haiku,openai/gpt-3.5-turbo,meta-llama/llama-3.1-8b-instruct:free}")
+    private List<String> models;
+
+    @Value("${openrouter.hedge.enabled:true}")
+    private boolean hedgeEnabled;
+
+    private final WebClient webClient;
+
+    @Autowired
+    private OutboundMetrics outboundMetrics;
+
+    @Autowired
+    private OutboundResilience resilience;
+
+    @Autowired
+    private ModelRouter modelRouter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    public OpenRouterClient(WebClient.Builder webClientBuilder,
+                            @Value("${openrouter.api.base-url:https://openrouter.ai/api/v1}") String baseUrl) {
+        this.webClient = webClientBuilder
+            .baseUrl(baseUrl + "/chat/completions")
+            .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+            .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + API_KEY)
+            .defaultHeader("X-Title", "Project Management AI Chat")
+            .build();
+    }
 
     public Map<String, Object> chatCompletion(List<Map<String, Object>> messages,
                                               List<Map<String, Object>> tools,
                                               String preferredModel) {
-        // Lista de modelos para tentar em ordem de preferência
-        String[] modelsToTry = {
-            "anthropic/claude-sonnet-4",
-            "anthropic/claude-3.5-sonnet",
-            "x-ai/grok-beta",
-            "openai/gpt-4o",
-            "openai/gpt-4o-mini",
-            "anthropic/claude-3-haiku",
-            "openai/gpt-3.5-turbo",
-            "meta-llama/llama-3.1-8b-instruct:free"
-        };
-
-        // Se um modelo específico foi solicitado, tenta ele primeiro
-        if (preferredModel != null && !preferredModel.isEmpty()) {
-            try {
-                return tryModel(preferredModel, messages, tools);
-            } catch (Exception e) {
-                System.out.println("Modelo preferido " + preferredModel + " falhou: " + e.getMessage());
-            }
+        return chatCompletionAsync(messages, tools, preferredModel).block();
+    }
+
+    /**
+     * Versão não bloqueante: candidatos ordenados pelo ModelRouter (preferido primeiro, depois
+     * por latência e taxa de sucesso recentes). Com hedge, se o modelo não responder dentro do
+     * percentil de latência dele, o próximo candidato é disparado em paralelo e vale a primeira
+     * resposta boa; a outra chamada é cancelada.
+     */
+    public Mono<Map<String, Object>> chatCompletionAsync(List<Map<String, Object>> messages,
+                                                         List<Map<String, Object>> tools,
+                                                         String preferredModel) {
+        List<String> candidates = modelRouter.candidates(preferredModel, models);
+        return attempt(candidates, 0, messages, tools)
+            .onErrorMap(e -> !(e instanceof DependencyUnavailableException),
+                e -> new RuntimeException("Nenhum modelo disponível funcionou. Verifique sua conta OpenRouter.", e));
+    }
+
+    private Mono<Map<String, Object>> attempt(List<String> candidates, int index,
+                                              List<Map<String, Object>> messages,
+                                              List<Map<String, Object>> tools) {
+        if (index >= candidates.size()) {
+            return Mono.error(new IllegalStateException("Todos os modelos candidatos falharam"));
         }
+        String model = candidates.get(index);
+        Mono<Map<String, Object>> primary = callModel(model, messages, tools);
 
-        // Tenta cada modelo da lista até encontrar um que funcione
-        for (String model : modelsToTry) {
-            try {
-                System.out.println("Tentando modelo: " + model);
-                return tryModel(model, messages, tools);
-            } catch (Exception e) {
-                System.out.println("Modelo " + model + " falhou: " + e.getMessage());
-                // Se o erro for relacionado a ferramentas e temos ferramentas, tenta sem elas
-                if (tools != null && !tools.isEmpty() && e.getMessage().contains("tool")) {
-                    try {
-                        System.out.println("Tentando " + model + " sem ferramentas...");
-                        return tryModel(model, messages, null);
-                    } catch (Exception e2) {
-                        System.out.println("Modelo " + model + " falhou mesmo sem ferramentas: " + e2.getMessage());
-                    }
+        int nextIndex = index + 1;
+        Mono<Map<String, Object>> round = primary;
+        if (hedgeEnabled && index + 1 < candidates.size()) {
+            String hedgeModel = candidates.get(index + 1);
+            Duration delay = modelRouter.hedgeDelay(model);
+            round = ModelRouter.hedged(primary, delay, hedge -> {
+                if (hedge) {
+                    logger.debug("Modelo {} sem resposta em {} ms; disparando {} em paralelo", model, delay.toMillis(), hedgeModel);
+                    meterRegistry.counter("llm.model.hedges").increment();
+                } else {
+                    // Falha antecipada do primário: é failover, não hedge
+                    logger.debug("Modelo {} falhou antes de {} ms; passando para {}", model, delay.toMillis(), hedgeModel);
                 }
-            }
+                return callModel(hedgeModel, messages, tools);
+            });
+            nextIndex = index + 2;
         }
 
-        throw new RuntimeException("Nenhum modelo disponível funcionou. Verifique sua conta OpenRouter.");
+        int remaining = nextIndex;
+        return round.onErrorResume(e -> !circuitOpen(e), e -> attempt(candidates, remaining, messages, tools));
     }
 
-    private Map<String, Object> tryModel(String model, List<Map<String, Object>> messages, List<Map<String, Object>> tools) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Authorization", "Bearer " + API_KEY);
-        headers.set("X-Title", "Project Management AI Chat");
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("model", model);
-        body.put("messages", messages);
-        if (tools != null && !tools.isEmpty()) {
-            body.put("tools", tools);
+    /**
+     * Chama um modelo registrando latência e resultado; se o modelo recusar ferramentas,
+     * o fato fica em cache e a chamada é refeita sem elas
+     */
+    private Mono<Map<String, Object>> callModel(String model, List<Map<String, Object>> messages,
+                                                List<Map<String, Object>> tools) {
+        boolean withTools = tools != null && !tools.isEmpty();
+        if (withTools && !modelRouter.supportsTools(model)) {
+            logger.debug("Modelo {} não suporta ferramentas (em cache); chamando sem elas", model);
+            return timed(model, messages, null);
         }
-        body.put("stream", false);
+        return timed(model, messages, tools)
+            .onErrorResume(e -> withTools && !circuitOpen(e) && toolsUnsupported(e), e -> {
+                logger.debug("Modelo {} recusou ferramentas; registrando e tentando sem elas", model);
+                modelRouter.markToolsUnsupported(model);
+                return timed(model, messages, null);
+            });
+    }
 
-        HttpEntity<Map<String, Object>> req = new HttpEntity<>(body, headers);
-        ResponseEntity<Map> resp = restTemplate.postForEntity(API_URL, req, Map.class);
+    private Mono<Map<String, Object>> timed(String model, List<Map<String, Object>> messages,
+                                            List<Map<String, Object>> tools) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            logger.debug("Tentando modelo: {}", model);
+            return tryModel(model, messages, tools)
+                .doOnSuccess(response -> modelRouter.recordSuccess(model, System.nanoTime() - start))
+                .doOnError(e -> {
+                    // Rejeição da camada de resiliência não diz nada sobre o modelo
+                    if (!circuitOpen(e)) {
+                        modelRouter.recordFailure(model, System.nanoTime() - start);
+                    }
+                    logger.warn("Modelo {} falhou: {}", model, e.getMessage());
+                });
+        });
+    }
 
-        System.out.println("Sucesso com modelo: " + model);
-        return resp.getBody();
+    /**
+     * Circuito aberto / bulkhead cheio para o OpenRouter: não adianta tentar outros modelos
+     */
+    private static boolean circuitOpen(Throwable e) {
+        if (e instanceof DependencyUnavailableException) {
+            return true;
+        }
+        for (Throwable suppressed : e.getSuppressed()) {
+            if (suppressed instanceof DependencyUnavailableException) {
+                return true;
+            }
+        }
+        return false;
     }
-}
 
+    /**
+     * Só a recusa explícita do provedor conta como "sem suporte a ferramentas": 400/404 com uma
+     * das mensagens conhecidas no corpo. Outros erros que citem "tool" (ex.: argumentos de uma
+     * chamada de ferramenta inválidos) não marcam o modelo.
+     */
+    static boolean toolsUnsupported(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebClientResponseException) {
+                WebClientResponseException response = (WebClientResponseException) cause;
+                int status = response.getRawStatusCode();
+                return (status == 400 || status == 404)
+                    && TOOLS_UNSUPPORTED.matcher(response.getResponseBodyAsString()).find();
+            }
+        }
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Mono<Map<String, Object>> tryModel(String model, List<Map<String, Object>> messages, List<Map<String, Object>> tools) {
+        Object toolsBody = null;
+        if (tools instanceof ToolCatalog.PrecompiledTools) {
+            // Fragmento JSON pré-serializado na subida
+            toolsBody = ((ToolCatalog.PrecompiledTools) tools).openAiJson();
+        } else if (tools != null && !tools.isEmpty()) {
+            toolsBody = tools;
+        }
+        ChatCompletionRequest request = new ChatCompletionRequest(model, messages, toolsBody);
+
+        return resilience.decorate("openrouter", outboundMetrics.record("openrouter", "chat_completions", webClient.post()
+                .bodyValue(request)
+                .retrieve()
+                .bodyToMono(Map.class)
+                .switchIfEmpty(Mono.error(new IllegalStateException("Resposta vazia do OpenRouter")))))
+            // Inclui o corpo do erro na mensagem; a exceção original segue como causa (ver toolsUnsupported)
+            .onErrorMap(WebClientResponseException.class,
+                e -> new IllegalStateException(e.getMessage() + ": " + e.getResponseBodyAsString(), e))
+            .map(response -> (Map<String, Object>) response)
+            .doOnSuccess(response -> logger.debug("Sucesso com modelo: {}", model));
+    }
+}
@@ -1,5 +1,6 @@
 package com.projectmanagement.service;
 
+import com.projectmanagement.dto.ProjectSummary;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.ProjectStatus;
 import com.projectmanagement.model.User;
@@ -43,6 +44,14 @@ public class ProjectService {
         return projectRepository.findProjectsByUserIdIncludingCreated(userId);
     }
 
+    public List<ProjectSummary> getProjectSummariesByUser(Long userId) {
+        return projectRepository.findSummariesByUserId(userId);
+    }
+
+    public boolean isProjectVisibleToUser(Long projectId, Long userId) {
+        return projectRepository.existsVisibleToUser(projectId, userId);
+    }
+
     public List<Project> searchProjectsByName(String name) {
         return projectRepository.findByNameContaining(name);
     }
@@ -1,5 +1,6 @@
 package com.projectmanagement.service;
 
+import com.projectmanagement.dto.TaskSummary;
 import com.projectmanagement.model.Task;
 import com.projectmanagement.model.TaskStatus;
 import com.projectmanagement.model.User;
@@ -51,6 +52,18 @@ public class TaskService {
         return taskRepository.findByProjectIdOrderByStatusAndPriority(projectId);
     }
 
+    public List<TaskSummary> getTaskSummariesByProject(Long projectId) {
+        return taskRepository.findSummariesByProjectId(projectId);
+    }
+
+    public List<TaskSummary> getTaskSummariesByUserProjects(Long userId) {
+        return taskRepository.findSummariesByUserProjects(userId);
+    }
+
+    public Optional<Long> getProjectIdOfTask(Long taskId) {
+        return taskRepository.findProjectIdById(taskId);
+    }
+
     public List<Task> getTasksByAssignedUser(User assignedUser) {
         return taskRepository.findByAssignedUser(assignedUser);
     }
@@ -85,6 +98,20 @@ public class TaskService {
         return taskRepository.save(task);
     }
 
+    /**
+     * Atualiza apenas os campos informados (não nulos), preservando os demais
+     */
+    public Task patchTask(Long id, String title, String description, String status) {
+        Task task = taskRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
+
+        if (title != null) task.setTitle(title);
+        if (description != null) task.setDescription(description);
+        if (status != null) task.setStatus(status);
+
+        return taskRepository.save(task);
+    }
+
     public Task updateTaskStatus(Long id, String status) {
         Task task = taskRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Task not found with id: " + id));
@@ -1,7 +1,14 @@
 package com.projectmanagement.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.memory.ConversationMemory;
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.OutboundResilience;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
@@ -13,20 +20,33 @@ import java.util.*;
 /**
  * Serviço para integração com Zep Memory
  * Gerencia contexto conversacional e memória de longo prazo
+ *
+ * Escritas são fire-and-forget; leituras têm variante Async (Mono) para
+ * permitir buscas em paralelo no caminho do chat.
+ * Implementação padrão de ConversationMemory (chat.memory.provider=zep).
  */
 @Service
-public class ZepMemoryService {
+@ConditionalOnProperty(name = "chat.memory.provider", havingValue = "zep", matchIfMissing = true)
+public class ZepMemoryService implements ConversationMemory {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZepMemoryService.class);
 
-    private static final String ZEP_API_URL = "https://api.getzep.com";
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboundMetrics outboundMetrics;
+
+    @Autowired
+    private OutboundResilience resilience;
     
     @Value("${zep.api.key:}")
     private String zepApiKey;
 
-    public ZepMemoryService() {
-        this.webClient = WebClient.builder()
-            .baseUrl(ZEP_API_URL)
+    public ZepMemoryService(WebClient.Builder webClientBuilder,
+                            @Value("${zep.api.base-url:https://api.getzep.com}") String baseUrl) {
+        this.webClient = webClientBuilder
+            .baseUrl(baseUrl)
             .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
             .build();
         this.objectMapper = new ObjectMapper();
@@ -35,6 +55,7 @@ public class ZepMemoryService {
     /**
      * Adiciona uma mensagem à sessão de memória
      */
+    @Override
     public void addMessage(String sessionId, String role, String content, Map<String, Object> metadata) {
         try {
             Map<String, Object> message = new HashMap<>();
@@ -45,28 +66,25 @@ public class ZepMemoryService {
             Map<String, Object> request = new HashMap<>();
             request.put("messages", Arrays.asList(message));
 
-            webClient.post()
+            resilience.decorate("zep", outboundMetrics.record("zep", "add_message", webClient.post()
                 .uri("/v2/sessions/{sessionId}/memory", sessionId)
                 .header("Authorization", "Bearer " + zepApiKey)
                 .bodyValue(request)
                 .retrieve()
-                .bodyToMono(String.class)
-                .doOnSuccess(response -> {
-                    System.out.println("✅ Zep Memory: Mensagem adicionada para sessão " + sessionId);
-                })
-                .doOnError(error -> {
-                    System.err.println("❌ Erro Zep Memory: " + error.getMessage());
-                })
+                .bodyToMono(String.class)))
+                .doOnSuccess(response -> logger.debug("Zep Memory: mensagem adicionada para sessão {}", sessionId))
+                .doOnError(error -> logger.warn("Erro Zep Memory: {}", error.getMessage()))
                 .subscribe();
 
         } catch (Exception e) {
-            System.err.println("Erro ao adicionar mensagem ao Zep: " + e.getMessage());
+            logger.warn("Erro ao adicionar mensagem ao Zep: {}", e.getMessage());
         }
     }
 
     /**
      * Adiciona contexto específico sobre tarefas e projetos
      */
+    @Override
     public void addTaskContext(String sessionId, String action, Map<String, Object> taskData) {
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("type", "task_action");
@@ -85,6 +103,7 @@ public class ZepMemoryService {
     /**
      * Adiciona contexto específico sobre projetos
      */
+    @Override
     public void addProjectContext(String sessionId, String action, Map<String, Object> projectData) {
         Map<String, Object> metadata = new HashMap<>();
         metadata.put("type", "project_action");
@@ -103,9 +122,9 @@ public class ZepMemoryService {
     /**
      * Obtém o contexto relevante para a conversa atual
      */
-    public String getRelevantContext(String sessionId, String query) {
-        try {
-            String response = webClient.get()
+    @Override
+    public Mono<String> getRelevantContextAsync(String sessionId, String query) {
+        return resilience.decorateIdempotent("zep", outboundMetrics.record("zep", "get_relevant_context", webClient.get()
                 .uri(uriBuilder -> uriBuilder
                     .path("/v2/sessions/{sessionId}/search")
                     .queryParam("text", query)
@@ -113,69 +132,55 @@ public class ZepMemoryService {
                     .build(sessionId))
                 .header("Authorization", "Bearer " + zepApiKey)
                 .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            if (response != null) {
-                return processSearchResults(response);
-            }
-
-        } catch (Exception e) {
-            System.err.println("Erro ao buscar contexto no Zep: " + e.getMessage());
-        }
-
-        return "";
+                .bodyToMono(String.class)))
+            .map(this::processSearchResults)
+            .onErrorResume(e -> {
+                logger.warn("Erro ao buscar contexto no Zep: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty("");
     }
 
     /**
      * Obtém o resumo da sessão
      */
-    public String getSessionSummary(String sessionId) {
-        try {
-            String response = webClient.get()
+    @Override
+    @SuppressWarnings("unchecked")
+    public Mono<String> getSessionSummaryAsync(String sessionId) {
+        return resilience.decorateIdempotent("zep", outboundMetrics.record("zep", "get_session_summary", webClient.get()
                 .uri("/v2/sessions/{sessionId}/summary", sessionId)
                 .header("Authorization", "Bearer " + zepApiKey)
                 .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            if (response != null) {
-                Map<String, Object> summary = objectMapper.readValue(response, Map.class);
-                return (String) summary.getOrDefault("content", "");
-            }
-
-        } catch (Exception e) {
-            System.err.println("Erro ao obter resumo da sessão: " + e.getMessage());
-        }
-
-        return "";
+                .bodyToMono(Map.class)))
+            .map(summary -> (String) ((Map<String, Object>) summary).getOrDefault("content", ""))
+            .onErrorResume(e -> {
+                logger.warn("Erro ao obter resumo da sessão: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty("");
     }
 
     /**
      * Obtém as últimas mensagens da sessão
      */
-    public List<Map<String, Object>> getRecentMessages(String sessionId, int limit) {
-        try {
-            String response = webClient.get()
+    @Override
+    @SuppressWarnings("unchecked")
+    public Mono<List<Map<String, Object>>> getRecentMessagesAsync(String sessionId, int limit) {
+        return resilience.decorateIdempotent("zep", outboundMetrics.record("zep", "get_recent_messages", webClient.get()
                 .uri(uriBuilder -> uriBuilder
                     .path("/v2/sessions/{sessionId}/memory")
                     .queryParam("limit", limit)
                     .build(sessionId))
                 .header("Authorization", "Bearer " + zepApiKey)
                 .retrieve()
-                .bodyToMono(String.class)
-                .block();
-
-            if (response != null) {
-                Map<String, Object> data = objectMapper.readValue(response, Map.class);
-                return (List<Map<String, Object>>) data.getOrDefault("messages", new ArrayList<>());
-            }
-
-        } catch (Exception e) {
-            System.err.println("Erro ao obter mensagens recentes: " + e.getMessage());
-        }
-
-        return new ArrayList<>();
+                .bodyToMono(Map.class)))
+            .map(data -> (List<Map<String, Object>>) ((Map<String, Object>) data)
+                .getOrDefault("messages", new ArrayList<>()))
+            .onErrorResume(e -> {
+                logger.warn("Erro ao obter mensagens recentes: {}", e.getMessage());
+                return Mono.empty();
+            })
+            .defaultIfEmpty(new ArrayList<>());
     }
 
     /**
@@ -208,7 +213,7 @@ public class ZepMemoryService {
             return context.toString();
 
         } catch (Exception e) {
-            System.err.println("Erro ao processar resultados da busca: " + e.getMessage());
+            logger.warn("Erro ao processar resultados da busca: {}", e.getMessage());
             return "";
         }
     }
@@ -216,6 +221,7 @@ public class ZepMemoryService {
     /**
      * Cria ou atualiza uma sessão
      */
+    @Override
     public void createOrUpdateSession(String sessionId, String userId) {
         try {
             Map<String, Object> sessionData = new HashMap<>();
@@ -226,50 +232,43 @@ public class ZepMemoryService {
                 "application", "project-management-mcp"
             ));
 
-            webClient.post()
+            resilience.decorate("zep", outboundMetrics.record("zep", "create_or_update_session", webClient.post()
                 .uri("/v2/sessions")
                 .header("Authorization", "Bearer " + zepApiKey)
                 .bodyValue(sessionData)
                 .retrieve()
-                .bodyToMono(String.class)
-                .doOnSuccess(response -> {
-                    System.out.println("✅ Zep Memory: Sessão criada/atualizada " + sessionId);
-                })
-                .doOnError(error -> {
-                    System.err.println("❌ Erro ao criar sessão Zep: " + error.getMessage());
-                })
+                .bodyToMono(String.class)))
+                .doOnSuccess(response -> logger.debug("Zep Memory: sessão criada/atualizada {}", sessionId))
+                .doOnError(error -> logger.warn("Erro ao criar sessão Zep: {}", error.getMessage()))
                 .subscribe();
 
         } catch (Exception e) {
-            System.err.println("Erro ao criar/atualizar sessão: " + e.getMessage());
+            logger.warn("Erro ao criar/atualizar sessão: {}", e.getMessage());
         }
     }
 
     /**
      * Adiciona fatos estruturados sobre o contexto atual
      */
+    @Override
     public void addFact(String sessionId, String fact, Map<String, Object> metadata) {
         try {
             Map<String, Object> factData = new HashMap<>();
             factData.put("fact", fact);
             factData.put("metadata", metadata);
 
-            webClient.post()
+            resilience.decorate("zep", outboundMetrics.record("zep", "add_fact", webClient.post()
                 .uri("/v2/sessions/{sessionId}/facts", sessionId)
                 .header("Authorization", "Bearer " + zepApiKey)
                 .bodyValue(factData)
                 .retrieve()
-                .bodyToMono(String.class)
-                .doOnSuccess(response -> {
-                    System.out.println("✅ Zep Memory: Fato adicionado - " + fact);
-                })
-                .doOnError(error -> {
-                    System.err.println("❌ Erro ao adicionar fato: " + error.getMessage());
-                })
+                .bodyToMono(String.class)))
+                .doOnSuccess(response -> logger.debug("Zep Memory: fato adicionado - {}", fact))
+                .doOnError(error -> logger.warn("Erro ao adicionar fato: {}", error.getMessage()))
                 .subscribe();
 
         } catch (Exception e) {
-            System.err.println("Erro ao adicionar fato: " + e.getMessage());
+            logger.warn("Erro ao adicionar fato: {}", e.getMessage());
         }
     }
 }
@@ -0,0 +1,57 @@
+package com.projectmanagement.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Scope;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Span por chamada de repositório Spring Data (ex.: "TaskRepository.findByProjectId").
+ * Só cria spans quando já existe um trace ativo, evitando traces órfãos de jobs internos.
+ */
+@Aspect
+@Component
+public class RepositoryTracingAspect {
+
+    private final Tracer tracer;
+
+    public RepositoryTracingAspect(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+    public Object traceRepositoryCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!Span.current().getSpanContext().isValid()) {
+            return joinPoint.proceed();
+        }
+
+        Span span = tracer.spanBuilder(repositoryName(joinPoint) + "." + joinPoint.getSignature().getName())
+            .setAttribute("db.system", "h2")
+            .startSpan();
+        try (Scope ignored = span.makeCurrent()) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        Class<?>[] interfaces = joinPoint.getThis() != null
+            ? joinPoint.getThis().getClass().getInterfaces()
+            : new Class<?>[0];
+        for (Class<?> type : interfaces) {
+            if (type.getName().startsWith("com.projectmanagement")) {
+                return type.getSimpleName();
+            }
+        }
+        return joinPoint.getSignature().getDeclaringType().getSimpleName();
+    }
+}
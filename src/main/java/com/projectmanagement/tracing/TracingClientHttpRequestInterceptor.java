@@ -0,0 +1,58 @@
+package com.projectmanagement.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+
+/**
+ * Cria um span CLIENT por chamada do RestTemplate e propaga o cabeçalho traceparent
+ */
+public class TracingClientHttpRequestInterceptor implements ClientHttpRequestInterceptor {
+
+    private final Tracer tracer;
+    private final ContextPropagators propagators;
+
+    public TracingClientHttpRequestInterceptor(Tracer tracer, ContextPropagators propagators) {
+        this.tracer = tracer;
+        this.propagators = propagators;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        Span span = tracer.spanBuilder("HTTP " + request.getMethodValue() + " " + request.getURI().getHost())
+            .setSpanKind(SpanKind.CLIENT)
+            .setAttribute("http.method", request.getMethodValue())
+            .setAttribute("net.peer.name", request.getURI().getHost())
+            .setAttribute("http.target", request.getURI().getPath())
+            .startSpan();
+
+        try (Scope ignored = span.makeCurrent()) {
+            propagators.getTextMapPropagator().inject(Context.current(), request,
+                (carrier, key, value) -> carrier.getHeaders().set(key, value));
+
+            ClientHttpResponse response = execution.execute(request, body);
+            span.setAttribute("http.status_code", response.getRawStatusCode());
+            if (response.getRawStatusCode() >= 400) {
+                span.setStatus(StatusCode.ERROR);
+            }
+            return response;
+        } catch (IOException | RuntimeException e) {
+            span.recordException(e);
+            span.setStatus(StatusCode.ERROR);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
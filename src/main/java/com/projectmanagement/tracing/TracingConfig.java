@@ -0,0 +1,98 @@
+package com.projectmanagement.tracing;
+
+import io.opentelemetry.api.OpenTelemetry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.api.trace.propagation.W3CTraceContextPropagator;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import io.opentelemetry.sdk.OpenTelemetrySdk;
+import io.opentelemetry.sdk.resources.Resource;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.SdkTracerProviderBuilder;
+import io.opentelemetry.sdk.trace.export.BatchSpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import io.opentelemetry.sdk.trace.samplers.Sampler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Configuração de tracing com OpenTelemetry.
+ * Sem exportador configurado o tracer é no-op (custo praticamente zero).
+ *
+ * tracing.exporter=file grava spans em JSON Lines para análise offline;
+ * testes podem registrar um InMemorySpanExporter como bean.
+ */
+@Configuration
+public class TracingConfig {
+
+    public static final String INSTRUMENTATION_NAME = "com.projectmanagement";
+
+    @Bean
+    @ConditionalOnProperty(name = "tracing.exporter", havingValue = "file")
+    public SpanExporter fileSpanExporter(@Value("${tracing.file.path:traces/spans.jsonl}") String path) {
+        return new FileSpanExporter(Paths.get(path));
+    }
+
+    @Bean
+    public OpenTelemetry openTelemetry(ObjectProvider<SpanExporter> exporters,
+                                       @Value("${tracing.sampling-ratio:1.0}") double samplingRatio) {
+        List<SpanExporter> configured = exporters.orderedStream().collect(Collectors.toList());
+        if (configured.isEmpty()) {
+            return OpenTelemetry.noop();
+        }
+
+        SdkTracerProviderBuilder providerBuilder = SdkTracerProvider.builder()
+            .setResource(Resource.getDefault().merge(Resource.create(
+                Attributes.of(AttributeKey.stringKey("service.name"), "project-management"))))
+            .setSampler(Sampler.parentBased(Sampler.traceIdRatioBased(samplingRatio)));
+        for (SpanExporter exporter : configured) {
+            providerBuilder.addSpanProcessor(BatchSpanProcessor.builder(exporter).build());
+        }
+
+        return OpenTelemetrySdk.builder()
+            .setTracerProvider(providerBuilder.build())
+            .setPropagators(ContextPropagators.create(W3CTraceContextPropagator.getInstance()))
+            .build();
+    }
+
+    @Bean
+    public Tracer tracer(OpenTelemetry openTelemetry) {
+        return openTelemetry.getTracer(INSTRUMENTATION_NAME);
+    }
+
+    /**
+     * Aplica o filtro de tracing a todo WebClient criado a partir do WebClient.Builder do Spring
+     */
+    @Bean
+    public WebClientCustomizer tracingWebClientCustomizer(Tracer tracer, OpenTelemetry openTelemetry) {
+        return builder -> builder.filter(new TracingExchangeFilterFunction(tracer, openTelemetry.getPropagators()));
+    }
+
+    /**
+     * Aplica o interceptor de tracing a todo RestTemplate criado a partir do RestTemplateBuilder
+     */
+    @Bean
+    public RestTemplateCustomizer tracingRestTemplateCustomizer(Tracer tracer, OpenTelemetry openTelemetry) {
+        return restTemplate -> restTemplate.getInterceptors()
+            .add(new TracingClientHttpRequestInterceptor(tracer, openTelemetry.getPropagators()));
+    }
+
+    /**
+     * Propaga contexto de trace e MDC para o executor padrão do Spring (@Async, tarefas)
+     */
+    @Bean
+    public TaskDecorator contextPropagatingTaskDecorator() {
+        return new ContextPropagatingTaskDecorator();
+    }
+}
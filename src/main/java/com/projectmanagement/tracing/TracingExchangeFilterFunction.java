@@ -0,0 +1,61 @@
+package com.projectmanagement.tracing;
+
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.SpanKind;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.propagation.ContextPropagators;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Cria um span CLIENT por requisição do WebClient e propaga o cabeçalho traceparent.
+ * O contexto pai é capturado na assinatura (thread que chama block()/subscribe()).
+ */
+public class TracingExchangeFilterFunction implements ExchangeFilterFunction {
+
+    private final Tracer tracer;
+    private final ContextPropagators propagators;
+
+    public TracingExchangeFilterFunction(Tracer tracer, ContextPropagators propagators) {
+        this.tracer = tracer;
+        this.propagators = propagators;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Span span = tracer.spanBuilder("HTTP " + request.method().name() + " " + request.url().getHost())
+                .setSpanKind(SpanKind.CLIENT)
+                .setAttribute("http.method", request.method().name())
+                .setAttribute("net.peer.name", request.url().getHost())
+                .setAttribute("http.target", request.url().getPath())
+                .startSpan();
+
+            ClientRequest.Builder traced = ClientRequest.from(request);
+            propagators.getTextMapPropagator().inject(Context.current().with(span), traced,
+                (carrier, key, value) -> carrier.header(key, value));
+
+            return next.exchange(traced.build())
+                .doOnSuccess(response -> {
+                    if (response != null) {
+                        span.setAttribute("http.status_code", response.rawStatusCode());
+                        if (response.rawStatusCode() >= 400) {
+                            span.setStatus(StatusCode.ERROR);
+                        }
+                    }
+                    span.end();
+                })
+                .doOnError(error -> {
+                    span.recordException(error);
+                    span.setStatus(StatusCode.ERROR);
+                    span.end();
+                })
+                .doOnCancel(span::end);
+        });
+    }
+}
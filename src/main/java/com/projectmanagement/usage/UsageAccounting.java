@@ -0,0 +1,302 @@
+package com.projectmanagement.usage;
+
+import com.projectmanagement.model.UsageRollup;
+import com.projectmanagement.repository.UsageRollupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Contabilidade de tokens de IA por usuário e dia (UTC), com cota e limite de turnos.
+ *
+ * - cada resposta do modelo soma seus campos de usage em contadores LongAdder (sem lock
+ *   no caminho do chat, mesmo com muitos turnos em paralelo)
+ * - a cada usage.flush-interval-ms os deltas ainda não gravados viram um lote de upserts em
+ *   ai_usage_rollups, numa transação; se a gravação falhar o delta fica para o próximo lote
+ * - antes de um turno: usage.quota.daily-tokens (0 = sem cota) contra o consumo do dia
+ *   (banco + o que ainda está em memória) e usage.rate-limit.turns-per-minute por usuário
+ *
+ * Tokens da cota = entrada + saída + leitura e gravação de cache de prompt.
+ * Métricas: ai.usage.tokens{provider, kind} e ai.usage.rejections{reason}.
+ */
+@Component
+public class UsageAccounting {
+
+    private static final Logger logger = LoggerFactory.getLogger(UsageAccounting.class);
+
+    private final UsageRollupRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final long dailyTokenQuota;
+    private final int turnsPerMinute;
+    private final Clock clock;
+    private final Map<DayKey, Counters> live = new ConcurrentHashMap<>();
+    private final Map<Long, TurnBucket> turnBuckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UsageAccounting(UsageRollupRepository repository, PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${usage.quota.daily-tokens:0}") long dailyTokenQuota,
+                           @Value("${usage.rate-limit.turns-per-minute:0}") int turnsPerMinute) {
+        this(repository, new TransactionTemplate(transactionManager), meterRegistry, dailyTokenQuota, turnsPerMinute,
+            Clock.systemUTC());
+    }
+
+    UsageAccounting(UsageRollupRepository repository, TransactionTemplate transactionTemplate, MeterRegistry meterRegistry,
+                    long dailyTokenQuota, int turnsPerMinute, Clock clock) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.dailyTokenQuota = dailyTokenQuota;
+        this.turnsPerMinute = turnsPerMinute;
+        this.clock = clock;
+    }
+
+    /**
+     * Verifica cota e limite de turnos antes de iniciar um turno; consome um turno do limite
+     */
+    public void checkTurnAllowed(Long userId) {
+        if (dailyTokenQuota > 0 && usedToday(userId) >= dailyTokenQuota) {
+            meterRegistry.counter("ai.usage.rejections", "reason", "daily_quota").increment();
+            throw new UsageLimitExceededException("daily_quota", untilTomorrow(),
+                "Cota diária de uso da IA atingida (" + dailyTokenQuota + " tokens)");
+        }
+        if (turnsPerMinute > 0) {
+            Duration wait = turnBuckets.computeIfAbsent(userId, id -> new TurnBucket()).tryAcquire();
+            if (wait != null) {
+                meterRegistry.counter("ai.usage.rejections", "reason", "rate_limit").increment();
+                throw new UsageLimitExceededException("rate_limit", wait,
+                    "Muitas mensagens seguidas; aguarde " + Math.max(1, wait.toSeconds()) + "s");
+            }
+        }
+    }
+
+    /**
+     * Devolve o turno consumido por {@link #checkTurnAllowed} quando o turno não chegou a
+     * ser aceito (ex.: fila de chat cheia)
+     */
+    public void refundTurn(Long userId) {
+        TurnBucket bucket = turnBuckets.get(userId);
+        if (bucket != null) {
+            bucket.refund();
+        }
+    }
+
+    /**
+     * Soma o usage de uma resposta; aceita as chaves Anthropic (input_tokens/output_tokens)
+     * e OpenAI/OpenRouter (prompt_tokens/completion_tokens)
+     */
+    public void record(Long userId, String provider, Map<?, ?> usage) {
+        if (userId == null || usage == null) {
+            return;
+        }
+        long input = tokens(usage, "input_tokens") + tokens(usage, "prompt_tokens");
+        long output = tokens(usage, "output_tokens") + tokens(usage, "completion_tokens");
+        long cacheRead = tokens(usage, "cache_read_input_tokens");
+        long cacheWrite = tokens(usage, "cache_creation_input_tokens");
+
+        Counters counters = counters(new DayKey(userId, today()));
+        counters.input.add(input);
+        counters.output.add(output);
+        counters.cacheRead.add(cacheRead);
+        counters.cacheWrite.add(cacheWrite);
+        counters.calls.increment();
+
+        meterRegistry.counter("ai.usage.tokens", "provider", provider, "kind", "input").increment(input);
+        meterRegistry.counter("ai.usage.tokens", "provider", provider, "kind", "output").increment(output);
+        meterRegistry.counter("ai.usage.tokens", "provider", provider, "kind", "cache_read").increment(cacheRead);
+        meterRegistry.counter("ai.usage.tokens", "provider", provider, "kind", "cache_write").increment(cacheWrite);
+    }
+
+    /**
+     * Tokens do usuário hoje: gravado no banco + ainda em memória
+     */
+    public long usedToday(Long userId) {
+        return counters(new DayKey(userId, today())).total();
+    }
+
+    public long getDailyTokenQuota() {
+        return dailyTokenQuota;
+    }
+
+    /**
+     * Grava em lote os deltas pendentes; dias anteriores já gravados saem da memória
+     */
+    @Scheduled(fixedDelayString = "${usage.flush-interval-ms:30000}", initialDelayString = "${usage.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        Map<DayKey, long[]> pending = new HashMap<>();
+        live.forEach((key, counters) -> {
+            long[] delta = counters.pendingDelta();
+            if (delta != null) {
+                pending.put(key, delta);
+            }
+        });
+
+        if (!pending.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(pending));
+            } catch (RuntimeException e) {
+                logger.warn("Falha ao gravar uso de IA ({} usuários/dia pendentes): {}", pending.size(), e.getMessage());
+                return;
+            }
+            pending.forEach((key, delta) -> live.get(key).markFlushed(delta));
+            logger.debug("Uso de IA gravado: {} usuários/dia", pending.size());
+        }
+
+        LocalDate today = today();
+        live.entrySet().removeIf(entry -> entry.getKey().day.isBefore(today) && entry.getValue().pendingDelta() == null);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void write(Map<DayKey, long[]> pending) {
+        Map<LocalDate, List<DayKey>> byDay = pending.keySet().stream().collect(Collectors.groupingBy(key -> key.day));
+        List<UsageRollup> batch = new ArrayList<>();
+        byDay.forEach((day, keys) -> {
+            Map<Long, UsageRollup> existing = new HashMap<>();
+            repository.findByUsageDateAndUserIdIn(day, keys.stream().map(key -> key.userId).collect(Collectors.toList()))
+                .forEach(rollup -> existing.put(rollup.getUserId(), rollup));
+            for (DayKey key : keys) {
+                UsageRollup rollup = existing.getOrDefault(key.userId, new UsageRollup(key.userId, day));
+                long[] delta = pending.get(key);
+                rollup.setInputTokens(rollup.getInputTokens() + delta[0]);
+                rollup.setOutputTokens(rollup.getOutputTokens() + delta[1]);
+                rollup.setCacheReadTokens(rollup.getCacheReadTokens() + delta[2]);
+                rollup.setCacheWriteTokens(rollup.getCacheWriteTokens() + delta[3]);
+                rollup.setCalls(rollup.getCalls() + delta[4]);
+                batch.add(rollup);
+            }
+        });
+        repository.saveAll(batch);
+    }
+
+    private Counters counters(DayKey key) {
+        Counters counters = live.get(key);
+        if (counters != null) {
+            return counters;
+        }
+        // Primeira vez no dia (ou após reinício): parte do que já está gravado
+        long baseline = repository.findByUserIdAndUsageDate(key.userId, key.day)
+            .map(UsageRollup::getTotalTokens)
+            .orElse(0L);
+        return live.computeIfAbsent(key, ignored -> new Counters(baseline));
+    }
+
+    private LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    private Duration untilTomorrow() {
+        return Duration.between(clock.instant(), today().plusDays(1).atStartOfDay(clock.getZone()).toInstant());
+    }
+
+    private static long tokens(Map<?, ?> usage, String key) {
+        Object value = usage.get(key);
+        return value instanceof Number ? ((Number) value).longValue() : 0L;
+    }
+
+    private static final class DayKey {
+        final Long userId;
+        final LocalDate day;
+
+        DayKey(Long userId, LocalDate day) {
+            this.userId = userId;
+            this.day = day;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof DayKey)) {
+                return false;
+            }
+            DayKey key = (DayKey) other;
+            return userId.equals(key.userId) && day.equals(key.day);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(userId, day);
+        }
+    }
+
+    /**
+     * Somas acumuladas (nunca zeradas, para não perder incrementos concorrentes com o flush);
+     * o já gravado fica em {@code flushed}, acessado só sob o lock do flush
+     */
+    private static final class Counters {
+        final long baseline;
+        final LongAdder input = new LongAdder();
+        final LongAdder output = new LongAdder();
+        final LongAdder cacheRead = new LongAdder();
+        final LongAdder cacheWrite = new LongAdder();
+        final LongAdder calls = new LongAdder();
+        final long[] flushed = new long[5];
+
+        Counters(long baseline) {
+            this.baseline = baseline;
+        }
+
+        long total() {
+            return baseline + input.sum() + output.sum() + cacheRead.sum() + cacheWrite.sum();
+        }
+
+        long[] pendingDelta() {
+            long[] delta = {
+                input.sum() - flushed[0], output.sum() - flushed[1], cacheRead.sum() - flushed[2],
+                cacheWrite.sum() - flushed[3], calls.sum() - flushed[4]
+            };
+            return Arrays.stream(delta).allMatch(value -> value == 0) ? null : delta;
+        }
+
+        void markFlushed(long[] delta) {
+            for (int i = 0; i < flushed.length; i++) {
+                flushed[i] += delta[i];
+            }
+        }
+    }
+
+    /**
+     * Balde de turnos por usuário: capacidade turns-per-minute, reposto continuamente
+     */
+    private final class TurnBucket {
+        private double available = turnsPerMinute;
+        private long lastRefill = clock.millis();
+
+        /**
+         * null se liberado; senão quanto esperar pelo próximo turno
+         */
+        synchronized Duration tryAcquire() {
+            long now = clock.millis();
+            double perMilli = turnsPerMinute / 60_000.0;
+            available = Math.min(turnsPerMinute, available + (now - lastRefill) * perMilli);
+            lastRefill = now;
+            if (available >= 1) {
+                available -= 1;
+                return null;
+            }
+            return Duration.ofMillis((long) Math.ceil((1 - available) / perMilli));
+        }
+
+        synchronized void refund() {
+            available = Math.min(turnsPerMinute, available + 1);
+        }
+    }
+}
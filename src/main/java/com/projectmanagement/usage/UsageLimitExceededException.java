@@ -0,0 +1,26 @@
+package com.projectmanagement.usage;
+
+import java.time.Duration;
+
+/**
+ * Turno recusado antes de começar: cota diária de tokens esgotada ou turnos por minuto acima do limite
+ */
+public class UsageLimitExceededException extends RuntimeException {
+
+    private final String reason;
+    private final Duration retryAfter;
+
+    public UsageLimitExceededException(String reason, Duration retryAfter, String message) {
+        super(message);
+        this.reason = reason;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,61 @@
+package com.projectmanagement.chat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.model.ChatSessionState;
+import com.projectmanagement.repository.ChatSessionStateRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class ChatContextStoreTest {
+
+    private final ChatSessionStateRepository repository = mock(ChatSessionStateRepository.class);
+
+    private ChatContextStore store(long maxSessions, boolean persistence) {
+        return new ChatContextStore(maxSessions, Duration.ofMinutes(30), persistence,
+            repository, new ObjectMapper(), new SimpleMeterRegistry(), Runnable::run);
+    }
+
+    @Test
+    public void testSizeBoundEvictsSessions() {
+        ChatContextStore store = store(2, false);
+        for (int i = 0; i < 50; i++) {
+            store.get("session-" + i);
+        }
+
+        assertTrue(store.size() <= 2);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    public void testChangedContextIsPersistedAndRestored() {
+        ChatContextStore store = store(100, true);
+        when(repository.findById(any())).thenReturn(Optional.empty());
+
+        ChatContext context = store.get("s1");
+        context.addTask(Map.of("id", 7, "title", "Deploy", "status", "TODO"));
+        store.save("s1", context);
+        store.save("s1", context); // sem alterações: não grava de novo
+
+        ArgumentCaptor<ChatSessionState> saved = ArgumentCaptor.forClass(ChatSessionState.class);
+        verify(repository, times(1)).save(saved.capture());
+
+        // Outra instância (cache vazio) recarrega o contexto do banco
+        ChatSessionState state = saved.getValue();
+        state.setUpdatedAt(LocalDateTime.now());
+        when(repository.findById("s1")).thenReturn(Optional.of(state));
+
+        ChatContext restored = store(100, true).get("s1");
+        assertEquals("Deploy", restored.getLastMentionedTask().get("title"));
+        assertEquals(1, restored.getRecentTasks().size());
+    }
+}
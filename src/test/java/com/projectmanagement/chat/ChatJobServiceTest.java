@@ -0,0 +1,211 @@
+package com.projectmanagement.chat;
+
+import com.projectmanagement.tracing.ContextPropagatingTaskDecorator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.context.ContextKey;
+import io.opentelemetry.context.Scope;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChatJobServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChatJobService service = new ChatJobService(new MockEnvironment()
+        .withProperty("chat.jobs.anthropic.max-concurrent", "1")
+        .withProperty("chat.jobs.anthropic.max-queued", "4")
+        .withProperty("chat.jobs.max-queued-per-user", "3"),
+        meterRegistry, runnable -> runnable);
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    public void testUsersAreServedRoundRobinWithinProviderLimit() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        ChatJob blocker = service.submit(1L, "anthropic", job -> {
+            await(release);
+            return Map.of("message", "a0");
+        });
+        ChatJob a1 = service.submit(1L, "anthropic", job -> record(order, "a1"));
+        ChatJob a2 = service.submit(1L, "anthropic", job -> record(order, "a2"));
+        ChatJob b1 = service.submit(2L, "anthropic", job -> record(order, "b1"));
+
+        assertEquals(ChatJob.Status.QUEUED, a1.getStatus());
+        assertEquals(3.0, meterRegistry.get("chat.jobs.queued").tag("provider", "anthropic").gauge().value());
+        assertEquals(1.0, meterRegistry.get("chat.jobs.running").tag("provider", "anthropic").gauge().value());
+
+        release.countDown();
+        assertEquals(Map.of("message", "a0"), blocker.completion().get(5, TimeUnit.SECONDS));
+        a2.completion().get(5, TimeUnit.SECONDS);
+
+        // b1 chegou depois de a1/a2, mas o usuário 2 é atendido antes da segunda mensagem do usuário 1
+        assertEquals(List.of("a1", "b1", "a2"), order);
+        assertEquals(ChatJob.Status.DONE, b1.getStatus());
+        assertEquals(4, meterRegistry.get("chat.jobs.wait").tag("provider", "anthropic").timer().count());
+    }
+
+    @Test
+    public void testFullQueueRejectsAndJobsAreVisibleOnlyToOwner() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        ChatJob running = service.submit(1L, "anthropic", job -> {
+            await(release);
+            return Map.of();
+        });
+        for (int i = 0; i < 3; i++) {
+            service.submit(1L, "anthropic", job -> Map.of());
+        }
+
+        assertThrows(ChatQueueFullException.class, () -> service.submit(1L, "anthropic", job -> Map.of()));
+        assertEquals(1.0, meterRegistry.get("chat.jobs.rejected").tag("reason", "user_queue_full").counter().count());
+
+        assertSame(running, service.find(running.getId(), 1L));
+        assertNull(service.find(running.getId(), 2L));
+        release.countDown();
+        running.completion().get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testQueuedAndRunningJobsDoNotExpireButFinishedOnesDo() throws Exception {
+        AtomicLong nanos = new AtomicLong();
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("chat.jobs.anthropic.max-concurrent", "1")
+            .withProperty("chat.jobs.retention", "1m");
+        environment.setConversionService(new ApplicationConversionService());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ChatJobService expiring = new ChatJobService(environment, registry, runnable -> runnable, nanos::get);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            ChatJob running = expiring.submit(1L, "anthropic", job -> {
+                await(release);
+                return Map.of();
+            });
+            ChatJob queued = expiring.submit(2L, "anthropic", job -> Map.of());
+
+            nanos.addAndGet(Duration.ofMinutes(5).toNanos());
+            assertSame(running, expiring.find(running.getId(), 1L));
+            assertSame(queued, expiring.find(queued.getId(), 2L));
+
+            release.countDown();
+            queued.completion().get(5, TimeUnit.SECONDS);
+            // A retenção começa quando o worker libera a vaga, logo depois de completar o job
+            for (int i = 0; i < 500 && registry.get("chat.jobs.running").tag("provider", "anthropic").gauge().value() > 0; i++) {
+                Thread.sleep(10);
+            }
+            nanos.addAndGet(Duration.ofSeconds(30).toNanos());
+            assertSame(queued, expiring.find(queued.getId(), 2L));
+            nanos.addAndGet(Duration.ofMinutes(2).toNanos());
+            assertNull(expiring.find(running.getId(), 1L));
+            assertNull(expiring.find(queued.getId(), 2L));
+        } finally {
+            expiring.shutdown();
+        }
+    }
+
+    @Test
+    public void testQueuedIsTheFirstEventEvenWhenAWorkerIsFree() throws Exception {
+        List<Object> stages = new CopyOnWriteArrayList<>();
+        ChatJob job = service.submit(1L, "anthropic", running -> Map.of());
+        job.completion().get(5, TimeUnit.SECONDS);
+        job.subscribe(event -> stages.add(event.get("stage")));
+        assertEquals(List.of("queued", "started", "done"), stages);
+    }
+
+    @Test
+    public void testQueuedJobRunsWithItsOwnSubmitterContext() throws Exception {
+        ChatJobService propagating = new ChatJobService(new MockEnvironment()
+            .withProperty("chat.jobs.anthropic.max-concurrent", "1"),
+            new SimpleMeterRegistry(), new ContextPropagatingTaskDecorator());
+        ContextKey<String> turn = ContextKey.named("turn");
+        Map<String, String> seen = new ConcurrentHashMap<>();
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            ChatJob first;
+            ChatJob second;
+            MDC.put("requestId", "req-A");
+            try (Scope ignored = Context.current().with(turn, "A").makeCurrent()) {
+                first = propagating.submit(1L, "anthropic", job -> {
+                    await(release);
+                    seen.put("A", MDC.get("requestId") + "/" + Context.current().get(turn));
+                    return Map.of();
+                });
+            }
+            // Fica na fila e é despachado pelo worker de A, ainda com o contexto de A ativo
+            MDC.put("requestId", "req-B");
+            try (Scope ignored = Context.current().with(turn, "B").makeCurrent()) {
+                second = propagating.submit(2L, "anthropic", job -> {
+                    seen.put("B", MDC.get("requestId") + "/" + Context.current().get(turn));
+                    return Map.of();
+                });
+            }
+            MDC.clear();
+            assertEquals(ChatJob.Status.QUEUED, second.getStatus());
+
+            release.countDown();
+            first.completion().get(5, TimeUnit.SECONDS);
+            second.completion().get(5, TimeUnit.SECONDS);
+
+            assertEquals("req-A/A", seen.get("A"));
+            assertEquals("req-B/B", seen.get("B"));
+        } finally {
+            MDC.clear();
+            propagating.shutdown();
+        }
+    }
+
+    @Test
+    public void testSubscriberGetsEveryEventOnceAndInOrder() throws Exception {
+        ChatJob job = new ChatJob(1L, "anthropic");
+        int total = 2000;
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < total; i++) {
+                job.progress("step", Map.of("n", i));
+            }
+        });
+        producer.start();
+        List<Integer> received = new CopyOnWriteArrayList<>();
+        // Inscreve no meio da produção: replay + eventos ao vivo sem duplicar nem inverter
+        while (job.view().get("progress") == null) {
+            Thread.onSpinWait();
+        }
+        job.subscribe(event -> received.add((Integer) event.get("n")));
+        producer.join();
+
+        assertFalse(received.isEmpty());
+        assertEquals(total - 1, received.get(received.size() - 1));
+        for (int i = 1; i < received.size(); i++) {
+            assertEquals(received.get(i - 1) + 1, received.get(i));
+        }
+    }
+
+    private static Map<String, Object> record(List<String> order, String name) {
+        order.add(name);
+        return Map.of("message", name);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
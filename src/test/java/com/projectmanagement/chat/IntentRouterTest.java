@@ -0,0 +1,89 @@
+package com.projectmanagement.chat;
+
+import com.projectmanagement.dto.ProjectSummary;
+import com.projectmanagement.security.UserPrincipal;
+import com.projectmanagement.service.MCPClient;
+import com.projectmanagement.service.ProjectService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class IntentRouterTest {
+
+    @Mock
+    private MCPClient mcpClient;
+
+    @Mock
+    private ProjectService projectService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private IntentRouter router;
+
+    private final UserPrincipal user = mock(UserPrincipal.class);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(router, "enabled", true);
+        when(user.getId()).thenReturn(1L);
+    }
+
+    @Test
+    public void testMoveTaskIsExecutedWithoutModel() {
+        when(mcpClient.executeTool(eq("move_task"), any(), eq(user)))
+            .thenReturn(Map.of("success", true, "message", "Tarefa 42 movida para DONE com sucesso!"));
+
+        IntentRouter.Routed routed = router.route("Mova a tarefa 42 para concluído.", user);
+
+        assertNotNull(routed);
+        assertEquals("move_task", routed.getTool());
+        assertEquals(42L, routed.getResult().get("taskId"));
+        assertTrue(routed.getReply().contains("movida para DONE"));
+        verify(mcpClient).executeTool("move_task", Map.of("taskId", 42L, "status", "DONE"), user);
+        assertEquals(1.0, meterRegistry.counter("chat.intent_router.requests", "outcome", "hit").count());
+    }
+
+    @Test
+    public void testProjectTasksResolvedByUniqueName() {
+        ProjectSummary alpha = mock(ProjectSummary.class);
+        when(alpha.getId()).thenReturn(5L);
+        when(alpha.getName()).thenReturn("Projeto Alpha");
+        ProjectSummary beta = mock(ProjectSummary.class);
+        when(beta.getId()).thenReturn(6L);
+        when(beta.getName()).thenReturn("Beta");
+        when(projectService.getProjectSummariesByUser(1L)).thenReturn(List.of(alpha, beta));
+        when(mcpClient.executeTool(eq("list_tasks"), eq(Map.of("projectId", 5L)), eq(user)))
+            .thenReturn(Map.of("success", true, "count", 1,
+                "tasks", List.of(Map.of("id", 9, "title", "Deploy", "status", "BACKLOG"))));
+
+        IntentRouter.Routed routed = router.route("mostre as tarefas do projeto alpha", user);
+
+        assertNotNull(routed);
+        assertTrue(routed.getReply().contains("#9 Deploy [BACKLOG]"));
+    }
+
+    @Test
+    public void testAmbiguousOrFreeFormMessagesFallBackToModel() {
+        assertNull(router.route("mova a tarefa 42 para o projeto Beta", user));
+        assertNull(router.route("crie uma tarefa de deploy no projeto Alpha", user));
+        assertNull(router.route("mostre as tarefas do projeto Gama", user));
+
+        verify(mcpClient, never()).executeTool(anyString(), any(), any());
+        assertEquals(3.0, meterRegistry.counter("chat.intent_router.requests", "outcome", "miss").count());
+    }
+}
@@ -0,0 +1,68 @@
+package com.projectmanagement.chat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelTieringTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ModelTiering tiering = new ModelTiering(new MockEnvironment()
+        .withProperty("chat.tiering.fast.model", "fast-model")
+        .withProperty("chat.tiering.strong.provider", "openrouter")
+        .withProperty("chat.tiering.strong.model", "strong-model"),
+        meterRegistry);
+
+    @Test
+    public void testIterationsAreClassifiedAndRouted() {
+        ModelTiering.Decision lookup = tiering.decide(0, "liste minhas tarefas", List.of(), null);
+        assertEquals(ModelTiering.Stage.TOOL_SELECTION, lookup.getStage());
+        assertEquals(ModelTiering.Tier.FAST, lookup.getTier());
+        assertEquals("fast-model", lookup.getModel());
+
+        ModelTiering.Decision chained = tiering.decide(0, "crie a tarefa Deploy e depois mova para concluído", List.of(), null);
+        assertEquals(ModelTiering.Tier.STRONG, chained.getTier());
+        assertEquals("openrouter", chained.getProvider());
+
+        ModelTiering.Decision freeForm = tiering.decide(0,
+            "Como devo organizar a priorização do meu trabalho na próxima semana?", List.of(), null);
+        assertEquals(ModelTiering.Stage.ANSWER, freeForm.getStage());
+        assertEquals(ModelTiering.Tier.STRONG, freeForm.getTier());
+        assertEquals(ModelTiering.Tier.FAST, tiering.decide(0, "obrigado!", List.of(), null).getTier());
+
+        List<Map<String, Object>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "tool", "content", "{\"success\":true,\"tasks\":[]}"));
+        ModelTiering.Decision summary = tiering.decide(1, "liste minhas tarefas", messages, lookup);
+        assertEquals(ModelTiering.Stage.SUMMARIZATION, summary.getStage());
+        assertEquals(ModelTiering.Tier.FAST, summary.getTier());
+
+        messages.add(Map.of("role", "tool", "content", "{\"success\":false,\"error\":\"Projeto não encontrado\"}"));
+        assertEquals("tool_error", tiering.decide(1, "liste minhas tarefas", messages, lookup).getReason());
+        // Turno que começou no tier forte não volta para o rápido
+        assertEquals(ModelTiering.Tier.STRONG, tiering.decide(1, "x", List.of(), chained).getTier());
+    }
+
+    @Test
+    public void testDashboardReportsLatencyTokensAndCostPerTier() {
+        ModelTiering.Decision fast = tiering.decide(0, "liste meus projetos", List.of(), null);
+        tiering.record(fast, TimeUnit.MILLISECONDS.toNanos(200), Map.of("input_tokens", 1_000_000, "output_tokens", 0));
+        tiering.record(tiering.escalate(fast), TimeUnit.MILLISECONDS.toNanos(900), Map.of("prompt_tokens", 100));
+
+        List<Map<String, Object>> dashboard = tiering.dashboard();
+        Map<String, Object> fastRow = dashboard.get(0);
+        assertEquals("fast", fastRow.get("tier"));
+        assertEquals(1L, fastRow.get("calls"));
+        assertEquals(1_000_000L, fastRow.get("inputTokens"));
+        assertEquals(0.8, (Double) fastRow.get("estimatedCostUsd"), 1e-9);
+        assertEquals(1L, dashboard.get(1).get("calls"));
+        assertEquals(1L, meterRegistry.get("chat.model.tier.latency").tag("tier", "strong").tag("stage", "tool_selection")
+            .timer().count());
+    }
+}
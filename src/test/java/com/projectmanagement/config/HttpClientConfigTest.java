@@ -0,0 +1,102 @@
+package com.projectmanagement.config;
+
+import com.projectmanagement.support.FaultInjectingServer;
+import io.netty.handler.timeout.ReadTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class HttpClientConfigTest {
+
+    private FaultInjectingServer server;
+    private ConnectionProvider provider;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new FaultInjectingServer();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (provider != null) {
+            provider.dispose();
+        }
+        server.close();
+    }
+
+    @Test
+    public void testSlowReplyWithinResponseTimeoutIsNotCutAtTheSocket() {
+        server.enqueue(200, 1500, "{\"ok\":true}");
+        WebClient client = client(config(10, Duration.ofSeconds(5), Duration.ofSeconds(3)));
+
+        assertEquals("{\"ok\":true}", client.get().uri("/slow").retrieve().bodyToMono(String.class).block());
+    }
+
+    @Test
+    public void testReplySlowerThanResponseTimeoutFails() {
+        server.enqueue(200, 2000, "{}");
+        WebClient client = client(config(10, Duration.ofSeconds(5), Duration.ofMillis(300)));
+
+        WebClientRequestException error = assertThrows(WebClientRequestException.class,
+            () -> client.get().uri("/slow").retrieve().bodyToMono(String.class).block());
+        assertTrue(error.getCause() instanceof ReadTimeoutException, String.valueOf(error.getCause()));
+    }
+
+    @Test
+    public void testPoolIsLimitedPerHostAndPendingAcquireTimesOut() {
+        server.respondByDefault(200, 1000, "{}");
+        HttpClientConfig config = config(1, Duration.ofMillis(200), Duration.ofSeconds(5));
+        WebClient client = client(config);
+        assertEquals(1, provider.maxConnections());
+
+        Mono<String> first = client.get().uri("/a").retrieve().bodyToMono(String.class);
+        Mono<String> second = client.get().uri("/b").retrieve().bodyToMono(String.class)
+            .delaySubscription(Duration.ofMillis(100));
+
+        Exception error = assertThrows(Exception.class, () -> Mono.zip(first, second).block());
+        assertTrue(hasCause(error, PoolAcquireTimeoutException.class), String.valueOf(error));
+        assertEquals(1, server.requestCount());
+    }
+
+    private HttpClientConfig config(int maxConnections, Duration pendingAcquireTimeout, Duration responseTimeout) {
+        HttpClientConfig config = new HttpClientConfig();
+        ReflectionTestUtils.setField(config, "maxConnections", maxConnections);
+        ReflectionTestUtils.setField(config, "pendingAcquireMaxCount", 10);
+        ReflectionTestUtils.setField(config, "pendingAcquireTimeout", pendingAcquireTimeout);
+        ReflectionTestUtils.setField(config, "maxIdleTime", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(config, "maxLifeTime", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(config, "connectTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "writeTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(config, "responseTimeout", responseTimeout);
+        ReflectionTestUtils.setField(config, "compress", true);
+        ReflectionTestUtils.setField(config, "http2", false);
+        return config;
+    }
+
+    private WebClient client(HttpClientConfig config) {
+        provider = config.outboundConnectionProvider();
+        return WebClient.builder()
+            .baseUrl(server.baseUrl())
+            .clientConnector(config.outboundClientHttpConnector(config.outboundHttpClient(provider)))
+            .build();
+    }
+
+    private static boolean hasCause(Throwable error, Class<? extends Throwable> type) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,79 @@
+package com.projectmanagement.datagen;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class DatasetGeneratorTest {
+
+    private static final String[] TABLES = {"meeting_actions", "meeting_decisions", "meeting_participants",
+        "meeting_minutes", "meeting_records", "task_checklist_items", "task_comments", "tasks", "task_columns",
+        "project_access", "project_users", "projects", "users"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    public void clear() {
+        for (String table : TABLES) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+    }
+
+    @Test
+    public void testSameSeedProducesSameDatasetAndRowCountsMatchTheDatabase() {
+        DatasetGenerator.Result first = generator(7).generate();
+        for (String table : TABLES) {
+            Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+            assertEquals(first.getRows().get(table), count, table);
+        }
+        assertEquals(2000L, first.getRows().get("tasks"));
+        assertEquals(5L * 20, first.getRows().get("task_columns"));
+        assertEquals(20L, jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM project_access WHERE role = 'OWNER'", Long.class));
+
+        // Outra execução no mesmo banco com ids novos: mesma massa, mesma impressão digital
+        clear();
+        DatasetGenerator.Result second = generator(7).generate();
+        assertEquals(first.getRows(), second.getRows());
+        assertEquals(first.getFingerprint(), second.getFingerprint());
+
+        clear();
+        assertNotEquals(first.getFingerprint(), generator(8).generate().getFingerprint());
+    }
+
+    @Test
+    public void testProjectSizesFollowTheSkewAndAddUpToTheTotal() {
+        int[] sizes = DatasetGenerator.projectSizes(100, 10_000, 1.1, new SplittableRandom(1));
+        assertEquals(10_000, Arrays.stream(sizes).sum());
+
+        int[] sorted = sizes.clone();
+        Arrays.sort(sorted);
+        int topTen = Arrays.stream(sorted, 90, 100).sum();
+        assertTrue(topTen > 5_000, "os 10% maiores projetos deveriam ter mais da metade das tarefas: " + topTen);
+        assertArrayEquals(sizes, DatasetGenerator.projectSizes(100, 10_000, 1.1, new SplittableRandom(1)));
+    }
+
+    private DatasetGenerator generator(long seed) {
+        DatasetGenerator.Spec spec = new DatasetGenerator.Spec(seed, "dgtest", 50, 20, 2000, 1.1, 0.8, 4, 2, 1.5,
+            2, 1, null, LocalDateTime.of(2024, 1, 1, 0, 0), 365, 100);
+        return new DatasetGenerator(jdbcTemplate, new TransactionTemplate(transactionManager), null, spec);
+    }
+}
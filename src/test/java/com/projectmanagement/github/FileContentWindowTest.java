@@ -0,0 +1,70 @@
+package com.projectmanagement.github;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileContentWindowTest {
+
+    private static boolean feed(FileContentWindow window, String text, int chunkSize) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            int length = Math.min(chunkSize, bytes.length - offset);
+            if (window.feed(ByteBuffer.wrap(bytes, offset, length))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testWholeSmallFileIsComplete() {
+        FileContentWindow window = FileContentWindow.lines(1, 0, 1024);
+        assertFalse(feed(window, "a\nb\nc\n", 2));
+
+        Map<String, Object> result = window.result(true);
+        assertEquals("a\nb\nc\n", result.get("content"));
+        assertEquals(3, result.get("total_lines"));
+        assertEquals(false, result.get("truncated"));
+    }
+
+    @Test
+    public void testLineRangeStopsReadingEarly() {
+        FileContentWindow window = FileContentWindow.lines(2, 3, 1024);
+        assertTrue(feed(window, "l1\nl2\nl3\nl4\nl5\n", 3));
+
+        Map<String, Object> result = window.result(false);
+        assertEquals("l2\nl3\n", result.get("content"));
+        assertEquals(2, result.get("start_line"));
+        assertEquals(3, result.get("end_line"));
+        assertNull(result.get("total_lines"));
+        assertEquals(true, result.get("truncated"));
+        assertTrue((Long) result.get("bytes_read") < 15);
+    }
+
+    @Test
+    public void testTailKeepsLastLinesOnly() {
+        FileContentWindow window = FileContentWindow.tail(2, 1024);
+        feed(window, "l1\nl2\nl3\nl4", 4);
+
+        Map<String, Object> result = window.result(true);
+        assertEquals("l3\nl4", result.get("content"));
+        assertEquals(3, result.get("start_line"));
+        assertEquals(4, result.get("total_lines"));
+        assertEquals(true, result.get("truncated"));
+    }
+
+    @Test
+    public void testByteCapDoesNotSplitMultibyteCharacter() {
+        FileContentWindow window = FileContentWindow.lines(1, 0, 4);
+        assertTrue(feed(window, "ação e mais texto", 64));
+
+        Map<String, Object> result = window.result(false);
+        assertEquals("aç", result.get("content"));
+        assertEquals(true, result.get("truncated"));
+    }
+}
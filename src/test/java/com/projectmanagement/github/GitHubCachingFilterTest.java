@@ -0,0 +1,101 @@
+package com.projectmanagement.github;
+
+import com.projectmanagement.support.FaultInjectingServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GitHubCachingFilterTest {
+
+    private FaultInjectingServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private GitHubResponseCache cache;
+    private WebClient webClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FaultInjectingServer();
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new GitHubResponseCache(1024 * 1024, 100, meterRegistry);
+        GitHubRateLimiter rateLimiter = new GitHubRateLimiter(10, Duration.ofMillis(100), meterRegistry);
+        webClient = WebClient.builder()
+            .baseUrl(server.baseUrl())
+            .defaultHeader("Authorization", "Bearer test-token")
+            .filter(new GitHubCachingFilter(cache, rateLimiter))
+            .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private String getRepo() {
+        return webClient.get().uri("/repos/acme/app").retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void testNotModifiedIsServedFromCache() {
+        server.enqueue(200, 0, "{\"name\":\"app\"}", Map.of("ETag", "\"v1\""))
+            .enqueue(304, 0, "", Map.of("ETag", "\"v1\""));
+
+        assertEquals("{\"name\":\"app\"}", getRepo());
+        assertEquals("{\"name\":\"app\"}", getRepo());
+
+        assertEquals(2, server.requestCount());
+        assertEquals("\"v1\"", server.lastRequestHeader("If-None-Match"));
+        assertEquals(1.0, meterRegistry.counter("github.cache.requests", "result", "revalidated").count());
+    }
+
+    @Test
+    public void testChangedResourceReplacesCacheEntry() {
+        server.enqueue(200, 0, "{\"v\":1}", Map.of("ETag", "\"v1\""))
+            .enqueue(200, 0, "{\"v\":2}", Map.of("ETag", "\"v2\""))
+            .enqueue(304, 0, "", Map.of());
+
+        getRepo();
+        assertEquals("{\"v\":2}", getRepo());
+        assertEquals("{\"v\":2}", getRepo());
+        assertEquals("\"v2\"", server.lastRequestHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testExhaustedQuotaServesCachedCopyWithoutNetwork() {
+        String reset = String.valueOf(Instant.now().plusSeconds(3600).getEpochSecond());
+        server.enqueue(200, 0, "{\"name\":\"app\"}", Map.of(
+            "ETag", "\"v1\"", "X-RateLimit-Remaining", "0", "X-RateLimit-Reset", reset));
+
+        getRepo();
+        assertEquals("{\"name\":\"app\"}", getRepo());
+
+        assertEquals(1, server.requestCount());
+        assertThrows(GitHubRateLimitException.class, () -> webClient.get().uri("/repos/acme/other")
+            .retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    public void testCacheEvictsLeastRecentlyUsedWhenOverBudget() {
+        GitHubResponseCache small = new GitHubResponseCache(2500, 100, meterRegistry);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"x\"");
+        String body = "x".repeat(400);
+
+        small.put("a", body, headers);
+        small.put("b", body, headers);
+        small.get("a");
+        small.put("c", body, headers);
+
+        assertNotNull(small.get("a"));
+        assertNull(small.get("b"));
+        assertTrue(small.currentBytes() <= 2500);
+    }
+}
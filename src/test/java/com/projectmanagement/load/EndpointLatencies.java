@@ -0,0 +1,52 @@
+package com.projectmanagement.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latências por endpoint (µs) em Recorders do HdrHistogram: gravação sem lock a partir de várias
+ * threads; {@link #drain()} devolve o intervalo desde a última leitura e zera.
+ */
+final class EndpointLatencies {
+
+    private static final long HIGHEST_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+
+    void record(String endpoint, long nanos) {
+        long micros = Math.min(Math.max(TimeUnit.NANOSECONDS.toMicros(nanos), 1), HIGHEST_MICROS);
+        recorders.computeIfAbsent(endpoint, name -> new Recorder(HIGHEST_MICROS, 3)).recordValue(micros);
+    }
+
+    void error(String endpoint) {
+        errors.computeIfAbsent(endpoint, name -> new LongAdder()).increment();
+    }
+
+    /**
+     * Histogramas do intervalo (com timestamps de início/fim) e erros do intervalo, por endpoint
+     */
+    Interval drain() {
+        Map<String, Histogram> histograms = new TreeMap<>();
+        recorders.forEach((endpoint, recorder) -> histograms.put(endpoint, recorder.getIntervalHistogram()));
+        Map<String, Long> errorCounts = new TreeMap<>();
+        errors.forEach((endpoint, count) -> errorCounts.put(endpoint, count.sumThenReset()));
+        return new Interval(histograms, errorCounts);
+    }
+
+    static final class Interval {
+        final Map<String, Histogram> histograms;
+        final Map<String, Long> errors;
+
+        Interval(Map<String, Histogram> histograms, Map<String, Long> errors) {
+            this.histograms = histograms;
+            this.errors = errors;
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.projectmanagement.load;
+
+import com.projectmanagement.support.RecordReplayServer;
+import com.projectmanagement.support.StubbedApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Teste de carga da API HTTP com mix realista de kanban e chat. Fora do mvn test normal; rodar com:
+ *
+ *   mvn -Pload test -Dload.users=50 -Dload.duration=2m
+ *   mvn -Pload test -Dload.model=open -Dload.rates=20,40,80,160 -Dload.baseline=target/load-results/anterior
+ *
+ * Sem load.base-url sobe a aplicação em processo (H2 em memória, sem limites de uso de IA) com as
+ * integrações no RecordReplayServer, então o chat usa o modelo gravado. Modelo fechado: load.users
+ * usuários alternando ação e tempo de pensar. Modelo aberto: chegadas de Poisson na taxa de cada
+ * degrau, independentes das respostas, até sair do SLO; a vazão do último degrau dentro do SLO é a
+ * vazão na saturação. Opções em {@link LoadOptions}; saída em {@link LoadReport}.
+ */
+public class KanbanLoadSimulation {
+
+    @Test
+    public void run() throws Exception {
+        LoadOptions options = LoadOptions.fromEnvironment();
+        System.out.println("Teste de carga: " + options);
+
+        RecordReplayServer stub = null;
+        ConfigurableApplicationContext application = null;
+        String baseUrl = options.baseUrl;
+        if (baseUrl == null) {
+            stub = new RecordReplayServer(RecordReplayServer.Options.fromEnvironment());
+            application = StubbedApplication.run(stub,
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:load;DB_CLOSE_DELAY=-1",
+                "--usage.quota.daily-tokens=0",
+                "--usage.rate-limit.turns-per-minute=0",
+                "--chat.memory.provider=local",
+                "--chat.memory.local.path=" + options.outputDir.resolve("memory.bin"),
+                "--tracing.exporter=none",
+                "--logging.level.com.projectmanagement=WARN",
+                "--logging.level.org.springframework.web=WARN");
+            baseUrl = "http://127.0.0.1:" + application.getEnvironment().getProperty("local.server.port");
+        }
+
+        EndpointLatencies latencies = new EndpointLatencies();
+        KanbanTraffic traffic = new KanbanTraffic(baseUrl, latencies, options);
+        try (LoadReport report = new LoadReport(options.outputDir)) {
+            long setupStart = System.nanoTime();
+            List<KanbanTraffic.VirtualUser> users = setUpUsers(traffic, options);
+            report.addPhase("setup", latencies.drain(), (System.nanoTime() - setupStart) / 1e9);
+
+            if (options.model == LoadOptions.Model.CLOSED) {
+                runClosed(traffic, users, options, latencies, report);
+            } else {
+                runOpen(traffic, users, options, latencies, report);
+            }
+            if (options.baseline != null) {
+                report.compareWith(options.baseline);
+            }
+        } finally {
+            if (application != null) {
+                application.close();
+            }
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    private static List<KanbanTraffic.VirtualUser> setUpUsers(KanbanTraffic traffic, LoadOptions options) throws Exception {
+        String runId = Long.toString(System.currentTimeMillis() % 1_000_000_000L, 36);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(options.users, 8));
+        try {
+            List<Future<KanbanTraffic.VirtualUser>> futures = new ArrayList<>();
+            for (int i = 0; i < options.users; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> traffic.setUp(runId, index)));
+            }
+            List<KanbanTraffic.VirtualUser> users = new ArrayList<>();
+            for (Future<KanbanTraffic.VirtualUser> future : futures) {
+                users.add(future.get());
+            }
+            return users;
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Modelo fechado: um thread por usuário; a próxima ação só sai depois da resposta e do tempo de pensar
+     */
+    private static void runClosed(KanbanTraffic traffic, List<KanbanTraffic.VirtualUser> users, LoadOptions options,
+                                  EndpointLatencies latencies, LoadReport report) throws InterruptedException {
+        AtomicBoolean running = new AtomicBoolean(true);
+        List<Thread> threads = new ArrayList<>();
+        for (KanbanTraffic.VirtualUser user : users) {
+            Thread thread = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    traffic.perform(user, traffic.nextAction(), System.nanoTime());
+                    sleepQuietly(exponential(random, options.thinkTimeMs));
+                }
+            }, "load-" + user.username);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+
+        Thread.sleep(options.warmup.toMillis());
+        latencies.drain();
+        long start = System.nanoTime();
+        Thread.sleep(options.duration.toMillis());
+        EndpointLatencies.Interval measured = latencies.drain();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        running.set(false);
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        report.addPhase(String.format(Locale.ROOT, "closed-%dusers", users.size()), measured, seconds);
+    }
+
+    /**
+     * Modelo aberto: chegadas de Poisson por degrau de taxa; a latência conta do instante planejado,
+     * então fila no gerador ou no servidor aparece nos percentis. Acima de load.max-in-flight a
+     * chegada é descartada e contada como erro ("action.dropped")
+     */
+    private static void runOpen(KanbanTraffic traffic, List<KanbanTraffic.VirtualUser> users, LoadOptions options,
+                                EndpointLatencies latencies, LoadReport report) throws InterruptedException {
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger inFlight = new AtomicInteger();
+        double saturationThroughput = 0;
+        try {
+            for (double rate : options.rates) {
+                // Aquecimento curto em cada degrau para a fila estabilizar
+                arrive(traffic, users, rate, Math.min(options.warmup.toNanos(), options.stepDuration.toNanos() / 3),
+                    options, latencies, executor, inFlight);
+                latencies.drain();
+                long start = System.nanoTime();
+                arrive(traffic, users, rate, options.stepDuration.toNanos(), options, latencies, executor, inFlight);
+                EndpointLatencies.Interval measured = latencies.drain();
+                double seconds = (System.nanoTime() - start) / 1e9;
+
+                String phase = String.format(Locale.ROOT, "open-%.0fps", rate);
+                report.addPhase(phase, measured, seconds);
+                if (!report.addStep(rate, measured, seconds, options.sloP99Ms)) {
+                    break;
+                }
+                saturationThroughput = measured.histograms.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith("action."))
+                    .mapToLong(entry -> entry.getValue().getTotalCount())
+                    .sum() / seconds;
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        if (saturationThroughput > 0) {
+            System.out.printf(Locale.ROOT, "%nVazão na saturação (último degrau dentro do SLO): %.1f ações/s%n", saturationThroughput);
+        } else {
+            System.out.println("\nNenhum degrau dentro do SLO; reduza load.rates");
+        }
+    }
+
+    private static void arrive(KanbanTraffic traffic, List<KanbanTraffic.VirtualUser> users, double rate, long durationNanos,
+                               LoadOptions options, EndpointLatencies latencies, ExecutorService executor,
+                               AtomicInteger inFlight) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long end = System.nanoTime() + durationNanos;
+        long next = System.nanoTime();
+        while (next < end) {
+            next += (long) (exponential(random, 1000.0 / rate) * 1_000_000);
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                sleepQuietly(TimeUnit.NANOSECONDS.toMillis(wait));
+            }
+            if (inFlight.get() >= options.maxInFlight) {
+                latencies.error("action.dropped");
+                continue;
+            }
+            long intended = next;
+            KanbanTraffic.VirtualUser user = users.get(random.nextInt(users.size()));
+            String action = traffic.nextAction();
+            inFlight.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    traffic.perform(user, action, intended);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+        }
+    }
+
+    private static long exponential(ThreadLocalRandom random, double meanMillis) {
+        return meanMillis <= 0 ? 0 : (long) (-Math.log(1 - random.nextDouble()) * meanMillis);
+    }
+
+    private static void sleepQuietly(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
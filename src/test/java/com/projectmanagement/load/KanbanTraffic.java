@@ -0,0 +1,189 @@
+package com.projectmanagement.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Tráfego de um usuário do kanban contra a API HTTP real: login, lista de projetos, carga do quadro
+ * (colunas + tarefas), arrastar tarefa (status), comentários, checklist e turnos de chat.
+ *
+ * Cada chamada HTTP é medida no endpoint ("board.tasks", "task.status"...); a ação inteira vai em
+ * "action.&lt;nome&gt;", contada a partir do instante planejado (no modelo aberto inclui a espera na
+ * fila do gerador, sem omissão coordenada).
+ */
+final class KanbanTraffic {
+
+    private static final String[] STATUSES = {"BACKLOG", "TODO", "IN_PROGRESS", "REVIEW", "DONE"};
+    private static final String[] CHAT_MESSAGES = {
+        "liste minhas tarefas",
+        "quais tarefas estão em andamento?",
+        "crie a tarefa Revisar contrato no projeto",
+        "Como devo organizar minha semana de trabalho com foco?"
+    };
+
+    private final String baseUrl;
+    private final EndpointLatencies latencies;
+    private final LoadOptions options;
+    private final HttpClient http;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String[] weightedActions;
+
+    KanbanTraffic(String baseUrl, EndpointLatencies latencies, LoadOptions options) {
+        this.baseUrl = baseUrl;
+        this.latencies = latencies;
+        this.options = options;
+        this.http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+        List<String> actions = new ArrayList<>();
+        options.mix.forEach((action, weight) -> actions.addAll(Collections.nCopies(weight, action)));
+        this.weightedActions = actions.toArray(new String[0]);
+    }
+
+    /**
+     * Usuário virtual com login, um projeto e tarefas (uma com item de checklist)
+     */
+    VirtualUser setUp(String runId, int index) throws IOException, InterruptedException {
+        VirtualUser user = new VirtualUser("lt" + runId + "-" + index);
+        send("auth.signup", "POST", "/api/auth/signup", null, Map.of(
+            "username", user.username, "email", user.username + "@load.test",
+            "password", user.password, "fullName", "Load " + index));
+        signIn(user);
+
+        JsonNode project = send("project.create", "POST", "/api/projects", user.token,
+            Map.of("name", "Carga " + index, "description", "Projeto do teste de carga"));
+        user.projectId = project.get("id").asLong();
+        for (int i = 0; i < options.tasksPerProject; i++) {
+            JsonNode task = send("task.create", "POST", "/api/tasks", user.token, Map.of(
+                "title", "Tarefa " + i, "description", "Gerada pelo teste de carga",
+                "status", STATUSES[i % STATUSES.length], "project", Map.of("id", user.projectId)));
+            user.taskIds.add(task.get("id").asLong());
+        }
+        JsonNode item = send("checklist.create", "POST", "/api/tasks/" + user.taskIds.get(0) + "/checklist", user.token,
+            Map.of("description", "Item inicial"));
+        user.checklistItems.put(user.taskIds.get(0), item.get("id").asLong());
+        return user;
+    }
+
+    String nextAction() {
+        return weightedActions[ThreadLocalRandom.current().nextInt(weightedActions.length)];
+    }
+
+    /**
+     * Executa uma ação; erros são contados no endpoint e na ação, sem interromper o usuário
+     */
+    void perform(VirtualUser user, String action, long intendedStartNanos) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        try {
+            switch (action) {
+                case "projects":
+                    send("projects.list", "GET", "/api/projects", user.token, null);
+                    break;
+                case "board":
+                    send("board.columns", "GET", "/api/projects/" + user.projectId + "/columns", user.token, null);
+                    send("board.tasks", "GET", "/api/tasks/project/" + user.projectId, user.token, null);
+                    break;
+                case "drag":
+                    send("task.status", "PUT", "/api/tasks/" + randomTask(user) + "/status?status="
+                        + STATUSES[random.nextInt(STATUSES.length)], user.token, null);
+                    break;
+                case "comment":
+                    send("comment.create", "POST", "/api/tasks/" + randomTask(user) + "/comments", user.token,
+                        Map.of("content", "Comentário de carga " + random.nextInt(1000)));
+                    break;
+                case "checklist":
+                    checklist(user, random);
+                    break;
+                case "signin":
+                    signIn(user);
+                    break;
+                case "chat":
+                    send("chat.turn", "POST", "/api/ai/chat", user.token,
+                        Map.of("message", CHAT_MESSAGES[random.nextInt(CHAT_MESSAGES.length)]));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Ação desconhecida no mix: " + action);
+            }
+            latencies.record("action." + action, System.nanoTime() - intendedStartNanos);
+        } catch (IOException | RuntimeException e) {
+            latencies.error("action." + action);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checklist(VirtualUser user, ThreadLocalRandom random) throws IOException, InterruptedException {
+        long taskId = randomTask(user);
+        Long itemId = user.checklistItems.get(taskId);
+        if (itemId != null && random.nextBoolean()) {
+            send("checklist.toggle", "PUT", "/api/tasks/" + taskId + "/checklist/" + itemId + "/toggle", user.token, null);
+            return;
+        }
+        JsonNode item = send("checklist.create", "POST", "/api/tasks/" + taskId + "/checklist", user.token,
+            Map.of("description", "Item " + random.nextInt(1000)));
+        user.checklistItems.putIfAbsent(taskId, item.get("id").asLong());
+    }
+
+    private void signIn(VirtualUser user) throws IOException, InterruptedException {
+        JsonNode response = send("auth.signin", "POST", "/api/auth/signin", null,
+            Map.of("username", user.username, "password", user.password));
+        user.token = response.get("accessToken").asText();
+    }
+
+    private long randomTask(VirtualUser user) {
+        return user.taskIds.get(ThreadLocalRandom.current().nextInt(user.taskIds.size()));
+    }
+
+    private JsonNode send(String endpoint, String method, String path, String token, Object body)
+        throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(Duration.ofSeconds(180))
+            .header("Content-Type", "application/json")
+            .method(method, body == null
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            latencies.error(endpoint);
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        if (response.statusCode() >= 400) {
+            latencies.error(endpoint);
+            throw new IOException(endpoint + " respondeu " + response.statusCode());
+        }
+        latencies.record(endpoint, elapsed);
+        return response.body().length > 0 ? objectMapper.readTree(response.body()) : objectMapper.nullNode();
+    }
+
+    static final class VirtualUser {
+        final String username;
+        final String password = "carga-123";
+        final List<Long> taskIds = new ArrayList<>();
+        final Map<Long, Long> checklistItems = new ConcurrentHashMap<>();
+        volatile String token;
+        long projectId;
+
+        VirtualUser(String username) {
+            this.username = username;
+        }
+    }
+}
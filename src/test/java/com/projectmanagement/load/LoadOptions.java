@@ -0,0 +1,91 @@
+package com.projectmanagement.load;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Configuração do teste de carga: propriedade de sistema (mvn -Pload test -Dload.users=50) ou
+ * variável de ambiente equivalente (LOAD_USERS=50).
+ */
+final class LoadOptions {
+
+    enum Model { CLOSED, OPEN }
+
+    // Vazio: sobe a aplicação em processo (H2 em memória) com as integrações no RecordReplayServer
+    final String baseUrl;
+    final int users;
+    final Model model;
+    final Duration warmup;
+    final Duration duration;
+    // Tempo de pensar entre ações de um usuário (modelo fechado), média de uma exponencial
+    final long thinkTimeMs;
+    // Taxas de chegada do modelo aberto (ações/s), em degraus até a saturação
+    final List<Double> rates;
+    final Duration stepDuration;
+    final long sloP99Ms;
+    final int maxInFlight;
+    final Map<String, Integer> mix;
+    final int tasksPerProject;
+    final Path outputDir;
+    // Diretório de uma execução anterior para comparar percentis
+    final Path baseline;
+
+    private LoadOptions() {
+        this.baseUrl = setting("load.base-url", null);
+        this.users = Integer.parseInt(setting("load.users", "20"));
+        this.model = Model.valueOf(setting("load.model", "closed").toUpperCase(Locale.ROOT));
+        this.warmup = DurationStyle.detectAndParse(setting("load.warmup", "10s"));
+        this.duration = DurationStyle.detectAndParse(setting("load.duration", "60s"));
+        this.thinkTimeMs = Long.parseLong(setting("load.think-time-ms", "1000"));
+        this.rates = Arrays.stream(setting("load.rates", "10,20,40,80,160").split(","))
+            .map(String::trim)
+            .map(Double::parseDouble)
+            .collect(Collectors.toList());
+        this.stepDuration = DurationStyle.detectAndParse(setting("load.step-duration", "30s"));
+        this.sloP99Ms = Long.parseLong(setting("load.slo-p99-ms", "1000"));
+        this.maxInFlight = Integer.parseInt(setting("load.max-in-flight", "512"));
+        this.mix = parseMix(setting("load.mix", "board:30,projects:15,drag:20,comment:12,checklist:12,signin:3,chat:8"));
+        this.tasksPerProject = Integer.parseInt(setting("load.tasks-per-project", "20"));
+        String label = setting("load.label", LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        this.outputDir = Paths.get(setting("load.output", "target/load-results"), label);
+        String baselineDir = setting("load.baseline", null);
+        this.baseline = baselineDir != null ? Paths.get(baselineDir) : null;
+    }
+
+    static LoadOptions fromEnvironment() {
+        return new LoadOptions();
+    }
+
+    private static Map<String, Integer> parseMix(String value) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(parts[0], Integer.parseInt(parts[1]));
+        }
+        return mix;
+    }
+
+    private static String setting(String property, String defaultValue) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            value = System.getenv(property.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+        }
+        return value != null && !value.isEmpty() ? value : defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return model == Model.CLOSED
+            ? String.format("modelo fechado: %d usuários, pensar %dms, aquecimento %s, medição %s, mix %s",
+                users, thinkTimeMs, warmup, duration, mix)
+            : String.format("modelo aberto: %d usuários, taxas %s ações/s, degraus de %s, SLO p99 %dms, mix %s",
+                users, rates, stepDuration, sloP99Ms, mix);
+    }
+}
@@ -0,0 +1,166 @@
+package com.projectmanagement.load;
+
+import org.HdrHistogram.EncodableHistogram;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogReader;
+import org.HdrHistogram.HistogramLogWriter;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Saída do teste de carga em &lt;load.output&gt;/&lt;label&gt;:
+ * - latency.hlog: um histograma HdrHistogram por fase e endpoint (tag "fase/endpoint", valores em µs),
+ *   legível pelo HistogramLogProcessor/HistogramLogAnalyzer
+ * - summary.csv: contagem, erros, vazão e percentis por fase e endpoint
+ * - saturation.csv (modelo aberto): taxa oferecida x vazão obtida x p99 por degrau
+ *
+ * Com load.baseline, os percentis são comparados com o latency.hlog da execução anterior.
+ */
+final class LoadReport implements AutoCloseable {
+
+    private final Path directory;
+    private final PrintStream hlog;
+    private final HistogramLogWriter logWriter;
+    private final List<String> summary = new ArrayList<>();
+    private final List<String> saturation = new ArrayList<>();
+    private final Map<String, Histogram> measured = new LinkedHashMap<>();
+
+    LoadReport(Path directory) throws IOException {
+        this.directory = directory;
+        Files.createDirectories(directory);
+        this.hlog = new PrintStream(Files.newOutputStream(directory.resolve("latency.hlog")), true, StandardCharsets.UTF_8.name());
+        this.logWriter = new HistogramLogWriter(hlog);
+        logWriter.outputLogFormatVersion();
+        long now = System.currentTimeMillis();
+        logWriter.outputStartTime(now);
+        logWriter.setBaseTime(now);
+        logWriter.outputLegend();
+        summary.add("phase,endpoint,count,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+        saturation.add("offered_per_s,achieved_per_s,p99_ms,error_rate,within_slo");
+    }
+
+    /**
+     * Registra uma fase medida (aquecimento não passa por aqui) e imprime a tabela por endpoint
+     */
+    void addPhase(String phase, EndpointLatencies.Interval interval, double seconds) {
+        System.out.printf(Locale.ROOT, "%n== %s (%.0fs)%n%-22s %8s %7s %9s %9s %9s %9s %9s%n", phase, seconds,
+            "endpoint", "ok", "erros", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms");
+        Set<String> endpoints = new TreeSet<>(interval.histograms.keySet());
+        endpoints.addAll(interval.errors.keySet());
+        for (String endpoint : endpoints) {
+            Histogram histogram = interval.histograms.getOrDefault(endpoint, new Histogram(3));
+            long errors = interval.errors.getOrDefault(endpoint, 0L);
+            if (histogram.getTotalCount() == 0 && errors == 0) {
+                continue;
+            }
+            double throughput = histogram.getTotalCount() / seconds;
+            System.out.printf(Locale.ROOT, "%-22s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", endpoint,
+                histogram.getTotalCount(), errors, throughput, millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9));
+            summary.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f", phase, endpoint,
+                histogram.getTotalCount(), errors, throughput, millis(histogram, 50), millis(histogram, 90),
+                millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000.0));
+
+            if (histogram.getTotalCount() > 0) {
+                histogram.setTag(phase + "/" + endpoint);
+                logWriter.outputIntervalHistogram(histogram);
+                measured.put(phase + "/" + endpoint, histogram);
+            }
+        }
+    }
+
+    /**
+     * Um degrau do modelo aberto; devolve se ficou dentro do SLO (vazão &gt;= 90% da oferecida,
+     * p99 das ações &lt;= SLO e menos de 1% de erros)
+     */
+    boolean addStep(double offered, EndpointLatencies.Interval interval, double seconds, long sloP99Ms) {
+        Histogram actions = new Histogram(3);
+        long errors = 0;
+        for (Map.Entry<String, Histogram> entry : interval.histograms.entrySet()) {
+            if (entry.getKey().startsWith("action.")) {
+                actions.add(entry.getValue());
+            }
+        }
+        for (Map.Entry<String, Long> entry : interval.errors.entrySet()) {
+            if (entry.getKey().startsWith("action.")) {
+                errors += entry.getValue();
+            }
+        }
+        double achieved = actions.getTotalCount() / seconds;
+        double errorRate = errors / (double) Math.max(1, actions.getTotalCount() + errors);
+        double p99 = millis(actions, 99);
+        boolean withinSlo = achieved >= offered * 0.9 && p99 <= sloP99Ms && errorRate < 0.01;
+        saturation.add(String.format(Locale.ROOT, "%.1f,%.2f,%.2f,%.4f,%s", offered, achieved, p99, errorRate, withinSlo));
+        System.out.printf(Locale.ROOT, "-> oferecido %.1f/s, obtido %.1f/s, p99 %.1f ms, erros %.2f%% %s%n",
+            offered, achieved, p99, errorRate * 100, withinSlo ? "(dentro do SLO)" : "(saturado)");
+        return withinSlo;
+    }
+
+    /**
+     * Compara p50/p99 de cada fase/endpoint com o latency.hlog de uma execução anterior
+     */
+    void compareWith(Path baselineDir) throws IOException {
+        Map<String, Histogram> baseline = read(baselineDir.resolve("latency.hlog"));
+        System.out.printf(Locale.ROOT, "%n== comparação com %s%n%-40s %12s %12s %12s %12s%n", baselineDir,
+            "fase/endpoint", "p50 antes", "p50 agora", "p99 antes", "p99 agora");
+        List<String> diff = new ArrayList<>();
+        diff.add("tag,p50_before_ms,p50_after_ms,p50_change_pct,p99_before_ms,p99_after_ms,p99_change_pct");
+        measured.forEach((tag, current) -> {
+            Histogram before = baseline.get(tag);
+            if (before == null) {
+                return;
+            }
+            System.out.printf(Locale.ROOT, "%-40s %12.1f %12.1f %12.1f %12.1f  (p99 %+.1f%%)%n", tag,
+                millis(before, 50), millis(current, 50), millis(before, 99), millis(current, 99),
+                change(millis(before, 99), millis(current, 99)));
+            diff.add(String.format(Locale.ROOT, "%s,%.2f,%.2f,%.1f,%.2f,%.2f,%.1f", tag,
+                millis(before, 50), millis(current, 50), change(millis(before, 50), millis(current, 50)),
+                millis(before, 99), millis(current, 99), change(millis(before, 99), millis(current, 99))));
+        });
+        Files.write(directory.resolve("diff.csv"), diff, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, Histogram> read(Path hlogFile) throws IOException {
+        Map<String, Histogram> histograms = new HashMap<>();
+        HistogramLogReader reader = new HistogramLogReader(hlogFile.toFile());
+        EncodableHistogram next;
+        while ((next = reader.nextIntervalHistogram()) != null) {
+            if (next instanceof Histogram) {
+                histograms.merge(next.getTag(), (Histogram) next, (a, b) -> {
+                    a.add(b);
+                    return a;
+                });
+            }
+        }
+        return histograms;
+    }
+
+    private static double millis(Histogram histogram, double percentile) {
+        return histogram.getTotalCount() == 0 ? 0 : histogram.getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    @Override
+    public void close() {
+        try {
+            Files.write(directory.resolve("summary.csv"), summary, StandardCharsets.UTF_8);
+            if (saturation.size() > 1) {
+                Files.write(directory.resolve("saturation.csv"), saturation, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            hlog.close();
+        }
+        System.out.println("\nResultados em " + directory.toAbsolutePath());
+    }
+}
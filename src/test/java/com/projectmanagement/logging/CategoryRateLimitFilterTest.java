@@ -0,0 +1,102 @@
+package com.projectmanagement.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CategoryRateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private LoggerContext context;
+    private CategoryRateLimitFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.TRACE);
+        filter = new CategoryRateLimitFilter();
+        filter.setSampling("com.example.sampled=0");
+        filter.setRateLimits("com.example.limited=3");
+        filter.setClock(now::get);
+        filter.start();
+    }
+
+    @Test
+    public void testDebugIsSampledButInfoAndWarnPass() {
+        Logger logger = context.getLogger("com.example.sampled.Service");
+
+        assertEquals(FilterReply.DENY, decide(logger, Level.DEBUG));
+        assertEquals(FilterReply.DENY, decide(logger, Level.TRACE));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(context.getLogger("com.example.other.Service"), Level.DEBUG));
+        assertEquals(2, filter.getDroppedCount());
+    }
+
+    @Test
+    public void testRateLimitResetsEachSecondAndNeverDropsWarnOrError() {
+        Logger logger = context.getLogger("com.example.limited.Controller");
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+        }
+        assertEquals(FilterReply.DENY, decide(logger, Level.INFO));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.WARN));
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.ERROR));
+
+        now.addAndGet(1000);
+        assertEquals(FilterReply.NEUTRAL, decide(logger, Level.INFO));
+        assertEquals(1, filter.getDroppedCount());
+    }
+
+    @Test
+    public void testConcurrentCallersNeverExceedTheLimitInAWindow() throws InterruptedException {
+        filter = new CategoryRateLimitFilter();
+        filter.setRateLimits("com.example.limited=100");
+        filter.setClock(now::get);
+        filter.start();
+        Logger logger = context.getLogger("com.example.limited.Controller");
+
+        AtomicInteger accepted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    if (decide(logger, Level.INFO) == FilterReply.NEUTRAL) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(100, accepted.get());
+        assertEquals(7900, filter.getDroppedCount());
+    }
+
+    private FilterReply decide(Logger logger, Level level) {
+        return filter.decide(null, logger, level, "mensagem", null, null);
+    }
+}
@@ -0,0 +1,52 @@
+package com.projectmanagement.mcp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.service.MCPClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ToolCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ToolCatalog catalog(boolean promptCache) throws Exception {
+        ToolCatalog catalog = new ToolCatalog(new MCPClient(), objectMapper);
+        ReflectionTestUtils.setField(catalog, "promptCacheEnabled", promptCache);
+        catalog.build();
+        return catalog;
+    }
+
+    @Test
+    public void testPrecompiledFragmentsAreSplicedIntoRequestBody() throws Exception {
+        ToolCatalog.PrecompiledTools tools = (ToolCatalog.PrecompiledTools) catalog(true).tools();
+
+        JsonNode body = objectMapper.readTree(objectMapper.writeValueAsString(
+            Map.of("model", "m", "tools", tools.anthropicJson())));
+
+        JsonNode anthropicTools = body.get("tools");
+        assertEquals(tools.size(), anthropicTools.size());
+        assertEquals("create_task", anthropicTools.get(0).get("name").asText());
+        assertNotNull(anthropicTools.get(0).get("input_schema"));
+        assertNull(anthropicTools.get(0).get("cache_control"));
+        assertEquals("ephemeral", anthropicTools.get(anthropicTools.size() - 1).get("cache_control").get("type").asText());
+
+        JsonNode openAiTools = objectMapper.readTree(tools.openAiJson().rawValue().toString());
+        assertEquals("function", openAiTools.get(0).get("type").asText());
+        assertEquals("create_task", openAiTools.get(0).get("function").get("name").asText());
+    }
+
+    @Test
+    public void testCatalogIsImmutableAndBuiltOnce() throws Exception {
+        ToolCatalog catalog = catalog(false);
+
+        assertSame(catalog.tools(), catalog.tools());
+        assertThrows(UnsupportedOperationException.class, () -> catalog.tools().clear());
+        assertFalse(((ToolCatalog.PrecompiledTools) catalog.tools()).anthropicJson().rawValue().toString()
+            .contains("cache_control"));
+    }
+}
@@ -0,0 +1,68 @@
+package com.projectmanagement.mcp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TurnToolCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TurnToolCache cache = new TurnToolCache(meterRegistry);
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private Supplier<Map<String, Object>> counting(Map<String, Object> result) {
+        return () -> {
+            executions.incrementAndGet();
+            return result;
+        };
+    }
+
+    @Test
+    public void testRepeatedReadWithEquivalentArgumentsIsServedFromCache() {
+        Map<String, Object> result = Map.of("success", true, "count", 2);
+
+        Map<String, Object> first = cache.execute("list_tasks", Map.of("projectId", 3), counting(result));
+        Map<String, Object> second = cache.execute("list_tasks", Map.of("projectId", "3"), counting(result));
+        cache.execute("list_tasks", Map.of("projectId", 4), counting(result));
+
+        assertSame(first, second);
+        assertEquals(2, executions.get());
+        assertEquals(1, cache.saved());
+        assertEquals(1.0, meterRegistry.counter("mcp.tool.memoized", "tool", "list_tasks").count());
+    }
+
+    @Test
+    public void testWriteInvalidatesOnlyAffectedReads() {
+        Map<String, Object> ok = Map.of("success", true);
+        cache.execute("list_tasks", Map.of(), counting(ok));
+        cache.execute("list_projects", Map.of(), counting(ok));
+        cache.execute("github_list_issues", Map.of("owner", "a", "repo", "x"), counting(ok));
+        cache.execute("github_list_issues", Map.of("owner", "a", "repo", "y"), counting(ok));
+
+        cache.execute("move_task", Map.of("taskId", 1, "status", "DONE"), counting(ok));
+        cache.execute("github_create_issue", Map.of("owner", "a", "repo", "x", "title", "t"), counting(ok));
+        executions.set(0);
+
+        cache.execute("list_tasks", Map.of(), counting(ok));
+        cache.execute("list_projects", Map.of(), counting(ok));
+        cache.execute("github_list_issues", Map.of("owner", "a", "repo", "x"), counting(ok));
+        cache.execute("github_list_issues", Map.of("owner", "a", "repo", "y"), counting(ok));
+
+        // list_tasks e as issues de a/x foram reexecutadas; list_projects e a/y vieram do cache
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    public void testFailedResultsAreNotCached() {
+        cache.execute("list_projects", Map.of(), counting(Map.of("success", false, "error", "falhou")));
+        cache.execute("list_projects", Map.of(), counting(Map.of("success", true)));
+
+        assertEquals(2, executions.get());
+        assertEquals(0, cache.saved());
+    }
+}
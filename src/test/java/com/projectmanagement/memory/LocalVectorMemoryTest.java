@@ -0,0 +1,76 @@
+package com.projectmanagement.memory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LocalVectorMemoryTest {
+
+    @TempDir
+    Path dir;
+
+    private LocalVectorMemory memory(Path file) {
+        return new LocalVectorMemory(new HashingEmbedder(256), new ObjectMapper(), new SimpleMeterRegistry(),
+            file.toString(), 300, 256, 0.15, Duration.ofDays(7));
+    }
+
+    @Test
+    public void testRelevantContextComesFromSessionAndTouchedProjects() {
+        LocalVectorMemory memory = memory(dir.resolve("vectors.bin"));
+        memory.addTaskContext("s1", "create_task", Map.of("id", 7, "title", "Corrigir login com Google", "projectId", 3));
+        memory.addMessage("s1", "user", "qual a receita de bolo de cenoura?", null);
+        // Outra sessão que já trabalhou no projeto 3 enxerga a tarefa criada em s1
+        memory.addProjectContext("s2", "list_projects", Map.of("id", 3, "name", "Portal"));
+
+        String context = memory.getRelevantContext("s1", "como está a tarefa do login?");
+        assertTrue(context.startsWith("CONTEXTO RELEVANTE DA CONVERSA:"));
+        assertTrue(context.contains("- Tarefa: Corrigir login com Google (ID: 7)"));
+        assertFalse(context.contains("bolo"));
+
+        assertTrue(memory.getRelevantContext("s2", "tarefa de login").contains("Corrigir login"));
+        assertEquals("", memory.getRelevantContext("desconhecida", "login"));
+    }
+
+    @Test
+    public void testIndexSurvivesRestartThroughDisk() {
+        Path file = dir.resolve("vectors.bin");
+        LocalVectorMemory memory = memory(file);
+        memory.addMessage("s1", "user", "mover a tarefa de deploy para revisão", null);
+        memory.addFact("s1", "Tarefa ID 12 foi movida", Map.of("task_id", 12));
+        memory.flush();
+        assertTrue(Files.exists(file));
+
+        LocalVectorMemory restored = memory(file);
+        restored.load();
+
+        assertTrue(restored.getRelevantContext("s1", "deploy").contains("mover a tarefa de deploy"));
+        assertEquals("FATOS RECENTES DA SESSÃO:\n- Tarefa ID 12 foi movida\n", restored.getSessionSummary("s1"));
+        List<Map<String, Object>> recent = restored.getRecentMessages("s1", 10);
+        assertEquals(1, recent.size());
+        assertEquals("user", recent.get(0).get("role"));
+    }
+
+    @Test
+    public void testApproximateSearchFindsNearDuplicateInLargeIndex() {
+        HashingEmbedder embedder = new HashingEmbedder(256);
+        VectorIndex<String> index = new VectorIndex<>(VectorIndex.hyperplanes(256, 1L), 16);
+        for (int i = 0; i < 2000; i++) {
+            index.add(embedder.embed("registro numero " + i + " item" + (i * 7919)), "r" + i);
+        }
+        index.add(embedder.embed("configurar pipeline de deploy no kubernetes"), "alvo");
+
+        List<VectorIndex.Match<String>> matches = index.search(embedder.embed("pipeline de deploy kubernetes"), 3, 0.1);
+
+        assertFalse(matches.isEmpty());
+        assertEquals("alvo", matches.get(0).getPayload());
+    }
+}
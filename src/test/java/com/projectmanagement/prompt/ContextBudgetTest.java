@@ -0,0 +1,155 @@
+package com.projectmanagement.prompt;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.github.FileContentWindow;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ContextBudgetTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ContextBudget budget = new ContextBudget(objectMapper, new SimpleMeterRegistry(), 500, 1000, 100);
+
+    @Test
+    public void testLargeListResultIsCompactedWithinBudget() throws Exception {
+        List<Map<String, Object>> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            tasks.add(Map.of("id", i, "title", "Tarefa " + i, "status", "TODO", "description", "x".repeat(400)));
+        }
+        String result = objectMapper.writeValueAsString(Map.of("success", true, "tasks", tasks, "count", 200));
+
+        String compacted = budget.compactToolResult("list_tasks", result);
+
+        assertTrue(ContextBudget.estimateTokens(compacted) <= 500);
+        JsonNode node = objectMapper.readTree(compacted);
+        assertTrue(node.get("truncated").asBoolean());
+        assertEquals(200, node.get("count").asInt());
+        assertEquals(200, node.get("tasks").size() + node.get("tasks_omitted").asInt());
+
+        String small = "{\"success\":true}";
+        assertSame(small, budget.compactToolResult("list_tasks", small));
+    }
+
+    @Test
+    public void testResultThatCannotBeCompactedFallsBackToValidJsonPreview() throws Exception {
+        // Muitos campos escalares e nenhuma lista: encurtar textos não basta para caber
+        Map<String, Object> wide = new LinkedHashMap<>();
+        wide.put("success", true);
+        for (int i = 0; i < 300; i++) {
+            wide.put("campo" + i, "valor \"com aspas\"\n" + "v".repeat(140));
+        }
+
+        String compacted = budget.compactToolResult("get_repository", objectMapper.writeValueAsString(wide));
+
+        assertTrue(ContextBudget.estimateTokens(compacted) <= 500);
+        JsonNode node = objectMapper.readTree(compacted);
+        assertTrue(node.get("success").asBoolean());
+        assertTrue(node.get("truncated").asBoolean());
+        assertTrue(node.get("preview").asText().startsWith("{\"success\":true,\"campo0\""));
+        assertTrue(node.get("original_tokens").asInt() > 500);
+
+        // Texto que nem é JSON também vira um objeto válido, sem success
+        JsonNode text = objectMapper.readTree(budget.compactToolResult("get_file", "linha \"x\"\n".repeat(400)));
+        assertTrue(text.get("truncated").asBoolean());
+        assertFalse(text.has("success"));
+        assertTrue(text.get("preview").asText().startsWith("linha \"x\"\n"));
+    }
+
+    @Test
+    public void testFileWindowIsCutAtLineEndAndEndLineStaysAccurate() throws Exception {
+        StringBuilder source = new StringBuilder();
+        for (int i = 1; i <= 400; i++) {
+            source.append("linha ").append(i).append(": \"valor\" ").append("x".repeat(40)).append('\n');
+        }
+        // Mesmo formato de github_get_file_content: janela de 64 KB, bem acima do orçamento
+        FileContentWindow window = FileContentWindow.lines(1, 0, 65536);
+        window.feed(ByteBuffer.wrap(source.toString().getBytes(StandardCharsets.UTF_8)));
+        Map<String, Object> file = window.result(true);
+        file.put("type", "file");
+        file.put("path", "src/App.java");
+        file.put("name", "App.java");
+        file.put("etag", "\"abc123\"");
+        assertEquals(false, file.get("truncated"));
+        String result = objectMapper.writeValueAsString(Map.of("success", true, "file", file));
+
+        String compacted = budget.compactToolResult("github_get_file_content", result);
+
+        assertTrue(ContextBudget.estimateTokens(compacted) <= 500);
+        JsonNode node = objectMapper.readTree(compacted);
+        assertTrue(node.get("truncated").asBoolean());
+        JsonNode compactedFile = node.get("file");
+        assertTrue(compactedFile.get("truncated").asBoolean());
+        String content = compactedFile.get("content").asText();
+        assertTrue(content.length() > 160, "a janela não pode cair para o limite de campos curtos");
+        assertTrue(content.endsWith("\n"));
+        assertTrue(source.toString().startsWith(content));
+        int lines = content.split("\n").length;
+        assertEquals(1, compactedFile.get("start_line").asInt());
+        assertEquals(lines, compactedFile.get("end_line").asInt());
+        assertTrue(content.endsWith("linha " + lines + ": \"valor\" " + "x".repeat(40) + "\n"));
+        assertEquals(400, compactedFile.get("total_lines").asInt());
+        assertEquals("\"abc123\"", compactedFile.get("etag").asText());
+    }
+
+    @Test
+    public void testShortenedFieldsAreFlagged() throws Exception {
+        Map<String, Object> issue = new LinkedHashMap<>();
+        issue.put("number", 42);
+        issue.put("title", "Erro no login");
+        issue.put("body", "b".repeat(1000));
+        Map<String, Object> wide = new LinkedHashMap<>();
+        wide.put("success", true);
+        wide.put("issue", issue);
+        wide.put("labels", List.of("l".repeat(1000)));
+
+        JsonNode node = objectMapper.readTree(budget.compactToolResult("github_get_issue", objectMapper.writeValueAsString(wide)));
+
+        assertTrue(node.get("truncated").asBoolean());
+        assertTrue(node.get("issue").get("body_shortened").asBoolean());
+        assertFalse(node.get("issue").has("title_shortened"));
+        assertEquals(161, node.get("issue").get("body").asText().length());
+        assertEquals(161, node.get("labels").get(0).asText().length());
+    }
+
+    @Test
+    public void testOlderToolResultsAreStubbedWhenLoopExceedsBudget() {
+        List<Map<String, Object>> messages = new ArrayList<>();
+        messages.add(msg("user", "liste tudo"));
+        messages.add(msg("tool", "a".repeat(6000)));
+        messages.add(msg("tool", "b".repeat(1000)));
+
+        budget.shrinkLoopMessages(messages, 2);
+
+        assertTrue(((String) messages.get(1).get("content")).startsWith("[resultado anterior omitido"));
+        assertEquals(1000, ((String) messages.get(2).get("content")).length());
+    }
+
+    @Test
+    public void testHistoryKeepsMostRecentTurnsWithinBudget() {
+        List<Map<String, Object>> turns = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            turns.add(Map.of("user", "pergunta " + i + " " + "p".repeat(60), "assistant", "resposta " + i + " " + "r".repeat(60)));
+        }
+
+        List<Map<String, Object>> history = budget.historyMessages(turns);
+
+        assertFalse(history.isEmpty());
+        assertTrue(history.size() < 20);
+        assertEquals("user", history.get(0).get("role"));
+        assertTrue(((String) history.get(history.size() - 1).get("content")).startsWith("resposta 9"));
+    }
+
+    private Map<String, Object> msg(String role, String content) {
+        Map<String, Object> message = new HashMap<>();
+        message.put("role", role);
+        message.put("content", content);
+        return message;
+    }
+}
@@ -0,0 +1,44 @@
+package com.projectmanagement.prompt;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PromptAssemblerTest {
+
+    private PromptAssembler assembler(boolean promptCache) {
+        PromptAssembler assembler = new PromptAssembler();
+        ReflectionTestUtils.setField(assembler, "promptCacheEnabled", promptCache);
+        return assembler;
+    }
+
+    @Test
+    public void testStableBlocksComeFirstAndCarryBreakpoints() {
+        List<Map<String, Object>> messages = assembler(true)
+            .systemMessages("usuário organiza o projeto Alpha", "tarefa 12 criada", "Última tarefa: Deploy");
+
+        assertEquals(3, messages.size());
+        List<?> staticParts = (List<?>) messages.get(0).get("content");
+        assertEquals(PromptAssembler.STATIC_INSTRUCTIONS, ((Map<?, ?>) staticParts.get(0)).get("text"));
+        assertNotNull(((Map<?, ?>) staticParts.get(0)).get("cache_control"));
+
+        Map<?, ?> summary = (Map<?, ?>) ((List<?>) messages.get(1).get("content")).get(0);
+        assertTrue(String.valueOf(summary.get("text")).contains("projeto Alpha"));
+        assertNotNull(summary.get("cache_control"));
+
+        String volatileContext = (String) messages.get(2).get("content");
+        assertTrue(volatileContext.indexOf("tarefa 12") < volatileContext.indexOf("Deploy"));
+    }
+
+    @Test
+    public void testEmptyBlocksAreOmittedAndCacheCanBeDisabled() {
+        List<Map<String, Object>> messages = assembler(false).systemMessages("", "", "");
+
+        assertEquals(1, messages.size());
+        assertEquals(PromptAssembler.STATIC_INSTRUCTIONS, messages.get(0).get("content"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.projectmanagement.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ModelRouterTest {
+
+    private final ModelRouter router = new ModelRouter(new SimpleMeterRegistry(), 0.9, Duration.ofMillis(100),
+        Duration.ofSeconds(8), Duration.ofSeconds(60), Duration.ofHours(6), Clock.systemUTC());
+
+    @Test
+    public void testCandidatesOrderedByHealthAndLatency() {
+        List<String> models = List.of("a", "b", "c");
+        router.recordSuccess("b", Duration.ofMillis(300).toNanos());
+        router.recordSuccess("c", Duration.ofMillis(900).toNanos());
+        for (int i = 0; i < 3; i++) {
+            router.recordFailure("a", Duration.ofMillis(50).toNanos());
+        }
+
+        // "a" em cooldown vai para o fim; "b" (mais rápido) antes de "c"
+        assertEquals(List.of("b", "c", "a"), router.candidates(null, models));
+        assertEquals(List.of("c", "b", "a"), router.candidates("c", models));
+        assertEquals(List.of("b", "c", "a"), router.candidates("a", models));
+    }
+
+    @Test
+    public void testToolSupportFactIsCachedAndHedgeDelayFollowsPercentile() {
+        assertTrue(router.supportsTools("m"));
+        router.markToolsUnsupported("m");
+        assertFalse(router.supportsTools("m"));
+
+        assertEquals(Duration.ofSeconds(8), router.hedgeDelay("m"));
+        for (int i = 1; i <= 20; i++) {
+            router.recordSuccess("m", Duration.ofMillis(i * 100L).toNanos());
+        }
+        assertEquals(Duration.ofMillis(1800), router.hedgeDelay("m"));
+    }
+
+    @Test
+    public void testHedgeFiresOnlyWhenPrimaryIsSlowOrFails() throws InterruptedException {
+        AtomicBoolean backupCalled = new AtomicBoolean();
+
+        String fast = ModelRouter.hedged(Mono.just("primary"), Duration.ofMillis(200),
+            hedge -> { backupCalled.set(true); return Mono.just("backup"); }).block();
+        assertEquals("primary", fast);
+        assertFalse(backupCalled.get());
+
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        List<Boolean> triggers = new CopyOnWriteArrayList<>();
+        String slow = ModelRouter.hedged(
+            Mono.delay(Duration.ofSeconds(5)).thenReturn("primary").doOnCancel(() -> primaryCancelled.set(true)),
+            Duration.ofMillis(50), hedge -> { triggers.add(hedge); return Mono.just("backup"); }).block(Duration.ofSeconds(2));
+        assertEquals("backup", slow);
+        // O cancelamento do perdedor pode chegar logo depois da resposta
+        for (int i = 0; i < 100 && !primaryCancelled.get(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(primaryCancelled.get());
+
+        // Falha rápida do primário dispara o backup sem esperar o atraso
+        long start = System.nanoTime();
+        String failed = ModelRouter.hedged(Mono.<String>error(new IllegalStateException("500")),
+            Duration.ofSeconds(5), hedge -> { triggers.add(hedge); return Mono.just("backup"); }).block(Duration.ofSeconds(2));
+        assertEquals("backup", failed);
+        // true só quando o atraso venceu; falha antecipada é failover
+        assertEquals(List.of(true, false), triggers);
+        assertTrue(System.nanoTime() - start < Duration.ofSeconds(1).toNanos());
+    }
+}
@@ -0,0 +1,112 @@
+package com.projectmanagement.resilience;
+
+import com.projectmanagement.support.FaultInjectingServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OutboundResilienceTest {
+
+    private FaultInjectingServer server;
+    private WebClient webClient;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundResilience resilience;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new FaultInjectingServer();
+        webClient = WebClient.create(server.baseUrl());
+        meterRegistry = new SimpleMeterRegistry();
+
+        MockEnvironment environment = new MockEnvironment();
+        environment.setConversionService(new ApplicationConversionService());
+        environment.setProperty("resilience.stub.timeout", "2s");
+        environment.setProperty("resilience.stub.retry.max-attempts", "3");
+        environment.setProperty("resilience.stub.retry.initial-backoff", "10ms");
+        environment.setProperty("resilience.stub.minimum-number-of-calls", "4");
+        environment.setProperty("resilience.stub.sliding-window-size", "4");
+        environment.setProperty("resilience.stub.wait-in-open-state", "10s");
+        environment.setProperty("resilience.hedged.hedge-delay", "50ms");
+        environment.setProperty("resilience.hedged.retry.max-attempts", "1");
+        resilience = new OutboundResilience(environment, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    private Mono<String> get() {
+        return webClient.get().uri("/resource").retrieve().bodyToMono(String.class);
+    }
+
+    @Test
+    public void testIdempotentCallRetriesTransientFailures() {
+        server.enqueue(503, 0, "{}").enqueue(502, 0, "{}").enqueue(200, 0, "{\"ok\":true}");
+
+        String body = resilience.decorateIdempotent("stub", get()).block(Duration.ofSeconds(5));
+
+        assertEquals("{\"ok\":true}", body);
+        assertEquals(3, server.requestCount());
+    }
+
+    @Test
+    public void testClientErrorsAreNotRetried() {
+        server.respondByDefault(404, 0, "{}");
+
+        assertThrows(Exception.class, () -> resilience.decorateIdempotent("stub", get()).block(Duration.ofSeconds(5)));
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    public void testOpenCircuitFailsFastWithoutCallingServer() {
+        server.respondByDefault(500, 0, "{}");
+        for (int i = 0; i < 4; i++) {
+            assertThrows(Exception.class, () -> resilience.decorate("stub", get()).block(Duration.ofSeconds(5)));
+        }
+        int callsBeforeOpen = server.requestCount();
+
+        Exception rejected = assertThrows(Exception.class,
+            () -> resilience.decorate("stub", get()).block(Duration.ofSeconds(5)));
+
+        assertTrue(rejected instanceof DependencyUnavailableException);
+        assertEquals(callsBeforeOpen, server.requestCount());
+    }
+
+    @Test
+    public void testHedgedRequestWinsOverSlowPrimary() {
+        server.enqueue(200, 2000, "\"slow\"").enqueue(200, 0, "\"fast\"");
+
+        long start = System.nanoTime();
+        String body = resilience.decorateIdempotent("hedged", get()).block(Duration.ofSeconds(5));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals("\"fast\"", body);
+        assertTrue(elapsedMillis < 1500, "hedge deveria responder antes da chamada lenta: " + elapsedMillis + "ms");
+        assertEquals(1.0, meterRegistry.counter("outbound.hedges", "dependency", "hedged").count());
+    }
+
+    @Test
+    public void testPrimaryAnsweringBeforeTheDelayIsNotCountedAsHedge() {
+        AtomicInteger calls = new AtomicInteger();
+        // Assíncrona, mas bem abaixo do hedge-delay de 50ms
+        Mono<String> fast = Mono.fromCallable(() -> "call-" + calls.incrementAndGet()).delayElement(Duration.ofMillis(5));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("call-" + (i + 1), resilience.decorateIdempotent("hedged", fast).block(Duration.ofSeconds(5)));
+        }
+
+        assertEquals(5, calls.get());
+        assertEquals(0.0, meterRegistry.counter("outbound.hedges", "dependency", "hedged").count());
+    }
+}
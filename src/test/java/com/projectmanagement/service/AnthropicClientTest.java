@@ -0,0 +1,107 @@
+package com.projectmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.OutboundResilience;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.HttpMessageWriter;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.client.reactive.MockClientHttpRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.BodyInserter;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeStrategies;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AnthropicClientTest {
+
+    private static final String RESPONSE = "{\"id\":\"msg_1\",\"type\":\"message\",\"stop_reason\":\"tool_use\"," +
+        "\"content\":[{\"type\":\"text\",\"text\":\"Vou listar.\"}," +
+        "{\"type\":\"tool_use\",\"id\":\"tu_2\",\"name\":\"list_tasks\",\"input\":{\"projectId\":3}}]," +
+        "\"usage\":{\"input_tokens\":12,\"output_tokens\":5,\"cache_read_input_tokens\":900,\"cache_creation_input_tokens\":0}}";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> sentBody = new AtomicReference<>();
+
+    private AnthropicClient client() {
+        ExchangeStrategies strategies = ExchangeStrategies.withDefaults();
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            MockClientHttpRequest captured = new MockClientHttpRequest(HttpMethod.POST, URI.create("/"));
+            return request.body().insert(captured, new BodyInserter.Context() {
+                    @Override
+                    public List<HttpMessageWriter<?>> messageWriters() {
+                        return strategies.messageWriters();
+                    }
+
+                    @Override
+                    public Optional<org.springframework.http.server.reactive.ServerHttpRequest> serverRequest() {
+                        return Optional.empty();
+                    }
+
+                    @Override
+                    public Map<String, Object> hints() {
+                        return Map.of();
+                    }
+                })
+                .then(Mono.defer(captured::getBodyAsString))
+                .doOnNext(sentBody::set)
+                .thenReturn(ClientResponse.create(HttpStatus.OK, strategies)
+                    .header("Content-Type", MediaType.APPLICATION_JSON_VALUE)
+                    .body(RESPONSE)
+                    .build());
+        });
+
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        AnthropicClient client = new AnthropicClient(builder, "https://api.anthropic.com");
+        ReflectionTestUtils.setField(client, "outboundMetrics", new OutboundMetrics(meterRegistry));
+        ReflectionTestUtils.setField(client, "resilience", new OutboundResilience(new MockEnvironment(), meterRegistry));
+        ReflectionTestUtils.setField(client, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(client, "promptCacheEnabled", true);
+        return client;
+    }
+
+    @Test
+    public void testToolLoopIsSentAsTypedAnthropicBlocksAndResponseConverted() throws Exception {
+        List<Map<String, Object>> messages = new ArrayList<>();
+        messages.add(Map.of("role", "system", "content", List.of(
+            Map.of("type", "text", "text", "regras", "cache_control", Map.of("type", "ephemeral")))));
+        messages.add(Map.of("role", "user", "content", "liste as tarefas"));
+        messages.add(Map.of("role", "assistant", "tool_calls", List.of(
+            Map.of("id", "tu_1", "type", "function",
+                "function", Map.of("name", "list_projects", "arguments", "{\"limit\":2}")))));
+        messages.add(Map.of("role", "tool", "tool_call_id", "tu_1", "content", "{\"success\":true}"));
+
+        Map<String, Object> response = client().chatCompletion(messages, null, null);
+
+        JsonNode body = objectMapper.readTree(sentBody.get());
+        assertEquals("ephemeral", body.at("/system/0/cache_control/type").asText());
+        assertEquals("tool_use", body.at("/messages/1/content/0/type").asText());
+        assertEquals(2, body.at("/messages/1/content/0/input/limit").asInt());
+        assertEquals("tool_result", body.at("/messages/2/content/0/type").asText());
+        assertEquals("tu_1", body.at("/messages/2/content/0/tool_use_id").asText());
+        assertEquals("ephemeral", body.at("/messages/2/content/0/cache_control/type").asText());
+        assertTrue(body.at("/tools").isMissingNode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> message = (Map<String, Object>) ((List<Map<String, Object>>) response.get("choices")).get(0).get("message");
+        assertEquals("Vou listar.", message.get("content"));
+        @SuppressWarnings("unchecked")
+        Map<String, Object> function = (Map<String, Object>) ((List<Map<String, Object>>) message.get("tool_calls")).get(0).get("function");
+        assertEquals("list_tasks", function.get("name"));
+        assertEquals("{\"projectId\":3}", function.get("arguments"));
+        assertEquals(900L, ((Map<?, ?>) response.get("usage")).get("cache_read_input_tokens"));
+    }
+}
@@ -0,0 +1,165 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.github.GitHubRateLimiter;
+import com.projectmanagement.github.GitHubResponseCache;
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.OutboundResilience;
+import com.projectmanagement.support.FaultInjectingServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GitHubMCPServiceTest {
+
+    private FaultInjectingServer server;
+    private GitHubMCPService service;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new FaultInjectingServer();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        service = new GitHubMCPService(WebClient.builder(),
+            new GitHubResponseCache(1024 * 1024, 100, meterRegistry),
+            new GitHubRateLimiter(10, Duration.ofMillis(100), meterRegistry),
+            server.baseUrl());
+        ReflectionTestUtils.setField(service, "outboundMetrics", new OutboundMetrics(meterRegistry));
+        ReflectionTestUtils.setField(service, "resilience", new OutboundResilience(new MockEnvironment(), meterRegistry));
+        ReflectionTestUtils.setField(service, "githubToken", "test-token");
+        ReflectionTestUtils.setField(service, "paginationConcurrency", 4);
+        ReflectionTestUtils.setField(service, "paginationDefaultMaxItems", 300);
+        ReflectionTestUtils.setField(service, "paginationMaxItemsLimit", 1000);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testAutoPaginationFetchesPagesInParallelAndKeepsOrder() {
+        server.respondTo("&page=1", 200, 0, items(1, 2), links(2, 3))
+            // Página 2 mais lenta que a 3: a ordem do resultado continua sendo a das páginas
+            .respondTo("&page=2", 200, 300, items(3, 2), links(3, 3))
+            .respondTo("&page=3", 200, 0, items(5, 2), Map.of());
+
+        Map<String, Object> result = listIssues(Map.of("auto_paginate", true));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), ids(result));
+        assertEquals(3, result.get("pages"));
+        assertEquals(false, result.get("truncated"));
+        assertEquals(3, server.requestCount());
+    }
+
+    @Test
+    public void testMaxItemsCapCancelsOutstandingPageFetches() {
+        // O servidor ignora per_page: a página 2 já completa o limite e a 3 (lenta) é cancelada
+        server.respondTo("&page=1", 200, 0, items(1, 100), links(2, 5))
+            .respondTo("&page=2", 200, 0, items(101, 200), links(3, 5))
+            .respondTo("&page=3", 200, 3000, items(301, 100), links(4, 5));
+
+        long start = System.nanoTime();
+        Map<String, Object> result = listIssues(Map.of("auto_paginate", true, "max_items", 250));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(250, result.get("count"));
+        assertEquals(250, ids(result).get(249));
+        assertEquals(true, result.get("truncated"));
+        assertTrue(elapsedMillis < 2500, "a busca da página 3 deveria ter sido cancelada: " + elapsedMillis + "ms");
+        assertTrue(server.requestUris().stream().noneMatch(uri -> uri.contains("page=4")));
+    }
+
+    @Test
+    public void testWithoutLastLinkNextPagesAreFollowedOneAtATime() {
+        server.respondTo("&page=1", 200, 0, items(1, 2), nextOnly(2))
+            .respondTo("&page=2", 200, 0, items(3, 2), nextOnly(3))
+            .respondTo("&page=3", 200, 0, items(5, 1), Map.of());
+
+        Map<String, Object> result = listIssues(Map.of("auto_paginate", true));
+
+        assertEquals(List.of(1, 2, 3, 4, 5), ids(result));
+        assertEquals(3, result.get("pages"));
+        assertEquals(false, result.get("truncated"));
+        List<String> pages = server.requestUris().stream()
+            .map(uri -> uri.substring(uri.indexOf("&page=") + 6))
+            .collect(Collectors.toList());
+        assertEquals(List.of("1", "2", "3"), pages);
+    }
+
+    @Test
+    public void testNextLinkBeyondTheCapIsReportedAsTruncated() {
+        server.respondTo("&page=1", 200, 0, items(1, 2), nextOnly(2))
+            .respondTo("&page=2", 200, 0, items(3, 2), Map.of());
+
+        Map<String, Object> result = listIssues(Map.of("auto_paginate", true, "max_items", 2));
+
+        assertEquals(List.of(1, 2), ids(result));
+        assertEquals(true, result.get("truncated"));
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    public void testSinglePageWithoutLinkHeader() {
+        server.respondTo("&page=1", 200, 0, items(1, 3), Map.of());
+
+        Map<String, Object> result = listIssues(Map.of("auto_paginate", true));
+
+        assertEquals(List.of(1, 2, 3), ids(result));
+        assertEquals(1, result.get("pages"));
+        assertEquals(false, result.get("truncated"));
+        assertEquals(1, server.requestCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRawFileReportsTheHttpEtagNotABlobSha() {
+        server.respondTo("/contents/README.md", 200, 0, "linha 1\nlinha 2\n",
+            Map.of("Content-Type", "application/vnd.github.raw", "ETag", "\"abc123\""));
+
+        Map<String, Object> result = service.getFileContent("acme", "app", "README.md", null);
+
+        Map<String, Object> file = (Map<String, Object>) result.get("file");
+        assertEquals("\"abc123\"", file.get("etag"));
+        assertFalse(file.containsKey("sha"));
+        assertEquals("file", file.get("type"));
+    }
+
+    private Map<String, Object> listIssues(Map<String, Object> params) {
+        Map<String, Object> result = service.listIssues("acme", "app", params);
+        assertEquals(true, result.get("success"), String.valueOf(result.get("error")));
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Integer> ids(Map<String, Object> result) {
+        return ((List<Map<String, Object>>) result.get("issues")).stream()
+            .map(issue -> (Integer) issue.get("id"))
+            .collect(Collectors.toList());
+    }
+
+    private static String items(int firstId, int count) {
+        return IntStream.range(firstId, firstId + count)
+            .mapToObj(id -> "{\"id\":" + id + "}")
+            .collect(Collectors.joining(",", "[", "]"));
+    }
+
+    private Map<String, String> links(int next, int last) {
+        String url = server.baseUrl() + "/repos/acme/app/issues?page=";
+        return Map.of("Link", "<" + url + next + ">; rel=\"next\", <" + url + last + ">; rel=\"last\"");
+    }
+
+    private Map<String, String> nextOnly(int next) {
+        return Map.of("Link", "<" + server.baseUrl() + "/repos/acme/app/issues?page=" + next + ">; rel=\"next\"");
+    }
+}
@@ -0,0 +1,153 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.model.GitHubRepoLink;
+import com.projectmanagement.model.Project;
+import com.projectmanagement.model.Task;
+import com.projectmanagement.model.User;
+import com.projectmanagement.repository.GitHubRepoLinkRepository;
+import com.projectmanagement.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class GitHubSyncServiceTest {
+
+    @Mock
+    private GitHubRepoLinkRepository linkRepository;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private GitHubMCPService gitHubMCPService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @InjectMocks
+    private GitHubSyncService syncService;
+
+    private GitHubRepoLink link;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(syncService, "batchSize", 2);
+        ReflectionTestUtils.setField(syncService, "maxBatchesPerRun", 5);
+
+        Project project = new Project("Projeto", "", null);
+        project.setId(1L);
+        link = new GitHubRepoLink(project, "acme", "app", new User());
+        link.setHighWaterMark("2024-01-01T00:00:00Z");
+
+        when(taskService.createTask(any(Task.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    private static Map<String, Object> issue(int number, String state, String updatedAt) {
+        Map<String, Object> issue = new HashMap<>();
+        issue.put("number", number);
+        issue.put("title", "Issue " + number);
+        issue.put("body", "corpo");
+        issue.put("state", state);
+        issue.put("html_url", "https://github.com/acme/app/issues/" + number);
+        issue.put("updated_at", updatedAt);
+        return issue;
+    }
+
+    private static Map<String, Object> page(boolean truncated, Map<String, Object>... issues) {
+        return Map.of("success", true, "issues", List.of(issues), "count", issues.length, "truncated", truncated);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSyncProcessesBatchesFromHighWaterMark() {
+        Task existing = new Task("#1 Issue 1", "corpo\n\nhttps://github.com/acme/app/issues/1", link.getProject(), null);
+        existing.setId(10L);
+        existing.setExternalId("github:acme/app#1");
+        existing.setStatus("IN_PROGRESS");
+        when(taskRepository.findByProjectIdAndExternalIdIn(eq(1L), anyCollection()))
+            .thenReturn(List.of(existing), List.of());
+
+        when(gitHubMCPService.listIssues(eq("acme"), eq("app"), anyMap())).thenReturn(
+            page(true, issue(1, "closed", "2024-01-02T00:00:00Z"), issue(2, "open", "2024-01-03T00:00:00Z")),
+            page(false, issue(3, "open", "2024-01-04T00:00:00Z")));
+
+        GitHubSyncService.SyncResult result = syncService.syncLink(link);
+
+        assertEquals(2, result.getCreated());
+        assertEquals(1, result.getUpdated());
+        assertEquals("2024-01-04T00:00:00Z", link.getHighWaterMark());
+        assertNull(link.getLastError());
+
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass(Map.class);
+        verify(gitHubMCPService, times(2)).listIssues(eq("acme"), eq("app"), params.capture());
+        assertEquals("2024-01-01T00:00:00Z", params.getAllValues().get(0).get("since"));
+        assertEquals("2024-01-03T00:00:00Z", params.getAllValues().get(1).get("since"));
+        assertEquals("asc", params.getAllValues().get(0).get("direction"));
+
+        ArgumentCaptor<Task> updated = ArgumentCaptor.forClass(Task.class);
+        verify(taskService).updateTask(eq(10L), updated.capture());
+        assertEquals("DONE", updated.getValue().getStatus());
+    }
+
+    @Test
+    public void testFailureKeepsHighWaterMarkAndRecordsError() {
+        when(gitHubMCPService.listIssues(anyString(), anyString(), anyMap()))
+            .thenReturn(Map.of("success", false, "error", "503 Service Unavailable"));
+
+        syncService.syncLink(link);
+
+        assertEquals("2024-01-01T00:00:00Z", link.getHighWaterMark());
+        assertEquals("503 Service Unavailable", link.getLastError());
+        verify(taskService, never()).createTask(any());
+        verify(linkRepository).save(link);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testManualSyncIsSkippedWhileTheSameLinkIsSyncing() throws Exception {
+        CountDownLatch inFirstSync = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(gitHubMCPService.listIssues(anyString(), anyString(), anyMap())).thenAnswer(invocation -> {
+            inFirstSync.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return page(false, issue(1, "open", "2024-01-02T00:00:00Z"));
+        });
+        when(taskRepository.findByProjectIdAndExternalIdIn(anyLong(), anyCollection())).thenReturn(List.of());
+
+        Thread scheduled = new Thread(() -> syncService.syncLink(link));
+        scheduled.start();
+        assertTrue(inFirstSync.await(5, TimeUnit.SECONDS));
+
+        // Mesmo vínculo, outra instância (como o controller carrega do banco)
+        GitHubRepoLink sameLink = new GitHubRepoLink(link.getProject(), "acme", "app", new User());
+        GitHubSyncService.SyncResult manual = syncService.syncLink(sameLink);
+        release.countDown();
+        scheduled.join(5000);
+
+        assertTrue(manual.isInProgress());
+        verify(gitHubMCPService, times(1)).listIssues(anyString(), anyString(), anyMap());
+        verify(taskService, times(1)).createTask(any(Task.class));
+
+        // Depois que a rodada termina, o vínculo volta a sincronizar
+        assertFalse(syncService.syncLink(sameLink).isInProgress());
+    }
+}
@@ -1,17 +1,26 @@
 package com.projectmanagement.service;
 
-import com.projectmanagement.controller.ProjectController;
-import com.projectmanagement.controller.TaskController;
+import com.projectmanagement.dto.ProjectSummary;
 import com.projectmanagement.model.Project;
 import com.projectmanagement.model.Task;
+import com.projectmanagement.model.User;
 import com.projectmanagement.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.context.Scope;
+import io.opentelemetry.sdk.testing.exporter.InMemorySpanExporter;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.mockito.Spy;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
 
@@ -22,17 +31,47 @@ import static org.mockito.Mockito.*;
 public class MCPClientTest {
 
     @Mock
-    private ProjectController projectController;
+    private ProjectService projectService;
 
     @Mock
-    private TaskController taskController;
+    private TaskService taskService;
+
+    @Mock
+    private UserService userService;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     @InjectMocks
     private MCPClient mcpClient;
 
+    private final InMemorySpanExporter spanExporter = InMemorySpanExporter.create();
+
+    private final SdkTracerProvider tracerProvider = SdkTracerProvider.builder()
+        .addSpanProcessor(SimpleSpanProcessor.create(spanExporter))
+        .build();
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(mcpClient, "tracer", tracerProvider.get("test"));
+    }
+
+    @Test
+    public void testExecuteToolCreatesChildSpan() {
+        Span parent = tracerProvider.get("test").spanBuilder("chat.turn").startSpan();
+        try (Scope ignored = parent.makeCurrent()) {
+            mcpClient.executeTool("invalid_tool", new HashMap<>());
+        } finally {
+            parent.end();
+        }
+
+        SpanData toolSpan = spanExporter.getFinishedSpanItems().stream()
+            .filter(span -> span.getName().startsWith("mcp.tool"))
+            .findFirst()
+            .orElseThrow();
+        assertEquals(parent.getSpanContext().getSpanId(), toolSpan.getParentSpanId());
+        assertEquals("unknown", toolSpan.getAttributes().get(AttributeKey.stringKey("mcp.tool.name")));
     }
 
     @Test
@@ -65,7 +104,8 @@ public class MCPClientTest {
         // Assert
         assertNotNull(schema);
         assertEquals("create_task", schema.get("name"));
-        assertEquals("Cria uma nova tarefa em um projeto específico", schema.get("description"));
+        assertTrue(schema.get("description").toString().startsWith("Cria uma nova tarefa em um projeto"));
+        assertSame(schema, mcpClient.getToolSchema("create_task"));
         
         @SuppressWarnings("unchecked")
         Map<String, Object> inputSchema = (Map<String, Object>) schema.get("input_schema");
@@ -86,13 +126,17 @@ public class MCPClientTest {
     public void testExecuteCreateTaskSuccess() {
         // Arrange
         UserPrincipal user = mock(UserPrincipal.class);
+        when(user.getId()).thenReturn(7L);
         Task mockTask = new Task();
         mockTask.setId(1L);
         mockTask.setTitle("Test Task");
-        
-        ResponseEntity<Task> mockResponse = ResponseEntity.ok(mockTask);
-        when(taskController.createTask(any(Task.class), any(Authentication.class)))
-            .thenReturn(mockResponse);
+
+        Project project = new Project();
+        project.setId(1L);
+        when(projectService.isProjectVisibleToUser(1L, 7L)).thenReturn(true);
+        when(projectService.getProjectById(1L)).thenReturn(Optional.of(project));
+        when(userService.getUserById(7L)).thenReturn(Optional.of(new User()));
+        when(taskService.createTask(any(Task.class))).thenReturn(mockTask);
 
         Map<String, Object> arguments = new HashMap<>();
         arguments.put("title", "Test Task");
@@ -110,24 +154,38 @@ public class MCPClientTest {
         assertEquals(1L, result.get("projectId"));
         assertTrue(result.get("message").toString().contains("Test Task"));
 
-        verify(taskController, times(1)).createTask(any(Task.class), any(Authentication.class));
+        verify(taskService, times(1)).createTask(argThat(task -> task.getProject() == project));
+        verify(projectService, never()).getProjectSummariesByUser(anyLong());
+    }
+
+    @Test
+    public void testExecuteCreateTaskUnknownProjectListsAvailable() {
+        UserPrincipal user = mock(UserPrincipal.class);
+        when(user.getId()).thenReturn(7L);
+        ProjectSummary summary = mock(ProjectSummary.class);
+        when(summary.getId()).thenReturn(2L);
+        when(summary.getName()).thenReturn("Outro");
+        when(projectService.isProjectVisibleToUser(99L, 7L)).thenReturn(false);
+        when(projectService.getProjectSummariesByUser(7L)).thenReturn(List.of(summary));
+
+        Map<String, Object> result = mcpClient.executeTool("create_task", Map.of("title", "x", "projectId", 99), user);
+
+        assertEquals(false, result.get("success"));
+        assertTrue(result.get("error").toString().contains("ID: 2 - Outro"));
+        verify(taskService, never()).createTask(any());
     }
 
     @Test
     public void testExecuteListProjects() {
         // Arrange
         UserPrincipal user = mock(UserPrincipal.class);
-        
-        List<Project> mockProjects = new ArrayList<>();
-        Project project1 = new Project();
-        project1.setId(1L);
-        project1.setName("Project 1");
-        project1.setDescription("Description 1");
-        mockProjects.add(project1);
-        
-        ResponseEntity<List<Project>> mockResponse = ResponseEntity.ok(mockProjects);
-        when(projectController.getAllProjects(any(Authentication.class)))
-            .thenReturn(mockResponse);
+        when(user.getId()).thenReturn(7L);
+
+        ProjectSummary project1 = mock(ProjectSummary.class);
+        when(project1.getId()).thenReturn(1L);
+        when(project1.getName()).thenReturn("Project 1");
+        when(project1.getDescription()).thenReturn("Description 1");
+        when(projectService.getProjectSummariesByUser(7L)).thenReturn(List.of(project1));
 
         // Act
         Map<String, Object> result = mcpClient.executeTool("list_projects", new HashMap<>(), user);
@@ -144,7 +202,7 @@ public class MCPClientTest {
         assertEquals(1L, projects.get(0).get("id"));
         assertEquals("Project 1", projects.get(0).get("name"));
 
-        verify(projectController, times(1)).getAllProjects(any(Authentication.class));
+        verify(projectService, times(1)).getProjectSummariesByUser(7L);
     }
 
     @Test
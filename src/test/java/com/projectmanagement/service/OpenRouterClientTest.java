@@ -0,0 +1,97 @@
+package com.projectmanagement.service;
+
+import com.projectmanagement.metrics.OutboundMetrics;
+import com.projectmanagement.resilience.ModelRouter;
+import com.projectmanagement.resilience.OutboundResilience;
+import com.projectmanagement.support.FaultInjectingServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OpenRouterClientTest {
+
+    private static final String OK = "{\"choices\":[{\"message\":{\"role\":\"assistant\",\"content\":\"ok\"}}]}";
+
+    private FaultInjectingServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private OpenRouterClient client;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        server = new FaultInjectingServer();
+        meterRegistry = new SimpleMeterRegistry();
+        client = new OpenRouterClient(WebClient.builder(), server.baseUrl());
+        ReflectionTestUtils.setField(client, "models", List.of("a", "b"));
+        ReflectionTestUtils.setField(client, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(client, "outboundMetrics", new OutboundMetrics(meterRegistry));
+        ReflectionTestUtils.setField(client, "resilience", new OutboundResilience(new MockEnvironment(), meterRegistry));
+        ReflectionTestUtils.setField(client, "modelRouter", new ModelRouter(meterRegistry, 0.9, Duration.ofMillis(100),
+            Duration.ofMillis(300), Duration.ofSeconds(60), Duration.ofHours(6)));
+        ReflectionTestUtils.setField(client, "meterRegistry", meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+
+    @Test
+    public void testSlowPrimaryCountsAsHedge() {
+        // Aquece a conexão para que a chamada de "a" chegue ao servidor antes do hedge
+        server.respondByDefault(200, 0, OK);
+        ReflectionTestUtils.setField(client, "hedgeEnabled", false);
+        assertNotNull(client.chatCompletionAsync(messages(), null, "a").block(Duration.ofSeconds(5)));
+        ReflectionTestUtils.setField(client, "hedgeEnabled", true);
+
+        server.enqueue(200, 3000, OK);
+        assertNotNull(client.chatCompletionAsync(messages(), null, "a").block(Duration.ofSeconds(2)));
+        assertEquals(1.0, meterRegistry.counter("llm.model.hedges").count());
+    }
+
+    @Test
+    public void testEarlyPrimaryFailureIsFailoverNotHedge() {
+        server.enqueue(400, 0, "{\"error\":{\"message\":\"bad request\"}}").respondByDefault(200, 0, OK);
+
+        assertNotNull(client.chatCompletionAsync(messages(), null, null).block(Duration.ofSeconds(2)));
+        assertEquals(0.0, meterRegistry.counter("llm.model.hedges").count());
+    }
+
+    @Test
+    public void testToolsUnsupportedNeedsStatusAndProviderMessage() {
+        assertTrue(OpenRouterClient.toolsUnsupported(wrapped(404,
+            "{\"error\":{\"message\":\"No endpoints found that support tool use.\",\"code\":404}}")));
+        assertTrue(OpenRouterClient.toolsUnsupported(wrapped(400,
+            "{\"error\":{\"message\":\"This model does not support tools\"}}")));
+
+        // Menciona "tool", mas não é recusa do parâmetro tools
+        assertFalse(OpenRouterClient.toolsUnsupported(wrapped(400,
+            "{\"error\":{\"message\":\"Invalid tool_call arguments for tool create_task\"}}")));
+        // Mensagem certa, status errado
+        assertFalse(OpenRouterClient.toolsUnsupported(wrapped(500,
+            "{\"error\":{\"message\":\"No endpoints found that support tool use.\"}}")));
+        assertFalse(OpenRouterClient.toolsUnsupported(new IllegalStateException("tool use is not supported")));
+    }
+
+    private static Throwable wrapped(int status, String body) {
+        WebClientResponseException cause = WebClientResponseException.create(status, "erro", new HttpHeaders(),
+            body.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        return new IllegalStateException(cause.getMessage() + ": " + body, cause);
+    }
+
+    private static List<Map<String, Object>> messages() {
+        return List.of(Map.of("role", "user", "content", "oi"));
+    }
+}
@@ -0,0 +1,144 @@
+package com.projectmanagement.support;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Servidor HTTP local para testes de integração com falhas programadas.
+ * Respostas por trecho da URI (ex.: "page=2") têm prioridade; depois as enfileiradas, consumidas
+ * em ordem; sem fila usa a resposta padrão.
+ */
+public class FaultInjectingServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final Queue<StubResponse> scripted = new ConcurrentLinkedQueue<>();
+    private final Map<String, StubResponse> routes = new ConcurrentHashMap<>();
+    private final Queue<String> requestUris = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private volatile StubResponse defaultResponse = new StubResponse(200, 0, "{}", Collections.emptyMap());
+    private volatile Headers lastRequestHeaders;
+
+    public FaultInjectingServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public FaultInjectingServer enqueue(int status, long delayMillis, String body) {
+        return enqueue(status, delayMillis, body, Collections.emptyMap());
+    }
+
+    public FaultInjectingServer enqueue(int status, long delayMillis, String body, Map<String, String> headers) {
+        scripted.add(new StubResponse(status, delayMillis, body, headers));
+        return this;
+    }
+
+    /**
+     * Responde sempre assim às requisições cuja URI (caminho + query) contém o trecho
+     */
+    public FaultInjectingServer respondTo(String uriFragment, int status, long delayMillis, String body,
+                                          Map<String, String> headers) {
+        routes.put(uriFragment, new StubResponse(status, delayMillis, body, headers));
+        return this;
+    }
+
+    public FaultInjectingServer respondByDefault(int status, long delayMillis, String body) {
+        defaultResponse = new StubResponse(status, delayMillis, body, Collections.emptyMap());
+        return this;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    /**
+     * URIs recebidas (caminho + query), na ordem de chegada
+     */
+    public List<String> requestUris() {
+        return new ArrayList<>(requestUris);
+    }
+
+    /**
+     * Cabeçalho da última requisição recebida (ex.: If-None-Match)
+     */
+    public String lastRequestHeader(String name) {
+        Headers headers = lastRequestHeaders;
+        return headers == null ? null : headers.getFirst(name);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        lastRequestHeaders = exchange.getRequestHeaders();
+        String uri = exchange.getRequestURI().toString();
+        requestUris.add(uri);
+        StubResponse response = routes.entrySet().stream()
+            .filter(route -> uri.contains(route.getKey()))
+            .map(Map.Entry::getValue)
+            .findFirst()
+            .orElseGet(scripted::poll);
+        if (response == null) {
+            response = defaultResponse;
+        }
+        try {
+            if (response.delayMillis > 0) {
+                Thread.sleep(response.delayMillis);
+            }
+            byte[] bytes = response.body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            response.headers.forEach(exchange.getResponseHeaders()::set);
+            // 304 e 204 não têm corpo
+            boolean noBody = response.status == 304 || response.status == 204;
+            exchange.sendResponseHeaders(response.status, noBody ? -1 : bytes.length);
+            if (!noBody) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Cliente cancelou (ex.: hedge vencedor); nada a fazer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static class StubResponse {
+        final int status;
+        final long delayMillis;
+        final String body;
+        final Map<String, String> headers;
+
+        StubResponse(int status, long delayMillis, String body, Map<String, String> headers) {
+            this.status = status;
+            this.delayMillis = delayMillis;
+            this.body = body;
+            this.headers = headers;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.projectmanagement.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Servidor local de gravação/replay das integrações externas, para rodar o chat completo sem rede.
+ *
+ * Cada integração fica sob um prefixo: /anthropic, /openrouter, /github e /zep (ver {@link #baseUrl(String)}).
+ * - RECORD: repassa ao endereço real e grava status, cabeçalhos relevantes, corpo e latência em
+ *   &lt;dir&gt;/&lt;integração&gt;/*.json; cabeçalhos da requisição (credenciais) não são gravados
+ * - REPLAY: responde só do disco. Procura a chave exata (método + caminho + corpo); sem ela usa a
+ *   gravação do mesmo método e caminho com corpo de tamanho mais próximo (no loop de chat isso
+ *   separa a chamada inicial da que já leva resultados de ferramentas); sem nenhuma, 404
+ *
+ * Latência no replay: a gravada vezes latencyScale, ou fixedLatencyMs, mais até jitterMs aleatórios.
+ * Falhas: errorRate das requisições recebem errorStatus (ex.: 529 sobrecarga da Anthropic).
+ */
+public class RecordReplayServer implements AutoCloseable {
+
+    public enum Mode { RECORD, REPLAY }
+
+    private static final Set<String> RECORDED_HEADERS = Set.of(
+        "content-type", "etag", "link", "retry-after", "x-ratelimit-limit", "x-ratelimit-remaining",
+        "x-ratelimit-reset", "x-ratelimit-used");
+    // Cabeçalhos controlados pelo próprio HttpClient (ou que pediriam corpo comprimido)
+    private static final Set<String> NOT_FORWARDED = Set.of(
+        "host", "content-length", "connection", "upgrade", "expect", "http2-settings", "accept-encoding",
+        "transfer-encoding", "keep-alive", "te");
+
+    private final Options options;
+    private final HttpServer server;
+    private final HttpClient upstreamClient;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Recording> byKey = new ConcurrentHashMap<>();
+    private final Map<String, List<Recording>> byEndpoint = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicInteger injectedErrors = new AtomicInteger();
+
+    public RecordReplayServer(Options options) throws IOException {
+        this.options = options;
+        this.upstreamClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+        load();
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", options.port), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Endereço que substitui o da integração (ex.: anthropic.api.base-url)
+     */
+    public String baseUrl(String upstream) {
+        return baseUrl() + "/" + upstream;
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    public int injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    public int recordings() {
+        return byKey.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            String path = exchange.getRequestURI().getRawPath();
+            String query = exchange.getRequestURI().getRawQuery();
+            int slash = path.indexOf('/', 1);
+            String upstream = slash > 0 ? path.substring(1, slash) : path.substring(1);
+            String upstreamPath = slash > 0 ? path.substring(slash) : "/";
+            String pathAndQuery = query != null ? upstreamPath + "?" + query : upstreamPath;
+            String method = exchange.getRequestMethod();
+            byte[] requestBody = exchange.getRequestBody().readAllBytes();
+
+            if (!options.upstreams.containsKey(upstream)) {
+                send(exchange, 404, Map.of(), error("integração desconhecida: " + upstream), 0);
+                return;
+            }
+            if (options.errorRate > 0 && ThreadLocalRandom.current().nextDouble() < options.errorRate) {
+                injectedErrors.incrementAndGet();
+                send(exchange, options.errorStatus, Map.of(), error("erro injetado pelo stub"), replayDelay(0));
+                return;
+            }
+
+            if (options.mode == Mode.RECORD) {
+                Recording recording = forward(exchange, upstream, method, pathAndQuery, requestBody);
+                store(recording);
+                send(exchange, recording.status, recording.headers, recording.body, 0);
+            } else {
+                Recording recording = find(upstream, method, pathAndQuery, new String(requestBody, StandardCharsets.UTF_8));
+                if (recording == null) {
+                    send(exchange, 404, Map.of(), error("sem gravação para " + method + " " + pathAndQuery), 0);
+                    return;
+                }
+                send(exchange, recording.status, recording.headers, recording.body, replayDelay(recording.latencyMs));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Cliente cancelou (ex.: hedge vencedor) ou upstream inacessível na gravação
+            try {
+                send(exchange, 502, Map.of(), error(e.getMessage()), 0);
+            } catch (IOException | InterruptedException ignored) {
+                // conexão já encerrada
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Recording forward(HttpExchange exchange, String upstream, String method, String pathAndQuery,
+                              byte[] requestBody) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.upstreams.get(upstream) + pathAndQuery))
+            .timeout(Duration.ofSeconds(120))
+            .method(method, requestBody.length == 0
+                ? HttpRequest.BodyPublishers.noBody()
+                : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        exchange.getRequestHeaders().forEach((name, values) -> {
+            if (!NOT_FORWARDED.contains(name.toLowerCase(Locale.ROOT))) {
+                values.forEach(value -> request.header(name, value));
+            }
+        });
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = upstreamClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        Recording recording = new Recording();
+        recording.upstream = upstream;
+        recording.method = method;
+        recording.path = pathAndQuery;
+        recording.requestBody = new String(requestBody, StandardCharsets.UTF_8);
+        recording.status = response.statusCode();
+        recording.latencyMs = (System.nanoTime() - start) / 1_000_000;
+        recording.body = response.body();
+        recording.headers = new LinkedHashMap<>();
+        response.headers().map().forEach((name, values) -> {
+            if (RECORDED_HEADERS.contains(name.toLowerCase(Locale.ROOT)) && !values.isEmpty()) {
+                recording.headers.put(name, values.get(0));
+            }
+        });
+        return recording;
+    }
+
+    private Recording find(String upstream, String method, String pathAndQuery, String requestBody) {
+        Recording exact = byKey.get(key(upstream, method, pathAndQuery, requestBody));
+        if (exact != null) {
+            return exact;
+        }
+        List<Recording> candidates = byEndpoint.get(endpoint(upstream, method, pathAndQuery));
+        if (candidates == null) {
+            return null;
+        }
+        return candidates.stream()
+            .min(Comparator.comparingInt(candidate -> Math.abs(candidate.requestBody.length() - requestBody.length())))
+            .orElse(null);
+    }
+
+    private synchronized void store(Recording recording) throws IOException {
+        String key = key(recording.upstream, recording.method, recording.path, recording.requestBody);
+        Path directory = options.directory.resolve(recording.upstream);
+        Files.createDirectories(directory);
+        String slug = (recording.method + recording.path.split("\\?")[0]).replaceAll("[^A-Za-z0-9]+", "_");
+        objectMapper.writerWithDefaultPrettyPrinter()
+            .writeValue(directory.resolve(slug + "-" + key.substring(0, 12) + ".json").toFile(), recording);
+        index(recording);
+    }
+
+    private void load() throws IOException {
+        if (!Files.isDirectory(options.directory)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(options.directory)) {
+            for (Path file : (Iterable<Path>) files.filter(path -> path.toString().endsWith(".json")).sorted()::iterator) {
+                index(objectMapper.readValue(file.toFile(), Recording.class));
+            }
+        }
+    }
+
+    private void index(Recording recording) {
+        if (recording.requestBody == null) {
+            recording.requestBody = "";
+        }
+        Recording previous = byKey.put(key(recording.upstream, recording.method, recording.path, recording.requestBody), recording);
+        List<Recording> endpoint = byEndpoint.computeIfAbsent(
+            endpoint(recording.upstream, recording.method, recording.path), ignored -> new CopyOnWriteArrayList<>());
+        if (previous != null) {
+            endpoint.remove(previous);
+        }
+        endpoint.add(recording);
+    }
+
+    private long replayDelay(long recordedMs) {
+        long delay = options.fixedLatencyMs >= 0 ? options.fixedLatencyMs : Math.round(recordedMs * options.latencyScale);
+        return delay + (options.jitterMs > 0 ? ThreadLocalRandom.current().nextLong(options.jitterMs + 1) : 0);
+    }
+
+    private static void send(HttpExchange exchange, int status, Map<String, String> headers, String body, long delayMillis)
+        throws IOException, InterruptedException {
+        if (delayMillis > 0) {
+            Thread.sleep(delayMillis);
+        }
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        headers.forEach(exchange.getResponseHeaders()::set);
+        boolean noBody = status == 304 || status == 204 || bytes.length == 0;
+        exchange.sendResponseHeaders(status, noBody ? -1 : bytes.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private String error(String message) {
+        try {
+            return objectMapper.writeValueAsString(Map.of("type", "error", "error", Map.of("type", "stub_error", "message", message)));
+        } catch (IOException e) {
+            return "{}";
+        }
+    }
+
+    private static String endpoint(String upstream, String method, String pathAndQuery) {
+        return upstream + " " + method + " " + pathAndQuery.split("\\?")[0];
+    }
+
+    private static String key(String upstream, String method, String pathAndQuery, String requestBody) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest((upstream + " " + method + " " + pathAndQuery + "\n" + requestBody)
+                .getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * Uma interação gravada (arquivo JSON)
+     */
+    public static class Recording {
+        public String upstream;
+        public String method;
+        public String path;
+        public String requestBody;
+        public int status;
+        public long latencyMs;
+        public Map<String, String> headers = new LinkedHashMap<>();
+        public String body;
+    }
+
+    public static class Options {
+        Mode mode = Mode.REPLAY;
+        Path directory = Paths.get("src", "test", "recordings");
+        Map<String, String> upstreams = new LinkedHashMap<>(Map.of(
+            "anthropic", "https://api.anthropic.com",
+            "openrouter", "https://openrouter.ai/api/v1",
+            "github", "https://api.github.com",
+            "zep", "https://api.getzep.com"));
+        int port;
+        double latencyScale = 1.0;
+        long fixedLatencyMs = -1;
+        long jitterMs;
+        double errorRate;
+        int errorStatus = 503;
+
+        /**
+         * stub.mode, stub.dir, stub.port, stub.latency-scale, stub.fixed-latency-ms, stub.jitter-ms,
+         * stub.error-rate e stub.error-status (propriedade de sistema ou variável STUB_MODE, STUB_DIR...)
+         */
+        public static Options fromEnvironment() {
+            Options options = new Options();
+            options.mode = Mode.valueOf(setting("stub.mode", "replay").toUpperCase(Locale.ROOT));
+            options.directory = Paths.get(setting("stub.dir", options.directory.toString()));
+            options.port = Integer.parseInt(setting("stub.port", "0"));
+            options.latencyScale = Double.parseDouble(setting("stub.latency-scale", "1.0"));
+            options.fixedLatencyMs = Long.parseLong(setting("stub.fixed-latency-ms", "-1"));
+            options.jitterMs = Long.parseLong(setting("stub.jitter-ms", "0"));
+            options.errorRate = Double.parseDouble(setting("stub.error-rate", "0"));
+            options.errorStatus = Integer.parseInt(setting("stub.error-status", "503"));
+            return options;
+        }
+
+        private static String setting(String property, String defaultValue) {
+            String value = System.getProperty(property);
+            if (value == null) {
+                value = System.getenv(property.toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_'));
+            }
+            return value != null && !value.isEmpty() ? value : defaultValue;
+        }
+
+        public Options mode(Mode mode) {
+            this.mode = mode;
+            return this;
+        }
+
+        public Options directory(File directory) {
+            this.directory = directory.toPath();
+            return this;
+        }
+
+        public Options upstream(String name, String url) {
+            this.upstreams.put(name, url);
+            return this;
+        }
+
+        public Options fixedLatencyMs(long fixedLatencyMs) {
+            this.fixedLatencyMs = fixedLatencyMs;
+            return this;
+        }
+
+        public Options errorRate(double errorRate, int errorStatus) {
+            this.errorRate = errorRate;
+            this.errorStatus = errorStatus;
+            return this;
+        }
+
+        public Map<String, String> upstreams() {
+            return upstreams;
+        }
+    }
+}
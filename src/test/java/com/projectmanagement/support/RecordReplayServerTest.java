@@ -0,0 +1,67 @@
+package com.projectmanagement.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecordReplayServerTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @TempDir
+    File recordings;
+
+    @Test
+    public void testRecordedInteractionsAreReplayedWithoutUpstream() throws Exception {
+        try (FaultInjectingServer upstream = new FaultInjectingServer();
+             RecordReplayServer recorder = new RecordReplayServer(new RecordReplayServer.Options()
+                 .mode(RecordReplayServer.Mode.RECORD)
+                 .directory(recordings)
+                 .upstream("anthropic", upstream.baseUrl()))) {
+            upstream.enqueue(200, 0, "{\"content\":\"primeira\"}", Map.of("ETag", "\"v1\""));
+            upstream.enqueue(200, 0, "{\"content\":\"com ferramentas\"}");
+            assertEquals("{\"content\":\"primeira\"}", post(recorder.baseUrl("anthropic") + "/v1/messages", "{\"m\":[1]}").body());
+            post(recorder.baseUrl("anthropic") + "/v1/messages", "{\"m\":[1,2,3,4,5,6,7,8]}");
+            assertEquals(2, recorder.recordings());
+        }
+
+        try (RecordReplayServer replay = new RecordReplayServer(new RecordReplayServer.Options()
+                 .directory(recordings)
+                 .upstream("anthropic", "http://127.0.0.1:1")
+                 .fixedLatencyMs(0))) {
+            HttpResponse<String> exact = post(replay.baseUrl("anthropic") + "/v1/messages", "{\"m\":[1]}");
+            assertEquals("{\"content\":\"primeira\"}", exact.body());
+            assertEquals("\"v1\"", exact.headers().firstValue("ETag").orElse(null));
+            // Corpo diferente: vale a gravação do mesmo endpoint com tamanho mais próximo
+            assertEquals("{\"content\":\"com ferramentas\"}",
+                post(replay.baseUrl("anthropic") + "/v1/messages", "{\"m\":[1,2,3,4,5,6,7,9]}").body());
+            assertEquals(404, post(replay.baseUrl("anthropic") + "/v1/complete", "{}").statusCode());
+        }
+    }
+
+    @Test
+    public void testErrorsAreInjected() throws Exception {
+        try (RecordReplayServer replay = new RecordReplayServer(new RecordReplayServer.Options()
+                 .directory(recordings)
+                 .errorRate(1.0, 529))) {
+            assertEquals(529, post(replay.baseUrl("anthropic") + "/v1/messages", "{}").statusCode());
+            assertEquals(1, replay.injectedErrors());
+        }
+    }
+
+    private HttpResponse<String> post(String url, String body) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+            .header("Content-Type", "application/json")
+            .header("x-api-key", "segredo")
+            .POST(HttpRequest.BodyPublishers.ofString(body))
+            .build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
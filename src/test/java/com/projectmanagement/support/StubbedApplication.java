@@ -0,0 +1,44 @@
+package com.projectmanagement.support;
+
+import com.projectmanagement.ProjectManagementApplication;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sobe a aplicação com Anthropic, OpenRouter, GitHub e Zep apontando para um {@link RecordReplayServer} local.
+ *
+ * Uso (perfil Maven stub):
+ * - replay, sem rede: mvn -Pstub spring-boot:run
+ * - gravação (chaves de API reais no ambiente): STUB_MODE=record mvn -Pstub spring-boot:run
+ * - latência e falhas: STUB_LATENCY_SCALE, STUB_FIXED_LATENCY_MS, STUB_JITTER_MS, STUB_ERROR_RATE, STUB_ERROR_STATUS
+ *
+ * Gravações ficam em src/test/recordings (STUB_DIR).
+ */
+public class StubbedApplication {
+
+    public static void main(String[] args) throws IOException {
+        RecordReplayServer stub = new RecordReplayServer(RecordReplayServer.Options.fromEnvironment());
+        Runtime.getRuntime().addShutdownHook(new Thread(stub::close));
+        System.out.println("Stub de integrações em " + stub.baseUrl() + " (" + stub.recordings() + " gravações)");
+        run(stub, args);
+    }
+
+    /**
+     * Sobe a aplicação com as integrações no stub informado (também usado pelo teste de carga)
+     */
+    public static ConfigurableApplicationContext run(RecordReplayServer stub, String... args) {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        arguments.add("--anthropic.api.base-url=" + stub.baseUrl("anthropic"));
+        arguments.add("--openrouter.api.base-url=" + stub.baseUrl("openrouter"));
+        arguments.add("--github.api.base-url=" + stub.baseUrl("github"));
+        arguments.add("--zep.api.base-url=" + stub.baseUrl("zep"));
+        // O stub é HTTP/1.1 sem TLS
+        arguments.add("--http.client.http2=false");
+        return SpringApplication.run(ProjectManagementApplication.class, arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,96 @@
+package com.projectmanagement.usage;
+
+import com.projectmanagement.model.UsageRollup;
+import com.projectmanagement.repository.UsageRollupRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class UsageAccountingTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2024-05-10T12:00:00Z"), ZoneOffset.UTC);
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 10);
+
+    private final UsageRollupRepository repository = mock(UsageRollupRepository.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UsageAccounting accounting(long quota, int turnsPerMinute) {
+        return new UsageAccounting(repository, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+            meterRegistry, quota, turnsPerMinute, CLOCK);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testUsageIsRolledUpAndOnlyDeltasAreFlushed() {
+        UsageRollup stored = new UsageRollup(1L, TODAY);
+        stored.setInputTokens(1000);
+        when(repository.findByUserIdAndUsageDate(1L, TODAY)).thenReturn(Optional.of(stored));
+        when(repository.findByUsageDateAndUserIdIn(eq(TODAY), anyCollection())).thenReturn(List.of(stored));
+        UsageAccounting accounting = accounting(0, 0);
+
+        accounting.record(1L, "anthropic", Map.of("input_tokens", 100, "output_tokens", 20, "cache_read_input_tokens", 500));
+        accounting.record(1L, "openrouter", Map.of("prompt_tokens", 50, "completion_tokens", 5));
+        assertEquals(1675, accounting.usedToday(1L));
+
+        accounting.flush();
+        ArgumentCaptor<List<UsageRollup>> batch = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(batch.capture());
+        UsageRollup saved = batch.getValue().get(0);
+        assertEquals(1150, saved.getInputTokens());
+        assertEquals(25, saved.getOutputTokens());
+        assertEquals(500, saved.getCacheReadTokens());
+        assertEquals(2, saved.getCalls());
+
+        // Nada novo: nenhum lote; o total do dia continua o mesmo
+        accounting.flush();
+        verify(repository, times(1)).saveAll(anyList());
+        assertEquals(1675, accounting.usedToday(1L));
+    }
+
+    @Test
+    public void testQuotaAndTurnRateAreEnforcedBeforeTurn() {
+        when(repository.findByUserIdAndUsageDate(anyLong(), eq(TODAY))).thenReturn(Optional.empty());
+        UsageAccounting accounting = accounting(1000, 2);
+
+        accounting.checkTurnAllowed(1L);
+        accounting.checkTurnAllowed(1L);
+        UsageLimitExceededException limited = assertThrows(UsageLimitExceededException.class,
+            () -> accounting.checkTurnAllowed(1L));
+        assertEquals("rate_limit", limited.getReason());
+        assertEquals(30, limited.getRetryAfter().toSeconds());
+
+        accounting.record(2L, "anthropic", Map.of("input_tokens", 900, "output_tokens", 100));
+        UsageLimitExceededException quota = assertThrows(UsageLimitExceededException.class,
+            () -> accounting.checkTurnAllowed(2L));
+        assertEquals("daily_quota", quota.getReason());
+        assertEquals(12 * 3600, quota.getRetryAfter().toSeconds());
+
+        // Turno devolvido (ex.: fila cheia) libera a próxima tentativa; nunca passa da capacidade
+        accounting.refundTurn(1L);
+        accounting.checkTurnAllowed(1L);
+        assertThrows(UsageLimitExceededException.class, () -> accounting.checkTurnAllowed(1L));
+        for (int i = 0; i < 5; i++) {
+            accounting.refundTurn(1L);
+        }
+        accounting.checkTurnAllowed(1L);
+        accounting.checkTurnAllowed(1L);
+        assertThrows(UsageLimitExceededException.class, () -> accounting.checkTurnAllowed(1L));
+        // Usuário sem turnos consumidos: nada a devolver
+        accounting.refundTurn(3L);
+        assertEquals(1.0, meterRegistry.get("ai.usage.rejections").tag("reason", "daily_quota").counter().count());
+    }
+}